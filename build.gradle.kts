@@ -26,10 +26,83 @@ java {
 tasks.withType<JavaCompile> {
     options.encoding = "UTF-8"
     options.compilerArgs.addAll(listOf("-Xlint:all", "-Werror"))
+    // On JDK 9 or later, compiles against the API of the Java version that is targeted, rather than
+    // that of the running JDK, which -Xlint would otherwise warn about.
+    if (JavaVersion.current().isJava9Compatible) {
+        options.compilerArgs.addAll(listOf("--release", if (name == "compileJfrJava") "11" else "8"))
+    }
 }
 
+// The performance baseline, which is versioned along with the code.
+val performanceBaseline = file("$rootDir/config/performance-baseline.json")
+
 tasks.withType<Test> {
     useJUnitPlatform()
+    // Writes the metrics of every dynamic test to a JSON file per test class.
+    val metricsDir = file("$buildDir/test-metrics/$name")
+    outputs.dir(metricsDir)
+    systemProperty("jupiter.collection.testers.metrics.dir", metricsDir)
+    // Records the tests with Java Flight Recorder to build/jfr/<task>.jfr, including the contracts'
+    // own events, with `-PjfrRecording`, or `-PjfrRecording=<settings>` for settings other than
+    // "profile". Needs a JVM that has Java Flight Recorder, such as JDK 11 or later.
+    val jfrSettings = project.findProperty("jfrRecording") as String?
+    if (jfrSettings != null) {
+        val recording = file("$buildDir/jfr/$name.jfr")
+        outputs.file(recording)
+        doFirst { recording.parentFile.mkdirs() }
+        jvmArgs("-XX:StartFlightRecording=settings=${jfrSettings.ifBlank { "profile" }}," +
+                "filename=$recording,dumponexit=true")
+    }
+}
+
+// Compares the contracts' performance measurements against the baseline, if there is one. Only the
+// performance tasks do this, so that the regular test task doesn't fail on a loaded or slower
+// machine.
+fun Test.usePerformanceBaseline() {
+    inputs.files(performanceBaseline).withPropertyName("performanceBaseline")
+    systemProperty("jupiter.collection.testers.baseline.file", performanceBaseline)
+    // Passes the baseline's tolerances on to the tests, for example
+    // `./gradlew performanceTest -Pjupiter.collection.testers.baseline.tolerance.nanos=0.25`.
+    project.properties
+        .filterKeys { it.startsWith("jupiter.collection.testers.baseline.tolerance.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+}
+
+// Tests tagged "performance" measure wall-clock time or the heap, so they're prone to fail on a
+// loaded or different machine. They're left out of the test task, and run by the performanceTest
+// task instead.
+tasks.named<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("performance")
+    }
+}
+
+tasks.register<Test>("performanceTest") {
+    description = "Runs the tests that measure wall-clock time or the heap."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("performance")
+    }
+    usePerformanceBaseline()
+    shouldRunAfter("test")
+}
+
+// Runs the performance tests, and records their measurements in the baseline file as the ones that
+// later performanceTest runs must not regress from. Only the measurements of the tests that run are
+// replaced, so a subset can be accepted with, for example, `--tests "*ArrayListAddLatencyTests"`.
+tasks.register<Test>("acceptPerformanceBaseline") {
+    description = "Runs the performance tests, and accepts their measurements as the new baseline."
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("performance")
+    }
+    usePerformanceBaseline()
+    systemProperty("jupiter.collection.testers.baseline.accept", "true")
+    outputs.upToDateWhen { false }
 }
 
 repositories {
@@ -50,6 +123,95 @@ dependencies {
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:$junit5Version")
 }
 
+// JMH (https://openjdk.java.net/projects/code-tools/jmh/)
+val jmhVersion: String by project
+
+// Benchmark base classes (src/benchmarks/java), which users of this library can extend to benchmark
+// their own collections. They're published as the optional "benchmarks" feature, in a jar of their
+// own, so that the main jar doesn't depend on JMH.
+val benchmarks by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+    runtimeClasspath += sourceSets["main"].output
+}
+
+java {
+    registerFeature("benchmarks") {
+        usingSourceSet(benchmarks)
+    }
+}
+
+configurations["benchmarksImplementation"].extendsFrom(configurations["implementation"])
+
+dependencies {
+    "benchmarksApi"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    // For the tests of the benchmarks' own logic, such as StreamCrossover.
+    testImplementation(benchmarks.output)
+}
+
+// This project's own benchmarks (src/jmh/java), which aren't published.
+val jmh by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output + benchmarks.output
+    runtimeClasspath += sourceSets["main"].output + benchmarks.output
+}
+
+configurations["jmhImplementation"].extendsFrom(configurations["implementation"])
+
+dependencies {
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+// Runs the benchmarks in src/jmh/java. JMH options can be passed with, for example,
+// `./gradlew jmh -PjmhArgs="ArrayListAddBenchmark -p size=10,1000"`.
+tasks.register<JavaExec>("jmh") {
+    description = "Runs the JMH benchmarks."
+    group = "benchmark"
+    classpath = jmh.runtimeClasspath
+    main = "org.openjdk.jmh.Main"
+    args = (project.findProperty("jmhArgs") as String?)
+        ?.split(" ")
+        ?.filter { it.isNotBlank() }
+        ?: emptyList()
+}
+
+// Runs the stream reduction benchmarks, and reports the size from which parallelStream() is faster
+// than stream() at each parallelism level of the common pool. Takes the same -PjmhArgs as the jmh
+// task, optionally preceded by the levels, for example
+// `./gradlew jmhCrossover -PjmhArgs="--parallelism=2,4,8 StreamReductionBenchmark"`.
+tasks.register<JavaExec>("jmhCrossover") {
+    description = "Reports where parallel streams start to pay off, using the JMH benchmarks."
+    group = "benchmark"
+    classpath = jmh.runtimeClasspath
+    main = "com.github.jbduncan.collect.testing.StreamCrossoverReport"
+    args = (project.findProperty("jmhArgs") as String?)
+        ?.split(" ")
+        ?.filter { it.isNotBlank() }
+        ?: listOf("StreamReductionBenchmark")
+}
+
+// Java Flight Recorder events (src/jfr/java), which are only built on JDK 11 or later, as Java 8 has
+// no jdk.jfr API. They're bundled in the jar and put on the test runtime classpath, and are only
+// loaded on a JVM that has Java Flight Recorder.
+val jfr by sourceSets.creating {
+    compileClasspath += sourceSets["main"].output
+}
+
+configurations["jfrImplementation"].extendsFrom(configurations["implementation"])
+
+tasks.named<JavaCompile>("compileJfrJava") {
+    sourceCompatibility = "11"
+    targetCompatibility = "11"
+    enabled = JavaVersion.current().isJava11Compatible
+}
+
+tasks.named<Jar>("jar") {
+    from(jfr.output)
+}
+
+dependencies {
+    testRuntimeOnly(jfr.output)
+}
+
 // PMD
 val pmdVersion: String by project
 
@@ -133,6 +295,12 @@ val compileTestJava by tasks.getting(JavaCompile::class) {
                     "-Xep:ClassCanBeStatic:OFF")))
 }
 
+val compileJmhJava by tasks.getting(JavaCompile::class) {
+    options.compilerArgs.add(
+            // JMH's annotation processor generates code that we have no control over
+            "-XepExcludedPaths:.*/build/generated/.*")
+}
+
 // Refaster (buildSrc/, https://errorprone.info/docs/refaster)
 apply {
     plugin("com.github.jbduncan.gradle.refaster")
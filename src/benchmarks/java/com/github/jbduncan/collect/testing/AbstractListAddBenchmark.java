@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A JMH benchmark of each {@link ListOperation} against the lists made by {@link #generator()}.
+ *
+ * <p>To benchmark a {@code List} implementation, extend this class with a concrete, public class
+ * that returns the same {@link TestListGenerator} that its {@link ListContract} uses. Sizes can be
+ * overridden from the command line with JMH's {@code -p size=...} option.
+ *
+ * <p>This class is published in the {@code benchmarks} feature of this library, in its own jar, so
+ * that it can be extended outside of this project. It only depends on this library's public API and
+ * on JMH.
+ *
+ * <p>To keep the list at a steady size across invocations, each invocation removes the element it
+ * just added, so the reported time includes the cost of one {@code List.remove(int)} at the same
+ * position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractListAddBenchmark<E> {
+  @Param({"10", "1000", "100000"})
+  public int size;
+
+  @Param({"ADD", "ADD_AT_START", "ADD_AT_MIDDLE", "ADD_AT_END"})
+  public ListOperation operation;
+
+  private List<E> list;
+  private E newElement;
+
+  /** Returns the generator of the lists to benchmark. */
+  protected abstract TestListGenerator<E> generator();
+
+  @Setup(Level.Trial)
+  public void createList() {
+    TestListGenerator<E> generator = generator();
+    SampleElements<E> samples = generator.samples();
+    List<E> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(samples.fixtureElement(i));
+    }
+    list = generator.create(elements);
+    newElement = samples.e3();
+  }
+
+  @Benchmark
+  public E addThenRemove() {
+    int index = operation.index(list.size());
+    operation.applyTo(list, newElement);
+    return list.remove(index);
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A JMH benchmark of a simple reduction, the sum of the elements' hash codes, over the collections
+ * made by {@link #generator()}, with a sequential {@code stream()}, a {@code parallelStream()} and
+ * {@code forEach}.
+ *
+ * <p>To benchmark a {@code Collection} implementation, extend this class with a concrete, public
+ * class that returns the same {@link TestCollectionGenerator} that its {@link CollectionContract}
+ * uses. Sizes can be overridden from the command line with JMH's {@code -p size=...} option. {@link
+ * StreamCrossoverReport} runs these benchmarks and reports the size from which the parallel stream
+ * is faster.
+ *
+ * <p>The parallel stream runs in the common {@code ForkJoinPool}, as it would in an application, so
+ * that the benchmark doesn't also time handing the stream over to another pool. The common pool's
+ * parallelism can only be set when the JVM starts, so {@link StreamCrossoverReport} runs it in new
+ * forks for each parallelism level.
+ *
+ * <p>This class is published in the {@code benchmarks} feature of this library, in its own jar, so
+ * that it can be extended outside of this project. It only depends on this library's public API and
+ * on JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class AbstractStreamReductionBenchmark<E> {
+  @Param({"100", "10000", "1000000"})
+  public int size;
+
+  private Collection<E> collection;
+
+  /** Returns the generator of the collections to benchmark. */
+  protected abstract TestCollectionGenerator<E> generator();
+
+  @Setup(Level.Trial)
+  public void createCollection() {
+    TestCollectionGenerator<E> generator = generator();
+    SampleElements<E> samples = generator.samples();
+    List<E> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(samples.fixtureElement(i));
+    }
+    collection = generator.create(elements);
+  }
+
+  @Benchmark
+  public long sequentialStream() {
+    return sumOfHashCodes(collection.stream());
+  }
+
+  @Benchmark
+  public long parallelStream() {
+    return sumOfHashCodes(collection.parallelStream());
+  }
+
+  @Benchmark
+  public long forEach() {
+    long[] sum = new long[1];
+    collection.forEach(element -> sum[0] += element.hashCode());
+    return sum[0];
+  }
+
+  private static long sumOfHashCodes(Stream<?> stream) {
+    return stream.mapToLong(Object::hashCode).sum();
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/**
+ * The crossover size of a parallel stream: the smallest measured size from which it's faster than a
+ * sequential stream at every larger measured size too, and an estimate of where between the
+ * measured sizes it lies.
+ */
+final class StreamCrossover {
+  private static final int NONE = -1;
+
+  private final int measuredSize;
+  private final int lastSlowerSize;
+  private final long estimatedSize;
+
+  private StreamCrossover(int measuredSize, int lastSlowerSize, long estimatedSize) {
+    this.measuredSize = measuredSize;
+    this.lastSlowerSize = lastSlowerSize;
+    this.estimatedSize = estimatedSize;
+  }
+
+  /**
+   * Returns the crossover size of the given times, or an empty {@code Optional} if the parallel
+   * stream isn't faster at the largest size that both were measured at. Sizes that only one of them
+   * was measured at are ignored.
+   *
+   * @param sequential the time that the sequential stream took at each size; must be positive
+   * @param parallel the time that the parallel stream took at each size; must be positive
+   */
+  static Optional<StreamCrossover> find(
+      SortedMap<Integer, Double> sequential, SortedMap<Integer, Double> parallel) {
+    requireNonNull(sequential, "sequential");
+    requireNonNull(parallel, "parallel");
+    int lastSlower = NONE;
+    int crossover = NONE;
+    for (Map.Entry<Integer, Double> entry : parallel.entrySet()) {
+      int size = entry.getKey();
+      if (!sequential.containsKey(size)) {
+        continue;
+      }
+      if (entry.getValue() >= sequential.get(size)) {
+        lastSlower = size;
+        crossover = NONE;
+      } else if (crossover == NONE) {
+        crossover = size;
+      }
+    }
+    if (crossover == NONE) {
+      return Optional.empty();
+    }
+    if (lastSlower == NONE) {
+      return Optional.of(new StreamCrossover(crossover, NONE, crossover));
+    }
+    return Optional.of(
+        new StreamCrossover(
+            crossover, lastSlower, interpolate(lastSlower, crossover, sequential, parallel)));
+  }
+
+  /**
+   * Estimates the size between {@code slower} and {@code faster} at which the parallel stream
+   * becomes faster, assuming that the log of the ratio of the times is linear in log(size).
+   */
+  private static long interpolate(
+      int slower,
+      int faster,
+      SortedMap<Integer, Double> sequential,
+      SortedMap<Integer, Double> parallel) {
+    // The parallel stream is no faster at the slower size, and faster at the faster one, so
+    // slowerRatio >= 0 > fasterRatio, and the fraction is in [0, 1).
+    double slowerRatio = Math.log(parallel.get(slower) / sequential.get(slower));
+    double fasterRatio = Math.log(parallel.get(faster) / sequential.get(faster));
+    double fraction = slowerRatio / (slowerRatio - fasterRatio);
+    double logSize = Math.log(slower) + fraction * (Math.log(faster) - Math.log(slower));
+    return Math.round(Math.exp(logSize));
+  }
+
+  /** Returns the smallest measured size from which the parallel stream is faster. */
+  int measuredSize() {
+    return measuredSize;
+  }
+
+  /** Returns whether the parallel stream is faster at every measured size. */
+  boolean isFasterAtEverySize() {
+    return lastSlowerSize == NONE;
+  }
+
+  /**
+   * Returns the estimated size at which the parallel stream becomes faster, between the largest
+   * measured size at which it's no faster and {@link #measuredSize()}, or {@code measuredSize()} if
+   * it's {@linkplain #isFasterAtEverySize() faster at every measured size}.
+   */
+  long estimatedSize() {
+    return estimatedSize;
+  }
+
+  @Override
+  public String toString() {
+    if (isFasterAtEverySize()) {
+      return String.format(
+          "parallelStream() is faster from the smallest measured size, %,d", measuredSize);
+    }
+    return String.format(
+        "parallelStream() is faster from %,d elements (measured), or about %,d (interpolated)",
+        measuredSize, estimatedSize);
+  }
+}
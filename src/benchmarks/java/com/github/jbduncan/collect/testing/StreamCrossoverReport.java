@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs subclasses of {@link AbstractStreamReductionBenchmark} and reports, for each benchmark class
+ * and common pool parallelism, the {@link StreamCrossover crossover size}: the smallest measured
+ * size from which {@code parallelStream()} is faster than a sequential {@code stream()} at every
+ * larger measured size too, and an estimate of where between the measured sizes it lies.
+ *
+ * <p>The common pool's parallelism can only be set when a JVM starts, so the sequential streams are
+ * benchmarked once, and then the parallel streams are benchmarked in new forks for each parallelism
+ * level in turn. By default, the levels are the powers of two up to the number of available
+ * processors, and that number itself.
+ *
+ * <p>The arguments are JMH's own command-line options, optionally preceded by {@code
+ * --parallelism=} and a comma-separated list of levels, so, for example, {@code ./gradlew
+ * jmhCrossover -PjmhArgs="--parallelism=2,4 ArrayListStreamReductionBenchmark -p
+ * size=1000,10000,100000"} reports on {@code ArrayList} at three sizes, with parallel streams that
+ * run in 2 and then 4 threads. The benchmarks must run in forked JVMs, so JMH's {@code -f 0} option
+ * isn't supported.
+ */
+public final class StreamCrossoverReport {
+  private static final String SEQUENTIAL = "sequentialStream";
+  private static final String PARALLEL = "parallelStream";
+  private static final String PARALLELISM_ARG =
+      "-Djava.util.concurrent.ForkJoinPool.common.parallelism=";
+  private static final String PARALLELISM_OPTION = "--parallelism=";
+
+  private StreamCrossoverReport() {}
+
+  public static void main(String... args) throws CommandLineOptionException, RunnerException {
+    SortedSet<Integer> levels = defaultParallelismLevels();
+    String[] jmhArgs = args;
+    if (args.length > 0 && args[0].startsWith(PARALLELISM_OPTION)) {
+      levels = parallelismLevels(args[0].substring(PARALLELISM_OPTION.length()));
+      jmhArgs = Arrays.copyOfRange(args, 1, args.length);
+    }
+    CommandLineOptions options = new CommandLineOptions(jmhArgs);
+    if (options.getForkCount().orElse(1) == 0) {
+      throw new IllegalArgumentException(
+          "The common pool's parallelism can only be set in a forked JVM, so -f 0 isn't supported");
+    }
+
+    // The sequential streams don't use the common pool, so they only need to run once.
+    List<RunResult> results =
+        new ArrayList<>(
+            run(new OptionsBuilder().parent(options).exclude("\\." + PARALLEL + "$").build()));
+    for (int parallelism : levels) {
+      results.addAll(run(parallelStreamOptions(options, parallelism)));
+    }
+    print(report(results));
+  }
+
+  private static Collection<RunResult> run(Options options) throws RunnerException {
+    return new Runner(options).run();
+  }
+
+  private static Options parallelStreamOptions(CommandLineOptions options, int parallelism) {
+    List<String> jvmArgsAppend =
+        new ArrayList<>(options.getJvmArgsAppend().orElse(Collections.emptyList()));
+    jvmArgsAppend.add(PARALLELISM_ARG + parallelism);
+    return new OptionsBuilder()
+        .parent(options)
+        .exclude("\\.(?!" + PARALLEL + "$)[^.]+$")
+        .jvmArgsAppend(jvmArgsAppend.toArray(new String[0]))
+        .build();
+  }
+
+  private static SortedSet<Integer> defaultParallelismLevels() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    SortedSet<Integer> levels = new TreeSet<>();
+    for (int level = 2; level < processors; level *= 2) {
+      levels.add(level);
+    }
+    levels.add(processors);
+    return levels;
+  }
+
+  private static SortedSet<Integer> parallelismLevels(String levels) {
+    SortedSet<Integer> result = new TreeSet<>();
+    for (String level : levels.split(",", -1)) {
+      int parallelism = Integer.parseInt(level.trim());
+      if (parallelism <= 0) {
+        throw new IllegalArgumentException(
+            String.format("Parallelism levels must be positive, but got %s", parallelism));
+      }
+      result.add(parallelism);
+    }
+    return result;
+  }
+
+  // Printing the report is the point of this program.
+  @SuppressWarnings("PMD.SystemPrintln")
+  private static void print(String report) {
+    System.out.print(report);
+  }
+
+  static String report(Collection<RunResult> results) {
+    // benchmark class -> parallelism (or SEQUENTIAL) -> size -> average time
+    Map<String, Map<String, SortedMap<Integer, Double>>> scores = new TreeMap<>();
+    for (RunResult result : results) {
+      BenchmarkParams params = result.getParams();
+      String benchmark = params.getBenchmark();
+      int lastDot = benchmark.lastIndexOf('.');
+      String method = benchmark.substring(lastDot + 1);
+      if (!method.equals(SEQUENTIAL) && !method.equals(PARALLEL)) {
+        continue;
+      }
+      String series = method.equals(SEQUENTIAL) ? SEQUENTIAL : parallelism(params);
+      timesBySize(scores, benchmark.substring(0, lastDot), series)
+          .put(Integer.valueOf(params.getParam("size")), result.getPrimaryResult().getScore());
+    }
+
+    StringBuilder report = new StringBuilder();
+    scores.forEach(
+        (benchmarkClass, series) -> {
+          SortedMap<Integer, Double> sequential = series.remove(SEQUENTIAL);
+          report.append(String.format("%n%s%n", benchmarkClass));
+          if (sequential == null) {
+            report.append(String.format("  No %s results to compare with%n", SEQUENTIAL));
+            return;
+          }
+          series.forEach(
+              (parallelism, parallel) ->
+                  report.append(
+                      String.format(
+                          "  Parallelism %s: %s%n",
+                          parallelism,
+                          StreamCrossover.find(sequential, parallel)
+                              .map(StreamCrossover::toString)
+                              .orElse("parallelStream() is never faster at the measured sizes"))));
+        });
+    return report.toString();
+  }
+
+  private static SortedMap<Integer, Double> timesBySize(
+      Map<String, Map<String, SortedMap<Integer, Double>>> scores,
+      String benchmarkClass,
+      String series) {
+    return scores
+        .computeIfAbsent(benchmarkClass, key -> new TreeMap<>())
+        .computeIfAbsent(series, key -> new TreeMap<>());
+  }
+
+  /**
+   * Returns the parallelism of the common pool that the benchmark ran with, which is that of this
+   * JVM's common pool unless it was set in the benchmark's JVM arguments.
+   */
+  private static String parallelism(BenchmarkParams params) {
+    String parallelism = String.valueOf(ForkJoinPool.getCommonPoolParallelism());
+    for (String jvmArg : params.getJvmArgs()) {
+      if (jvmArg.startsWith(PARALLELISM_ARG)) {
+        parallelism = jvmArg.substring(PARALLELISM_ARG.length());
+      }
+    }
+    return parallelism;
+  }
+}
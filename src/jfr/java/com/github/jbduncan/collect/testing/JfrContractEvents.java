@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import com.github.jbduncan.collect.testing.ContractEvents.Phase;
+import com.github.jbduncan.collect.testing.ContractEvents.RunningTest;
+import com.github.jbduncan.collect.testing.ContractEvents.Span;
+import java.util.Objects;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records the contracts' dynamic tests, and the phases within them, as Java Flight Recorder events.
+ *
+ * <p>{@link ContractEvents} loads this class reflectively, since the rest of the project targets
+ * Java 8, which has no {@code jdk.jfr} API.
+ */
+final class JfrContractEvents implements ContractEvents.Recorder {
+  private static final Span NOT_RECORDED = test -> {};
+
+  @Override
+  public Span beginTest() {
+    return begin(new ContractTestEvent());
+  }
+
+  @Override
+  public Span beginPhase(Phase phase) {
+    ContractPhaseEvent event = new ContractPhaseEvent();
+    event.phase = phase.toString();
+    return begin(event);
+  }
+
+  private static Span begin(ContractEvent event) {
+    if (!event.isEnabled()) {
+      return NOT_RECORDED;
+    }
+    event.begin();
+    return test -> {
+      event.end();
+      if (event.shouldCommit()) {
+        event.describe(test);
+        event.commit();
+      }
+    };
+  }
+
+  @Category("Jupiter Collection Testers")
+  @StackTrace(false)
+  private abstract static class ContractEvent extends Event {
+    @Label("Contract")
+    Class<?> contractClass;
+
+    @Label("Test Class")
+    Class<?> testClass;
+
+    @Label("Test")
+    String test;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Collection Size")
+    String collectionSize;
+
+    @Label("Features")
+    String features;
+
+    void describe(RunningTest running) {
+      contractClass = running.contractClass();
+      testClass = running.testClass();
+      test = running.test();
+      operation = running.operation();
+      collectionSize = Objects.toString(running.collectionSize(), null);
+      features = Objects.toString(running.features(), null);
+    }
+  }
+
+  @Name("com.github.jbduncan.collect.testing.ContractTest")
+  @Label("Contract Test")
+  @Description("A dynamic test generated by a collection contract")
+  private static final class ContractTestEvent extends ContractEvent {}
+
+  @Name("com.github.jbduncan.collect.testing.ContractTestPhase")
+  @Label("Contract Test Phase")
+  @Description(
+      "The creation of a dynamic test's fixture, the operation under test, or the assertions on "
+          + "its outcome")
+  private static final class ContractPhaseEvent extends ContractEvent {
+    @Label("Phase")
+    String phase;
+  }
+}
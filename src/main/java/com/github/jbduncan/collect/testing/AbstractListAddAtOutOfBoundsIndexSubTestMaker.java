@@ -18,20 +18,20 @@ package com.github.jbduncan.collect.testing;
 import static com.github.jbduncan.collect.testing.Helpers.newIterable;
 import static com.github.jbduncan.collect.testing.Helpers.stringify;
 import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
-import static com.github.jbduncan.collect.testing.ListContractHelpers.newTestList;
 import static java.util.Objects.requireNonNull;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.function.ThrowingConsumer;
 
 abstract class AbstractListAddAtOutOfBoundsIndexSubTestMaker<E> {
 
-  private final TestListGenerator<E> generator;
+  private final ListFixtures<E> fixtures;
+  private final FeatureSet features;
   private final SampleElements<E> samples;
   private final E newElement;
   private final E existingElement;
@@ -40,14 +40,16 @@ abstract class AbstractListAddAtOutOfBoundsIndexSubTestMaker<E> {
   private final Class<? extends Throwable> expectedExceptionType;
 
   AbstractListAddAtOutOfBoundsIndexSubTestMaker(
-      TestListGenerator<E> generator,
+      ListFixtures<E> fixtures,
+      FeatureSet features,
       SampleElements<E> samples,
       E newElement,
       E existingElement,
       Set<CollectionSize> allSupportedCollectionSizes,
       Set<CollectionSize> allSupportedCollectionSizesExceptZero,
       Class<? extends Throwable> expectedExceptionType) {
-    this.generator = requireNonNull(generator, "testListGenerator");
+    this.fixtures = requireNonNull(fixtures, "fixtures");
+    this.features = requireNonNull(features, "features");
     this.samples = requireNonNull(samples, "samples");
     this.newElement = requireNonNull(newElement, "newElement");
     this.existingElement = requireNonNull(existingElement, "existingElement");
@@ -63,36 +65,29 @@ abstract class AbstractListAddAtOutOfBoundsIndexSubTestMaker<E> {
 
   abstract String indexName();
 
-  List<DynamicTest> doesNotSupportAddWithIndexSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForDoesNotSupportAddAtOutOfBoundsIndex(
-        subTests, newElement, allSupportedCollectionSizes, /* nullInMiddle= */ false);
-    appendTestsForDoesNotSupportAddAtOutOfBoundsIndex(
-        subTests,
-        existingElement,
-        allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    return subTests;
+  Stream<DynamicTest> doesNotSupportAddWithIndexSubTests() {
+    return Stream.concat(
+        testsForDoesNotSupportAddAtOutOfBoundsIndex(
+            newElement, allSupportedCollectionSizes, /* nullInMiddle= */ false),
+        testsForDoesNotSupportAddAtOutOfBoundsIndex(
+            existingElement, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ false));
   }
 
-  List<DynamicTest> doesNotSupportAddWithIndexForNullsSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForDoesNotSupportAddAtOutOfBoundsIndex(
-        subTests, null, allSupportedCollectionSizes, /* nullInMiddle= */ false);
-    appendTestsForDoesNotSupportAddAtOutOfBoundsIndex(
-        subTests, null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true);
-    return subTests;
+  Stream<DynamicTest> doesNotSupportAddWithIndexForNullsSubTests() {
+    return Stream.concat(
+        testsForDoesNotSupportAddAtOutOfBoundsIndex(
+            null, allSupportedCollectionSizes, /* nullInMiddle= */ false),
+        testsForDoesNotSupportAddAtOutOfBoundsIndex(
+            null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true));
   }
 
-  private void appendTestsForDoesNotSupportAddAtOutOfBoundsIndex(
-      List<DynamicTest> subTests,
-      E elementToAdd,
-      Set<CollectionSize> supportedCollectionSizes,
-      boolean nullInMiddle) {
+  private Stream<DynamicTest> testsForDoesNotSupportAddAtOutOfBoundsIndex(
+      E elementToAdd, Set<CollectionSize> supportedCollectionSizes, boolean nullInMiddle) {
     ThrowingConsumer<CollectionSize> testTemplate =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, nullInMiddle);
+          List<E> list = fixtures.newTestList(collectionSize, nullInMiddle);
 
+          ContractEvents.operation("List.add(" + indexName() + ", E)", features);
           assertThrows(
               expectedExceptionType,
               () -> list.add(index(collectionSize), elementToAdd),
@@ -104,22 +99,22 @@ abstract class AbstractListAddAtOutOfBoundsIndexSubTestMaker<E> {
                       + ") threw exception of type "
                       + expectedExceptionType);
 
+          ContractEvents.assertion();
           assertIterableEquals(
               newIterable(samples, collectionSize, nullInMiddle),
               list,
               "Not true that list remained unchanged");
         };
 
-    DynamicTest.stream(
-            supportedCollectionSizes.iterator(),
-            collectionSize ->
-                "Doesn't support List.add("
-                    + indexName()
-                    + ", "
-                    + stringify(elementToAdd)
-                    + ") on "
-                    + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
-            testTemplate)
-        .forEachOrdered(subTests::add);
+    return DynamicTest.stream(
+        supportedCollectionSizes.iterator(),
+        collectionSize ->
+            "Doesn't support List.add("
+                + indexName()
+                + ", "
+                + stringify(elementToAdd)
+                + ") on "
+                + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
+        fixtures.disposingTestLists(testTemplate));
   }
 }
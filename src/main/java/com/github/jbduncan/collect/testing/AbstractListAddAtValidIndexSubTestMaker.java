@@ -19,23 +19,22 @@ import static com.github.jbduncan.collect.testing.Helpers.insert;
 import static com.github.jbduncan.collect.testing.Helpers.newIterable;
 import static com.github.jbduncan.collect.testing.Helpers.stringify;
 import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
-import static com.github.jbduncan.collect.testing.ListContractHelpers.newTestList;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
-import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.function.ThrowingConsumer;
 
 abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
 
-  private final TestListGenerator<E> generator;
+  private final ListFixtures<E> fixtures;
+  private final FeatureSet features;
   private final SampleElements<E> samples;
   private final E newElement;
   private final E existingElement;
@@ -43,13 +42,15 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
   private final Set<CollectionSize> allSupportedCollectionSizesExceptZero;
 
   AbstractListAddAtValidIndexSubTestMaker(
-      TestListGenerator<E> generator,
+      ListFixtures<E> fixtures,
+      FeatureSet features,
       SampleElements<E> samples,
       E newElement,
       E existingElement,
       Set<CollectionSize> allSupportedCollectionSizes,
       Set<CollectionSize> allSupportedCollectionSizesExceptZero) {
-    this.generator = requireNonNull(generator, "generator");
+    this.fixtures = requireNonNull(fixtures, "fixtures");
+    this.features = requireNonNull(features, "features");
     this.samples = requireNonNull(samples, "samples");
     this.newElement = requireNonNull(newElement, "newElement");
     this.existingElement = requireNonNull(existingElement, "existingElement");
@@ -64,48 +65,44 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
 
   abstract String indexName();
 
-  List<DynamicTest> supportsAddWithIndexSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForSupportsAddAtValidIndex(
-        subTests,
-        newElement,
-        (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
-            ? allSupportedCollectionSizes
-            : allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    appendTestsForSupportsAddAtValidIndex(
-        subTests,
-        existingElement,
-        allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    return subTests;
+  private String operation() {
+    return "List.add(" + indexName() + ", E)";
   }
 
-  List<DynamicTest> supportsAddWithIndexForNullsSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForSupportsAddAtValidIndex(
-        subTests,
-        null,
-        (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
-            ? allSupportedCollectionSizes
-            : allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    appendTestsForSupportsAddAtValidIndex(
-        subTests, null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true);
-    return subTests;
+  Stream<DynamicTest> supportsAddWithIndexSubTests() {
+    return Stream.concat(
+        testsForSupportsAddAtValidIndex(
+            newElement,
+            (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
+                ? allSupportedCollectionSizes
+                : allSupportedCollectionSizesExceptZero,
+            /* nullInMiddle= */ false),
+        testsForSupportsAddAtValidIndex(
+            existingElement, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ false));
   }
 
-  private void appendTestsForSupportsAddAtValidIndex(
-      List<DynamicTest> subTests,
-      E elementToAdd,
-      Set<CollectionSize> supportedCollectionSizes,
-      boolean nullInMiddle) {
+  Stream<DynamicTest> supportsAddWithIndexForNullsSubTests() {
+    return Stream.concat(
+        testsForSupportsAddAtValidIndex(
+            null,
+            (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
+                ? allSupportedCollectionSizes
+                : allSupportedCollectionSizesExceptZero,
+            /* nullInMiddle= */ false),
+        testsForSupportsAddAtValidIndex(
+            null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true));
+  }
+
+  private Stream<DynamicTest> testsForSupportsAddAtValidIndex(
+      E elementToAdd, Set<CollectionSize> supportedCollectionSizes, boolean nullInMiddle) {
     ThrowingConsumer<CollectionSize> testTemplate =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, nullInMiddle);
+          List<E> list = fixtures.newTestList(collectionSize, nullInMiddle);
           int index = index(collectionSize);
 
+          ContractEvents.operation(operation(), features);
           list.add(index, elementToAdd);
+          ContractEvents.assertion();
           Iterable<E> expected =
               insert(newIterable(samples, collectionSize, nullInMiddle), index, elementToAdd);
 
@@ -120,60 +117,50 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
                       + " of list");
         };
 
-    DynamicTest.stream(
-            supportedCollectionSizes.iterator(),
-            collectionSize ->
-                "Supports List.add("
-                    + indexName()
-                    + ", "
-                    + stringify(elementToAdd)
-                    + ") on "
-                    + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
-            testTemplate)
-        .forEachOrdered(subTests::add);
+    return DynamicTest.stream(
+        supportedCollectionSizes.iterator(),
+        collectionSize ->
+            "Supports List.add("
+                + indexName()
+                + ", "
+                + stringify(elementToAdd)
+                + ") on "
+                + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
+        fixtures.disposingTestLists(testTemplate));
   }
 
-  List<DynamicTest> doesNotSupportAddWithIndexSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForDoesNotSupportAddAtValidIndex(
-        subTests,
-        newElement,
-        (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
-            ? allSupportedCollectionSizes
-            : allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    appendTestsForDoesNotSupportAddAtValidIndex(
-        subTests,
-        existingElement,
-        allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    return subTests;
+  Stream<DynamicTest> doesNotSupportAddWithIndexSubTests() {
+    return Stream.concat(
+        testsForDoesNotSupportAddAtValidIndex(
+            newElement,
+            (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
+                ? allSupportedCollectionSizes
+                : allSupportedCollectionSizesExceptZero,
+            /* nullInMiddle= */ false),
+        testsForDoesNotSupportAddAtValidIndex(
+            existingElement, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ false));
   }
 
-  List<DynamicTest> doesNotSupportAddWithIndexForNullsSubTests() {
-    List<DynamicTest> subTests = new ArrayList<>();
-    appendTestsForDoesNotSupportAddAtValidIndex(
-        subTests,
-        null,
-        (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
-            ? allSupportedCollectionSizes
-            : allSupportedCollectionSizesExceptZero,
-        /* nullInMiddle= */ false);
-    appendTestsForDoesNotSupportAddAtValidIndex(
-        subTests, null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true);
-    return subTests;
+  Stream<DynamicTest> doesNotSupportAddWithIndexForNullsSubTests() {
+    return Stream.concat(
+        testsForDoesNotSupportAddAtValidIndex(
+            null,
+            (this instanceof ListAddWithIndexTester.ListAddAtStartSubTestMaker)
+                ? allSupportedCollectionSizes
+                : allSupportedCollectionSizesExceptZero,
+            /* nullInMiddle= */ false),
+        testsForDoesNotSupportAddAtValidIndex(
+            null, allSupportedCollectionSizesExceptZero, /* nullInMiddle= */ true));
   }
 
-  private void appendTestsForDoesNotSupportAddAtValidIndex(
-      List<DynamicTest> subTests,
-      E elementToAdd,
-      Set<CollectionSize> supportedCollectionSizes,
-      boolean nullInMiddle) {
+  private Stream<DynamicTest> testsForDoesNotSupportAddAtValidIndex(
+      E elementToAdd, Set<CollectionSize> supportedCollectionSizes, boolean nullInMiddle) {
     ThrowingConsumer<CollectionSize> testTemplate =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, nullInMiddle);
+          List<E> list = fixtures.newTestList(collectionSize, nullInMiddle);
           int index = index(collectionSize);
 
+          ContractEvents.operation(operation(), features);
           assertThrows(
               UnsupportedOperationException.class,
               () -> list.add(index, elementToAdd),
@@ -182,31 +169,32 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
                   "Not true that list.add("
                       + stringify(elementToAdd)
                       + ") threw UnsupportedOperationException");
+          ContractEvents.assertion();
           assertIterableEquals(
               newIterable(samples, collectionSize, nullInMiddle),
               list,
               "Not true that list remained unchanged");
         };
 
-    DynamicTest.stream(
-            supportedCollectionSizes.iterator(),
-            collectionSize ->
-                "Doesn't support List.add("
-                    + indexName()
-                    + ", "
-                    + stringify(elementToAdd)
-                    + ") on "
-                    + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
-            testTemplate)
-        .forEachOrdered(subTests::add);
+    return DynamicTest.stream(
+        supportedCollectionSizes.iterator(),
+        collectionSize ->
+            "Doesn't support List.add("
+                + indexName()
+                + ", "
+                + stringify(elementToAdd)
+                + ") on "
+                + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
+        fixtures.disposingTestLists(testTemplate));
   }
 
-  List<DynamicTest> failsFastOnConcurrentModificationSubTests() {
+  Stream<DynamicTest> failsFastOnConcurrentModificationSubTests() {
     ThrowingConsumer<CollectionSize> failsFastOnCme =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, /* nullInMiddle= */ false);
+          List<E> list = fixtures.newTestList(collectionSize, /* nullInMiddle= */ false);
 
           Iterator<E> iterator = list.iterator();
+          ContractEvents.operation(operation(), features);
           assertThrows(
               ConcurrentModificationException.class,
               () -> {
@@ -216,25 +204,25 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
         };
 
     return DynamicTest.stream(
-            allSupportedCollectionSizes.iterator(),
-            collectionSize ->
-                "List.add("
-                    + indexName()
-                    + ", "
-                    + stringify(newElement)
-                    + ") fails fast when concurrently modifying "
-                    + stringifyElements(
-                        newIterable(samples, collectionSize, /* nullInMiddle= */ false)),
-            failsFastOnCme)
-        .collect(toList());
+        allSupportedCollectionSizes.iterator(),
+        collectionSize ->
+            "List.add("
+                + indexName()
+                + ", "
+                + stringify(newElement)
+                + ") fails fast when concurrently modifying "
+                + stringifyElements(
+                    newIterable(samples, collectionSize, /* nullInMiddle= */ false)),
+        fixtures.disposingTestLists(failsFastOnCme));
   }
 
-  List<DynamicTest> failsFastOnConcurrentModificationInvolvingNullElementSubTests() {
+  Stream<DynamicTest> failsFastOnConcurrentModificationInvolvingNullElementSubTests() {
     ThrowingConsumer<CollectionSize> failsFastOnCme =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, /* nullInMiddle= */ false);
+          List<E> list = fixtures.newTestList(collectionSize, /* nullInMiddle= */ false);
 
           Iterator<E> iterator = list.iterator();
+          ContractEvents.operation(operation(), features);
           assertThrows(
               ConcurrentModificationException.class,
               () -> {
@@ -244,14 +232,13 @@ abstract class AbstractListAddAtValidIndexSubTestMaker<E> {
         };
 
     return DynamicTest.stream(
-            allSupportedCollectionSizes.iterator(),
-            collectionSize ->
-                "List.add("
-                    + indexName()
-                    + ", null) fails fast when concurrently modifying "
-                    + stringifyElements(
-                        newIterable(samples, collectionSize, /* nullInMiddle= */ false)),
-            failsFastOnCme)
-        .collect(toList());
+        allSupportedCollectionSizes.iterator(),
+        collectionSize ->
+            "List.add("
+                + indexName()
+                + ", null) fails fast when concurrently modifying "
+                + stringifyElements(
+                    newIterable(samples, collectionSize, /* nullInMiddle= */ false)),
+        fixtures.disposingTestLists(failsFastOnCme));
   }
 }
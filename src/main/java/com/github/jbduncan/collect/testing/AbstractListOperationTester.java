@@ -0,0 +1,121 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+
+/**
+ * A tester that measures each {@link ListOperation} against a list and compares it with a value
+ * given for that operation, such as an allocation budget or an expected complexity class.
+ *
+ * <p>Each measured operation is undone with {@code List.remove(int)}, to keep the list at a steady
+ * size, so an operation is only tested if the list's features support both it and that removal.
+ *
+ * @param <T> the type of the value that each operation is tested against
+ */
+abstract class AbstractListOperationTester<E, T> {
+  private final TestListGenerator<E> generator;
+  private final SampleElements<E> samples;
+  private final E newElement;
+  private final FeatureSet features;
+  private final Map<ListOperation, T> expectations;
+
+  AbstractListOperationTester(Builder<E, T, ?> builder) {
+    this.generator = requireNonNull(builder.testListGenerator, "testListGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.newElement = samples.e3();
+    this.features = FeatureSet.copyOf(requireNonNull(builder.features, "features"));
+    this.expectations = new EnumMap<>(ListOperation.class);
+    this.expectations.putAll(requireNonNull(builder.expectations, builder.expectationsName));
+  }
+
+  /** Returns the display name of the test of {@code operation}. */
+  abstract String testName(ListOperation operation, T expectation);
+
+  /** Measures {@code operation} and fails if it doesn't meet {@code expectation}. */
+  abstract void test(ListOperation operation, T expectation);
+
+  final Stream<DynamicTest> dynamicTests() {
+    return expectations.entrySet().stream()
+        .filter(entry -> isSupported(entry.getKey()))
+        .map(
+            entry ->
+                dynamicTest(
+                    testName(entry.getKey(), entry.getValue()),
+                    () -> test(entry.getKey(), entry.getValue())));
+  }
+
+  private boolean isSupported(ListOperation operation) {
+    return features.contains(ListFeature.SUPPORTS_REMOVE_WITH_INDEX)
+        && features.contains(
+            operation == ListOperation.ADD
+                ? CollectionFeature.SUPPORTS_ADD
+                : ListFeature.SUPPORTS_ADD_WITH_INDEX);
+  }
+
+  /** Returns a new list to measure, of the given size. */
+  final List<E> newList(int size) {
+    return generator.create(Helpers.newIterable(samples, size, /* nullInMiddle= */ false));
+  }
+
+  /**
+   * Applies {@code operation} to {@code list} the given number of times, undoing each with {@code
+   * List.remove(int)}.
+   */
+  final void applyAndUndo(List<E> list, ListOperation operation, int times) {
+    for (int i = 0; i < times; i++) {
+      int index = operation.index(list.size());
+      operation.applyTo(list, newElement);
+      list.remove(index);
+    }
+  }
+
+  abstract static class Builder<E, T, B extends Builder<E, T, B>> {
+    private TestListGenerator<E> testListGenerator;
+    private Set<Feature<?>> features;
+    private Map<ListOperation, T> expectations;
+    private String expectationsName = "expectations";
+
+    Builder() {}
+
+    abstract B self();
+
+    B testListGenerator(TestListGenerator<E> testListGenerator) {
+      this.testListGenerator = testListGenerator;
+      return self();
+    }
+
+    B features(Set<Feature<?>> features) {
+      this.features = features;
+      return self();
+    }
+
+    /** Sets the value to test each operation against, under a name that's used if it's missing. */
+    B expectations(String name, Map<ListOperation, T> expectations) {
+      this.expectationsName = name;
+      this.expectations = expectations;
+      return self();
+    }
+  }
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+/**
+ * A tester of primitive lists, such as those under test by {@link IntListContract} and {@link
+ * LongListContract}, which checks that their primitive API and their boxed view agree, and that the
+ * primitive API doesn't allocate.
+ *
+ * <p>Subclasses adapt the list's primitive API to {@code long} elements, which every {@code int}
+ * and {@code long} element fits in, so that the tests are written once. Widening an element to a
+ * {@code long} doesn't box it, so the allocation tests still measure only the list.
+ *
+ * @param <L> the type of the list under test
+ * @param <E> the type of the elements of the list's boxed view
+ */
+abstract class AbstractPrimitiveListTester<L, E> {
+  private static final int ALLOCATION_LIST_SIZE = 100;
+  // The same warmup and measurement as ListAllocationTester, so that the operations under test are
+  // compiled and escape-analysed before they're measured.
+  private static final int WARMUP_OPERATIONS = 200_000;
+  private static final int MEASURED_OPERATIONS = 100_000;
+  private static final int MEASUREMENT_ROUNDS = 5;
+  // Boxing even one element per operation allocates at least 16 bytes, so anything less than a byte
+  // per operation comes from one-off allocations that aren't the operation's fault.
+  private static final double MAX_BYTES_PER_OPERATION = 1.0;
+  // Integer.valueOf and Long.valueOf return cached boxes for these elements, so boxing them doesn't
+  // allocate and can't be detected.
+  private static final long MIN_CACHED_ELEMENT = -128;
+  private static final long MAX_CACHED_ELEMENT = 127;
+
+  private final LongSampleElements samples;
+  private final FeatureSet features;
+  private final String elementType;
+  private final String methodSuffix;
+  // Consumes the results of measured operations, so that the JIT compiler can't eliminate them.
+  private long sink;
+
+  /**
+   * @param samples the list's sample elements, widened to {@code long}s
+   * @param elementType the name of the list's primitive element type, such as {@code "int"}
+   */
+  AbstractPrimitiveListTester(
+      LongSampleElements samples, Set<Feature<?>> features, String elementType) {
+    this.samples = requireNonNull(samples, "samples");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+    this.elementType = elementType;
+    this.methodSuffix = Character.toUpperCase(elementType.charAt(0)) + elementType.substring(1);
+  }
+
+  /** Returns a new list of the first {@code size} elements of the sample elements' fixture. */
+  abstract L create(int size);
+
+  abstract int size(L list);
+
+  /** Calls the list's primitive {@code get} method, such as {@code getInt(int)}. */
+  abstract long get(L list, int index);
+
+  abstract boolean contains(L list, long element);
+
+  abstract int indexOf(L list, long element);
+
+  abstract boolean add(L list, long element);
+
+  abstract void add(L list, int index, long element);
+
+  abstract long set(L list, int index, long element);
+
+  /** Calls the list's primitive {@code remove} method, such as {@code removeInt(int)}. */
+  abstract long remove(L list, int index);
+
+  abstract List<E> boxed(L list);
+
+  /** Returns {@code element} as an element of the list's boxed view. */
+  abstract E box(long element);
+
+  final Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(this::agreementTests, this::primitiveWriteTests, this::boxedWriteTests);
+  }
+
+  private Stream<DynamicNode> agreementTests() {
+    return Stream.of(
+        dynamicContainer(
+            "Primitive and boxed views agree",
+            extractConcreteSizes(features).stream()
+                .map(
+                    size ->
+                        dynamicTest(
+                            "On " + stringifyElements(samples.fixture(size.size())),
+                            () -> {
+                              L list = create(size.size());
+                              assertAgree(
+                                  list,
+                                  boxed(list),
+                                  samples.fixture(size.size()),
+                                  "the list was created");
+                            }))));
+  }
+
+  private Stream<DynamicNode> primitiveWriteTests() {
+    long e3 = samples.e3();
+    String remove = "remove" + methodSuffix + "(0)";
+    List<DynamicNode> result = new ArrayList<>();
+    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      result.add(
+          writeTests(
+              "add(" + e3 + ")",
+              extractConcreteSizes(features),
+              (list, boxed, expected) -> {
+                assertTrue(add(list, e3), "Not true that add(" + e3 + ") returned true");
+                return insert(expected, expected.length, e3);
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
+      result.add(
+          writeTests(
+              "add(size() / 2, " + e3 + ")",
+              extractConcreteSizes(features),
+              (list, boxed, expected) -> {
+                add(list, expected.length / 2, e3);
+                return insert(expected, expected.length / 2, e3);
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_SET)) {
+      result.add(
+          writeTests(
+              "set(0, " + e3 + ")",
+              extractConcreteSizesExceptZero(features),
+              (list, boxed, expected) -> {
+                assertEquals(expected[0], set(list, 0, e3), "set(0, " + e3 + ") returned");
+                return replaceFirst(expected, e3);
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_REMOVE_WITH_INDEX)) {
+      result.add(
+          writeTests(
+              remove,
+              extractConcreteSizesExceptZero(features),
+              (list, boxed, expected) -> {
+                assertEquals(expected[0], remove(list, 0), remove + " returned");
+                return removeFirst(expected);
+              }));
+    }
+    return result.isEmpty()
+        ? Stream.empty()
+        : Stream.of(
+            dynamicContainer("Writes through the primitive API show in the boxed view", result));
+  }
+
+  private Stream<DynamicNode> boxedWriteTests() {
+    long e3 = samples.e3();
+    List<DynamicNode> result = new ArrayList<>();
+    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      result.add(
+          writeTests(
+              "boxed().add(" + e3 + ")",
+              extractConcreteSizes(features),
+              (list, boxed, expected) -> {
+                assertTrue(boxed.add(box(e3)), "Not true that boxed().add(" + e3 + ") was true");
+                return insert(expected, expected.length, e3);
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_SET)) {
+      result.add(
+          writeTests(
+              "boxed().set(0, " + e3 + ")",
+              extractConcreteSizesExceptZero(features),
+              (list, boxed, expected) -> {
+                assertEquals(
+                    box(expected[0]), boxed.set(0, box(e3)), "boxed().set(0, " + e3 + ") returned");
+                return replaceFirst(expected, e3);
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_REMOVE_WITH_INDEX)) {
+      result.add(
+          writeTests(
+              "boxed().remove(0)",
+              extractConcreteSizesExceptZero(features),
+              (list, boxed, expected) -> {
+                assertEquals(box(expected[0]), boxed.remove(0), "boxed().remove(0) returned");
+                return removeFirst(expected);
+              }));
+    }
+    return result.isEmpty()
+        ? Stream.empty()
+        : Stream.of(
+            dynamicContainer("Writes through the boxed view show in the primitive API", result));
+  }
+
+  private DynamicNode writeTests(String write, Set<CollectionSize> sizes, Write<L, E> action) {
+    return dynamicContainer(
+        write,
+        sizes.stream()
+            .map(
+                size ->
+                    dynamicTest(
+                        "On " + stringifyElements(samples.fixture(size.size())),
+                        () -> {
+                          L list = create(size.size());
+                          // Taken before the write, to check that the view reads through to the
+                          // list rather than being a copy.
+                          List<E> boxed = boxed(list);
+                          long[] expected = action.apply(list, boxed, samples.fixture(size.size()));
+                          assertAgree(list, boxed, expected, write + " was called");
+                        })));
+  }
+
+  private void assertAgree(L list, List<E> boxed, long[] expected, String event) {
+    assertEquals(expected.length, size(list), () -> "After " + event + ", size() returned");
+    assertEquals(
+        expected.length, boxed.size(), () -> "After " + event + ", boxed().size() returned");
+    for (int i = 0; i < expected.length; i++) {
+      int index = i;
+      assertEquals(
+          expected[i],
+          get(list, i),
+          () -> "After " + event + ", get" + methodSuffix + "(" + index + ") returned");
+      assertEquals(
+          box(expected[i]),
+          boxed.get(i),
+          () -> "After " + event + ", boxed().get(" + index + ") returned");
+    }
+    for (long element : samples.toArray()) {
+      int expectedIndex = indexOf(expected, element);
+      assertEquals(
+          expectedIndex,
+          indexOf(list, element),
+          () -> "After " + event + ", indexOf(" + element + ") returned");
+      assertEquals(
+          expectedIndex,
+          boxed.indexOf(box(element)),
+          () -> "After " + event + ", boxed().indexOf(" + element + ") returned");
+      assertEquals(
+          expectedIndex >= 0,
+          contains(list, element),
+          () -> "After " + event + ", contains(" + element + ") returned");
+      assertEquals(
+          expectedIndex >= 0,
+          boxed.contains(box(element)),
+          () -> "After " + event + ", boxed().contains(" + element + ") returned");
+    }
+  }
+
+  /**
+   * Returns tests that check that each of the list's primitive read operations, and each of its
+   * supported primitive write operations, doesn't allocate on the heap once it's warmed up.
+   *
+   * <p>The tests are skipped if any of the sample elements that they use is boxed to a cached
+   * instance, as boxing it wouldn't allocate.
+   */
+  final Stream<DynamicTest> allocationTests() {
+    long e3 = samples.e3();
+    long e4 = samples.e4();
+    List<DynamicTest> result = new ArrayList<>();
+    result.add(
+        allocationTest(
+            "get" + methodSuffix + "(int)",
+            (list, times) -> {
+              long sum = 0;
+              for (int i = 0; i < times; i++) {
+                sum += get(list, i % ALLOCATION_LIST_SIZE);
+              }
+              return sum;
+            }));
+    result.add(
+        allocationTest(
+            "contains(" + elementType + ")",
+            (list, times) -> {
+              long sum = 0;
+              for (int i = 0; i < times; i++) {
+                sum += contains(list, e4) ? 1 : 0;
+              }
+              return sum;
+            }));
+    result.add(
+        allocationTest(
+            "indexOf(" + elementType + ")",
+            (list, times) -> {
+              long sum = 0;
+              for (int i = 0; i < times; i++) {
+                sum += indexOf(list, e4);
+              }
+              return sum;
+            }));
+    if (features.containsAll(
+        CollectionFeature.SUPPORTS_ADD, ListFeature.SUPPORTS_REMOVE_WITH_INDEX)) {
+      result.add(
+          allocationTest(
+              "add(" + elementType + ") followed by remove" + methodSuffix + "(int)",
+              (list, times) -> {
+                long sum = 0;
+                for (int i = 0; i < times; i++) {
+                  add(list, e3);
+                  sum += remove(list, ALLOCATION_LIST_SIZE);
+                }
+                return sum;
+              }));
+    }
+    if (features.containsAll(
+        ListFeature.SUPPORTS_ADD_WITH_INDEX, ListFeature.SUPPORTS_REMOVE_WITH_INDEX)) {
+      result.add(
+          allocationTest(
+              "add(int, " + elementType + ") followed by remove" + methodSuffix + "(int)",
+              (list, times) -> {
+                long sum = 0;
+                for (int i = 0; i < times; i++) {
+                  add(list, 0, e3);
+                  sum += remove(list, 0);
+                }
+                return sum;
+              }));
+    }
+    if (features.contains(ListFeature.SUPPORTS_SET)) {
+      result.add(
+          allocationTest(
+              "set(int, " + elementType + ")",
+              (list, times) -> {
+                long sum = 0;
+                for (int i = 0; i < times; i++) {
+                  int index = i % ALLOCATION_LIST_SIZE;
+                  sum += set(list, index, get(list, index));
+                }
+                return sum;
+              }));
+    }
+    return result.stream();
+  }
+
+  private DynamicTest allocationTest(String operation, Workload<L> workload) {
+    return dynamicTest(
+        operation + " doesn't allocate",
+        () -> {
+          Optional<AllocationMeter> meter = AllocationMeter.create();
+          assumeTrue(meter.isPresent(), "This JVM can't measure the bytes allocated by a thread");
+          assumeTrue(
+              LongStream.concat(
+                      LongStream.of(samples.fixture(ALLOCATION_LIST_SIZE)),
+                      LongStream.of(samples.e3(), samples.e4()))
+                  .noneMatch(
+                      element -> element >= MIN_CACHED_ELEMENT && element <= MAX_CACHED_ELEMENT),
+              () ->
+                  String.format(
+                      "Some of the sample elements are between %s and %s, which are boxed to "
+                          + "cached instances, so boxing them can't be detected",
+                      MIN_CACHED_ELEMENT, MAX_CACHED_ELEMENT));
+
+          L list = create(ALLOCATION_LIST_SIZE);
+          sink += workload.run(list, WARMUP_OPERATIONS);
+          long allocatedBytes = Long.MAX_VALUE;
+          for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+            allocatedBytes =
+                Math.min(
+                    allocatedBytes,
+                    meter
+                        .get()
+                        .bytesAllocatedBy(() -> sink += workload.run(list, MEASURED_OPERATIONS)));
+          }
+          double bytesPerOperation = (double) allocatedBytes / MEASURED_OPERATIONS;
+          ContractMetrics.bytesMeasured(operation + " bytes per operation", bytesPerOperation);
+
+          if (bytesPerOperation >= MAX_BYTES_PER_OPERATION) {
+            String message =
+                String.format(
+                    "%s allocated %.3f bytes per operation, but it shouldn't allocate at all; is "
+                        + "it boxing its elements? (measured over %,d operations on a list of %,d "
+                        + "elements)",
+                    operation, bytesPerOperation, MEASURED_OPERATIONS, ALLOCATION_LIST_SIZE);
+            ContractMetrics.budgetViolated(operation + " doesn't allocate", message);
+            fail(message);
+          }
+        });
+  }
+
+  private static int indexOf(long[] elements, long element) {
+    for (int i = 0; i < elements.length; i++) {
+      if (elements[i] == element) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static long[] insert(long[] elements, int index, long element) {
+    long[] result = new long[elements.length + 1];
+    System.arraycopy(elements, 0, result, 0, index);
+    result[index] = element;
+    System.arraycopy(elements, index, result, index + 1, elements.length - index);
+    return result;
+  }
+
+  private static long[] replaceFirst(long[] elements, long element) {
+    long[] result = elements.clone();
+    result[0] = element;
+    return result;
+  }
+
+  private static long[] removeFirst(long... elements) {
+    return Arrays.copyOfRange(elements, 1, elements.length);
+  }
+
+  /**
+   * Writes to a list or its boxed view, checking any value that it returns, and returns the
+   * expected elements.
+   */
+  @FunctionalInterface
+  private interface Write<L, E> {
+    long[] apply(L list, List<E> boxed, long... elementsBefore);
+  }
+
+  /** Runs an operation {@code times} times, and returns a value derived from its results. */
+  @FunctionalInterface
+  private interface Workload<L> {
+    long run(L list, int times);
+  }
+}
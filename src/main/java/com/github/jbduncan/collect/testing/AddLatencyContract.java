@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestReporter;
+
+/**
+ * {@code AddLatencyContract} is a test interface that checks the tail latency of a collection
+ * implementation's {@code add(E)}, to catch the long pauses that averages hide, such as when an
+ * array-backed collection or hash table copies itself into a bigger array.
+ *
+ * <p>An empty collection from {@link #generator()} is filled to {@link #latencyFillSize()}
+ * elements, timing every call to {@code add(E)} and recording it in a histogram. After a warmup,
+ * this is done several times, and the fill with the smallest maximum latency is checked against
+ * {@link #addLatencyBudget()}, so that a garbage collection or other pause which isn't caused by
+ * the collection only fails the test if it happens in every fill. The percentiles and the slowest
+ * calls, along with the size of the collection at each one, are published through JUnit's {@link
+ * TestReporter} and included in the failure message, to show where in the fill the spikes were. A
+ * collection that resizes incrementally can use this to show that none of its calls pause for long.
+ *
+ * <p>Each latency includes the overhead of reading the clock, typically tens of nanoseconds. The
+ * test only runs if {@link #features()} contains {@link CollectionFeature#SUPPORTS_ADD} and the
+ * generator's sample elements are {@linkplain SampleElements#isScalable() scalable}.
+ */
+public interface AddLatencyContract<E> extends CollectionContract<E> {
+  /**
+   * Returns the longest that calls to {@code add(E)} may take. For example, for an {@code
+   * ArrayList}, whose largest pause is copying about a million elements:
+   *
+   * <pre>
+   * &#64;Override
+   * public LatencyBudget addLatencyBudget() {
+   *   return LatencyBudget.of(
+   *       Duration.ofNanos(500), Duration.of(20, ChronoUnit.MICROS), Duration.ofMillis(100));
+   * }
+   * </pre>
+   *
+   * @return the latency budget
+   */
+  LatencyBudget addLatencyBudget();
+
+  /**
+   * Returns the number of elements to fill the collection with. By default, this is 1,000,000.
+   *
+   * @return the size that each fill reaches
+   */
+  default int latencyFillSize() {
+    return 1_000_000;
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> addLatency() {
+    return ContractMetrics.measure(
+        getClass(),
+        "addLatency",
+        AddLatencyTester.<E>builder()
+            .testCollectionGenerator(generator())
+            .features(features())
+            .budget(addLatencyBudget())
+            .fillSize(latencyFillSize())
+            .reporter(ContractMetrics.reporter())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stringifyNanos;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestReporter;
+
+final class AddLatencyTester<E> {
+  // Enough fills for the JIT compiler to compile add(E) before any fill is measured.
+  private static final int WARMUP_FILLS = 2;
+  // Of the measured fills, the one with the smallest maximum latency is checked, so that a
+  // one-off pause that isn't caused by the collection, like a garbage collection, has to happen in
+  // every fill to fail the test. A pause caused by the collection itself, like copying its array
+  // into a bigger one, happens at the same size in every fill.
+  private static final int MEASURED_FILLS = 3;
+  private static final int SLOWEST_ADDS_TO_REPORT = 10;
+
+  private final TestCollectionGenerator<E> generator;
+  private final SampleElements<E> samples;
+  private final FeatureSet features;
+  private final LatencyBudget budget;
+  private final int fillSize;
+  private final TestReporter reporter;
+
+  private AddLatencyTester(
+      TestCollectionGenerator<E> generator,
+      Set<Feature<?>> features,
+      LatencyBudget budget,
+      int fillSize,
+      TestReporter reporter) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+    this.budget = requireNonNull(budget, "budget");
+    if (fillSize <= 0) {
+      throw new IllegalArgumentException(
+          String.format("'fillSize' is %s, but must be > 0", fillSize));
+    }
+    this.fillSize = fillSize;
+    this.reporter = requireNonNull(reporter, "reporter");
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> {
+    private Builder() {}
+
+    private TestCollectionGenerator<E> testCollectionGenerator;
+    private Set<Feature<?>> features;
+    private LatencyBudget budget;
+    private int fillSize;
+    private TestReporter reporter;
+
+    Builder<E> testCollectionGenerator(TestCollectionGenerator<E> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder<E> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    Builder<E> budget(LatencyBudget budget) {
+      this.budget = budget;
+      return this;
+    }
+
+    /** Sets the number of elements that each fill adds to an initially empty collection. */
+    Builder<E> fillSize(int fillSize) {
+      this.fillSize = fillSize;
+      return this;
+    }
+
+    Builder<E> reporter(TestReporter reporter) {
+      this.reporter = reporter;
+      return this;
+    }
+
+    AddLatencyTester<E> build() {
+      return new AddLatencyTester<>(testCollectionGenerator, features, budget, fillSize, reporter);
+    }
+  }
+
+  Stream<DynamicTest> dynamicTests() {
+    // Without scalable samples, a set would stop growing after its first few elements.
+    if (!features.contains(CollectionFeature.SUPPORTS_ADD) || !samples.isScalable()) {
+      return Stream.empty();
+    }
+    return Stream.of(
+        dynamicTest(
+            String.format("add(E) while filling to %,d elements has %s", fillSize, budget),
+            this::assertWithinBudget));
+  }
+
+  private void assertWithinBudget() {
+    List<E> elements = new ArrayList<>(fillSize);
+    for (int i = 0; i < fillSize; i++) {
+      elements.add(samples.fixtureElement(i));
+    }
+    for (int i = 0; i < WARMUP_FILLS; i++) {
+      fill(elements);
+    }
+    Fill best = fill(elements);
+    for (int i = 1; i < MEASURED_FILLS; i++) {
+      Fill next = fill(elements);
+      if (next.histogram.max() < best.histogram.max()) {
+        best = next;
+      }
+    }
+
+    String summary = best.summary();
+    String slowestAdds = best.slowestAdds();
+    reporter.publishEntry("add(E) latency", summary);
+    reporter.publishEntry("slowest add(E) calls", slowestAdds);
+    timed("add(E) p50", best.histogram.valueAtPercentile(50));
+    timed("add(E) p99", best.histogram.valueAtPercentile(99));
+    timed("add(E) p99.9", best.histogram.valueAtPercentile(99.9));
+    ContractMetrics.operationTimed("add(E) max", best.histogram.max());
+
+    List<String> violations = new ArrayList<>();
+    checkPercentile(
+        violations, "p99", best.histogram.valueAtPercentile(99), budget.p99().toNanos());
+    checkPercentile(
+        violations, "p99.9", best.histogram.valueAtPercentile(99.9), budget.p999().toNanos());
+    checkPercentile(violations, "max", best.histogram.max(), budget.max().toNanos());
+    if (!violations.isEmpty()) {
+      String message =
+          String.format(
+              "While filling a collection to %,d elements, add(E) exceeded its budget of %s:%n"
+                  + "  %s%n"
+                  + "Latencies: %s%n"
+                  + "Slowest calls, by the size of the collection before each one: %s",
+              fillSize,
+              budget,
+              String.join(System.lineSeparator() + "  ", violations),
+              summary,
+              slowestAdds);
+      ContractMetrics.budgetViolated("add(E) latency " + budget, message);
+      fail(message);
+    }
+  }
+
+  private static void timed(String measurement, long nanos) {
+    ContractMetrics.operationTimed(measurement, nanos);
+    PerformanceBaseline.check(measurement, PerformanceBaseline.Unit.NANOS, nanos);
+  }
+
+  private static void checkPercentile(
+      List<String> violations, String percentile, long actualNanos, long budgetNanos) {
+    if (actualNanos > budgetNanos) {
+      violations.add(
+          String.format(
+              "%s was %s, but must be at most %s",
+              percentile, stringifyNanos(actualNanos), stringifyNanos(budgetNanos)));
+    }
+  }
+
+  private Fill fill(List<E> elements) {
+    Collection<E> collection =
+        generator.create(Helpers.newIterable(samples, 0, /* nullInMiddle= */ false));
+    Fill fill = new Fill();
+    for (int size = 0; size < elements.size(); size++) {
+      E element = elements.get(size);
+      long start = System.nanoTime();
+      collection.add(element);
+      long nanos = System.nanoTime() - start;
+      fill.record(size, nanos);
+    }
+    return fill;
+  }
+
+  /** The latencies of one fill, and the slowest calls to add(E) in it. */
+  private static final class Fill {
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final long[] slowestNanos = new long[SLOWEST_ADDS_TO_REPORT];
+    private final int[] slowestSizes = new int[SLOWEST_ADDS_TO_REPORT];
+    private int slowestCount;
+    // The index in slowestNanos of the fastest of the slowest calls, which is replaced next.
+    private int fastestOfSlowest;
+
+    void record(int size, long nanos) {
+      histogram.record(nanos);
+      if (slowestCount < SLOWEST_ADDS_TO_REPORT) {
+        slowestNanos[slowestCount] = nanos;
+        slowestSizes[slowestCount] = size;
+        slowestCount++;
+        updateFastestOfSlowest();
+      } else if (nanos > slowestNanos[fastestOfSlowest]) {
+        slowestNanos[fastestOfSlowest] = nanos;
+        slowestSizes[fastestOfSlowest] = size;
+        updateFastestOfSlowest();
+      }
+    }
+
+    private void updateFastestOfSlowest() {
+      for (int i = 0; i < slowestCount; i++) {
+        if (slowestNanos[i] < slowestNanos[fastestOfSlowest]) {
+          fastestOfSlowest = i;
+        }
+      }
+    }
+
+    String summary() {
+      return String.format(
+          "p50 %s, p90 %s, p99 %s, p99.9 %s, p99.99 %s, max %s over %,d calls",
+          stringifyNanos(histogram.valueAtPercentile(50)),
+          stringifyNanos(histogram.valueAtPercentile(90)),
+          stringifyNanos(histogram.valueAtPercentile(99)),
+          stringifyNanos(histogram.valueAtPercentile(99.9)),
+          stringifyNanos(histogram.valueAtPercentile(99.99)),
+          stringifyNanos(histogram.max()),
+          histogram.count());
+    }
+
+    /** Returns the slowest calls in the order they were made, to show where the spikes were. */
+    String slowestAdds() {
+      Integer[] order = new Integer[slowestCount];
+      Arrays.setAll(order, i -> i);
+      Arrays.sort(order, Comparator.comparingInt(i -> slowestSizes[i]));
+      List<String> result = new ArrayList<>(slowestCount);
+      for (int i : order) {
+        result.add(slowestCall(slowestSizes[i], slowestNanos[i]));
+      }
+      return String.join(", ", result);
+    }
+
+    private static String slowestCall(int size, long nanos) {
+      return String.format("%s at size %,d", stringifyNanos(nanos), size);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Optional;
+
+/**
+ * Measures the bytes allocated on the heap by the current thread, using the HotSpot-specific {@link
+ * com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ */
+// No threads are created; we only use Runnable and ask which thread is current.
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class AllocationMeter {
+  private final com.sun.management.ThreadMXBean threadMxBean;
+
+  private AllocationMeter(com.sun.management.ThreadMXBean threadMxBean) {
+    this.threadMxBean = requireNonNull(threadMxBean, "threadMxBean");
+  }
+
+  /**
+   * Returns an {@code AllocationMeter}, or an empty {@code Optional} if this JVM can't measure
+   * per-thread allocations.
+   */
+  static Optional<AllocationMeter> create() {
+    ThreadMXBean threadMxBean = ManagementFactory.getThreadMXBean();
+    if (!(threadMxBean instanceof com.sun.management.ThreadMXBean)) {
+      return Optional.empty();
+    }
+    com.sun.management.ThreadMXBean hotSpotThreadMxBean =
+        (com.sun.management.ThreadMXBean) threadMxBean;
+    if (!hotSpotThreadMxBean.isThreadAllocatedMemorySupported()) {
+      return Optional.empty();
+    }
+    if (!hotSpotThreadMxBean.isThreadAllocatedMemoryEnabled()) {
+      hotSpotThreadMxBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    return Optional.of(new AllocationMeter(hotSpotThreadMxBean));
+  }
+
+  /** Returns the total number of bytes that the current thread has allocated so far. */
+  long allocatedBytes() {
+    return threadMxBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /**
+   * Runs {@code action} and returns the number of bytes that the current thread allocated while
+   * doing so, excluding any that were allocated by this meter itself.
+   */
+  long bytesAllocatedBy(Runnable action) {
+    long start = allocatedBytes();
+    long overhead = allocatedBytes() - start;
+    long before = allocatedBytes();
+    action.run();
+    long after = allocatedBytes();
+    return Math.max(0, after - before - overhead);
+  }
+}
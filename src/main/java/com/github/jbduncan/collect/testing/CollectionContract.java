@@ -17,7 +17,12 @@ package com.github.jbduncan.collect.testing;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(ContractMetricsExtension.class)
 public interface CollectionContract<E> extends ContainerContract<Collection<E>, E> {
   @Override
   TestCollectionGenerator<E> generator();
@@ -26,4 +31,26 @@ public interface CollectionContract<E> extends ContainerContract<Collection<E>,
   default Set<Feature<?>> features() {
     return Feature.allFeaturesRecursively(CollectionFeature.GENERAL_PURPOSE);
   }
+
+  /**
+   * Tests the collection's {@code spliterator()} at each {@link CollectionSize} in {@link
+   * #features()}: that it traverses and splits into every element exactly once, and that the
+   * characteristics it reports, such as {@code SIZED}, {@code SUBSIZED} and {@code ORDERED}, hold.
+   * From {@link CollectionSize#SUPPORTS_LARGE} up, it also checks that splitting is balanced enough
+   * for a parallel stream to share its work evenly, which fails for a spliterator that only splits
+   * off a few elements at a time. If the collection has {@link
+   * CollectionFeature#FAILS_FAST_ON_CONCURRENT_MODIFICATION}, it checks that the spliterator binds
+   * late and fails fast, like those of {@code java.util}'s collections.
+   */
+  @TestFactory
+  default Stream<DynamicNode> spliterator() {
+    return ContractMetrics.measure(
+        getClass(),
+        "spliterator",
+        SpliteratorTester.<E>builder()
+            .testCollectionGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
 }
@@ -89,6 +89,12 @@ public enum CollectionFeature implements Feature<Collection<?>> {
    * java.util.ConcurrentModificationException ConcurrentModificationException}.
    */
   FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+  /**
+   * Indicates that the collection may be read and modified by many threads at once without external
+   * synchronization, and that each of its operations appears to take effect atomically, at some
+   * instant between its invocation and its return.
+   */
+  THREAD_SAFE,
 
   /**
    * Features supported by general-purpose collections - everything but {@link #RESTRICTS_ELEMENTS},
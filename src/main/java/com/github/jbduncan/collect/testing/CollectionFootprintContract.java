@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * {@code CollectionFootprintContract} is a test interface that checks how much heap a collection
+ * implementation retains per element.
+ *
+ * <p>For each size in {@link #footprintSizes()}, many collections are created through {@link
+ * #generator()}, and the heap that they retain is measured as the difference in used heap after
+ * forced garbage collections. A straight line is then fitted to the retained bytes per collection
+ * against size, whose slope is the bytes retained per element and whose intercept is the fixed
+ * overhead of an empty collection. The test fails if the slope is over {@link
+ * #bytesPerElementBudget()}, and reports both. For collections that grow their capacity in steps,
+ * the spare capacity varies with size, so the fixed overhead is only approximate and can even come
+ * out negative.
+ *
+ * <p>The elements themselves are shared between all the collections and aren't counted, so the
+ * budget only covers the collection's own structure. Since the measurements rely on {@code
+ * System.gc()}, these tests give meaningless results if the JVM is run with {@code
+ * -XX:+DisableExplicitGC}.
+ */
+public interface CollectionFootprintContract<E> extends CollectionContract<E> {
+  /**
+   * Returns the maximum number of bytes that the collection may retain per element, not counting
+   * the elements themselves. For example, an {@code ArrayList} on a 64-bit JVM with compressed
+   * references needs 4 bytes per element, plus up to 50% spare capacity.
+   *
+   * @return the budget in bytes per element
+   */
+  double bytesPerElementBudget();
+
+  /**
+   * Returns the collection sizes at which the retained heap is measured. By default, this is a
+   * geometric sweep from 1,000 to 16,000.
+   *
+   * @return at least 2 distinct sizes
+   */
+  default List<Integer> footprintSizes() {
+    return Collections.unmodifiableList(Arrays.asList(1_000, 2_000, 4_000, 8_000, 16_000));
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> footprint() {
+    return ContractMetrics.measure(
+        getClass(),
+        "footprint",
+        CollectionFootprintTester.<E>builder()
+            .testCollectionGenerator(generator())
+            .sizes(footprintSizes())
+            .bytesPerElementBudget(bytesPerElementBudget())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+
+final class CollectionFootprintTester<E> {
+  // Each size is measured across enough copies of the collection to add up to about this many
+  // elements, so that the measurement is large compared to the heap's noise after a GC.
+  private static final int ELEMENTS_PER_MEASUREMENT = 1 << 20;
+  private static final int MAX_GCS = 10;
+  private static final int MIN_DISTINCT_SIZES = 2;
+
+  private final TestCollectionGenerator<E> generator;
+  private final SampleElements<E> samples;
+  private final List<Integer> sizes;
+  private final double bytesPerElementBudget;
+
+  private CollectionFootprintTester(
+      TestCollectionGenerator<E> generator, List<Integer> sizes, double bytesPerElementBudget) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.sizes = requireNonNull(sizes, "sizes");
+    this.bytesPerElementBudget = bytesPerElementBudget;
+    if (sizes.stream().distinct().count() < MIN_DISTINCT_SIZES) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'sizes' must have at least %s distinct values, but was %s",
+              MIN_DISTINCT_SIZES, sizes));
+    }
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> {
+    private Builder() {}
+
+    private TestCollectionGenerator<E> testCollectionGenerator;
+    private List<Integer> sizes;
+    private double bytesPerElementBudget;
+
+    Builder<E> testCollectionGenerator(TestCollectionGenerator<E> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder<E> sizes(List<Integer> sizes) {
+      this.sizes = sizes;
+      return this;
+    }
+
+    Builder<E> bytesPerElementBudget(double bytesPerElementBudget) {
+      this.bytesPerElementBudget = bytesPerElementBudget;
+      return this;
+    }
+
+    CollectionFootprintTester<E> build() {
+      return new CollectionFootprintTester<>(testCollectionGenerator, sizes, bytesPerElementBudget);
+    }
+  }
+
+  Stream<DynamicTest> dynamicTests() {
+    return Stream.of(
+        dynamicTest(
+            "Retains at most " + bytesPerElementBudget + " bytes per element",
+            this::assertWithinBudget));
+  }
+
+  private void assertWithinBudget() {
+    int count = sizes.size();
+    double[] bytesPerCollection = new double[count];
+    for (int i = 0; i < count; i++) {
+      bytesPerCollection[i] = measureRetainedBytes(sizes.get(i));
+    }
+
+    // Fit bytesPerCollection = fixedOverhead + bytesPerElement * size with least squares.
+    double meanSize = sizes.stream().mapToDouble(Integer::doubleValue).average().orElse(0);
+    double meanBytes = Arrays.stream(bytesPerCollection).average().orElse(0);
+    double covariance = 0;
+    double variance = 0;
+    for (int i = 0; i < count; i++) {
+      covariance += (sizes.get(i) - meanSize) * (bytesPerCollection[i] - meanBytes);
+      variance += (sizes.get(i) - meanSize) * (sizes.get(i) - meanSize);
+    }
+    double bytesPerElement = covariance / variance;
+    double fixedOverhead = meanBytes - bytesPerElement * meanSize;
+    ContractMetrics.bytesMeasured("bytes per element", bytesPerElement);
+    PerformanceBaseline.check("bytes per element", PerformanceBaseline.Unit.BYTES, bytesPerElement);
+
+    if (bytesPerElement > bytesPerElementBudget) {
+      String message =
+          String.format(
+              "Expected at most %s bytes per element, but the collection retained %.2f bytes per "
+                  + "element, which is %.2f bytes over budget, plus a fixed overhead of %.1f bytes%n"
+                  + "sizes: %s%n"
+                  + "retained bytes per collection: %s",
+              bytesPerElementBudget,
+              bytesPerElement,
+              bytesPerElement - bytesPerElementBudget,
+              fixedOverhead,
+              sizes,
+              Arrays.toString(bytesPerCollection));
+      ContractMetrics.budgetViolated(
+          "Retains at most " + bytesPerElementBudget + " bytes per element", message);
+      fail(message);
+    }
+  }
+
+  /** Returns the average number of bytes retained by a collection of the given size. */
+  private double measureRetainedBytes(int size) {
+    // Create the elements, and the generator's own one-off state, before taking the baseline, so
+    // that they aren't counted as part of the collections. The elements are copied, since
+    // SampleElements creates the ones at large indices anew on every call.
+    List<E> elements =
+        new ArrayList<>(Helpers.newIterable(samples, size, /* nullInMiddle= */ false));
+    generator.create(elements);
+    Object[] collections = new Object[Math.max(1, ELEMENTS_PER_MEASUREMENT / Math.max(1, size))];
+
+    long baseline = usedHeapAfterGc();
+    for (int i = 0; i < collections.length; i++) {
+      collections[i] = generator.create(elements);
+    }
+    long retained = usedHeapAfterGc() - baseline;
+
+    // Read the collections and elements after the second GC, so that they're still reachable
+    // during it.
+    requireNonNull(collections[collections.length - 1], "collection");
+    requireNonNull(elements, "elements");
+    return (double) retained / collections.length;
+  }
+
+  // Measuring retained heap needs a full GC, so calling System.gc() is intended here.
+  @SuppressWarnings("PMD.DoNotCallGarbageCollectionExplicitly")
+  private static long usedHeapAfterGc() {
+    MemoryMXBean memoryMxBean = ManagementFactory.getMemoryMXBean();
+    long used = Long.MAX_VALUE;
+    // A single GC doesn't always collect everything, for example if objects with finalizers are
+    // waiting to be finalized, so keep collecting until the heap stops shrinking.
+    for (int i = 0; i < MAX_GCS; i++) {
+      System.gc();
+      long usedNow = memoryMxBean.getHeapMemoryUsage().getUsed();
+      if (usedNow >= used) {
+        return usedNow;
+      }
+      used = usedNow;
+    }
+    return used;
+  }
+}
@@ -24,11 +24,36 @@ public enum CollectionSize implements Feature<Collection<?>>, Comparable<Collect
   SUPPORTS_ZERO(0),
   SUPPORTS_ONE(1),
   SUPPORTS_MULTIPLE(3),
+  /**
+   * Indicates that the collection supports sizes large enough to cross the resize thresholds, chunk
+   * boundaries and rebalancing points of typical implementations. This is 1,000 elements by
+   * default, which can be changed with the system property {@value #LARGE_SIZE_PROPERTY}, which is
+   * read whenever the size is asked for.
+   *
+   * <p>Unlike the smaller sizes, this is not implied by {@link #SUPPORTS_ANY_SIZE}, so it must be
+   * requested explicitly.
+   */
+  SUPPORTS_LARGE(CollectionSize.LARGE_SIZE_PROPERTY, 1_000),
+  /**
+   * Like {@link #SUPPORTS_LARGE}, but for stress-testing collections with millions of elements.
+   * This is 1,000,000 elements by default, which can be changed with the system property {@value
+   * #HUGE_SIZE_PROPERTY}.
+   */
+  SUPPORTS_HUGE(CollectionSize.HUGE_SIZE_PROPERTY, 1_000_000),
   SUPPORTS_ANY_SIZE(SUPPORTS_ZERO, SUPPORTS_ONE, SUPPORTS_MULTIPLE);
 
+  /** The system property that configures the size of {@link #SUPPORTS_LARGE}. */
+  public static final String LARGE_SIZE_PROPERTY = "jupiter.collection.testers.size.large";
+
+  /** The system property that configures the size of {@link #SUPPORTS_HUGE}. */
+  public static final String HUGE_SIZE_PROPERTY = "jupiter.collection.testers.size.huge";
+
   private static final int NO_SIZE = -1;
+  private static final String NO_PROPERTY = "";
 
   private final int size;
+  // The system property that overrides size, or NO_PROPERTY.
+  private final String sizeProperty;
 
   // We don't have access to Guava's immutable collections, so we're forced to use
   // Collections.unmodifiable* instead. However, we ensure that features are themselves
@@ -37,16 +62,46 @@ public enum CollectionSize implements Feature<Collection<?>>, Comparable<Collect
   private final Set<Feature<? super Collection<?>>> impliedFeatures;
 
   CollectionSize(int size) {
-    this.size = checkNonNegative(size);
+    this(NO_PROPERTY, size);
+  }
+
+  // The size is only read from the property when it's asked for, so that a malformed value fails
+  // the tests that use this size, rather than the initialization of this enum.
+  CollectionSize(String sizeProperty, int defaultSize) {
+    this.size = checkNonNegative(defaultSize);
+    this.sizeProperty = sizeProperty;
     this.impliedFeatures = Collections.emptySet();
   }
 
   CollectionSize(Feature<? super Collection<?>>... impliedSizes) {
     this.size = NO_SIZE;
+    this.sizeProperty = NO_PROPERTY;
     this.impliedFeatures = Helpers.copyToUnmodifiableInsertionOrderSet(impliedSizes);
   }
 
-  private int checkNonNegative(int size) {
+  private static int configuredSize(String property, int defaultSize) {
+    String value = System.getProperty(property);
+    if (value == null) {
+      return defaultSize;
+    }
+    int result;
+    try {
+      result = Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format(
+              "System property '%s' is '%s', but it must be an integer.", property, value),
+          e);
+    }
+    if (result < 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "System property '%s' is '%s', but it cannot be less than 0.", property, value));
+    }
+    return result;
+  }
+
+  private static int checkNonNegative(int size) {
     if (size < 0) {
       throw new IllegalArgumentException(
           String.format("'size' is %s, but it cannot be less than 0.", size));
@@ -59,7 +114,7 @@ public enum CollectionSize implements Feature<Collection<?>>, Comparable<Collect
       throw new IllegalStateException(
           "A compound CollectionSize doesn't specify a number of elements.");
     }
-    return size;
+    return sizeProperty.isEmpty() ? size : configuredSize(sizeProperty, size);
   }
 
   @Override
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * An element whose hash code is chosen to collide with those of other elements, for testing how
+ * hash-based collections cope with collisions. It isn't {@link Comparable}; see {@link
+ * ComparableCollidingElement} for one that is.
+ *
+ * <p>Like {@link CountingElement}, calls to its {@code equals} and {@code hashCode} methods are
+ * counted by {@link ElementOperationCounts}.
+ */
+public final class CollidingElement {
+  private final int value;
+  private final int hashCode;
+
+  private CollidingElement(int value, int hashCode) {
+    this.value = value;
+    this.hashCode = hashCode;
+  }
+
+  /**
+   * Returns a {@code CollidingElement} that is equal to other elements with the same {@code value},
+   * and whose hash code is {@code hashCode}.
+   */
+  public static CollidingElement of(int value, int hashCode) {
+    return new CollidingElement(value, hashCode);
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    ElementOperationCounts.recordEquals();
+    return object instanceof CollidingElement && ((CollidingElement) object).value == value;
+  }
+
+  @Override
+  public int hashCode() {
+    ElementOperationCounts.recordHashCode();
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "#" + value;
+  }
+}
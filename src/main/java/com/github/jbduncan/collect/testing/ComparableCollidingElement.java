@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * Like {@link CollidingElement}, but {@link Comparable}, so that collections such as {@code
+ * HashMap} can order colliding elements to find them faster. Elements are ordered by value.
+ */
+public final class ComparableCollidingElement implements Comparable<ComparableCollidingElement> {
+  private final int value;
+  private final int hashCode;
+
+  private ComparableCollidingElement(int value, int hashCode) {
+    this.value = value;
+    this.hashCode = hashCode;
+  }
+
+  /**
+   * Returns a {@code ComparableCollidingElement} that is equal to other elements with the same
+   * {@code value}, and whose hash code is {@code hashCode}.
+   */
+  public static ComparableCollidingElement of(int value, int hashCode) {
+    return new ComparableCollidingElement(value, hashCode);
+  }
+
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    ElementOperationCounts.recordEquals();
+    return object instanceof ComparableCollidingElement
+        && ((ComparableCollidingElement) object).value == value;
+  }
+
+  @Override
+  public int hashCode() {
+    ElementOperationCounts.recordHashCode();
+    return hashCode;
+  }
+
+  @Override
+  public int compareTo(ComparableCollidingElement other) {
+    ElementOperationCounts.recordCompareTo();
+    return Integer.compare(value, other.value);
+  }
+
+  @Override
+  public String toString() {
+    return "#" + value;
+  }
+}
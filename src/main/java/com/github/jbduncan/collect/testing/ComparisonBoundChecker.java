@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Checks {@link ElementOperationCounts} against a {@link GrowthBound}, collecting every violation
+ * so that a test can report them all at once.
+ */
+final class ComparisonBoundChecker {
+  private final GrowthBound bound;
+  private final List<String> violations = new ArrayList<>();
+
+  ComparisonBoundChecker(GrowthBound bound) {
+    this.bound = requireNonNull(bound, "bound");
+  }
+
+  /**
+   * Records a violation if {@code counts} has more comparisons than the bound allows at {@code
+   * size}. {@code description} describes the operation that was counted.
+   */
+  void check(int size, Supplier<String> description, ElementOperationCounts counts) {
+    long maxComparisons = bound.maxOperations(size);
+    if (counts.comparisons() > maxComparisons) {
+      violations.add(
+          String.format(
+              "%s made %,d comparisons (%s), but at most %,d are allowed",
+              description.get(), counts.comparisons(), counts, maxComparisons));
+    }
+  }
+
+  /** Fails with every recorded violation, if there are any. */
+  void assertNoViolations() {
+    if (!violations.isEmpty()) {
+      String message = String.join(System.lineSeparator(), violations);
+      ContractMetrics.budgetViolated("at most " + bound + " comparisons", message);
+      fail(message);
+    }
+  }
+}
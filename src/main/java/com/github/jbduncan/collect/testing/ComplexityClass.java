@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * The growth rate of an operation's running time with respect to the size {@code n} of the
+ * collection it operates on, from slowest-growing to fastest-growing.
+ */
+public enum ComplexityClass {
+  /** O(1). */
+  CONSTANT("1"),
+  /** O(log n). */
+  LOGARITHMIC("log n"),
+  /** O(n). */
+  LINEAR("n"),
+  /** O(n log n). */
+  LINEARITHMIC("n log n"),
+  /** O(n²). */
+  QUADRATIC("n^2");
+
+  private final String formula;
+
+  ComplexityClass(String formula) {
+    this.formula = formula;
+  }
+
+  /** Returns the growth function of this class without the "O(...)", such as {@code "n log n"}. */
+  String formula() {
+    return formula;
+  }
+
+  /** Returns the value of this growth function for the given {@code n}, ignoring constants. */
+  double growth(double n) {
+    switch (this) {
+      case CONSTANT:
+        return 1;
+      case LOGARITHMIC:
+        return log2(n);
+      case LINEAR:
+        return n;
+      case LINEARITHMIC:
+        return n * log2(n);
+      case QUADRATIC:
+        return n * n;
+    }
+    throw new AssertionError(this);
+  }
+
+  private static double log2(double n) {
+    return Math.log(n) / Math.log(2);
+  }
+
+  @Override
+  public String toString() {
+    return "O(" + formula + ")";
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fits measurements taken at a range of sizes to each {@link ComplexityClass}, using least squares
+ * to find the {@code cost(n) = a + b * growth(n)} with the smallest relative errors for each class.
+ */
+final class ComplexityFitter {
+  // Measurements are noisy, so a faster-growing class is only chosen over a slower-growing one if
+  // it fits clearly better: the slower-growing class wins if its error is within this factor of the
+  // best error, or within an absolute margin for when all errors are small. Each error is the root
+  // mean square of a fit's relative errors, so the margin is roughly "5% off at a typical size".
+  private static final double SLOWER_CLASS_ERROR_RATIO = 1.5;
+  private static final double SLOWER_CLASS_ERROR_MARGIN = 0.05;
+
+  // Every class fits any two points exactly, so at least three are needed to tell them apart.
+  private static final int MIN_DISTINCT_SIZES = 3;
+
+  private ComplexityFitter() {}
+
+  /**
+   * Returns the slowest-growing complexity class that fits the given measurements about as well as
+   * the best-fitting class does.
+   *
+   * @param sizes the sizes at which the measurements were taken; must have at least 3 distinct
+   *     values, each at least 1
+   * @param measurements the measurement taken at each size
+   */
+  static Fit fit(double[] sizes, double... measurements) {
+    requireNonNull(sizes, "sizes");
+    requireNonNull(measurements, "measurements");
+    if (sizes.length != measurements.length) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'sizes' has %s values, but 'measurements' has %s",
+              sizes.length, measurements.length));
+    }
+    if (Arrays.stream(sizes).distinct().count() < MIN_DISTINCT_SIZES) {
+      throw new IllegalArgumentException(
+          "'sizes' must have at least 3 distinct values, but was " + Arrays.toString(sizes));
+    }
+    if (Arrays.stream(sizes).anyMatch(size -> size < 1)) {
+      throw new IllegalArgumentException(
+          "'sizes' must all be at least 1, but was " + Arrays.toString(sizes));
+    }
+
+    Map<ComplexityClass, Double> errors = new EnumMap<>(ComplexityClass.class);
+    double bestError = Double.POSITIVE_INFINITY;
+    for (ComplexityClass complexityClass : ComplexityClass.values()) {
+      double error = relativeError(complexityClass, sizes, measurements);
+      errors.put(complexityClass, error);
+      bestError = Math.min(bestError, error);
+    }
+    for (Map.Entry<ComplexityClass, Double> entry : errors.entrySet()) {
+      if (entry.getValue()
+          <= Math.max(
+              bestError * SLOWER_CLASS_ERROR_RATIO, bestError + SLOWER_CLASS_ERROR_MARGIN)) {
+        return new Fit(entry.getKey(), errors);
+      }
+    }
+    throw new AssertionError("No complexity class fits " + errors);
+  }
+
+  private static double relativeError(
+      ComplexityClass complexityClass, double[] sizes, double... measurements) {
+    // Measurements at the largest sizes are the largest, and so are their absolute errors. To stop
+    // them from dominating the fit, each residual is weighted by 1 / measurement, so that what's
+    // minimised is the sum of squared relative errors.
+    int count = sizes.length;
+    double[] growths = new double[count];
+    double[] weights = new double[count];
+    double totalWeight = 0;
+    double meanGrowth = 0;
+    double meanMeasurement = 0;
+    for (int i = 0; i < count; i++) {
+      growths[i] = complexityClass.growth(sizes[i]);
+      weights[i] = 1 / Math.max(measurements[i] * measurements[i], Double.MIN_NORMAL);
+      totalWeight += weights[i];
+      meanGrowth += weights[i] * growths[i];
+      meanMeasurement += weights[i] * measurements[i];
+    }
+    meanGrowth /= totalWeight;
+    meanMeasurement /= totalWeight;
+    double covariance = 0;
+    double variance = 0;
+    for (int i = 0; i < count; i++) {
+      covariance += weights[i] * (growths[i] - meanGrowth) * (measurements[i] - meanMeasurement);
+      variance += weights[i] * (growths[i] - meanGrowth) * (growths[i] - meanGrowth);
+    }
+    // A cost can't shrink as n grows, so a negative slope is clamped to a constant fit.
+    double slope = variance == 0 ? 0 : Math.max(0, covariance / variance);
+    double intercept = meanMeasurement - slope * meanGrowth;
+    double sumOfSquares = 0;
+    for (int i = 0; i < count; i++) {
+      double residual = measurements[i] - (intercept + slope * growths[i]);
+      sumOfSquares += weights[i] * residual * residual;
+    }
+    return Math.sqrt(sumOfSquares / count);
+  }
+
+  static final class Fit {
+    private final ComplexityClass complexityClass;
+    private final Map<ComplexityClass, Double> errors;
+
+    private Fit(ComplexityClass complexityClass, Map<ComplexityClass, Double> errors) {
+      this.complexityClass = complexityClass;
+      this.errors = errors;
+    }
+
+    ComplexityClass complexityClass() {
+      return complexityClass;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder result =
+          new StringBuilder().append(complexityClass).append(" (RMS relative errors:");
+      errors.forEach(
+          (candidate, error) ->
+              result
+                  .append(' ')
+                  .append(candidate)
+                  .append('=')
+                  .append(String.format("%.3f", error)));
+      return result.append(')').toString();
+    }
+  }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import com.github.jbduncan.collect.testing.LinearizabilityChecker.Kind;
+import com.github.jbduncan.collect.testing.LinearizabilityChecker.Operation;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+
+// Running operations from many threads at once is the point of this tester.
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class ConcurrencyTester<E> {
+  // Few enough distinct elements that threads often operate on the same one.
+  private static final int DISTINCT_ELEMENTS = 3;
+  // How long each smaller scenario is rerun for while minimizing a failure. A scenario that fails
+  // only rarely is as good as one that never fails, for this purpose.
+  private static final Duration MINIMIZATION_ATTEMPT = Duration.ofMillis(100);
+  // How long the threads of a round, or all actors, may take to finish by default before they're
+  // assumed to be stuck.
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+  private final TestCollectionGenerator<E> generator;
+  private final FeatureSet features;
+  private final SampleElements<E> samples;
+  private final List<E> elements;
+  private final int threads;
+  private final int operationsPerThread;
+  private final Duration duration;
+  private final WorkerThreadMode workerThreadMode;
+  private final int actors;
+  private final Duration timeout;
+
+  private ConcurrencyTester(
+      TestCollectionGenerator<E> generator,
+      Set<Feature<?>> features,
+      int threads,
+      int operationsPerThread,
+      Duration duration,
+      WorkerThreadMode workerThreadMode,
+      int actors,
+      Duration timeout) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.elements = samples.asList().subList(0, DISTINCT_ELEMENTS);
+    this.duration = requireNonNull(duration, "duration");
+    this.workerThreadMode = requireNonNull(workerThreadMode, "workerThreadMode");
+    this.actors = actors;
+    this.timeout = requireNonNull(timeout, "timeout");
+    if (threads < 2 || operationsPerThread < 1) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'threads' is %s and 'operationsPerThread' is %s, but they must be >= 2 and >= 1",
+              threads, operationsPerThread));
+    }
+    if ((long) threads * operationsPerThread > LinearizabilityChecker.MAX_OPERATIONS) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'threads' * 'operationsPerThread' is %s, but must be at most %s",
+              (long) threads * operationsPerThread, LinearizabilityChecker.MAX_OPERATIONS));
+    }
+    this.threads = threads;
+    this.operationsPerThread = operationsPerThread;
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> {
+    private Builder() {}
+
+    private TestCollectionGenerator<E> testCollectionGenerator;
+    private Set<Feature<?>> features;
+    private int threads;
+    private int operationsPerThread;
+    private Duration duration;
+    private WorkerThreadMode workerThreadMode = WorkerThreadMode.PLATFORM;
+    private int actors;
+    private Duration timeout = DEFAULT_TIMEOUT;
+
+    Builder<E> testCollectionGenerator(TestCollectionGenerator<E> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder<E> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    Builder<E> threads(int threads) {
+      this.threads = threads;
+      return this;
+    }
+
+    Builder<E> operationsPerThread(int operationsPerThread) {
+      this.operationsPerThread = operationsPerThread;
+      return this;
+    }
+
+    /** Sets how long to keep running new histories for, unless one fails sooner. */
+    Builder<E> duration(Duration duration) {
+      this.duration = duration;
+      return this;
+    }
+
+    Builder<E> workerThreadMode(WorkerThreadMode workerThreadMode) {
+      this.workerThreadMode = workerThreadMode;
+      return this;
+    }
+
+    /** Sets the number of actors that each use the collection at once, or 0 for none. */
+    Builder<E> actors(int actors) {
+      this.actors = actors;
+      return this;
+    }
+
+    /**
+     * Sets how long the threads of each history, or all of the actors, may take to finish before
+     * the collection is assumed to have deadlocked; 30 seconds by default.
+     */
+    Builder<E> timeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    ConcurrencyTester<E> build() {
+      return new ConcurrencyTester<>(
+          testCollectionGenerator,
+          features,
+          threads,
+          operationsPerThread,
+          duration,
+          workerThreadMode,
+          actors,
+          timeout);
+    }
+  }
+
+  Stream<DynamicTest> dynamicTests() {
+    if (!features.contains(CollectionFeature.THREAD_SAFE)) {
+      return Stream.empty();
+    }
+    List<Kind> kinds = supportedKinds();
+    Stream.Builder<DynamicTest> tests = Stream.builder();
+    tests.add(
+        dynamicTest(
+            String.format(
+                "histories of %s from %s %s are linearizable",
+                kinds.stream().map(Kind::methodName).collect(Collectors.joining(", ")),
+                threads,
+                workerThreadMode),
+            () -> assertLinearizable(kinds)));
+    // Each actor needs its own element, and to both add and remove it.
+    if (actors > 0
+        && samples.isScalable()
+        && features.containsAll(
+            CollectionFeature.SUPPORTS_ADD, CollectionFeature.SUPPORTS_REMOVE)) {
+      tests.add(
+          dynamicTest(
+              String.format(
+                  "%,d actors on %s each add, find and remove their own element",
+                  actors, workerThreadMode),
+              this::assertActorsSeeTheirOwnElements));
+    }
+    return tests.build();
+  }
+
+  private List<Kind> supportedKinds() {
+    List<Kind> kinds = new ArrayList<>();
+    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      kinds.add(Kind.ADD);
+    }
+    if (features.contains(CollectionFeature.SUPPORTS_REMOVE)) {
+      kinds.add(Kind.REMOVE);
+    }
+    kinds.add(Kind.CONTAINS);
+    return kinds;
+  }
+
+  private void assertLinearizable(List<Kind> kinds) throws InterruptedException {
+    long seed = System.nanoTime();
+    Random random = new Random(seed);
+    LinearizabilityChecker<E> checker = new LinearizabilityChecker<>(this::newCollection);
+    ExecutorService executor = workerThreadMode.newExecutor(threads);
+    try {
+      Runner runner = new Runner(executor, checker, seed);
+      long deadline = System.nanoTime() + duration.toNanos();
+      int rounds = 0;
+      while (System.nanoTime() < deadline) {
+        List<List<Step<E>>> scenario = randomScenario(random, kinds);
+        List<Operation<E>> history = runner.run(scenario);
+        rounds++;
+        if (!checker.isLinearizable(history)) {
+          fail(failureMessage(runner.minimize(scenario, history, duration), seed, rounds));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void assertActorsSeeTheirOwnElements() throws InterruptedException {
+    Collection<E> collection = newCollection();
+    ExecutorService executor = workerThreadMode.newExecutor(threads);
+    try {
+      List<Future<String>> futures = new ArrayList<>(actors);
+      for (int actor = 0; actor < actors; actor++) {
+        E element = samples.fixtureElement(actor);
+        futures.add(executor.submit(() -> actOn(collection, element)));
+      }
+      long deadline = System.nanoTime() + timeout.toNanos();
+      List<String> failures = new ArrayList<>();
+      for (Future<String> future : futures) {
+        String failure = awaitActor(future, deadline);
+        if (failure != null) {
+          failures.add(failure);
+        }
+      }
+      if (!failures.isEmpty()) {
+        fail(String.join(System.lineSeparator(), failures));
+      }
+      if (!collection.isEmpty()) {
+        fail(
+            String.format(
+                "Expected the collection to be empty after every actor removed its element, but"
+                    + " it was %s",
+                Helpers.stringifyElements(collection)));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Returns a description of what went wrong for this actor, or null if nothing did. */
+  private String actOn(Collection<E> collection, E element) {
+    if (!collection.add(element)) {
+      return String.format("add(%s) returned false, but the element was absent", element);
+    }
+    // Give other actors a chance to run between each step.
+    Thread.yield();
+    if (!collection.contains(element)) {
+      return String.format("contains(%s) returned false after it was added", element);
+    }
+    Thread.yield();
+    if (!collection.remove(element)) {
+      return String.format("remove(%s) returned false, but the element was present", element);
+    }
+    if (collection.contains(element)) {
+      return String.format("contains(%s) returned true after it was removed", element);
+    }
+    return null;
+  }
+
+  private String awaitActor(Future<String> future, long deadline) throws InterruptedException {
+    try {
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      throw new AssertionError("An actor failed unexpectedly", e);
+    } catch (TimeoutException e) {
+      throw new AssertionError(
+          String.format(
+              "The actors didn't all finish within %s. With virtual threads, this can mean that"
+                  + " the collection blocks while holding a monitor, pinning the carrier threads"
+                  + " that the other actors need",
+              timeout),
+          e);
+    }
+  }
+
+  private List<List<Step<E>>> randomScenario(Random random, List<Kind> kinds) {
+    List<List<Step<E>>> scenario = new ArrayList<>(threads);
+    for (int thread = 0; thread < threads; thread++) {
+      scenario.add(randomSteps(random, kinds));
+    }
+    return scenario;
+  }
+
+  private List<Step<E>> randomSteps(Random random, List<Kind> kinds) {
+    List<Step<E>> steps = new ArrayList<>(operationsPerThread);
+    for (int i = 0; i < operationsPerThread; i++) {
+      steps.add(randomStep(random, kinds));
+    }
+    return steps;
+  }
+
+  private Step<E> randomStep(Random random, List<Kind> kinds) {
+    return new Step<>(
+        kinds.get(random.nextInt(kinds.size())), elements.get(random.nextInt(elements.size())));
+  }
+
+  private Collection<E> newCollection() {
+    return generator.create(Collections.emptyList());
+  }
+
+  private String failureMessage(List<Operation<E>> history, long seed, int rounds) {
+    StringBuilder message =
+        new StringBuilder(
+            String.format(
+                "Found a history that isn't linearizable in round %,d (random seed %s). The smallest"
+                    + " failing history found, in logical time, is:",
+                rounds, seed));
+    for (Operation<E> operation : history) {
+      message.append(System.lineSeparator()).append("  ").append(operation);
+    }
+    return message.toString();
+  }
+
+  private final class Runner {
+    private final ExecutorService executor;
+    private final LinearizabilityChecker<E> checker;
+    private final long seed;
+
+    Runner(ExecutorService executor, LinearizabilityChecker<E> checker, long seed) {
+      this.executor = executor;
+      this.checker = checker;
+      this.seed = seed;
+    }
+
+    /**
+     * Runs each thread's steps at once on a new collection, and returns what happened. Fails if the
+     * threads don't all finish in time, as the collection has probably deadlocked.
+     */
+    List<Operation<E>> run(List<List<Step<E>>> scenario) throws InterruptedException {
+      Collection<E> collection = newCollection();
+      CyclicBarrier start = new CyclicBarrier(scenario.size());
+      AtomicLong clock = new AtomicLong();
+      // Each thread's operations so far, so that they can be reported if the threads get stuck.
+      List<List<Operation<E>>> operations = new ArrayList<>(scenario.size());
+      List<Future<?>> futures = new ArrayList<>(scenario.size());
+      for (int thread = 0; thread < scenario.size(); thread++) {
+        futures.add(submit(thread, scenario.get(thread), collection, start, clock, operations));
+      }
+      long deadline = System.nanoTime() + timeout.toNanos();
+      for (Future<?> future : futures) {
+        try {
+          future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+          throw new AssertionError("A thread failed unexpectedly", e);
+        } catch (TimeoutException e) {
+          for (Future<?> stuck : futures) {
+            stuck.cancel(/* mayInterruptIfRunning= */ true);
+          }
+          throw new AssertionError(timeoutMessage(history(operations)), e);
+        }
+      }
+      return history(operations);
+    }
+
+    private List<Operation<E>> history(List<List<Operation<E>>> operations) {
+      List<Operation<E>> history = new ArrayList<>();
+      for (List<Operation<E>> threadOperations : operations) {
+        synchronized (threadOperations) {
+          history.addAll(threadOperations);
+        }
+      }
+      history.sort(Comparator.comparingLong(Operation::invokedAt));
+      return history;
+    }
+
+    private String timeoutMessage(List<Operation<E>> history) {
+      StringBuilder message =
+          new StringBuilder(
+              String.format(
+                  "The threads didn't all finish within %s, so the collection may have deadlocked"
+                      + " (random seed %s). The operations that finished, in logical time, were:",
+                  timeout, seed));
+      for (Operation<E> operation : history) {
+        message.append(System.lineSeparator()).append("  ").append(operation);
+      }
+      return message.toString();
+    }
+
+    private Future<?> submit(
+        int thread,
+        List<Step<E>> steps,
+        Collection<E> collection,
+        CyclicBarrier start,
+        AtomicLong clock,
+        List<List<Operation<E>>> threadOperations) {
+      List<Operation<E>> operations = Collections.synchronizedList(new ArrayList<>(steps.size()));
+      threadOperations.add(operations);
+      return executor.submit(
+          () -> {
+            awaitStart(start);
+            for (Step<E> step : steps) {
+              operations.add(step.runOn(thread, collection, clock));
+            }
+            return operations;
+          });
+    }
+
+    /**
+     * Tries to remove steps from a failing scenario while it still fails, spending about as long
+     * again as {@code duration}, and returns the history of the smallest scenario that failed.
+     */
+    List<Operation<E>> minimize(
+        List<List<Step<E>>> scenario, List<Operation<E>> history, Duration duration)
+        throws InterruptedException {
+      long deadline = System.nanoTime() + duration.toNanos();
+      List<List<Step<E>>> smallest = scenario;
+      List<Operation<E>> smallestHistory = history;
+      boolean shrunk = true;
+      while (shrunk && System.nanoTime() < deadline) {
+        shrunk = false;
+        for (List<List<Step<E>>> candidate : withOneStepRemoved(smallest)) {
+          List<Operation<E>> failure = findFailure(candidate, deadline);
+          if (failure != null) {
+            smallest = candidate;
+            smallestHistory = failure;
+            shrunk = true;
+            break;
+          }
+        }
+      }
+      return smallestHistory;
+    }
+
+    /**
+     * Reruns {@code scenario} until it fails or the deadline passes. Returns null if it doesn't.
+     */
+    private List<Operation<E>> findFailure(List<List<Step<E>>> scenario, long deadline)
+        throws InterruptedException {
+      long candidateDeadline =
+          Math.min(deadline, System.nanoTime() + MINIMIZATION_ATTEMPT.toNanos());
+      while (System.nanoTime() < candidateDeadline) {
+        List<Operation<E>> history = run(scenario);
+        if (!checker.isLinearizable(history)) {
+          return history;
+        }
+      }
+      return null;
+    }
+  }
+
+  private static <E> List<List<List<Step<E>>>> withOneStepRemoved(List<List<Step<E>>> scenario) {
+    List<List<List<Step<E>>>> candidates = new ArrayList<>();
+    for (int thread = 0; thread < scenario.size(); thread++) {
+      for (int step = 0; step < scenario.get(thread).size(); step++) {
+        candidates.add(withStepRemoved(scenario, thread, step));
+      }
+    }
+    return candidates;
+  }
+
+  private static <E> List<List<Step<E>>> withStepRemoved(
+      List<List<Step<E>>> scenario, int thread, int step) {
+    List<List<Step<E>>> result = new ArrayList<>(scenario);
+    List<Step<E>> steps = new ArrayList<>(scenario.get(thread));
+    steps.remove(step);
+    result.set(thread, steps);
+    return result;
+  }
+
+  private static void awaitStart(CyclicBarrier barrier) throws InterruptedException {
+    try {
+      barrier.await();
+    } catch (BrokenBarrierException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Step<E> {
+    private final Kind kind;
+    private final E element;
+
+    Step(Kind kind, E element) {
+      this.kind = kind;
+      this.element = element;
+    }
+
+    Operation<E> runOn(int thread, Collection<E> collection, AtomicLong clock) {
+      long invokedAt = clock.incrementAndGet();
+      Object result = kind.applyTo(collection, element);
+      long returnedAt = clock.incrementAndGet();
+      return new Operation<>(thread, kind, element, result, invokedAt, returnedAt);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * {@code ConcurrentCollectionContract} is a test interface that checks that a thread-safe
+ * collection behaves correctly when it's used by many threads at once.
+ *
+ * <p>Randomized histories of {@code add(E)}, {@code remove(Object)} and {@code contains(Object)}
+ * are run from {@link #concurrentThreads()} threads at once, on a few sample elements so that the
+ * threads contend, and each history is checked for linearizability: there must be some order of its
+ * operations, consistent with the order in which they ran, in which running them one at a time on a
+ * fresh collection from {@link #generator()} gives the same results. New histories are run until
+ * {@link #concurrentTestDuration()} has passed. When one fails, it's minimized by rerunning smaller
+ * versions of it, and the smallest failing history is reported.
+ *
+ * <p>Separately, {@link #concurrentActors()} actors each add, find and remove their own element at
+ * once. This is most useful with {@link WorkerThreadMode#VIRTUAL}, where thousands of actors can
+ * run at once, and a collection that blocks while holding a monitor starves them of carrier
+ * threads. It needs scalable {@link SampleElements}, so that each actor has its own element.
+ *
+ * <p>The tests only run if {@link #features()} contains {@link CollectionFeature#THREAD_SAFE}, and
+ * {@code add(E)} and {@code remove(Object)} only appear in histories if {@link
+ * CollectionFeature#SUPPORTS_ADD} and {@link CollectionFeature#SUPPORTS_REMOVE} are also present.
+ * The actors need both. There's no default for {@code features()} beyond {@link
+ * CollectionContract}'s, so that this contract can be implemented alongside others, like {@link
+ * ListContract}, so override it to add {@code THREAD_SAFE}.
+ */
+public interface ConcurrentCollectionContract<E> extends CollectionContract<E> {
+  /**
+   * Returns the number of threads that run operations at once. By default, this is 3.
+   *
+   * @return at least 2 threads
+   */
+  default int concurrentThreads() {
+    return 3;
+  }
+
+  /**
+   * Returns the number of operations that each thread runs in each history. By default, this is 4.
+   * The cost of checking a history grows exponentially with its length, so keep this small.
+   *
+   * @return at least 1 operation, such that there are at most 64 operations in total
+   */
+  default int concurrentOperationsPerThread() {
+    return 4;
+  }
+
+  /**
+   * Returns how long to keep running new histories for. By default, this is 1 second.
+   *
+   * @return the duration
+   */
+  default Duration concurrentTestDuration() {
+    return Duration.ofSeconds(1);
+  }
+
+  /**
+   * Returns the kind of threads that workers run on. By default, this is {@link
+   * WorkerThreadMode#PLATFORM}. {@link WorkerThreadMode#VIRTUAL} falls back to platform threads on
+   * JDKs without virtual threads.
+   *
+   * @return the worker thread mode
+   */
+  default WorkerThreadMode workerThreadMode() {
+    return WorkerThreadMode.PLATFORM;
+  }
+
+  /**
+   * Returns the number of actors that each add, find and remove their own element at once. By
+   * default, this is 1,000. With platform threads, the actors take turns on {@link
+   * #concurrentThreads()} threads.
+   *
+   * @return the number of actors, or 0 to not run them
+   */
+  default int concurrentActors() {
+    return 1_000;
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> concurrency() {
+    return ContractMetrics.measure(
+        getClass(),
+        "concurrency",
+        ConcurrencyTester.<E>builder()
+            .testCollectionGenerator(generator())
+            .features(features())
+            .threads(concurrentThreads())
+            .operationsPerThread(concurrentOperationsPerThread())
+            .duration(concurrentTestDuration())
+            .workerThreadMode(workerThreadMode())
+            .actors(concurrentActors())
+            .build()
+            .dynamicTests());
+  }
+}
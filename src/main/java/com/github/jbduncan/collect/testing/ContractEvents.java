@@ -0,0 +1,288 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Marks where each dynamic test of the contracts starts and finishes, and the phases within it, so
+ * that a profiler can tell the time spent in a collection apart from the time spent in the testers.
+ *
+ * <p>The phases of a test are the creation of its fixture through the generator, the operation
+ * under test, and the assertions on the outcome. Each phase lasts until the next one begins or the
+ * test finishes. Tests are marked by {@link ContractMetrics#measure}, fixtures by the helpers that
+ * create them, and the operation and assertions by the testers that separate them.
+ *
+ * <p>The marks are recorded as Java Flight Recorder events, if the JFR events in {@code src/jfr}
+ * were built, which needs JDK 11 or later, and the JVM has Java Flight Recorder. The time that each
+ * fixture took to create is also reported to any {@link ContractMetricsListener}s, through {@link
+ * ContractMetrics#fixtureCreated}. If there is neither, every method does nothing.
+ */
+final class ContractEvents {
+  private static final Span NO_PHASE = test -> {};
+
+  /** The recorder that records nothing, for when there's no Java Flight Recorder. */
+  static final Recorder NO_RECORDER =
+      new Recorder() {
+        @Override
+        public Span beginTest() {
+          return NO_PHASE;
+        }
+
+        @Override
+        public Span beginPhase(Phase phase) {
+          return NO_PHASE;
+        }
+      };
+
+  private static final Tracker TRACKER =
+      new Tracker(loadRecorder(), ContractMetrics.hasListeners());
+
+  private ContractEvents() {}
+
+  /** A phase of a dynamic test. */
+  enum Phase {
+    FIXTURE_CREATION("fixture creation"),
+    OPERATION("operation"),
+    ASSERTION("assertion");
+
+    private final String description;
+
+    Phase(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  /** Records the tests and their phases as they happen. */
+  interface Recorder {
+    /** Starts timing a test. */
+    Span beginTest();
+
+    /** Starts timing a phase of a test. */
+    Span beginPhase(Phase phase);
+  }
+
+  /** The timing of a test or a phase, which is recorded when it ends. */
+  interface Span {
+    void end(RunningTest test);
+  }
+
+  /** Returns the Java Flight Recorder recorder, or {@link #NO_RECORDER} if it can't be loaded. */
+  static Recorder loadRecorder() {
+    try {
+      return (Recorder)
+          Class.forName(ContractEvents.class.getPackage().getName() + ".JfrContractEvents")
+              .getDeclaredConstructor()
+              .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      // The JFR events weren't built, or this JVM doesn't have Java Flight Recorder.
+      return NO_RECORDER;
+    }
+  }
+
+  /**
+   * Marks the start of the dynamic test at {@code path}, which is the test factory's name followed
+   * by the display names down to the test, in {@code testClass}.
+   */
+  static void testStarted(Class<?> testClass, List<String> path) {
+    TRACKER.testStarted(testClass, path);
+  }
+
+  /** Marks the end of the current thread's test, and of its last phase. */
+  static void testFinished() {
+    TRACKER.testFinished();
+  }
+
+  /** Marks the start of the creation of a fixture of the given size. */
+  static void fixtureCreation(CollectionSize collectionSize) {
+    TRACKER.fixtureCreation(collectionSize);
+  }
+
+  /** Marks the start of {@code operation}, on a collection with the given features. */
+  static void operation(String operation, FeatureSet features) {
+    TRACKER.operation(operation, features);
+  }
+
+  /** Marks the start of the assertions on the outcome of the operation. */
+  static void assertion() {
+    TRACKER.assertion();
+  }
+
+  /** Marks the end of the current phase, if there is one. */
+  static void endPhase() {
+    TRACKER.endPhase();
+  }
+
+  /**
+   * Tracks the test that each thread is running, and its phases, and records them with a {@link
+   * Recorder}. It does nothing if there's neither a recorder nor any {@link
+   * ContractMetricsListener}s to tell.
+   */
+  static final class Tracker {
+    private final Recorder recorder;
+    private final boolean enabled;
+
+    // The test that each thread is running, if the events are enabled.
+    private final ThreadLocal<RunningTest> runningTest = new ThreadLocal<>();
+
+    // NO_RECORDER is a sentinel, so it's compared by identity.
+    @SuppressWarnings("PMD.CompareObjectsWithEquals")
+    Tracker(Recorder recorder, boolean hasListeners) {
+      this.recorder = requireNonNull(recorder, "recorder");
+      this.enabled = recorder != NO_RECORDER || hasListeners;
+    }
+
+    void testStarted(Class<?> testClass, List<String> path) {
+      if (enabled) {
+        // A test can run another one, so the outer test is restored once the inner one finishes.
+        runningTest.set(
+            new RunningTest(testClass, path, recorder, recorder.beginTest(), runningTest.get()));
+      }
+    }
+
+    void testFinished() {
+      RunningTest test = runningTest.get();
+      if (test != null) {
+        if (test.outer == null) {
+          runningTest.remove();
+        } else {
+          runningTest.set(test.outer);
+        }
+        test.endPhase();
+        test.span.end(test);
+      }
+    }
+
+    void fixtureCreation(CollectionSize collectionSize) {
+      RunningTest test = runningTest.get();
+      if (test != null) {
+        test.collectionSize = collectionSize;
+        test.beginPhase(Phase.FIXTURE_CREATION);
+      }
+    }
+
+    void operation(String operation, FeatureSet features) {
+      RunningTest test = runningTest.get();
+      if (test != null) {
+        test.operation = operation;
+        test.features = features;
+        test.beginPhase(Phase.OPERATION);
+      }
+    }
+
+    void assertion() {
+      RunningTest test = runningTest.get();
+      if (test != null) {
+        test.beginPhase(Phase.ASSERTION);
+      }
+    }
+
+    void endPhase() {
+      RunningTest test = runningTest.get();
+      if (test != null) {
+        test.endPhase();
+      }
+    }
+
+    /** Returns the test that the current thread is running, if the events are enabled. */
+    Optional<RunningTest> runningTest() {
+      return Optional.ofNullable(runningTest.get());
+    }
+  }
+
+  /** A test that is running, and what is known about it so far. */
+  static final class RunningTest {
+    private final Class<?> testClass;
+    private final List<String> path;
+    private final Recorder recorder;
+    private final Span span;
+    private final RunningTest outer; // null if this test isn't running inside another one
+    private String operation;
+    private CollectionSize collectionSize;
+    private FeatureSet features;
+    private Span phaseSpan = NO_PHASE;
+
+    private RunningTest(
+        Class<?> testClass, List<String> path, Recorder recorder, Span span, RunningTest outer) {
+      this.testClass = testClass;
+      this.path = path;
+      this.recorder = recorder;
+      this.span = span;
+      this.outer = outer;
+    }
+
+    private void beginPhase(Phase next) {
+      endPhase();
+      Span recorded = recorder.beginPhase(next);
+      if (next == Phase.FIXTURE_CREATION) {
+        long start = System.nanoTime();
+        phaseSpan =
+            test -> {
+              long nanos = System.nanoTime() - start;
+              recorded.end(test);
+              ContractMetrics.fixtureCreated(test.collectionSize, nanos);
+            };
+      } else {
+        phaseSpan = recorded;
+      }
+    }
+
+    private void endPhase() {
+      phaseSpan.end(this);
+      phaseSpan = NO_PHASE;
+    }
+
+    /**
+     * Returns the contract that declares the test's factory, or the test class if the factory can't
+     * be found.
+     */
+    Class<?> contractClass() {
+      try {
+        return testClass.getMethod(path.get(0)).getDeclaringClass();
+      } catch (NoSuchMethodException e) {
+        return testClass;
+      }
+    }
+
+    Class<?> testClass() {
+      return testClass;
+    }
+
+    String test() {
+      return String.join(" > ", path);
+    }
+
+    String operation() {
+      return operation;
+    }
+
+    CollectionSize collectionSize() {
+      return collectionSize;
+    }
+
+    FeatureSet features() {
+      return features;
+    }
+  }
+}
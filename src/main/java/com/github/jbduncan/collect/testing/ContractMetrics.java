@@ -0,0 +1,504 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestReporter;
+import org.opentest4j.TestAbortedException;
+
+/**
+ * Records the wall time, CPU time, allocated bytes and garbage collections of every dynamic test
+ * that the contracts generate.
+ *
+ * <p>Each contract's {@code @TestFactory} passes its tests through {@link #measure}, which
+ * publishes every test's metrics as a report entry under the test factory. The contracts are
+ * extended with {@link ContractMetricsExtension}, which gives this class the {@link TestReporter}
+ * of each test factory as it runs, and tells it when each test class has finished. If the system
+ * property {@value #DIRECTORY_PROPERTY} is set, the metrics of each test class's tests are written
+ * as JSON to a file in that directory, named after the class, once all of its tests have run.
+ *
+ * <p>Each test is also marked for profilers through {@link ContractEvents}.
+ *
+ * <p>While each test runs, {@link #currentTest()} tells the testers which test class and test they
+ * are measuring for, so that {@link PerformanceBaseline} can file their measurements under it.
+ *
+ * <p>This class is also the hub that reports to every {@link ContractMetricsListener}: it reports
+ * the generation of each test factory's tests itself, and the fixtures, measurements and budget
+ * violations that the testers and {@code ContractEvents} tell it about, for the current test.
+ *
+ * <p>CPU time and allocated bytes are measured for the thread that runs the test, and are omitted
+ * if the JVM can't measure them. Garbage collections are counted across the whole JVM, so they
+ * include any caused by tests running in parallel.
+ */
+public final class ContractMetrics {
+  /** The system property that sets the directory that metrics are written to as JSON files. */
+  public static final String DIRECTORY_PROPERTY = "jupiter.collection.testers.metrics.dir";
+
+  private static final String PATH_SEPARATOR = " > ";
+  private static final double NANOS_PER_MILLI = 1e6;
+
+  // The metrics of the tests run so far by each test class that hasn't finished, if they're to be
+  // written to JSON files.
+  private static final ConcurrentMap<Class<?>, List<DynamicTestMetrics>> METRICS_BY_CLASS =
+      new ConcurrentHashMap<>();
+
+  private static final TestReporter NO_REPORTER = entries -> {};
+
+  // The reporter of the test factory that each thread is running, as set by
+  // ContractMetricsExtension.
+  private static final ThreadLocal<TestReporter> CURRENT_REPORTER = new ThreadLocal<>();
+
+  // The test that each thread is running, if measure() wrapped it.
+  private static final ThreadLocal<CurrentTest> CURRENT_TEST = new ThreadLocal<>();
+
+  private static final List<ContractMetricsListener> LISTENERS = loadListeners();
+
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+  private static final Optional<AllocationMeter> ALLOCATION_METER = AllocationMeter.create();
+
+  private ContractMetrics() {}
+
+  /**
+   * Returns {@code nodes}, with every dynamic test in them, including those nested in containers,
+   * changed to record its metrics against {@code testClass} and publish them through the
+   * {@linkplain #reporter() current test factory's reporter}.
+   */
+  static <T extends DynamicNode> Stream<T> measure(
+      Class<?> testClass, String testFactory, Stream<T> nodes) {
+    return measure(testClass, testFactory, reporter(), nodes);
+  }
+
+  /**
+   * Returns {@code nodes}, with every dynamic test in them, including those nested in containers,
+   * changed to record its metrics against {@code testClass} and publish them through {@code
+   * reporter}.
+   */
+  @SuppressWarnings("unchecked") // A container stays a container and a test stays a test.
+  static <T extends DynamicNode> Stream<T> measure(
+      Class<?> testClass, String testFactory, TestReporter reporter, Stream<T> nodes) {
+    requireNonNull(testClass, "testClass");
+    requireNonNull(testFactory, "testFactory");
+    requireNonNull(reporter, "reporter");
+    requireNonNull(nodes, "nodes");
+    // The metrics are only kept until the test class finishes, and only if they'll be written.
+    Consumer<DynamicTestMetrics> keep =
+        System.getProperty(DIRECTORY_PROPERTY) == null
+            ? test -> {}
+            : METRICS_BY_CLASS.computeIfAbsent(
+                    testClass, unused -> Collections.synchronizedList(new ArrayList<>()))
+                ::add;
+    for (ContractMetricsListener listener : LISTENERS) {
+      listener.testGraphGenerationStarted(testClass, testFactory);
+    }
+    NodeCounts counts = new NodeCounts();
+    return nodes
+        .map(
+            node ->
+                (T)
+                    measure(
+                        node,
+                        Collections.singletonList(testFactory),
+                        testClass,
+                        reporter,
+                        counts,
+                        test -> {
+                          keep.accept(test);
+                          reporter.publishEntry(test.name(), test.summary());
+                        }))
+        .onClose(
+            () -> {
+              for (ContractMetricsListener listener : LISTENERS) {
+                listener.testGraphGenerationFinished(
+                    testClass, testFactory, counts.containers.get(), counts.tests.get());
+              }
+            });
+  }
+
+  /**
+   * Returns the {@link TestReporter} of the test factory that the current thread is running, or one
+   * that ignores its entries if the test factory isn't extended with {@link
+   * ContractMetricsExtension}.
+   */
+  static TestReporter reporter() {
+    TestReporter reporter = CURRENT_REPORTER.get();
+    return reporter == null ? NO_REPORTER : reporter;
+  }
+
+  /**
+   * Called when the current thread starts running a test factory that reports to {@code reporter}.
+   */
+  static void testFactoryStarted(TestReporter reporter) {
+    CURRENT_REPORTER.set(requireNonNull(reporter, "reporter"));
+  }
+
+  /** Called when the current thread has finished running a test factory. */
+  static void testFactoryFinished() {
+    CURRENT_REPORTER.remove();
+  }
+
+  /**
+   * Called when all of the tests of {@code testClass} have run, to write their metrics to the JSON
+   * file for {@code testClass}, if {@value #DIRECTORY_PROPERTY} is set, and then forget them.
+   */
+  static void testClassFinished(Class<?> testClass) {
+    List<DynamicTestMetrics> metrics = METRICS_BY_CLASS.remove(testClass);
+    if (metrics != null) {
+      writeJsonFile(testClass, metrics);
+    }
+  }
+
+  private static List<ContractMetricsListener> loadListeners() {
+    List<ContractMetricsListener> result = new ArrayList<>();
+    for (ContractMetricsListener listener : ServiceLoader.load(ContractMetricsListener.class)) {
+      result.add(listener);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /** Returns {@code true} if any {@link ContractMetricsListener}s were discovered. */
+  static boolean hasListeners() {
+    return !LISTENERS.isEmpty();
+  }
+
+  /** Reports that the current test created a fixture of the given size in {@code nanos}. */
+  static void fixtureCreated(CollectionSize size, long nanos) {
+    report((listener, test) -> listener.fixtureCreated(test, size, Duration.ofNanos(nanos)));
+  }
+
+  /** Reports that the current test timed an operation, as named by {@code measurement}. */
+  static void operationTimed(String measurement, double nanos) {
+    report((listener, test) -> listener.operationTimed(test, measurement, nanos));
+  }
+
+  /** Reports that the current test measured a number of bytes, as named by {@code measurement}. */
+  static void bytesMeasured(String measurement, double bytes) {
+    report((listener, test) -> listener.bytesMeasured(test, measurement, bytes));
+  }
+
+  /** Reports that the current test measured a throughput, as named by {@code measurement}. */
+  static void throughputMeasured(String measurement, double operationsPerSecond) {
+    report((listener, test) -> listener.throughputMeasured(test, measurement, operationsPerSecond));
+  }
+
+  /**
+   * Reports that a measurement in the current test exceeded {@code budget}, which the test is about
+   * to fail with {@code message}.
+   */
+  static void budgetViolated(String budget, String message) {
+    report((listener, test) -> listener.budgetViolated(test, budget, message));
+  }
+
+  private static void report(BiConsumer<ContractMetricsListener, ContractTestId> callback) {
+    CurrentTest test = CURRENT_TEST.get();
+    if (test != null) {
+      for (ContractMetricsListener listener : LISTENERS) {
+        callback.accept(listener, test.id());
+      }
+    }
+  }
+
+  /**
+   * Returns the dynamic test that the current thread is running, or an empty {@code Optional} if it
+   * isn't running one that was passed through {@link #measure}.
+   */
+  static Optional<CurrentTest> currentTest() {
+    return Optional.ofNullable(CURRENT_TEST.get());
+  }
+
+  private static DynamicNode measure(
+      DynamicNode node,
+      List<String> parentPath,
+      Class<?> testClass,
+      TestReporter reporter,
+      NodeCounts counts,
+      Consumer<DynamicTestMetrics> sink) {
+    List<String> path = append(parentPath, node.getDisplayName());
+    if (node instanceof DynamicContainer) {
+      counts.containers.incrementAndGet();
+      DynamicContainer container = (DynamicContainer) node;
+      return dynamicContainer(
+          container.getDisplayName(),
+          container.getTestSourceUri().orElse(null),
+          container
+              .getChildren()
+              .map(child -> measure(child, path, testClass, reporter, counts, sink)));
+    }
+    counts.tests.incrementAndGet();
+    DynamicTest test = (DynamicTest) node;
+    return dynamicTest(
+        test.getDisplayName(),
+        test.getTestSourceUri().orElse(null),
+        () -> {
+          CurrentTest previous = CURRENT_TEST.get();
+          CURRENT_TEST.set(new CurrentTest(testClass, path, reporter));
+          Snapshot before = Snapshot.take();
+          String status = DynamicTestMetrics.FAILED;
+          ContractEvents.testStarted(testClass, path);
+          try {
+            test.getExecutable().execute();
+            status = DynamicTestMetrics.SUCCESSFUL;
+          } catch (TestAbortedException e) {
+            status = DynamicTestMetrics.ABORTED;
+            throw e;
+          } finally {
+            ContractEvents.testFinished();
+            sink.accept(Snapshot.take().since(before, path, status));
+            if (previous == null) {
+              CURRENT_TEST.remove();
+            } else {
+              CURRENT_TEST.set(previous);
+            }
+          }
+        });
+  }
+
+  private static List<String> append(List<String> path, String name) {
+    List<String> result = new ArrayList<>(path.size() + 1);
+    result.addAll(path);
+    result.add(name);
+    return Collections.unmodifiableList(result);
+  }
+
+  private static void writeJsonFile(Class<?> testClass, List<DynamicTestMetrics> metrics) {
+    String directory = System.getProperty(DIRECTORY_PROPERTY);
+    if (directory == null) {
+      return;
+    }
+    String json;
+    synchronized (metrics) {
+      json =
+          metrics.stream()
+              .map(DynamicTestMetrics::toJson)
+              .collect(
+                  joining(
+                      String.format(",%n    "),
+                      String.format(
+                          "{%n  \"testClass\": %s,%n  \"tests\": [%n    ",
+                          Json.quote(testClass.getName())),
+                      String.format("%n  ]%n}%n")));
+    }
+    try {
+      Path file = Paths.get(directory, testClass.getName() + ".json");
+      Files.createDirectories(file.getParent());
+      Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** The number of dynamic containers and tests that a test factory has generated so far. */
+  private static final class NodeCounts {
+    final AtomicLong containers = new AtomicLong();
+    final AtomicLong tests = new AtomicLong();
+  }
+
+  /** A dynamic test that is running, and where to report on it. */
+  static final class CurrentTest {
+    private final Class<?> testClass;
+    private final List<String> path;
+    private final TestReporter reporter;
+    private final ContractTestId id;
+
+    CurrentTest(Class<?> testClass, List<String> path, TestReporter reporter) {
+      this.testClass = testClass;
+      this.path = path;
+      this.reporter = reporter;
+      this.id = new ContractTestId(testClass, path);
+    }
+
+    ContractTestId id() {
+      return id;
+    }
+
+    Class<?> testClass() {
+      return testClass;
+    }
+
+    /** Returns the test factory's name, followed by the display names down to the test. */
+    List<String> path() {
+      return path;
+    }
+
+    TestReporter reporter() {
+      return reporter;
+    }
+  }
+
+  /** The running totals of the current thread and JVM at an instant. */
+  private static final class Snapshot {
+    private static final long UNAVAILABLE = -1;
+
+    private final long wallNanos;
+    private final long cpuNanos;
+    private final long allocatedBytes;
+    private final long gcCount;
+
+    private Snapshot(long wallNanos, long cpuNanos, long allocatedBytes, long gcCount) {
+      this.wallNanos = wallNanos;
+      this.cpuNanos = cpuNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.gcCount = gcCount;
+    }
+
+    static Snapshot take() {
+      return new Snapshot(
+          System.nanoTime(),
+          THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+              ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+              : UNAVAILABLE,
+          ALLOCATION_METER.map(AllocationMeter::allocatedBytes).orElse(UNAVAILABLE),
+          gcCount());
+    }
+
+    private static long gcCount() {
+      long result = 0;
+      for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+        // A collector returns -1 if it doesn't count its collections.
+        result += Math.max(0, bean.getCollectionCount());
+      }
+      return result;
+    }
+
+    DynamicTestMetrics since(Snapshot before, List<String> path, String status) {
+      return new DynamicTestMetrics(
+          path,
+          status,
+          wallNanos - before.wallNanos,
+          difference(cpuNanos, before.cpuNanos),
+          difference(allocatedBytes, before.allocatedBytes),
+          gcCount - before.gcCount);
+    }
+
+    private static OptionalLong difference(long after, long before) {
+      return after == UNAVAILABLE || before == UNAVAILABLE
+          ? OptionalLong.empty()
+          : OptionalLong.of(after - before);
+    }
+  }
+
+  /** The metrics of one run of a dynamic test. */
+  static final class DynamicTestMetrics {
+    static final String SUCCESSFUL = "SUCCESSFUL";
+    static final String ABORTED = "ABORTED";
+    static final String FAILED = "FAILED";
+
+    private final List<String> path;
+    private final String status;
+    private final long wallNanos;
+    private final OptionalLong cpuNanos;
+    private final OptionalLong allocatedBytes;
+    private final long gcCount;
+
+    DynamicTestMetrics(
+        List<String> path,
+        String status,
+        long wallNanos,
+        OptionalLong cpuNanos,
+        OptionalLong allocatedBytes,
+        long gcCount) {
+      this.path = path;
+      this.status = status;
+      this.wallNanos = wallNanos;
+      this.cpuNanos = cpuNanos;
+      this.allocatedBytes = allocatedBytes;
+      this.gcCount = gcCount;
+    }
+
+    /** Returns the test factory's name, followed by the display names down to the test. */
+    List<String> path() {
+      return path;
+    }
+
+    String name() {
+      return String.join(PATH_SEPARATOR, path);
+    }
+
+    String status() {
+      return status;
+    }
+
+    long wallNanos() {
+      return wallNanos;
+    }
+
+    OptionalLong cpuNanos() {
+      return cpuNanos;
+    }
+
+    OptionalLong allocatedBytes() {
+      return allocatedBytes;
+    }
+
+    long gcCount() {
+      return gcCount;
+    }
+
+    String summary() {
+      StringBuilder result =
+          new StringBuilder(String.format("%s, wall %.3f ms", status, wallNanos / NANOS_PER_MILLI));
+      cpuNanos.ifPresent(
+          nanos -> result.append(String.format(", cpu %.3f ms", nanos / NANOS_PER_MILLI)));
+      allocatedBytes.ifPresent(
+          bytes -> result.append(String.format(", %,d bytes allocated", bytes)));
+      return result.append(String.format(", %s GCs", gcCount)).toString();
+    }
+
+    String toJson() {
+      return String.format(
+          "{\"path\": %s, \"status\": %s, \"wallNanos\": %s, \"cpuNanos\": %s, "
+              + "\"allocatedBytes\": %s, \"gcCount\": %s}",
+          path.stream().map(Json::quote).collect(joining(", ", "[", "]")),
+          Json.quote(status),
+          wallNanos,
+          toJson(cpuNanos),
+          toJson(allocatedBytes),
+          gcCount);
+    }
+
+    private static String toJson(OptionalLong value) {
+      return value.isPresent() ? String.valueOf(value.getAsLong()) : "null";
+    }
+  }
+}
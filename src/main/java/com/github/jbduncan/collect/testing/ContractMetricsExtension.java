@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Lets {@link ContractMetrics} publish report entries for the contracts' test factories, which
+ * don't take a {@code TestReporter} themselves, and write each test class's metrics once its tests
+ * have all run.
+ *
+ * <p>JUnit runs a test factory's dynamic tests before its {@code afterEach} callbacks, so the
+ * reporter stays available to them while they run.
+ */
+final class ContractMetricsExtension
+    implements BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+  @Override
+  public void beforeEach(ExtensionContext context) {
+    ContractMetrics.testFactoryStarted(context::publishReportEntry);
+  }
+
+  @Override
+  public void afterEach(ExtensionContext context) {
+    ContractMetrics.testFactoryFinished();
+  }
+
+  @Override
+  public void afterAll(ExtensionContext context) {
+    ContractMetrics.testClassFinished(context.getRequiredTestClass());
+  }
+}
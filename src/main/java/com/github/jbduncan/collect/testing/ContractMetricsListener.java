@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.time.Duration;
+import java.util.ServiceLoader;
+
+/**
+ * Receives the metrics of the contracts' tests as they run, so that they can be sent to a dashboard
+ * or a file without parsing JUnit's reports.
+ *
+ * <p>Listeners are discovered with {@link ServiceLoader}: list the names of the implementations,
+ * one per line, in a file named {@code
+ * META-INF/services/com.github.jbduncan.collect.testing.ContractMetricsListener} on the test
+ * runtime classpath. Each needs a public no-argument constructor. They're loaded once, when the
+ * contracts first run, and are called on the threads that run the tests, which may be several at
+ * once, so they must be thread-safe. An exception thrown by a listener fails the test it was called
+ * for.
+ *
+ * <p>Every method does nothing by default, so that a listener only needs to override the ones it's
+ * interested in.
+ */
+public interface ContractMetricsListener {
+  /** Called when a test factory of {@code testClass} starts generating its dynamic tests. */
+  default void testGraphGenerationStarted(Class<?> testClass, String testFactory) {}
+
+  /**
+   * Called when JUnit has finished with the dynamic tests of a test factory of {@code testClass},
+   * with the number of dynamic containers and tests that it generated. The tests are generated
+   * lazily, as JUnit runs them, so this is only called once they have all run.
+   */
+  default void testGraphGenerationFinished(
+      Class<?> testClass, String testFactory, long containers, long tests) {}
+
+  /**
+   * Called when {@code test} has created a collection of the given size through its generator, with
+   * how long that took.
+   */
+  default void fixtureCreated(ContractTestId test, CollectionSize size, Duration duration) {}
+
+  /**
+   * Called when a timing or complexity contract has timed an operation in {@code test}. {@code
+   * measurement} names what was timed, such as {@code "add(E) p99"}.
+   */
+  default void operationTimed(ContractTestId test, String measurement, double nanos) {}
+
+  /**
+   * Called when an allocation or footprint contract has measured a number of bytes in {@code test},
+   * such as the bytes allocated per operation, which {@code measurement} names.
+   */
+  default void bytesMeasured(ContractTestId test, String measurement, double bytes) {}
+
+  /**
+   * Called when a scalability contract has measured the throughput of a workload in {@code test},
+   * which {@code measurement} names.
+   */
+  default void throughputMeasured(
+      ContractTestId test, String measurement, double operationsPerSecond) {}
+
+  /**
+   * Called when a measurement in {@code test} exceeded {@code budget}, or regressed from its
+   * {@linkplain PerformanceBaseline baseline}, just before the test fails with {@code message}.
+   */
+  default void budgetViolated(ContractTestId test, String budget, String message) {}
+}
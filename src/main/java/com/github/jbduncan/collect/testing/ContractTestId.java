@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Identifies a dynamic test generated by one of a test class's contracts. */
+public final class ContractTestId {
+  private final Class<?> testClass;
+  private final List<String> path;
+
+  ContractTestId(Class<?> testClass, List<String> path) {
+    this.testClass = requireNonNull(testClass, "testClass");
+    this.path = Collections.unmodifiableList(new ArrayList<>(requireNonNull(path, "path")));
+  }
+
+  /** Returns the test class whose test factory generated the test. */
+  public Class<?> owner() {
+    return testClass;
+  }
+
+  /** Returns the name of the test factory that generated the test. */
+  public String factoryName() {
+    return path.get(0);
+  }
+
+  /**
+   * Returns the test factory's name, followed by the display names of the containers down to the
+   * test, and then the test's own display name.
+   */
+  public List<String> path() {
+    return path;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof ContractTestId) {
+      ContractTestId other = (ContractTestId) object;
+      return testClass.equals(other.testClass) && path.equals(other.path);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * testClass.hashCode() + path.hashCode();
+  }
+
+  /** Returns the test class's name, followed by the test's path, separated by {@code " > "}. */
+  @Override
+  public String toString() {
+    return testClass.getName() + " > " + String.join(" > ", path);
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * An element that counts how many times its {@link #equals}, {@link #hashCode} and {@link
+ * #compareTo} methods are called, per thread. Use {@link ElementOperationCounts} to read the
+ * counts.
+ *
+ * <p>Two {@code CountingElement}s are equal if they have the same value, and they're ordered by
+ * value.
+ */
+public final class CountingElement implements Comparable<CountingElement> {
+  private final int value;
+
+  private CountingElement(int value) {
+    this.value = value;
+  }
+
+  /** Returns a {@code CountingElement} with the given value. */
+  public static CountingElement of(int value) {
+    return new CountingElement(value);
+  }
+
+  /** Returns the value of this element. Calls to this method aren't counted. */
+  public int value() {
+    return value;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    ElementOperationCounts.recordEquals();
+    return object instanceof CountingElement && ((CountingElement) object).value == value;
+  }
+
+  @Override
+  public int hashCode() {
+    ElementOperationCounts.recordHashCode();
+    return Integer.hashCode(value);
+  }
+
+  @Override
+  public int compareTo(CountingElement other) {
+    ElementOperationCounts.recordCompareTo();
+    return Integer.compare(value, other.value);
+  }
+
+  @Override
+  public String toString() {
+    return "#" + value;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A snapshot of how many times the {@code equals}, {@code hashCode} and {@code compareTo} methods
+ * of {@link CountingElement}s have been called on the current thread.
+ */
+public final class ElementOperationCounts {
+  private static final int EQUALS = 0;
+  private static final int HASH_CODE = 1;
+  private static final int COMPARE_TO = 2;
+
+  // Counters are per thread, so that tests running in parallel don't see each other's calls.
+  private static final ThreadLocal<long[]> COUNTERS = ThreadLocal.withInitial(() -> new long[3]);
+
+  private final long equalsCalls;
+  private final long hashCodeCalls;
+  private final long compareToCalls;
+
+  private ElementOperationCounts(long equalsCalls, long hashCodeCalls, long compareToCalls) {
+    this.equalsCalls = equalsCalls;
+    this.hashCodeCalls = hashCodeCalls;
+    this.compareToCalls = compareToCalls;
+  }
+
+  /** Returns the counts of all calls made on the current thread so far. */
+  public static ElementOperationCounts current() {
+    long[] counters = COUNTERS.get();
+    return new ElementOperationCounts(counters[EQUALS], counters[HASH_CODE], counters[COMPARE_TO]);
+  }
+
+  /** Runs {@code action} and returns the counts of the calls that it made on the current thread. */
+  @SuppressWarnings("PMD.DoNotUseThreads") // The action is run on the current thread.
+  public static ElementOperationCounts countDuring(Runnable action) {
+    requireNonNull(action, "action");
+    ElementOperationCounts before = current();
+    action.run();
+    return current().minus(before);
+  }
+
+  static void recordEquals() {
+    COUNTERS.get()[EQUALS]++;
+  }
+
+  static void recordHashCode() {
+    COUNTERS.get()[HASH_CODE]++;
+  }
+
+  static void recordCompareTo() {
+    COUNTERS.get()[COMPARE_TO]++;
+  }
+
+  /** Returns the difference between these counts and {@code earlier}. */
+  public ElementOperationCounts minus(ElementOperationCounts earlier) {
+    return new ElementOperationCounts(
+        equalsCalls - earlier.equalsCalls,
+        hashCodeCalls - earlier.hashCodeCalls,
+        compareToCalls - earlier.compareToCalls);
+  }
+
+  public long equalsCalls() {
+    return equalsCalls;
+  }
+
+  public long hashCodeCalls() {
+    return hashCodeCalls;
+  }
+
+  public long compareToCalls() {
+    return compareToCalls;
+  }
+
+  /** Returns the number of calls to {@code equals} and {@code compareTo} combined. */
+  public long comparisons() {
+    return equalsCalls + compareToCalls;
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (!(object instanceof ElementOperationCounts)) {
+      return false;
+    }
+    ElementOperationCounts other = (ElementOperationCounts) object;
+    return equalsCalls == other.equalsCalls
+        && hashCodeCalls == other.hashCodeCalls
+        && compareToCalls == other.compareToCalls;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(equalsCalls) * 31 * 31
+        + Long.hashCode(hashCodeCalls) * 31
+        + Long.hashCode(compareToCalls);
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "%s equals, %s hashCode and %s compareTo calls",
+        equalsCalls, hashCodeCalls, compareToCalls);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * {@code ElementOperationsContract} is a test interface that checks how many times a collection
+ * implementation compares its elements, by populating it with {@link CountingElement}s and counting
+ * their {@code equals} and {@code compareTo} calls.
+ *
+ * <p>Unlike timings, these counts are exact, so the checks are deterministic. Each check runs at
+ * every size in {@link #elementOperationSizes()} and fails if the number of comparisons exceeds its
+ * {@link GrowthBound} at any size. Checks whose bound is {@link GrowthBound#none()}, which is the
+ * default, are skipped.
+ *
+ * <p>The generator's sample elements should come from {@link SampleElements#counting()}, so that
+ * collections of every size are filled with distinct elements.
+ */
+public interface ElementOperationsContract extends CollectionContract<CountingElement> {
+  /**
+   * Returns the maximum number of comparisons that {@code contains} may make on a collection of
+   * size {@code n}, for elements that are and aren't in it. For example, a hash-based set should
+   * make {@code GrowthBound.atMost(1)}, whereas a list makes up to {@code
+   * GrowthBound.of(ComplexityClass.LINEAR, 1, 0)}.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check {@code contains}
+   */
+  default GrowthBound containsComparisonsBound() {
+    return GrowthBound.none();
+  }
+
+  /**
+   * Returns the maximum number of comparisons that {@code equals} may make between collections of
+   * sizes {@code n} and {@code n + 1}. Implementations that compare sizes first should make none.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check {@code equals}
+   */
+  default GrowthBound equalsOnDifferentSizeComparisonsBound() {
+    return GrowthBound.none();
+  }
+
+  /**
+   * Returns the collection sizes at which the comparisons are counted. By default, these are the
+   * powers of ten from 1 to 10,000.
+   *
+   * @return the sizes to check
+   */
+  default List<Integer> elementOperationSizes() {
+    return Collections.unmodifiableList(Arrays.asList(1, 10, 100, 1_000, 10_000));
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> elementOperations() {
+    return ContractMetrics.measure(
+        getClass(),
+        "elementOperations",
+        ElementOperationsTester.builder()
+            .testCollectionGenerator(generator())
+            .sizes(elementOperationSizes())
+            .containsBound(containsComparisonsBound())
+            .equalsOnDifferentSizeBound(equalsOnDifferentSizeComparisonsBound())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+
+final class ElementOperationsTester {
+  private final TestCollectionGenerator<CountingElement> generator;
+  private final SampleElements<CountingElement> samples;
+  private final List<Integer> sizes;
+  private final GrowthBound containsBound;
+  private final GrowthBound equalsOnDifferentSizeBound;
+
+  private ElementOperationsTester(
+      TestCollectionGenerator<CountingElement> generator,
+      List<Integer> sizes,
+      GrowthBound containsBound,
+      GrowthBound equalsOnDifferentSizeBound) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.sizes = requireNonNull(sizes, "sizes");
+    this.containsBound = requireNonNull(containsBound, "containsBound");
+    this.equalsOnDifferentSizeBound =
+        requireNonNull(equalsOnDifferentSizeBound, "equalsOnDifferentSizeBound");
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static class Builder {
+    private Builder() {}
+
+    private TestCollectionGenerator<CountingElement> testCollectionGenerator;
+    private List<Integer> sizes;
+    private GrowthBound containsBound = GrowthBound.none();
+    private GrowthBound equalsOnDifferentSizeBound = GrowthBound.none();
+
+    Builder testCollectionGenerator(
+        TestCollectionGenerator<CountingElement> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder sizes(List<Integer> sizes) {
+      this.sizes = sizes;
+      return this;
+    }
+
+    Builder containsBound(GrowthBound containsBound) {
+      this.containsBound = containsBound;
+      return this;
+    }
+
+    Builder equalsOnDifferentSizeBound(GrowthBound equalsOnDifferentSizeBound) {
+      this.equalsOnDifferentSizeBound = equalsOnDifferentSizeBound;
+      return this;
+    }
+
+    ElementOperationsTester build() {
+      return new ElementOperationsTester(
+          testCollectionGenerator, sizes, containsBound, equalsOnDifferentSizeBound);
+    }
+  }
+
+  Stream<DynamicTest> dynamicTests() {
+    Stream.Builder<DynamicTest> tests = Stream.builder();
+    if (!containsBound.isUnbounded()) {
+      tests.add(
+          dynamicTest(
+              "contains(Object) makes at most " + containsBound + " comparisons",
+              this::assertContainsWithinBound));
+    }
+    if (!equalsOnDifferentSizeBound.isUnbounded()) {
+      tests.add(
+          dynamicTest(
+              "equals(Object) on a collection of a different size makes at most "
+                  + equalsOnDifferentSizeBound
+                  + " comparisons",
+              this::assertEqualsOnDifferentSizeWithinBound));
+    }
+    return tests.build();
+  }
+
+  private void assertContainsWithinBound() {
+    ComparisonBoundChecker checker = new ComparisonBoundChecker(containsBound);
+    for (int size : sizes) {
+      Collection<CountingElement> collection = newCollection(size);
+      for (CountingElement probe : probesFor(size)) {
+        checker.check(
+            size,
+            () -> String.format("contains(%s) on a collection of %,d elements", probe, size),
+            ElementOperationCounts.countDuring(() -> collection.contains(probe)));
+      }
+    }
+    checker.assertNoViolations();
+  }
+
+  private void assertEqualsOnDifferentSizeWithinBound() {
+    ComparisonBoundChecker checker = new ComparisonBoundChecker(equalsOnDifferentSizeBound);
+    for (int size : sizes) {
+      // One side is made of copies, so that implementations that check for identity before calling
+      // equals can't skip any of the comparisons that they make.
+      Collection<CountingElement> smaller = newCollection(size);
+      Collection<CountingElement> larger = newCollectionOfCopies(size + 1);
+      checker.check(
+          size,
+          () -> String.format("equals(Object) from %,d to %,d elements", size, size + 1),
+          ElementOperationCounts.countDuring(() -> smaller.equals(larger)));
+      checker.check(
+          size,
+          () -> String.format("equals(Object) from %,d to %,d elements", size + 1, size),
+          ElementOperationCounts.countDuring(() -> larger.equals(smaller)));
+    }
+    checker.assertNoViolations();
+  }
+
+  private Collection<CountingElement> newCollection(int size) {
+    return generator.create(Helpers.newIterable(samples, size, /* nullInMiddle= */ false));
+  }
+
+  /**
+   * Like {@link #newCollection}, but with equal copies of the elements, rather than the same ones.
+   */
+  private Collection<CountingElement> newCollectionOfCopies(int size) {
+    List<CountingElement> copies = new ArrayList<>(size);
+    for (CountingElement element : Helpers.newIterable(samples, size, /* nullInMiddle= */ false)) {
+      copies.add(copyOf(element));
+    }
+    return generator.create(copies);
+  }
+
+  /** Returns an element that isn't in a collection of the given size, and one that is, if any. */
+  private List<CountingElement> probesFor(int size) {
+    // Probe with equal copies rather than the same instances, since many implementations check
+    // for identity before calling equals.
+    CountingElement absent = copyOf(samples.e4());
+    if (size == 0) {
+      return Collections.singletonList(absent);
+    }
+    return Arrays.asList(absent, copyOf(samples.fixtureElement(size - 1)));
+  }
+
+  private static CountingElement copyOf(CountingElement element) {
+    return CountingElement.of(element.value());
+  }
+}
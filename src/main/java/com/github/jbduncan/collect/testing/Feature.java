@@ -15,29 +15,18 @@
  */
 package com.github.jbduncan.collect.testing;
 
-import java.util.ArrayDeque;
-import java.util.Collections;
-import java.util.Queue;
 import java.util.Set;
 
 public interface Feature<T> {
   Set<Feature<? super T>> impliedFeatures();
 
-  static Set<Feature<?>> allFeaturesRecursively(Feature<?>... features) {
-    Set<Feature<?>> expandedFeatures = Helpers.copyToMutableInsertionOrderSet(features);
-    Queue<Feature<?>> queue = new ArrayDeque<>(expandedFeatures);
-    // Do a breadth-first traversal rooted at the input features.
-    // TODO: If we ever import Guava or a graph library like JGraphT, consider using
-    //   com.google.common.graph.Traverser#breadthFirstTraversal or an equivalent construct for
-    //   iterating over all features in breadth-first order.
-    while (!queue.isEmpty()) {
-      Feature<?> next = queue.remove();
-      for (Feature<?> implied : next.impliedFeatures()) {
-        if (expandedFeatures.add(implied)) {
-          queue.add(implied);
-        }
-      }
-    }
-    return Collections.unmodifiableSet(expandedFeatures);
+  /**
+   * Returns the given features, their implied features, the implied features' own implied features,
+   * and so on and so forth in a recursive fashion.
+   *
+   * @see FeatureSet#allFeaturesRecursively
+   */
+  static FeatureSet allFeaturesRecursively(Feature<?>... features) {
+    return FeatureSet.allFeaturesRecursively(features);
   }
 }
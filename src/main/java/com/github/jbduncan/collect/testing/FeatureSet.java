@@ -0,0 +1,318 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An immutable set of {@link Feature}s.
+ *
+ * <p>Features from {@link CollectionFeature}, {@link ListFeature}, {@link MapFeature} and {@link
+ * CollectionSize} are stored as one bitmask per enum, so {@link #contains} and {@link
+ * #containsAll(FeatureSet)} are O(1). Features of any other type are stored in an ordinary set.
+ *
+ * <p>Iteration order is the declaration order of each feature in its enum, starting with {@code
+ * CollectionFeature}, then {@code ListFeature}, then {@code MapFeature}, then {@code
+ * CollectionSize}, followed by all other features in the order they were given.
+ */
+public final class FeatureSet extends AbstractSet<Feature<?>> {
+  private static final CollectionFeature[] COLLECTION_FEATURES = CollectionFeature.values();
+  private static final ListFeature[] LIST_FEATURES = ListFeature.values();
+  private static final MapFeature[] MAP_FEATURES = MapFeature.values();
+  private static final CollectionSize[] COLLECTION_SIZES = CollectionSize.values();
+
+  private static final FeatureSet EMPTY = new Builder().build();
+
+  // The most combinations of features whose expansions are cached. The contracts only ever expand a
+  // handful, so this is only reached if features are combined freely, and then the expansions that
+  // don't fit are recomputed, which is cheap.
+  private static final int MAX_CACHED_EXPANSIONS = 256;
+
+  // Combinations of features that have been expanded so far, mapped to their expansions.
+  private static final ConcurrentMap<FeatureSet, FeatureSet> EXPANSIONS = new ConcurrentHashMap<>();
+
+  private final long collectionFeatures;
+  private final long listFeatures;
+  private final long mapFeatures;
+  private final long collectionSizes;
+  private final Set<Feature<?>> otherFeatures;
+  private final int size;
+  private final int hashCode;
+
+  private FeatureSet(
+      long collectionFeatures,
+      long listFeatures,
+      long mapFeatures,
+      long collectionSizes,
+      Set<Feature<?>> otherFeatures) {
+    this.collectionFeatures = collectionFeatures;
+    this.listFeatures = listFeatures;
+    this.mapFeatures = mapFeatures;
+    this.collectionSizes = collectionSizes;
+    this.otherFeatures = otherFeatures;
+    this.size =
+        Long.bitCount(collectionFeatures)
+            + Long.bitCount(listFeatures)
+            + Long.bitCount(mapFeatures)
+            + Long.bitCount(collectionSizes)
+            + otherFeatures.size();
+    this.hashCode = super.hashCode();
+  }
+
+  /** Returns a {@code FeatureSet} containing exactly the given features. */
+  public static FeatureSet of(Feature<?>... features) {
+    return copyOf(Arrays.asList(features));
+  }
+
+  /**
+   * Returns a {@code FeatureSet} containing exactly the given features. If {@code features} is
+   * already a {@code FeatureSet}, it is returned as is.
+   */
+  public static FeatureSet copyOf(Collection<? extends Feature<?>> features) {
+    if (features instanceof FeatureSet) {
+      return (FeatureSet) features;
+    }
+    Builder builder = new Builder();
+    for (Feature<?> feature : features) {
+      builder.add(requireNonNull(feature, "feature"));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns a {@code FeatureSet} containing the given features, their implied features, the implied
+   * features' own implied features, and so on and so forth in a recursive fashion.
+   *
+   * <p>The expansions of the first few hundred distinct combinations of features are cached, so
+   * subsequent calls with one of those combinations return the same instance.
+   */
+  public static FeatureSet allFeaturesRecursively(Feature<?>... features) {
+    FeatureSet key = of(features);
+    FeatureSet cached = EXPANSIONS.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    if (EXPANSIONS.size() >= MAX_CACHED_EXPANSIONS) {
+      return expand(key);
+    }
+    return EXPANSIONS.computeIfAbsent(key, FeatureSet::expand);
+  }
+
+  private static FeatureSet expand(FeatureSet features) {
+    if (features.isEmpty()) {
+      return EMPTY;
+    }
+    Builder expandedFeatures = new Builder();
+    Queue<Feature<?>> queue = new ArrayDeque<>();
+    for (Feature<?> feature : features) {
+      expandedFeatures.add(feature);
+      queue.add(feature);
+    }
+    // Do a breadth-first traversal rooted at the input features.
+    // TODO: If we ever import Guava or a graph library like JGraphT, consider using
+    //   com.google.common.graph.Traverser#breadthFirstTraversal or an equivalent construct for
+    //   iterating over all features in breadth-first order.
+    while (!queue.isEmpty()) {
+      Feature<?> next = queue.remove();
+      for (Feature<?> implied : next.impliedFeatures()) {
+        if (expandedFeatures.add(implied)) {
+          queue.add(implied);
+        }
+      }
+    }
+    return expandedFeatures.build();
+  }
+
+  @Override
+  public boolean contains(Object object) {
+    if (object instanceof CollectionFeature) {
+      return (collectionFeatures & bit((CollectionFeature) object)) != 0;
+    }
+    if (object instanceof ListFeature) {
+      return (listFeatures & bit((ListFeature) object)) != 0;
+    }
+    if (object instanceof MapFeature) {
+      return (mapFeatures & bit((MapFeature) object)) != 0;
+    }
+    if (object instanceof CollectionSize) {
+      return (collectionSizes & bit((CollectionSize) object)) != 0;
+    }
+    return otherFeatures.contains(object);
+  }
+
+  /** Returns {@code true} if this set contains both of the given features. */
+  public boolean containsAll(Feature<?> first, Feature<?> second) {
+    return contains(first) && contains(second);
+  }
+
+  /**
+   * Returns {@code true} if this set contains all of the given features. Prefer {@link
+   * #containsAll(FeatureSet)} with a constant set on hot paths, as this builds a set every call.
+   */
+  public boolean containsAll(Feature<?>... features) {
+    return containsAll(of(features));
+  }
+
+  /** Returns {@code true} if this set contains all of the features in {@code other}. */
+  public boolean containsAll(FeatureSet other) {
+    return (other.collectionFeatures & ~collectionFeatures) == 0
+        && (other.listFeatures & ~listFeatures) == 0
+        && (other.mapFeatures & ~mapFeatures) == 0
+        && (other.collectionSizes & ~collectionSizes) == 0
+        && otherFeatures.containsAll(other.otherFeatures);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> collection) {
+    if (collection instanceof FeatureSet) {
+      return containsAll((FeatureSet) collection);
+    }
+    return super.containsAll(collection);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<Feature<?>> iterator() {
+    return new Iterator<Feature<?>>() {
+      private long remainingCollectionFeatures = collectionFeatures;
+      private long remainingListFeatures = listFeatures;
+      private long remainingMapFeatures = mapFeatures;
+      private long remainingCollectionSizes = collectionSizes;
+      private final Iterator<Feature<?>> otherFeaturesIterator = otherFeatures.iterator();
+
+      @Override
+      public boolean hasNext() {
+        return remainingCollectionFeatures != 0
+            || remainingListFeatures != 0
+            || remainingMapFeatures != 0
+            || remainingCollectionSizes != 0
+            || otherFeaturesIterator.hasNext();
+      }
+
+      @Override
+      public Feature<?> next() {
+        if (remainingCollectionFeatures != 0) {
+          int ordinal = Long.numberOfTrailingZeros(remainingCollectionFeatures);
+          remainingCollectionFeatures &= remainingCollectionFeatures - 1;
+          return COLLECTION_FEATURES[ordinal];
+        }
+        if (remainingListFeatures != 0) {
+          int ordinal = Long.numberOfTrailingZeros(remainingListFeatures);
+          remainingListFeatures &= remainingListFeatures - 1;
+          return LIST_FEATURES[ordinal];
+        }
+        if (remainingMapFeatures != 0) {
+          int ordinal = Long.numberOfTrailingZeros(remainingMapFeatures);
+          remainingMapFeatures &= remainingMapFeatures - 1;
+          return MAP_FEATURES[ordinal];
+        }
+        if (remainingCollectionSizes != 0) {
+          int ordinal = Long.numberOfTrailingZeros(remainingCollectionSizes);
+          remainingCollectionSizes &= remainingCollectionSizes - 1;
+          return COLLECTION_SIZES[ordinal];
+        }
+        if (otherFeaturesIterator.hasNext()) {
+          return otherFeaturesIterator.next();
+        }
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof FeatureSet) {
+      FeatureSet other = (FeatureSet) object;
+      return collectionFeatures == other.collectionFeatures
+          && listFeatures == other.listFeatures
+          && mapFeatures == other.mapFeatures
+          && collectionSizes == other.collectionSizes
+          && otherFeatures.equals(other.otherFeatures);
+    }
+    return super.equals(object);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  // Each feature enum must have no more than 64 constants for its bitmask to fit in a long.
+  private static long bit(Enum<?> feature) {
+    return 1L << feature.ordinal();
+  }
+
+  private static final class Builder {
+    private long collectionFeatures;
+    private long listFeatures;
+    private long mapFeatures;
+    private long collectionSizes;
+    private final Set<Feature<?>> otherFeatures = new LinkedHashSet<>();
+
+    /** Returns {@code true} if the given feature was not already added. */
+    boolean add(Feature<?> feature) {
+      if (feature instanceof CollectionFeature) {
+        long before = collectionFeatures;
+        collectionFeatures |= bit((CollectionFeature) feature);
+        return before != collectionFeatures;
+      }
+      if (feature instanceof ListFeature) {
+        long before = listFeatures;
+        listFeatures |= bit((ListFeature) feature);
+        return before != listFeatures;
+      }
+      if (feature instanceof MapFeature) {
+        long before = mapFeatures;
+        mapFeatures |= bit((MapFeature) feature);
+        return before != mapFeatures;
+      }
+      if (feature instanceof CollectionSize) {
+        long before = collectionSizes;
+        collectionSizes |= bit((CollectionSize) feature);
+        return before != collectionSizes;
+      }
+      return otherFeatures.add(feature);
+    }
+
+    FeatureSet build() {
+      return new FeatureSet(
+          collectionFeatures,
+          listFeatures,
+          mapFeatures,
+          collectionSizes,
+          otherFeatures.isEmpty()
+              ? Collections.emptySet()
+              : Collections.unmodifiableSet(new LinkedHashSet<>(otherFeatures)));
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * Copies a cached test fixture, so that each dynamic test can be handed its own instance without
+ * constructing it afresh through a {@link TestContainerGenerator}.
+ *
+ * <p>A copy must not share any mutable state with the original fixture. If a dynamic test mutates
+ * its copy and this changes the cached fixture, the next dynamic test that uses the fixture fails.
+ *
+ * @param <T> the type of the fixture
+ */
+@FunctionalInterface
+public interface FixtureCopier<T> {
+  /** Returns a copy of {@code fixture} with the same contents. */
+  T copy(T fixture);
+
+  /**
+   * Returns a {@code FixtureCopier} that copies fixtures by serializing and then deserializing
+   * them. It is only suitable for containers with the feature {@link
+   * CollectionFeature#SERIALIZABLE}.
+   */
+  static <T> FixtureCopier<T> serializing() {
+    return Helpers::reserialize;
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An upper bound on the number of operations, such as element comparisons, that a collection may
+ * make as a function of its size {@code n}.
+ */
+public final class GrowthBound {
+  private static final GrowthBound NONE =
+      new GrowthBound(ComplexityClass.CONSTANT, 0, Double.POSITIVE_INFINITY);
+
+  private final ComplexityClass complexityClass;
+  private final double coefficient;
+  private final double constant;
+
+  private GrowthBound(ComplexityClass complexityClass, double coefficient, double constant) {
+    this.complexityClass = complexityClass;
+    this.coefficient = coefficient;
+    this.constant = constant;
+  }
+
+  /** Returns a bound that allows any number of operations, meaning that nothing is checked. */
+  public static GrowthBound none() {
+    return NONE;
+  }
+
+  /** Returns a bound that allows at most {@code maxOperations}, whatever the size. */
+  public static GrowthBound atMost(long maxOperations) {
+    if (maxOperations < 0) {
+      throw new IllegalArgumentException(
+          String.format("'maxOperations' is %s, but must be >= 0", maxOperations));
+    }
+    return new GrowthBound(ComplexityClass.CONSTANT, 0, maxOperations);
+  }
+
+  /**
+   * Returns a bound that allows at most {@code constant + coefficient * growth(n)} operations,
+   * where {@code growth(n)} is {@code 1}, {@code log2(n)}, {@code n}, {@code n * log2(n)} or {@code
+   * n * n}, depending on {@code complexityClass}.
+   */
+  public static GrowthBound of(
+      ComplexityClass complexityClass, double coefficient, double constant) {
+    requireNonNull(complexityClass, "complexityClass");
+    if (coefficient < 0 || constant < 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'coefficient' is %s and 'constant' is %s, but both must be >= 0",
+              coefficient, constant));
+    }
+    return new GrowthBound(complexityClass, coefficient, constant);
+  }
+
+  /** Returns {@code true} if this bound allows any number of operations. */
+  public boolean isUnbounded() {
+    return Double.isInfinite(constant);
+  }
+
+  /** Returns the maximum number of operations allowed for a collection of size {@code n}. */
+  public long maxOperations(int n) {
+    if (isUnbounded()) {
+      return Long.MAX_VALUE;
+    }
+    // log2(0) is undefined, so sizes below 1 are treated as 1.
+    return (long) Math.floor(constant + coefficient * complexityClass.growth(Math.max(1, n)));
+  }
+
+  @Override
+  public String toString() {
+    if (isUnbounded()) {
+      return "unbounded";
+    }
+    if (coefficient == 0 || complexityClass == ComplexityClass.CONSTANT) {
+      return String.valueOf((long) Math.floor(constant + coefficient));
+    }
+    return String.format("%s + %s * %s", constant, coefficient, complexityClass.formula());
+  }
+}
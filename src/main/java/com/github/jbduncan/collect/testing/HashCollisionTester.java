@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+
+final class HashCollisionTester {
+  // HashMap's tree bins are red-black trees, which are at most about 2 * log2(n) deep, and each
+  // level visited costs an equals and a compareTo. The constants cover the one-off cost of turning
+  // a crowded bucket into a tree, which is bounded by the size of the bucket at that point.
+  static final GrowthBound DEFAULT_COMPARABLE_BOUND =
+      GrowthBound.of(ComplexityClass.LOGARITHMIC, 4, 32);
+  static final GrowthBound DEFAULT_NON_COMPARABLE_BOUND =
+      GrowthBound.of(ComplexityClass.LINEAR, 1, 32);
+  static final List<Integer> DEFAULT_SIZES =
+      Collections.unmodifiableList(Arrays.asList(16, 256, 4_096));
+
+  // Few enough hash codes that each is shared by many elements, even at small sizes.
+  private static final int CLUSTERED_HASH_CODES = 8;
+
+  private final Supplier<? extends HashedContainer> containerFactory;
+  private final String insertName;
+  private final String lookupName;
+  private final List<Integer> sizes;
+  private final GrowthBound comparableBound;
+  private final GrowthBound nonComparableBound;
+
+  private HashCollisionTester(
+      Supplier<? extends HashedContainer> containerFactory,
+      String insertName,
+      String lookupName,
+      List<Integer> sizes,
+      GrowthBound comparableBound,
+      GrowthBound nonComparableBound) {
+    this.containerFactory = requireNonNull(containerFactory, "containerFactory");
+    this.insertName = requireNonNull(insertName, "insertName");
+    this.lookupName = requireNonNull(lookupName, "lookupName");
+    this.sizes = requireNonNull(sizes, "sizes");
+    this.comparableBound = requireNonNull(comparableBound, "comparableBound");
+    this.nonComparableBound = requireNonNull(nonComparableBound, "nonComparableBound");
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  /** The operations of a set or map that are checked, applied to elements or keys. */
+  interface HashedContainer {
+    void insert(Object element);
+
+    /** Returns {@code true} if {@code element} is in this container. */
+    boolean lookup(Object element);
+  }
+
+  static class Builder {
+    private Builder() {}
+
+    private Supplier<? extends HashedContainer> containerFactory;
+    private String insertName;
+    private String lookupName;
+    private List<Integer> sizes;
+    private GrowthBound comparableBound = GrowthBound.none();
+    private GrowthBound nonComparableBound = GrowthBound.none();
+
+    Builder containerFactory(Supplier<? extends HashedContainer> containerFactory) {
+      this.containerFactory = containerFactory;
+      return this;
+    }
+
+    Builder insertName(String insertName) {
+      this.insertName = insertName;
+      return this;
+    }
+
+    Builder lookupName(String lookupName) {
+      this.lookupName = lookupName;
+      return this;
+    }
+
+    Builder sizes(List<Integer> sizes) {
+      this.sizes = sizes;
+      return this;
+    }
+
+    Builder comparableBound(GrowthBound comparableBound) {
+      this.comparableBound = comparableBound;
+      return this;
+    }
+
+    Builder nonComparableBound(GrowthBound nonComparableBound) {
+      this.nonComparableBound = nonComparableBound;
+      return this;
+    }
+
+    HashCollisionTester build() {
+      return new HashCollisionTester(
+          containerFactory, insertName, lookupName, sizes, comparableBound, nonComparableBound);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTests() {
+    return Stream.of(
+            new Scenario(
+                "all elements share one hash code, and are comparable",
+                SampleElements.comparableColliding(1),
+                i -> ComparableCollidingElement.of(i, 0),
+                comparableBound),
+            new Scenario(
+                "elements are clustered into "
+                    + CLUSTERED_HASH_CODES
+                    + " hash codes, and are comparable",
+                SampleElements.comparableColliding(CLUSTERED_HASH_CODES),
+                i -> ComparableCollidingElement.of(i, i % CLUSTERED_HASH_CODES),
+                comparableBound),
+            new Scenario(
+                "all elements share one hash code, and aren't comparable",
+                SampleElements.colliding(1),
+                i -> CollidingElement.of(i, 0),
+                nonComparableBound),
+            new Scenario(
+                "elements are clustered into "
+                    + CLUSTERED_HASH_CODES
+                    + " hash codes, and aren't comparable",
+                SampleElements.colliding(CLUSTERED_HASH_CODES),
+                i -> CollidingElement.of(i, i % CLUSTERED_HASH_CODES),
+                nonComparableBound))
+        .filter(scenario -> !scenario.bound.isUnbounded())
+        .map(this::dynamicContainerFor);
+  }
+
+  private DynamicNode dynamicContainerFor(Scenario scenario) {
+    return dynamicContainer(
+        scenario.name,
+        Stream.of(
+            dynamicTest(
+                insertName + " makes at most " + scenario.bound + " comparisons",
+                () -> assertInsertWithinBound(scenario)),
+            dynamicTest(
+                lookupName + " makes at most " + scenario.bound + " comparisons",
+                () -> assertLookupWithinBound(scenario))));
+  }
+
+  private void assertInsertWithinBound(Scenario scenario) {
+    ComparisonBoundChecker checker = new ComparisonBoundChecker(scenario.bound);
+    for (int size : sizes) {
+      HashedContainer container = containerFactory.get();
+      for (int i = 0; i < size; i++) {
+        Object element = scenario.samples.element(i);
+        int currentSize = i;
+        checker.check(
+            currentSize,
+            () -> String.format("%s of %s into %,d elements", insertName, element, currentSize),
+            ElementOperationCounts.countDuring(() -> container.insert(element)));
+      }
+    }
+    checker.assertNoViolations();
+  }
+
+  private void assertLookupWithinBound(Scenario scenario) {
+    ComparisonBoundChecker checker = new ComparisonBoundChecker(scenario.bound);
+    for (int size : sizes) {
+      HashedContainer container = containerFactory.get();
+      for (int i = 0; i < size; i++) {
+        container.insert(scenario.samples.element(i));
+      }
+      // Probe with equal copies rather than the same instances, since many implementations check
+      // for identity before calling equals. The element at index 'size' collides with the others,
+      // but isn't in the container.
+      for (int index : probeIndices(size)) {
+        Object probe = scenario.copies.apply(index);
+        boolean expected = index < size;
+        checker.check(
+            size,
+            () -> String.format("%s of %s on %,d elements", lookupName, probe, size),
+            ElementOperationCounts.countDuring(() -> container.lookup(probe)));
+        boolean found = container.lookup(probe);
+        if (found != expected) {
+          String message =
+              String.format(
+                  "%s of %s on %,d elements says it's %s, but it's %s",
+                  lookupName,
+                  probe,
+                  size,
+                  found ? "present" : "absent",
+                  expected ? "present" : "absent");
+          ContractMetrics.budgetViolated(
+              lookupName + " finds exactly the colliding elements that are present", message);
+          fail(message);
+        }
+      }
+    }
+    checker.assertNoViolations();
+  }
+
+  private static List<Integer> probeIndices(int size) {
+    if (size == 0) {
+      return Collections.singletonList(0);
+    }
+    return Arrays.asList(0, size / 2, size - 1, size);
+  }
+
+  private static final class Scenario {
+    final String name;
+    final SampleElements<?> samples;
+    final IntFunction<?> copies;
+    final GrowthBound bound;
+
+    Scenario(String name, SampleElements<?> samples, IntFunction<?> copies, GrowthBound bound) {
+      this.name = name;
+      this.samples = samples;
+      this.copies = copies;
+      this.bound = bound;
+    }
+  }
+}
@@ -15,23 +15,40 @@
  */
 package com.github.jbduncan.collect.testing;
 
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toCollection;
-import static java.util.stream.Collectors.toList;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 final class Helpers {
+  // Beyond this many elements, stringifyElements elides the rest to keep display names readable.
+  private static final int MAX_STRINGIFIED_ELEMENTS = 10;
+  private static final double NANOS_PER_MICRO = 1e3;
+  private static final double NANOS_PER_MILLI = 1e6;
+  private static final double NANOS_PER_SECOND = 1e9;
+
   private Helpers() {}
 
   static Set<CollectionSize> extractConcreteSizes(Set<Feature<?>> features) {
@@ -58,61 +75,67 @@ final class Helpers {
   }
 
   private static <E> Set<E> copyToUnmodifiableInsertionOrderSet(Collection<E> elements) {
-    return Collections.unmodifiableSet(copyToMutableInsertionOrderSet(elements));
+    return Collections.unmodifiableSet(new LinkedHashSet<>(elements));
   }
 
-  @SuppressWarnings("unchecked")
-  static <E> Set<E> copyToMutableInsertionOrderSet(E... elements) {
-    return copyToMutableInsertionOrderSet(Arrays.asList(elements));
+  /**
+   * Returns an unmodifiable list of {@code collectionSize.size()} elements drawn from {@code
+   * sampleElements}, with a {@code null} in the middle if {@code nullInMiddle} is {@code true}.
+   * {@code e3()} and {@code e4()} are never included.
+   *
+   * <p>The list is a view that computes each element from its index, so it takes up constant space
+   * no matter how large {@code collectionSize} is.
+   */
+  static <E> List<E> newIterable(
+      SampleElements<E> sampleElements, CollectionSize collectionSize, boolean nullInMiddle) {
+    if (collectionSize == CollectionSize.SUPPORTS_ANY_SIZE) {
+      throw new IllegalArgumentException(
+          "'collectionSize' cannot be CollectionSize.SUPPORTS_ANY_SIZE; "
+              + "it must be a specific size");
+    }
+    return newIterable(sampleElements, collectionSize.size(), nullInMiddle);
   }
 
-  private static <E> Set<E> copyToMutableInsertionOrderSet(Collection<E> elements) {
-    return new LinkedHashSet<>(elements);
+  /**
+   * Like {@link #newIterable(SampleElements, CollectionSize, boolean)}, but for an arbitrary
+   * non-negative {@code size}.
+   */
+  static <E> List<E> newIterable(SampleElements<E> sampleElements, int size, boolean nullInMiddle) {
+    if (size < 0) {
+      throw new IllegalArgumentException(String.format("'size' is %s, but must be >= 0", size));
+    }
+    return new SampleElementsList<>(sampleElements, size, nullInMiddle);
   }
 
-  static <E> Iterable<E> newIterable(
-      SampleElements<E> sampleElements, CollectionSize collectionSize, boolean nullInMiddle) {
-    switch (collectionSize) {
-      case SUPPORTS_ZERO:
-        return () -> Collections.<E>emptyList().iterator();
-      case SUPPORTS_ONE:
-        return () ->
-            nullInMiddle
-                ? Collections.<E>singletonList(null).iterator()
-                : Collections.singletonList(sampleElements.e0()).iterator();
-      case SUPPORTS_MULTIPLE:
-        return () -> {
-          List<E> elements =
-              nullInMiddle
-                  ? Arrays.asList(sampleElements.e0(), null, sampleElements.e2())
-                  : Arrays.asList(sampleElements.e0(), sampleElements.e1(), sampleElements.e2());
-          return Collections.unmodifiableList(elements).iterator();
-        };
-      case SUPPORTS_ANY_SIZE:
-        throw new IllegalArgumentException(
-            "'collectionSize' cannot be CollectionSize.SUPPORTS_ANY_SIZE; "
-                + "it must be a specific size");
-    }
-    throw new IllegalStateException(
-        String.format("'collectionSize' %s is unrecognized", collectionSize));
-  }
-
-  static <E> List<E> append(Iterable<E> iterable, E toAppend) {
-    return Stream.concat(stream(iterable), Stream.of(toAppend)).collect(toUnmodifiableList());
-  }
-
-  static <E> List<E> insert(Iterable<E> iterable, int index, E toInsert) {
-    List<E> result =
-        iterable instanceof Collection<?>
-            ? new ArrayList<>(((Collection<?>) iterable).size() + 1)
-            : new ArrayList<>();
-    iterable.forEach(result::add);
-    result.add(index, toInsert);
-    return Collections.unmodifiableList(result);
-  }
-
-  private static <T> Collector<T, ?, List<T>> toUnmodifiableList() {
-    return collectingAndThen(toList(), Collections::unmodifiableList);
+  /**
+   * Returns an unmodifiable view of {@code list} with {@code toAppend} added to the end. Unlike
+   * copying the list, this takes constant time and space.
+   */
+  static <E> List<E> append(List<E> list, E toAppend) {
+    return insert(list, list.size(), toAppend);
+  }
+
+  /**
+   * Returns an unmodifiable view of {@code list} with {@code toInsert} inserted at {@code index}.
+   * Unlike copying the list, this takes constant time and space.
+   */
+  static <E> List<E> insert(List<E> list, int index, E toInsert) {
+    if (index < 0 || index > list.size()) {
+      throw new IndexOutOfBoundsException(
+          String.format("'index' is %s, but list has %s elements", index, list.size()));
+    }
+    return new InsertedElementList<>(list, index, toInsert);
+  }
+
+  /**
+   * Returns a stream of the elements of each of the streams returned by {@code streamSuppliers}, in
+   * order. Unlike {@link Stream#concat}, each stream is only created when the returned stream
+   * reaches it, so expensive streams that end up never being consumed are never created.
+   */
+  @SafeVarargs
+  @SuppressWarnings("varargs") // The array is only ever read from, so it's safe to pass around.
+  static <T> Stream<T> lazyConcat(Supplier<Stream<? extends T>>... streamSuppliers) {
+    return Arrays.stream(streamSuppliers).flatMap(Supplier::get);
   }
 
   static <E> Stream<E> stream(Iterable<E> iterable) {
@@ -124,6 +147,142 @@ final class Helpers {
   }
 
   static String stringifyElements(Iterable<?> iterable) {
-    return stream(iterable).map(Helpers::stringify).collect(joining(", ", "[", "]"));
+    List<String> stringified = new ArrayList<>();
+    int elided = 0;
+    boolean elidedNull = false;
+    for (Object element : iterable) {
+      if (stringified.size() < MAX_STRINGIFIED_ELEMENTS) {
+        stringified.add(stringify(element));
+      } else {
+        elided++;
+        elidedNull |= element == null;
+      }
+    }
+    if (elided > 0) {
+      stringified.add("... " + elided + " more" + (elidedNull ? " (including null)" : ""));
+    }
+    return stringified.stream().collect(joining(", ", "[", "]"));
+  }
+
+  /** Like {@link #stringifyElements(Iterable)}, but for the elements of a primitive list. */
+  static String stringifyElements(int... elements) {
+    return stringifyElements(elements.length, i -> String.valueOf(elements[i]));
+  }
+
+  /** Like {@link #stringifyElements(Iterable)}, but for the elements of a primitive list. */
+  static String stringifyElements(long... elements) {
+    return stringifyElements(elements.length, i -> String.valueOf(elements[i]));
+  }
+
+  private static String stringifyElements(int size, IntFunction<String> stringifier) {
+    List<String> stringified = new ArrayList<>();
+    for (int i = 0; i < Math.min(size, MAX_STRINGIFIED_ELEMENTS); i++) {
+      stringified.add(stringifier.apply(i));
+    }
+    if (size > MAX_STRINGIFIED_ELEMENTS) {
+      stringified.add("... " + (size - MAX_STRINGIFIED_ELEMENTS) + " more");
+    }
+    return stringified.stream().collect(joining(", ", "[", "]"));
+  }
+
+  /**
+   * Returns {@code nanos} as nanoseconds, microseconds, milliseconds or seconds, to be readable.
+   */
+  static String stringifyNanos(long nanos) {
+    if (nanos < NANOS_PER_MICRO) {
+      return nanos + " ns";
+    }
+    if (nanos < NANOS_PER_MILLI) {
+      return String.format("%.1f us", nanos / NANOS_PER_MICRO);
+    }
+    if (nanos < NANOS_PER_SECOND) {
+      return String.format("%.1f ms", nanos / NANOS_PER_MILLI);
+    }
+    return String.format("%,.1f s", nanos / NANOS_PER_SECOND);
+  }
+
+  private static final class SampleElementsList<E> extends AbstractList<E> implements RandomAccess {
+    private final SampleElements<E> samples;
+    private final int size;
+    private final int nullIndex;
+
+    SampleElementsList(SampleElements<E> samples, int size, boolean nullInMiddle) {
+      this.samples = requireNonNull(samples, "samples");
+      this.size = size;
+      this.nullIndex = nullInMiddle ? size / 2 : -1;
+    }
+
+    @Override
+    public E get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException(
+            String.format("'index' is %s, but list has %s elements", index, size));
+      }
+      if (index == nullIndex) {
+        return null;
+      }
+      return samples.fixtureElement(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static final class InsertedElementList<E> extends AbstractList<E>
+      implements RandomAccess {
+    private final List<E> list;
+    private final int index;
+    private final E inserted;
+
+    InsertedElementList(List<E> list, int index, E inserted) {
+      this.list = requireNonNull(list, "list");
+      this.index = index;
+      this.inserted = inserted;
+    }
+
+    @Override
+    public E get(int i) {
+      if (i < index) {
+        return list.get(i);
+      }
+      if (i == index) {
+        return inserted;
+      }
+      return list.get(i - 1);
+    }
+
+    @Override
+    public int size() {
+      return list.size() + 1;
+    }
+  }
+
+  /**
+   * Returns a copy of {@code object} made by serializing it and then deserializing the result.
+   *
+   * @throws IllegalArgumentException if {@code object} is not {@link Serializable}
+   */
+  @SuppressWarnings("unchecked") // Deserializing an object produces an object of the same type.
+  static <T> T reserialize(T object) {
+    if (!(object instanceof Serializable)) {
+      throw new IllegalArgumentException(
+          String.format("'%s' cannot be copied as it is not Serializable", object));
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (T) in.readObject();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } catch (ClassNotFoundException e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
@@ -0,0 +1,498 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A {@code List} that forwards every call to another list, counting how many times each method is
+ * called and how many elements each call touches.
+ *
+ * <p>Methods are named by their signature, such as {@code "add(E)"}, {@code "add(int, E)"} or
+ * {@code "addAll(Collection)"}. Calls to the iterators and sublists of this list are counted
+ * against it too, as {@code "Iterator.next()"}, {@code "ListIterator.previous()"} and so on. The
+ * elements touched by a call are the elements in its collection argument, for methods that take a
+ * collection, such as {@code addAll(Collection)}; the elements in this list, for methods that go
+ * through all of them, such as {@code toArray()} or {@code forEach(Consumer)}; one for each element
+ * returned by an iterator; and none otherwise.
+ *
+ * <p>This can be used in two ways: to see which methods a test calls on the list under test, or as
+ * the argument of a bulk operation, to see how the list under test uses it. For example, to check
+ * that {@code addAll(Collection)} copies its argument with a single call to {@code toArray()}
+ * rather than iterating over it:
+ *
+ * <pre>
+ * InstrumentedList&lt;String&gt; argument = InstrumentedList.of(Arrays.asList("a", "b"));
+ * myList.addAll(argument);
+ * assertEquals(1, argument.calls("toArray()"));
+ * assertEquals(0, argument.calls("iterator()"));
+ * </pre>
+ *
+ * <p>An {@code InstrumentedList} is {@link RandomAccess} if and only if the list it forwards to is.
+ * It's safe to use from many threads if that list is.
+ */
+public class InstrumentedList<E> implements List<E> {
+  private static final Set<String> METHODS =
+      Collections.unmodifiableSet(
+          new LinkedHashSet<>(
+              Arrays.asList(
+                  "size()",
+                  "isEmpty()",
+                  "contains(Object)",
+                  "iterator()",
+                  "toArray()",
+                  "toArray(T[])",
+                  "add(E)",
+                  "remove(Object)",
+                  "containsAll(Collection)",
+                  "addAll(Collection)",
+                  "addAll(int, Collection)",
+                  "removeAll(Collection)",
+                  "retainAll(Collection)",
+                  "replaceAll(UnaryOperator)",
+                  "sort(Comparator)",
+                  "clear()",
+                  "equals(Object)",
+                  "hashCode()",
+                  "toString()",
+                  "get(int)",
+                  "set(int, E)",
+                  "add(int, E)",
+                  "remove(int)",
+                  "indexOf(Object)",
+                  "lastIndexOf(Object)",
+                  "listIterator()",
+                  "listIterator(int)",
+                  "subList(int, int)",
+                  "spliterator()",
+                  "removeIf(Predicate)",
+                  "forEach(Consumer)",
+                  "Iterator.next()",
+                  "Iterator.remove()",
+                  "ListIterator.previous()",
+                  "ListIterator.set(E)",
+                  "ListIterator.add(E)")));
+
+  private final List<E> delegate;
+  private final Counts counts;
+
+  private InstrumentedList(List<E> delegate, Counts counts) {
+    this.delegate = delegate;
+    this.counts = counts;
+  }
+
+  /** Returns a list that forwards to {@code delegate}, with all of its counts at zero. */
+  public static <E> InstrumentedList<E> of(List<E> delegate) {
+    return of(requireNonNull(delegate, "delegate"), new Counts());
+  }
+
+  private static <E> InstrumentedList<E> of(List<E> delegate, Counts counts) {
+    return delegate instanceof RandomAccess
+        ? new RandomAccessInstrumentedList<>(delegate, counts)
+        : new InstrumentedList<>(delegate, counts);
+  }
+
+  /** Returns the list that this list forwards to. Calls made to it directly aren't counted. */
+  public List<E> delegate() {
+    return delegate;
+  }
+
+  /**
+   * Returns the number of times {@code method} has been called.
+   *
+   * @throws IllegalArgumentException if {@code method} isn't one of the counted methods
+   */
+  public long calls(String method) {
+    return counts.calls.getOrDefault(checkMethod(method), 0L);
+  }
+
+  /**
+   * Returns the number of elements touched by all calls to {@code method}.
+   *
+   * @throws IllegalArgumentException if {@code method} isn't one of the counted methods
+   */
+  public long elementsTouched(String method) {
+    return counts.elements.getOrDefault(checkMethod(method), 0L);
+  }
+
+  /** Returns the number of calls to each method that has been called, sorted by method. */
+  public Map<String, Long> callCounts() {
+    return Collections.unmodifiableMap(new TreeMap<>(counts.calls));
+  }
+
+  /**
+   * Returns the calls made so far, for failure messages, such as {@code "add(E) x1, addAll(int,
+   * Collection) x1 (3 elements), size() x2"}.
+   */
+  public String describeCalls() {
+    Map<String, Long> calls = callCounts();
+    if (calls.isEmpty()) {
+      return "no calls";
+    }
+    StringBuilder result = new StringBuilder();
+    calls.forEach(
+        (method, count) -> {
+          if (result.length() > 0) {
+            result.append(", ");
+          }
+          result.append(method).append(" x").append(count);
+          long elements = counts.elements.getOrDefault(method, 0L);
+          if (elements > 0) {
+            result.append(" (").append(elements).append(" elements)");
+          }
+        });
+    return result.toString();
+  }
+
+  /** Sets every count back to zero. */
+  public void resetCounts() {
+    counts.calls.clear();
+    counts.elements.clear();
+  }
+
+  private static String checkMethod(String method) {
+    if (!METHODS.contains(requireNonNull(method, "method"))) {
+      throw new IllegalArgumentException(
+          String.format("'method' is '%s', but must be one of %s", method, METHODS));
+    }
+    return method;
+  }
+
+  // Reads the size of a collection argument without counting a call, if it's instrumented too.
+  private static int sizeOf(Collection<?> collection) {
+    return collection instanceof InstrumentedList
+        ? ((InstrumentedList<?>) collection).delegate.size()
+        : collection.size();
+  }
+
+  @Override
+  public int size() {
+    counts.record("size()");
+    return delegate.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    counts.record("isEmpty()");
+    return delegate.isEmpty();
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    counts.record("contains(Object)");
+    return delegate.contains(o);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    counts.record("iterator()");
+    return new InstrumentedIterator<>(delegate.iterator(), counts);
+  }
+
+  @Override
+  public Object[] toArray() {
+    counts.record("toArray()", delegate.size());
+    return delegate.toArray();
+  }
+
+  @Override
+  @SuppressWarnings("PMD.UseVarargs") // Overrides List.toArray(T[]).
+  public <T> T[] toArray(T[] a) {
+    counts.record("toArray(T[])", delegate.size());
+    return delegate.toArray(a);
+  }
+
+  @Override
+  public boolean add(E e) {
+    counts.record("add(E)");
+    return delegate.add(e);
+  }
+
+  @Override
+  public boolean remove(Object o) {
+    counts.record("remove(Object)");
+    return delegate.remove(o);
+  }
+
+  @Override
+  public boolean containsAll(Collection<?> c) {
+    counts.record("containsAll(Collection)", sizeOf(c));
+    return delegate.containsAll(c);
+  }
+
+  @Override
+  public boolean addAll(Collection<? extends E> c) {
+    counts.record("addAll(Collection)", sizeOf(c));
+    return delegate.addAll(c);
+  }
+
+  @Override
+  public boolean addAll(int index, Collection<? extends E> c) {
+    counts.record("addAll(int, Collection)", sizeOf(c));
+    return delegate.addAll(index, c);
+  }
+
+  @Override
+  public boolean removeAll(Collection<?> c) {
+    counts.record("removeAll(Collection)", sizeOf(c));
+    return delegate.removeAll(c);
+  }
+
+  @Override
+  public boolean retainAll(Collection<?> c) {
+    counts.record("retainAll(Collection)", sizeOf(c));
+    return delegate.retainAll(c);
+  }
+
+  @Override
+  public void replaceAll(UnaryOperator<E> operator) {
+    counts.record("replaceAll(UnaryOperator)", delegate.size());
+    delegate.replaceAll(operator);
+  }
+
+  @Override
+  public void sort(Comparator<? super E> c) {
+    counts.record("sort(Comparator)", delegate.size());
+    delegate.sort(c);
+  }
+
+  @Override
+  public void clear() {
+    counts.record("clear()", delegate.size());
+    delegate.clear();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    counts.record("equals(Object)", delegate.size());
+    return delegate.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    counts.record("hashCode()", delegate.size());
+    return delegate.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    counts.record("toString()", delegate.size());
+    return delegate.toString();
+  }
+
+  @Override
+  public E get(int index) {
+    counts.record("get(int)");
+    return delegate.get(index);
+  }
+
+  @Override
+  public E set(int index, E element) {
+    counts.record("set(int, E)");
+    return delegate.set(index, element);
+  }
+
+  @Override
+  public void add(int index, E element) {
+    counts.record("add(int, E)");
+    delegate.add(index, element);
+  }
+
+  @Override
+  public E remove(int index) {
+    counts.record("remove(int)");
+    return delegate.remove(index);
+  }
+
+  @Override
+  public int indexOf(Object o) {
+    counts.record("indexOf(Object)");
+    return delegate.indexOf(o);
+  }
+
+  @Override
+  public int lastIndexOf(Object o) {
+    counts.record("lastIndexOf(Object)");
+    return delegate.lastIndexOf(o);
+  }
+
+  @Override
+  public ListIterator<E> listIterator() {
+    counts.record("listIterator()");
+    return new InstrumentedListIterator<>(delegate.listIterator(), counts);
+  }
+
+  @Override
+  public ListIterator<E> listIterator(int index) {
+    counts.record("listIterator(int)");
+    return new InstrumentedListIterator<>(delegate.listIterator(index), counts);
+  }
+
+  @Override
+  public List<E> subList(int fromIndex, int toIndex) {
+    counts.record("subList(int, int)");
+    return of(delegate.subList(fromIndex, toIndex), counts);
+  }
+
+  @Override
+  public Spliterator<E> spliterator() {
+    counts.record("spliterator()");
+    return delegate.spliterator();
+  }
+
+  @Override
+  public boolean removeIf(Predicate<? super E> filter) {
+    counts.record("removeIf(Predicate)", delegate.size());
+    return delegate.removeIf(filter);
+  }
+
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    counts.record("forEach(Consumer)", delegate.size());
+    delegate.forEach(action);
+  }
+
+  /** The counts of a list, shared with its iterators and sublists. */
+  private static final class Counts {
+    private final ConcurrentMap<String, Long> calls = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> elements = new ConcurrentHashMap<>();
+
+    void record(String method) {
+      calls.merge(method, 1L, Long::sum);
+    }
+
+    void record(String method, long elementsTouched) {
+      record(method);
+      elements.merge(method, elementsTouched, Long::sum);
+    }
+  }
+
+  private static final class RandomAccessInstrumentedList<E> extends InstrumentedList<E>
+      implements RandomAccess {
+    RandomAccessInstrumentedList(List<E> delegate, Counts counts) {
+      super(delegate, counts);
+    }
+  }
+
+  private static final class InstrumentedIterator<E> implements Iterator<E> {
+    private final Iterator<E> delegate;
+    private final Counts counts;
+
+    InstrumentedIterator(Iterator<E> delegate, Counts counts) {
+      this.delegate = delegate;
+      this.counts = counts;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public E next() {
+      E result = delegate.next();
+      counts.record("Iterator.next()", 1);
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      counts.record("Iterator.remove()");
+      delegate.remove();
+    }
+  }
+
+  private static final class InstrumentedListIterator<E> implements ListIterator<E> {
+    private final ListIterator<E> delegate;
+    private final Counts counts;
+
+    InstrumentedListIterator(ListIterator<E> delegate, Counts counts) {
+      this.delegate = delegate;
+      this.counts = counts;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return delegate.hasNext();
+    }
+
+    @Override
+    public E next() {
+      E result = delegate.next();
+      counts.record("Iterator.next()", 1);
+      return result;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+      return delegate.hasPrevious();
+    }
+
+    @Override
+    public E previous() {
+      E result = delegate.previous();
+      counts.record("ListIterator.previous()", 1);
+      return result;
+    }
+
+    @Override
+    public int nextIndex() {
+      return delegate.nextIndex();
+    }
+
+    @Override
+    public int previousIndex() {
+      return delegate.previousIndex();
+    }
+
+    @Override
+    public void remove() {
+      counts.record("Iterator.remove()");
+      delegate.remove();
+    }
+
+    @Override
+    public void set(E e) {
+      counts.record("ListIterator.set(E)");
+      delegate.set(e);
+    }
+
+    @Override
+    public void add(E e) {
+      counts.record("ListIterator.add(E)");
+      delegate.add(e);
+    }
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * {@code IntListContract} is a test interface for primitive {@code int} lists, which tests them
+ * through their own {@code int} API rather than as a {@code List<Integer>}.
+ *
+ * <p>It checks that the list's primitive methods and its {@linkplain TestIntList#boxed() boxed
+ * view} agree with each other, including after writes through either of them, and that the
+ * primitive methods don't allocate on the heap; see {@link #allocations()}.
+ */
+@ExtendWith(ContractMetricsExtension.class)
+public interface IntListContract {
+  /**
+   * Returns a factory of type {@link TestIntListGenerator} that will construct an instance of your
+   * list implementation from a given array of elements, wrapped in a {@link TestIntList}.
+   *
+   * @return the {@link TestIntListGenerator}
+   */
+  TestIntListGenerator generator();
+
+  /**
+   * Returns the features that this {@code IntListContract} should test for in the list
+   * implementation specified in {@link #generator()}, including their implied features. Only the
+   * {@link CollectionSize}s, and the {@link CollectionFeature}s and {@link ListFeature}s for the
+   * optional methods of {@link TestIntList}, have an effect.
+   */
+  default Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        ListFeature.GENERAL_PURPOSE, CollectionSize.SUPPORTS_ANY_SIZE);
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> primitiveAndBoxedViews() {
+    return ContractMetrics.measure(
+        getClass(),
+        "primitiveAndBoxedViews",
+        IntListTester.builder()
+            .testIntListGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
+
+  /**
+   * Checks that each primitive method of the list, such as {@code getInt(int)}, {@code
+   * contains(int)} and any supported write methods, doesn't allocate once it has been warmed up, as
+   * it would if it boxed its elements. Allocations are measured as for {@link
+   * ListAllocationContract}, so the tests are skipped on JVMs that can't measure them.
+   */
+  @TestFactory
+  default Stream<DynamicTest> allocations() {
+    return ContractMetrics.measure(
+        getClass(),
+        "allocations",
+        IntListTester.builder()
+            .testIntListGenerator(generator())
+            .features(features())
+            .build()
+            .allocationTests());
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+
+/** Tests {@link TestIntList}s through {@link AbstractPrimitiveListTester}. */
+final class IntListTester extends AbstractPrimitiveListTester<TestIntList, Integer> {
+  private final TestIntListGenerator generator;
+  private final IntSampleElements samples;
+
+  private IntListTester(
+      TestIntListGenerator generator, IntSampleElements samples, Set<Feature<?>> features) {
+    super(samples.asLongs(), features, "int");
+    this.generator = generator;
+    this.samples = samples;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static class Builder {
+    private Builder() {}
+
+    private TestIntListGenerator testIntListGenerator;
+    private Set<Feature<?>> features;
+
+    Builder testIntListGenerator(TestIntListGenerator testIntListGenerator) {
+      this.testIntListGenerator = testIntListGenerator;
+      return this;
+    }
+
+    Builder features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    IntListTester build() {
+      requireNonNull(testIntListGenerator, "testIntListGenerator");
+      return new IntListTester(
+          testIntListGenerator,
+          requireNonNull(testIntListGenerator.samples(), "samples"),
+          features);
+    }
+  }
+
+  @Override
+  TestIntList create(int size) {
+    return generator.create(samples.fixture(size));
+  }
+
+  @Override
+  int size(TestIntList list) {
+    return list.size();
+  }
+
+  @Override
+  long get(TestIntList list, int index) {
+    return list.getInt(index);
+  }
+
+  @Override
+  boolean contains(TestIntList list, long element) {
+    return list.contains((int) element);
+  }
+
+  @Override
+  int indexOf(TestIntList list, long element) {
+    return list.indexOf((int) element);
+  }
+
+  @Override
+  boolean add(TestIntList list, long element) {
+    return list.add((int) element);
+  }
+
+  @Override
+  void add(TestIntList list, int index, long element) {
+    list.add(index, (int) element);
+  }
+
+  @Override
+  long set(TestIntList list, int index, long element) {
+    return list.set(index, (int) element);
+  }
+
+  @Override
+  long remove(TestIntList list, int index) {
+    return list.removeInt(index);
+  }
+
+  @Override
+  List<Integer> boxed(TestIntList list) {
+    return list.boxed();
+  }
+
+  @Override
+  Integer box(long element) {
+    return Integer.valueOf((int) element);
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The {@code int} equivalent of {@link SampleElements}, for testing primitive {@code int} lists
+ * without boxing their elements.
+ */
+public final class IntSampleElements {
+  // Outside of the range of Integer.valueOf's cache, so that boxing them allocates; see
+  // IntListContract.allocations().
+  private static final int FIRST_DEFAULT_ELEMENT = 1_000;
+
+  private static final IntSampleElements INTS = indexed(i -> FIRST_DEFAULT_ELEMENT + i);
+
+  public static IntSampleElements of(int e0, int e1, int e2, int e3, int e4) {
+    return new IntSampleElements(LongSampleElements.of(e0, e1, e2, e3, e4));
+  }
+
+  /**
+   * Returns sample elements that can produce any number of distinct elements, where the element at
+   * index {@code i} is {@code factory.applyAsInt(i)}. The factory must be deterministic and return
+   * distinct elements for distinct indices.
+   */
+  public static IntSampleElements indexed(IntUnaryOperator factory) {
+    requireNonNull(factory, "factory");
+    return new IntSampleElements(LongSampleElements.indexed(factory::applyAsInt));
+  }
+
+  /**
+   * Returns scalable sample elements {@code 1000}, {@code 1001}, {@code 1002} and so on, which are
+   * all boxed to new {@code Integer} instances rather than cached ones.
+   */
+  public static IntSampleElements ints() {
+    return INTS;
+  }
+
+  // Every int is a long, so these sample elements are stored as their long equivalent, which the
+  // list testers share.
+  private final LongSampleElements longs;
+
+  private IntSampleElements(LongSampleElements longs) {
+    this.longs = longs;
+  }
+
+  public int e0() {
+    return (int) longs.e0();
+  }
+
+  public int e1() {
+    return (int) longs.e1();
+  }
+
+  public int e2() {
+    return (int) longs.e2();
+  }
+
+  public int e3() {
+    return (int) longs.e3();
+  }
+
+  /**
+   * This element is never put into a list for testing. It is used in tests that check that a given
+   * list <i>does not</i> contain a certain element.
+   */
+  public int e4() {
+    return (int) longs.e4();
+  }
+
+  /**
+   * Returns {@code true} if these sample elements can produce any number of distinct elements
+   * through {@link #element(int)}, or {@code false} if they only have {@code e0()} to {@code e4()}.
+   */
+  public boolean isScalable() {
+    return longs.isScalable();
+  }
+
+  /**
+   * Returns the element at the given index, where indices 0 to 4 correspond to {@code e0()} to
+   * {@code e4()}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or if it's greater than 4 and
+   *     these sample elements aren't {@linkplain #isScalable() scalable}
+   */
+  public int element(int index) {
+    return (int) longs.element(index);
+  }
+
+  /** Returns a new array of {@code e0()} to {@code e4()}. */
+  public int[] toArray() {
+    return toInts(longs.toArray());
+  }
+
+  /**
+   * Returns the first {@code size} elements to put into a list under test, following the same rules
+   * as {@link SampleElements#fixtureElement(int)}: {@code e3()} and {@code e4()} are never
+   * included.
+   */
+  int[] fixture(int size) {
+    return toInts(longs.fixture(size));
+  }
+
+  /** Returns these sample elements as {@code long}s. */
+  LongSampleElements asLongs() {
+    return longs;
+  }
+
+  private static int[] toInts(long... elements) {
+    int[] result = new int[elements.length];
+    for (int i = 0; i < elements.length; i++) {
+      result[i] = (int) elements[i];
+    }
+    return result;
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Helpers for writing and reading JSON by hand, since this project doesn't depend on a JSON
+ * library.
+ */
+final class Json {
+  private static final char LAST_CONTROL_CHARACTER = 0x1f;
+  private static final int HEX_DIGITS_PER_ESCAPE = 4;
+  private static final int HEX_RADIX = 16;
+
+  private Json() {}
+
+  /**
+   * Returns the value of the JSON document {@code json}. Objects are returned as unmodifiable
+   * {@code Map<String, Object>}s that keep the order of their members, arrays as unmodifiable
+   * {@code List<Object>}s, numbers as {@code Double}s, and {@code null} as {@code null}.
+   *
+   * @throws IllegalArgumentException if {@code json} isn't a valid JSON document
+   */
+  static Object parse(String json) {
+    Parser parser = new Parser(json);
+    Object result = parser.value();
+    parser.skipWhitespace();
+    if (!parser.atEnd()) {
+      throw parser.error("Expected the end of the document");
+    }
+    return result;
+  }
+
+  /** Returns {@code value} as a JSON string literal, with its quotes. */
+  static String quote(String value) {
+    StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+        case '\\':
+          result.append('\\').append(c);
+          break;
+        case '\n':
+          result.append("\\n");
+          break;
+        case '\r':
+          result.append("\\r");
+          break;
+        case '\t':
+          result.append("\\t");
+          break;
+        default:
+          if (c <= LAST_CONTROL_CHARACTER) {
+            result.append(String.format("\\u%04x", (int) c));
+          } else {
+            result.append(c);
+          }
+          break;
+      }
+    }
+    return result.append('"').toString();
+  }
+
+  private static final class Parser {
+    private final String json;
+    private int position;
+
+    Parser(String json) {
+      this.json = json;
+    }
+
+    Object value() {
+      skipWhitespace();
+      if (atEnd()) {
+        throw error("Expected a value");
+      }
+      char c = json.charAt(position);
+      switch (c) {
+        case '{':
+          return object();
+        case '[':
+          return array();
+        case '"':
+          return string();
+        case 't':
+          expectLiteral("true");
+          return Boolean.TRUE;
+        case 'f':
+          expectLiteral("false");
+          return Boolean.FALSE;
+        case 'n':
+          expectLiteral("null");
+          return null;
+        default:
+          return number();
+      }
+    }
+
+    private Map<String, Object> object() {
+      expect('{');
+      Map<String, Object> result = new LinkedHashMap<>();
+      if (!consumeIf('}')) {
+        do {
+          skipWhitespace();
+          String key = string();
+          if (result.containsKey(key)) {
+            throw error("Duplicate key " + quote(key));
+          }
+          expect(':');
+          result.put(key, value());
+        } while (consumeIf(','));
+        expect('}');
+      }
+      return Collections.unmodifiableMap(result);
+    }
+
+    private List<Object> array() {
+      expect('[');
+      List<Object> result = new ArrayList<>();
+      if (!consumeIf(']')) {
+        do {
+          result.add(value());
+        } while (consumeIf(','));
+        expect(']');
+      }
+      return Collections.unmodifiableList(result);
+    }
+
+    private String string() {
+      if (atEnd() || json.charAt(position) != '"') {
+        throw error("Expected a string");
+      }
+      position++;
+      StringBuilder result = new StringBuilder();
+      while (true) {
+        if (atEnd()) {
+          throw error("Unterminated string");
+        }
+        char c = json.charAt(position++);
+        switch (c) {
+          case '"':
+            return result.toString();
+          case '\\':
+            result.append(escape());
+            break;
+          default:
+            if (c <= LAST_CONTROL_CHARACTER) {
+              throw error("Unescaped control character in string");
+            }
+            result.append(c);
+            break;
+        }
+      }
+    }
+
+    private char escape() {
+      if (atEnd()) {
+        throw error("Unterminated escape sequence");
+      }
+      char c = json.charAt(position++);
+      switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+          return c;
+        case 'b':
+          return '\b';
+        case 'f':
+          return '\f';
+        case 'n':
+          return '\n';
+        case 'r':
+          return '\r';
+        case 't':
+          return '\t';
+        case 'u':
+          if (position + HEX_DIGITS_PER_ESCAPE > json.length()) {
+            throw error("Unterminated escape sequence");
+          }
+          try {
+            char result =
+                (char)
+                    Integer.parseInt(
+                        json.substring(position, position + HEX_DIGITS_PER_ESCAPE), HEX_RADIX);
+            position += HEX_DIGITS_PER_ESCAPE;
+            return result;
+          } catch (NumberFormatException e) {
+            throw error("Invalid unicode escape sequence", e);
+          }
+        default:
+          throw error("Invalid escape sequence \\" + c);
+      }
+    }
+
+    private Double number() {
+      int start = position;
+      while (!atEnd() && "+-0123456789.eE".indexOf(json.charAt(position)) >= 0) {
+        position++;
+      }
+      String number = json.substring(start, position);
+      // Double.parseDouble also accepts things that JSON doesn't, like "NaN" and "1d", but those
+      // never get this far, since the loop above only consumes JSON's number characters.
+      try {
+        return Double.parseDouble(number);
+      } catch (NumberFormatException e) {
+        position = start;
+        throw error("Expected a value", e);
+      }
+    }
+
+    private void expectLiteral(String literal) {
+      if (!json.startsWith(literal, position)) {
+        throw error("Expected " + literal);
+      }
+      position += literal.length();
+    }
+
+    private void expect(char c) {
+      if (!consumeIf(c)) {
+        throw error("Expected '" + c + "'");
+      }
+    }
+
+    private boolean consumeIf(char c) {
+      skipWhitespace();
+      if (!atEnd() && json.charAt(position) == c) {
+        position++;
+        return true;
+      }
+      return false;
+    }
+
+    void skipWhitespace() {
+      while (!atEnd() && " \t\n\r".indexOf(json.charAt(position)) >= 0) {
+        position++;
+      }
+    }
+
+    boolean atEnd() {
+      return position >= json.length();
+    }
+
+    IllegalArgumentException error(String message) {
+      return error(message, null);
+    }
+
+    private IllegalArgumentException error(String message, Throwable cause) {
+      return new IllegalArgumentException(
+          String.format("%s at position %s of JSON document", message, position), cause);
+    }
+  }
+}
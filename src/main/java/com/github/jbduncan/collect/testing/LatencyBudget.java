@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * The longest that individual operations may take, at the 99th and 99.9th percentiles and at the
+ * very worst, as declared by a collection implementation.
+ */
+public final class LatencyBudget {
+  private final Duration p99;
+  private final Duration p999;
+  private final Duration max;
+
+  private LatencyBudget(Duration p99, Duration p999, Duration max) {
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  /**
+   * Returns a budget where 99% of operations take at most {@code p99}, 99.9% take at most {@code
+   * p999}, and none take longer than {@code max}.
+   *
+   * @throws IllegalArgumentException if any duration is negative, or if they aren't in
+   *     non-decreasing order
+   */
+  public static LatencyBudget of(Duration p99, Duration p999, Duration max) {
+    requireNonNull(p99, "p99");
+    requireNonNull(p999, "p999");
+    requireNonNull(max, "max");
+    if (p99.isNegative() || p99.compareTo(p999) > 0 || p999.compareTo(max) > 0) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'p99' is %s, 'p999' is %s and 'max' is %s, but they must be >= 0 and in "
+                  + "non-decreasing order",
+              p99, p999, max));
+    }
+    return new LatencyBudget(p99, p999, max);
+  }
+
+  /** Returns the longest that 99% of operations may take. */
+  public Duration p99() {
+    return p99;
+  }
+
+  /** Returns the longest that 99.9% of operations may take. */
+  public Duration p999() {
+    return p999;
+  }
+
+  /** Returns the longest that any operation may take. */
+  public Duration max() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "p99 <= %s, p99.9 <= %s, max <= %s",
+        Helpers.stringifyNanos(p99.toNanos()),
+        Helpers.stringifyNanos(p999.toNanos()),
+        Helpers.stringifyNanos(max.toNanos()));
+  }
+}
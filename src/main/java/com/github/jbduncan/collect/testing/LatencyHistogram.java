@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+/**
+ * A histogram of operation latencies in nanoseconds, with a bounded relative error.
+ *
+ * <p>Latencies below 128 ns each have their own bucket. Above that, every power of two is split
+ * into 64 buckets of equal width, so a recorded latency is known to within 1/64 of its value, or
+ * about 1.6%. Recording is a few arithmetic operations and an array increment, with no allocation,
+ * so it can be done between timed operations without disturbing them.
+ */
+final class LatencyHistogram {
+  // Latencies below 2^EXACT_BITS ns are recorded exactly.
+  private static final int EXACT_BITS = 7;
+  private static final int SUB_BUCKET_BITS = EXACT_BITS - 1;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int EXACT_LIMIT = 1 << EXACT_BITS;
+  // Enough buckets for the largest long.
+  private static final int BUCKETS = (Long.SIZE - EXACT_BITS) * SUB_BUCKETS + EXACT_LIMIT;
+  private static final double PERCENT = 100;
+
+  private final long[] counts = new long[BUCKETS];
+  private long totalCount;
+  private long min = Long.MAX_VALUE;
+  private long max;
+
+  /** Records one operation that took {@code nanos} nanoseconds. */
+  void record(long nanos) {
+    if (nanos < 0) {
+      throw new IllegalArgumentException(String.format("'nanos' is %s, but must be >= 0", nanos));
+    }
+    counts[bucket(nanos)]++;
+    totalCount++;
+    min = Math.min(min, nanos);
+    max = Math.max(max, nanos);
+  }
+
+  /** Returns the number of operations recorded. */
+  long count() {
+    return totalCount;
+  }
+
+  /** Returns the smallest latency recorded exactly, or 0 if nothing has been recorded. */
+  long min() {
+    return totalCount == 0 ? 0 : min;
+  }
+
+  /** Returns the largest latency recorded exactly, or 0 if nothing has been recorded. */
+  long max() {
+    return max;
+  }
+
+  /**
+   * Returns a latency that at least {@code percentile} percent of the recorded operations took no
+   * longer than. It is rounded up to the end of its bucket, but never exceeds {@link #max()}, so it
+   * is never less than the true percentile.
+   *
+   * @param percentile a percentage between 0 (exclusive) and 100 (inclusive)
+   */
+  long valueAtPercentile(double percentile) {
+    if (!(percentile > 0 && percentile <= PERCENT)) {
+      throw new IllegalArgumentException(
+          String.format("'percentile' is %s, but must be > 0 and <= 100", percentile));
+    }
+    if (totalCount == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / PERCENT * totalCount));
+    long seen = 0;
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts[bucket];
+      if (seen >= rank) {
+        return Math.min(highestValueIn(bucket), max);
+      }
+    }
+    return max;
+  }
+
+  private static int bucket(long nanos) {
+    if (nanos < EXACT_LIMIT) {
+      return (int) nanos;
+    }
+    int shift = Long.SIZE - Long.numberOfLeadingZeros(nanos) - EXACT_BITS;
+    // The top SUB_BUCKET_BITS + 1 bits of nanos, which is between SUB_BUCKETS and 2 * SUB_BUCKETS.
+    int subBucket = (int) (nanos >>> shift);
+    return shift * SUB_BUCKETS + subBucket;
+  }
+
+  private static long highestValueIn(int bucket) {
+    if (bucket < EXACT_LIMIT) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+    // For the last bucket, this wraps around to exactly Long.MAX_VALUE.
+    return ((subBucket + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Checks whether a history of operations that ran concurrently on a collection is linearizable:
+ * whether there is some order of the operations, consistent with the order in which they ran, in
+ * which running them one at a time gives the same results.
+ *
+ * <p>The sequential model that each order is replayed on is a fresh collection from the same
+ * generator, so the collection is checked against its own single-threaded behaviour. The search
+ * follows Wing and Gong's algorithm, remembering which combinations of completed operations and
+ * model contents have already been ruled out.
+ *
+ * @param <E> the type of the collection's elements
+ */
+final class LinearizabilityChecker<E> {
+  // The set of completed operations is stored as a bitmask in a long.
+  static final int MAX_OPERATIONS = Long.SIZE;
+
+  private final Supplier<? extends Collection<E>> modelFactory;
+
+  LinearizabilityChecker(Supplier<? extends Collection<E>> modelFactory) {
+    this.modelFactory = requireNonNull(modelFactory, "modelFactory");
+  }
+
+  /** Returns {@code true} if {@code history} is linearizable. */
+  boolean isLinearizable(List<Operation<E>> history) {
+    requireNonNull(history, "history");
+    if (history.size() > MAX_OPERATIONS) {
+      throw new IllegalArgumentException(
+          String.format(
+              "'history' has %s operations, but must have at most %s",
+              history.size(), MAX_OPERATIONS));
+    }
+    return new Search(history).linearize(0L, new ArrayList<>());
+  }
+
+  private final class Search {
+    private final List<Operation<E>> history;
+    private final long allDone;
+    private final Set<List<Object>> ruledOut = new HashSet<>();
+
+    Search(List<Operation<E>> history) {
+      this.history = history;
+      this.allDone = history.size() == MAX_OPERATIONS ? -1L : (1L << history.size()) - 1;
+    }
+
+    boolean linearize(long done, List<Operation<E>> order) {
+      if (done == allDone) {
+        return true;
+      }
+      if (!ruledOut.add(key(done, replay(order)))) {
+        return false;
+      }
+      // An operation can only go next if it was invoked before every remaining operation returned;
+      // otherwise some remaining operation must come before it.
+      long earliestReturn = Long.MAX_VALUE;
+      for (int i = 0; i < history.size(); i++) {
+        if ((done & (1L << i)) == 0) {
+          earliestReturn = Math.min(earliestReturn, history.get(i).returnedAt());
+        }
+      }
+      for (int i = 0; i < history.size(); i++) {
+        Operation<E> next = history.get(i);
+        if ((done & (1L << i)) == 0
+            && next.invokedAt() < earliestReturn
+            && Objects.equals(next.result(), next.applyTo(replay(order)))) {
+          order.add(next);
+          if (linearize(done | (1L << i), order)) {
+            return true;
+          }
+          order.remove(order.size() - 1);
+        }
+      }
+      return false;
+    }
+
+    private Collection<E> replay(List<Operation<E>> order) {
+      Collection<E> model = modelFactory.get();
+      for (Operation<E> operation : order) {
+        operation.applyTo(model);
+      }
+      return model;
+    }
+
+    private List<Object> key(long done, Collection<E> model) {
+      return Arrays.asList(done, new ArrayList<>(model));
+    }
+  }
+
+  /** An operation on a collection that can be run concurrently. */
+  enum Kind {
+    ADD("add"),
+    REMOVE("remove"),
+    CONTAINS("contains");
+
+    private final String methodName;
+
+    Kind(String methodName) {
+      this.methodName = methodName;
+    }
+
+    <E> Object applyTo(Collection<E> collection, E element) {
+      try {
+        switch (this) {
+          case ADD:
+            return collection.add(element);
+          case REMOVE:
+            return collection.remove(element);
+          case CONTAINS:
+            return collection.contains(element);
+        }
+        throw new AssertionError(this);
+      } catch (RuntimeException e) {
+        // Exceptions are results like any other, so that they're compared with the model's.
+        return e.getClass().getName();
+      }
+    }
+
+    String methodName() {
+      return methodName;
+    }
+  }
+
+  /**
+   * An operation that ran on a particular thread, with its result, and the logical times at which
+   * it was invoked and returned.
+   */
+  static final class Operation<E> {
+    private final int thread;
+    private final Kind kind;
+    private final E element;
+    private final Object result;
+    private final long invokedAt;
+    private final long returnedAt;
+
+    Operation(int thread, Kind kind, E element, Object result, long invokedAt, long returnedAt) {
+      this.thread = thread;
+      this.kind = requireNonNull(kind, "kind");
+      this.element = element;
+      this.result = result;
+      this.invokedAt = invokedAt;
+      this.returnedAt = returnedAt;
+    }
+
+    int thread() {
+      return thread;
+    }
+
+    Object result() {
+      return result;
+    }
+
+    long invokedAt() {
+      return invokedAt;
+    }
+
+    long returnedAt() {
+      return returnedAt;
+    }
+
+    Object applyTo(Collection<E> collection) {
+      return kind.applyTo(collection, element);
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "thread %s: %s(%s) returned %s, from %s to %s",
+          thread, kind.methodName(), element, result, invokedAt, returnedAt);
+    }
+  }
+}
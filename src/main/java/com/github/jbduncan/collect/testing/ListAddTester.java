@@ -18,38 +18,41 @@ package com.github.jbduncan.collect.testing;
 import static com.github.jbduncan.collect.testing.Helpers.append;
 import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
 import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
 import static com.github.jbduncan.collect.testing.Helpers.newIterable;
 import static com.github.jbduncan.collect.testing.Helpers.stringify;
 import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
-import static com.github.jbduncan.collect.testing.ListContractHelpers.newTestList;
 import static java.util.Objects.requireNonNull;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.function.ThrowingConsumer;
 
 final class ListAddTester<E> {
-  private final TestListGenerator<E> generator;
+  private final ListFixtures<E> fixtures;
   private final SampleElements<E> samples;
   private final E newElement;
   private final E existingElement;
-  private final Set<Feature<?>> features;
-
-  private ListAddTester(TestListGenerator<E> testListGenerator, Set<Feature<?>> features) {
-    this.generator = requireNonNull(testListGenerator, "testListGenerator");
+  private final FeatureSet features;
+
+  private ListAddTester(
+      TestListGenerator<E> testListGenerator,
+      Set<Feature<?>> features,
+      FixtureCopier<List<E>> fixtureCopier,
+      boolean instrumentLists) {
+    requireNonNull(testListGenerator, "testListGenerator");
+    this.fixtures = ListFixtures.create(testListGenerator, fixtureCopier, instrumentLists);
     this.samples = requireNonNull(testListGenerator.samples(), "samples");
     this.newElement = samples.e3();
     this.existingElement = samples.e0();
-    this.features = requireNonNull(features, "features");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
   }
 
   static <E> Builder<E> builder() {
@@ -61,6 +64,8 @@ final class ListAddTester<E> {
 
     private TestListGenerator<E> testListGenerator;
     private Set<Feature<?>> features;
+    private FixtureCopier<List<E>> fixtureCopier;
+    private boolean instrumentLists;
 
     Builder<E> testListGenerator(TestListGenerator<E> testListGenerator) {
       this.testListGenerator = testListGenerator;
@@ -72,110 +77,131 @@ final class ListAddTester<E> {
       return this;
     }
 
+    /**
+     * Sets the copier used to copy cached lists for each dynamic test, or {@code null} (the
+     * default) to construct every list afresh through the generator.
+     */
+    Builder<E> fixtureCopier(FixtureCopier<List<E>> fixtureCopier) {
+      this.fixtureCopier = fixtureCopier;
+      return this;
+    }
+
+    /**
+     * Sets whether each list is wrapped in an {@link InstrumentedList}, so that the calls made to
+     * it are shown when a test fails. The default is {@code false}.
+     */
+    Builder<E> instrumentLists(boolean instrumentLists) {
+      this.instrumentLists = instrumentLists;
+      return this;
+    }
+
     // TODO: Consider inlining `ListAddTester#dynamicTestsGraph` into this method and returning
-    //   `List<DynamicNode>` rather than `ListAddTester<E>`.
+    //   `Stream<DynamicNode>` rather than `ListAddTester<E>`.
     ListAddTester<E> build() {
-      return new ListAddTester<>(testListGenerator, features);
+      return new ListAddTester<>(testListGenerator, features, fixtureCopier, instrumentLists);
     }
   }
 
-  List<DynamicNode> dynamicTestsGraph() {
-    List<DynamicNode> tests = new ArrayList<>();
-    generateSupportsAddTests(tests);
-    generateSupportsAddWithNullElementsTests(tests);
-    generateDoesNotSupportAddTests(tests);
-    generateDoesNotSupportAddWithNullElementsTests(tests);
-    return Collections.unmodifiableList(tests);
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(
+            this::supportsAddTests,
+            this::supportsAddWithNullElementsTests,
+            this::doesNotSupportAddTests,
+            this::doesNotSupportAddWithNullElementsTests)
+        // JUnit closes the stream once every dynamic test in it has run.
+        .onClose(fixtures::disposeCachedLists);
   }
 
-  private void generateSupportsAddTests(List<DynamicNode> tests) {
-    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
-      List<DynamicTest> subTests = new ArrayList<>();
-
-      appendSupportsAddWithNewElementTests(subTests);
-      appendSupportsAddWithExistingElementTests(subTests);
-
-      tests.add(dynamicContainer("Supports List.add(E)", subTests));
-
-      if (!features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
-        List<DynamicTest> innerSubTests = new ArrayList<>();
-
-        appendDoesNotSupportAddWithNewNullElementTests(innerSubTests);
-
-        tests.add(dynamicContainer("Doesn't support List.add(null)", innerSubTests));
-      }
+  private Stream<DynamicNode> supportsAddTests() {
+    if (!features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      return Stream.empty();
     }
-  }
 
-  private void generateSupportsAddWithNullElementsTests(List<DynamicNode> tests) {
-    if (features.containsAll(
-        Arrays.asList(CollectionFeature.SUPPORTS_ADD, CollectionFeature.ALLOWS_NULL_VALUES))) {
-      List<DynamicTest> subTests = new ArrayList<>();
+    DynamicNode supportsAdd =
+        dynamicContainer(
+            "Supports List.add(E)",
+            lazyConcat(
+                this::supportsAddWithNewElementTests, this::supportsAddWithExistingElementTests));
 
-      appendSupportsAddWithNewNullElementTests(subTests);
-      appendSupportsAddWithExistingNullElementTests(subTests);
-
-      tests.add(dynamicContainer("Supports List.add(null)", subTests));
+    if (features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
+      return Stream.of(supportsAdd);
     }
+    return Stream.of(
+        supportsAdd,
+        dynamicContainer(
+            "Doesn't support List.add(null)", doesNotSupportAddWithNewNullElementTests()));
   }
 
-  private void generateDoesNotSupportAddTests(List<DynamicNode> tests) {
-    if (!features.contains(CollectionFeature.SUPPORTS_ADD)) {
-      List<DynamicTest> subTests = new ArrayList<>();
-
-      appendDoesNotSupportAddWithNewElementTests(subTests);
-      appendDoesNotSupportAddWithExistingElementTests(subTests);
-
-      tests.add(dynamicContainer("Doesn't support List.add(E)", subTests));
+  private Stream<DynamicNode> supportsAddWithNullElementsTests() {
+    if (!features.containsAll(
+        CollectionFeature.SUPPORTS_ADD, CollectionFeature.ALLOWS_NULL_VALUES)) {
+      return Stream.empty();
     }
+
+    return Stream.of(
+        dynamicContainer(
+            "Supports List.add(null)",
+            lazyConcat(
+                this::supportsAddWithNewNullElementTests,
+                this::supportsAddWithExistingNullElementTests)));
   }
 
-  private void generateDoesNotSupportAddWithNullElementsTests(List<DynamicNode> tests) {
-    if (!features.contains(CollectionFeature.SUPPORTS_ADD)) {
-      List<DynamicTest> subTests = new ArrayList<>();
+  private Stream<DynamicNode> doesNotSupportAddTests() {
+    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      return Stream.empty();
+    }
 
-      appendDoesNotSupportAddWithNewNullElementTests(subTests);
-      appendDoesNotSupportAddWithExistingNullElementTests(subTests);
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support List.add(E)",
+            lazyConcat(
+                this::doesNotSupportAddWithNewElementTests,
+                this::doesNotSupportAddWithExistingElementTests)));
+  }
 
-      tests.add(dynamicContainer("Doesn't support List.add(null)", subTests));
+  private Stream<DynamicNode> doesNotSupportAddWithNullElementsTests() {
+    if (features.contains(CollectionFeature.SUPPORTS_ADD)) {
+      return Stream.empty();
     }
+
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support List.add(null)",
+            lazyConcat(
+                this::doesNotSupportAddWithNewNullElementTests,
+                this::doesNotSupportAddWithExistingNullElementTests)));
   }
 
-  private void appendSupportsAddWithNewElementTests(List<DynamicTest> subTests) {
-    appendTestsForSupportsAdd(
-        subTests, newElement, extractConcreteSizes(features), /* nullInMiddle= */ false);
+  private Stream<DynamicTest> supportsAddWithNewElementTests() {
+    return testsForSupportsAdd(
+        newElement, extractConcreteSizes(features), /* nullInMiddle= */ false);
   }
 
-  private void appendSupportsAddWithExistingElementTests(List<DynamicTest> subTests) {
-    appendTestsForSupportsAdd(
-        subTests,
-        existingElement,
-        extractConcreteSizesExceptZero(features),
-        /* nullInMiddle= */ false);
+  private Stream<DynamicTest> supportsAddWithExistingElementTests() {
+    return testsForSupportsAdd(
+        existingElement, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ false);
   }
 
-  private void appendSupportsAddWithNewNullElementTests(List<DynamicTest> subTests) {
-    appendTestsForSupportsAdd(
-        subTests, null, extractConcreteSizes(features), /* nullInMiddle= */ false);
+  private Stream<DynamicTest> supportsAddWithNewNullElementTests() {
+    return testsForSupportsAdd(null, extractConcreteSizes(features), /* nullInMiddle= */ false);
   }
 
-  private void appendSupportsAddWithExistingNullElementTests(List<DynamicTest> subTests) {
-    appendTestsForSupportsAdd(
-        subTests, null, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ true);
+  private Stream<DynamicTest> supportsAddWithExistingNullElementTests() {
+    return testsForSupportsAdd(
+        null, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ true);
   }
 
-  private void appendTestsForSupportsAdd(
-      List<DynamicTest> subTests,
-      E elementToAdd,
-      Set<CollectionSize> supportedCollectionSizes,
-      boolean nullInMiddle) {
+  private Stream<DynamicTest> testsForSupportsAdd(
+      E elementToAdd, Set<CollectionSize> supportedCollectionSizes, boolean nullInMiddle) {
     ThrowingConsumer<CollectionSize> testTemplate =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, nullInMiddle);
+          List<E> list = fixtures.newTestList(collectionSize, nullInMiddle);
 
+          ContractEvents.operation("List.add(E)", features);
+          boolean added = list.add(elementToAdd);
+          ContractEvents.assertion();
           assertTrue(
-              list.add(elementToAdd),
-              () -> "Not true that list.add(" + stringify(elementToAdd) + ") return true");
+              added, () -> "Not true that list.add(" + stringify(elementToAdd) + ") return true");
           List<E> expected =
               append(newIterable(samples, collectionSize, nullInMiddle), elementToAdd);
           assertIterableEquals(
@@ -184,49 +210,43 @@ final class ListAddTester<E> {
               () -> "Not true that list was appended with " + stringify(elementToAdd));
         };
 
-    DynamicTest.stream(
-            supportedCollectionSizes.iterator(),
-            collectionSize ->
-                "Supports List.add("
-                    + stringify(elementToAdd)
-                    + ") on "
-                    + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
-            testTemplate)
-        .forEachOrdered(subTests::add);
+    return DynamicTest.stream(
+        supportedCollectionSizes.iterator(),
+        collectionSize ->
+            "Supports List.add("
+                + stringify(elementToAdd)
+                + ") on "
+                + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
+        fixtures.disposingTestLists(testTemplate));
   }
 
-  private void appendDoesNotSupportAddWithNewElementTests(List<DynamicTest> subTests) {
-    appendTestsForDoesNotSupportAdd(
-        subTests, newElement, extractConcreteSizes(features), /* nullInMiddle= */ false);
+  private Stream<DynamicTest> doesNotSupportAddWithNewElementTests() {
+    return testsForDoesNotSupportAdd(
+        newElement, extractConcreteSizes(features), /* nullInMiddle= */ false);
   }
 
-  private void appendDoesNotSupportAddWithExistingElementTests(List<DynamicTest> subTests) {
-    appendTestsForDoesNotSupportAdd(
-        subTests,
-        existingElement,
-        extractConcreteSizesExceptZero(features),
-        /* nullInMiddle= */ false);
+  private Stream<DynamicTest> doesNotSupportAddWithExistingElementTests() {
+    return testsForDoesNotSupportAdd(
+        existingElement, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ false);
   }
 
-  private void appendDoesNotSupportAddWithNewNullElementTests(List<DynamicTest> subTests) {
-    appendTestsForDoesNotSupportAdd(
-        subTests, null, extractConcreteSizes(features), /* nullInMiddle= */ false);
+  private Stream<DynamicTest> doesNotSupportAddWithNewNullElementTests() {
+    return testsForDoesNotSupportAdd(
+        null, extractConcreteSizes(features), /* nullInMiddle= */ false);
   }
 
-  private void appendDoesNotSupportAddWithExistingNullElementTests(List<DynamicTest> subTests) {
-    appendTestsForDoesNotSupportAdd(
-        subTests, null, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ true);
+  private Stream<DynamicTest> doesNotSupportAddWithExistingNullElementTests() {
+    return testsForDoesNotSupportAdd(
+        null, extractConcreteSizesExceptZero(features), /* nullInMiddle= */ true);
   }
 
-  private void appendTestsForDoesNotSupportAdd(
-      List<DynamicTest> subTests,
-      E elementToAdd,
-      Set<CollectionSize> supportedCollectionSizes,
-      boolean nullInMiddle) {
+  private Stream<DynamicTest> testsForDoesNotSupportAdd(
+      E elementToAdd, Set<CollectionSize> supportedCollectionSizes, boolean nullInMiddle) {
     ThrowingConsumer<CollectionSize> testTemplate =
         collectionSize -> {
-          List<E> list = newTestList(generator, collectionSize, nullInMiddle);
+          List<E> list = fixtures.newTestList(collectionSize, nullInMiddle);
 
+          ContractEvents.operation("List.add(E)", features);
           assertThrows(
               UnsupportedOperationException.class,
               () -> list.add(elementToAdd),
@@ -236,20 +256,20 @@ final class ListAddTester<E> {
                   "Not true that list.add("
                       + stringify(elementToAdd)
                       + ") threw UnsupportedOperationException");
+          ContractEvents.assertion();
           assertIterableEquals(
               newIterable(samples, collectionSize, nullInMiddle),
               list,
               "Not true that list remained unchanged");
         };
 
-    DynamicTest.stream(
-            supportedCollectionSizes.iterator(),
-            collectionSize ->
-                "Doesn't support List.add("
-                    + stringify(elementToAdd)
-                    + ") on "
-                    + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
-            testTemplate)
-        .forEachOrdered(subTests::add);
+    return DynamicTest.stream(
+        supportedCollectionSizes.iterator(),
+        collectionSize ->
+            "Doesn't support List.add("
+                + stringify(elementToAdd)
+                + ") on "
+                + stringifyElements(newIterable(samples, collectionSize, nullInMiddle)),
+        fixtures.disposingTestLists(testTemplate));
   }
 }
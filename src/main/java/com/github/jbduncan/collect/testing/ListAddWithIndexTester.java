@@ -17,27 +17,31 @@ package com.github.jbduncan.collect.testing;
 
 import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
 import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
 import static java.util.Objects.requireNonNull;
 import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.DynamicTest;
 
 final class ListAddWithIndexTester<E> {
-  private final TestListGenerator<E> testListGenerator;
-  private final Set<Feature<?>> features;
+  private final ListFixtures<E> fixtures;
+  private final FeatureSet features;
   private final SampleElements<E> samples;
   private final E newElement;
   private final E existingElement;
 
-  private ListAddWithIndexTester(TestListGenerator<E> testListGenerator, Set<Feature<?>> features) {
-    this.testListGenerator = requireNonNull(testListGenerator, "testListGenerator");
-    this.features = requireNonNull(features, "features");
+  private ListAddWithIndexTester(
+      TestListGenerator<E> testListGenerator,
+      Set<Feature<?>> features,
+      FixtureCopier<List<E>> fixtureCopier,
+      boolean instrumentLists) {
+    requireNonNull(testListGenerator, "testListGenerator");
+    this.fixtures = ListFixtures.create(testListGenerator, fixtureCopier, instrumentLists);
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
     this.samples = requireNonNull(testListGenerator.samples(), "samples");
     this.newElement = samples.e3();
     this.existingElement = samples.e0();
@@ -52,6 +56,8 @@ final class ListAddWithIndexTester<E> {
 
     private TestListGenerator<E> testListGenerator;
     private Set<Feature<?>> features;
+    private FixtureCopier<List<E>> fixtureCopier;
+    private boolean instrumentLists;
 
     Builder<E> testListGenerator(TestListGenerator<E> testListGenerator) {
       this.testListGenerator = testListGenerator;
@@ -63,119 +69,173 @@ final class ListAddWithIndexTester<E> {
       return this;
     }
 
+    /**
+     * Sets the copier used to copy cached lists for each dynamic test, or {@code null} (the
+     * default) to construct every list afresh through the generator.
+     */
+    Builder<E> fixtureCopier(FixtureCopier<List<E>> fixtureCopier) {
+      this.fixtureCopier = fixtureCopier;
+      return this;
+    }
+
+    /**
+     * Sets whether each list is wrapped in an {@link InstrumentedList}, so that the calls made to
+     * it are shown when a test fails. The default is {@code false}.
+     */
+    Builder<E> instrumentLists(boolean instrumentLists) {
+      this.instrumentLists = instrumentLists;
+      return this;
+    }
+
     // TODO: Consider inlining `ListAddWithIndexTester#dynamicTestsGraph` into this method and
-    //   returning `List<DynamicNode>` rather than `ListAddWithIndexTester<E>`.
+    //   returning `Stream<DynamicNode>` rather than `ListAddWithIndexTester<E>`.
     ListAddWithIndexTester<E> build() {
-      return new ListAddWithIndexTester<>(testListGenerator, features);
+      return new ListAddWithIndexTester<>(
+          testListGenerator, features, fixtureCopier, instrumentLists);
     }
   }
 
-  List<DynamicNode> dynamicTestsGraph() {
-    List<DynamicNode> tests = new ArrayList<>();
-    generateSupportsAddWithIndexTests(tests);
-    generateSupportsAddWithIndexWithNullElementsTests(tests);
-    generateDoesNotSupportAddWithIndexTests(tests);
-    generateDoesNotSupportAddWithIndexWithNullElementsTests(tests);
-    return Collections.unmodifiableList(tests);
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(
+            this::supportsAddWithIndexTests,
+            this::supportsAddWithIndexWithNullElementsTests,
+            this::doesNotSupportAddWithIndexTests,
+            this::doesNotSupportAddWithIndexWithNullElementsTests)
+        // JUnit closes the stream once every dynamic test in it has run.
+        .onClose(fixtures::disposeCachedLists);
   }
 
-  private void generateSupportsAddWithIndexTests(List<DynamicNode> tests) {
-    if (features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
-      List<DynamicTest> subTests = new ArrayList<>();
-      subTests.addAll(new ListAddAtStartSubTestMaker<>(this).supportsAddWithIndexSubTests());
-      subTests.addAll(new ListAddAtEndSubTestMaker<>(this).supportsAddWithIndexSubTests());
-      subTests.addAll(new ListAddAtMiddleSubTestMaker<>(this).supportsAddWithIndexSubTests());
-      subTests.addAll(
-          new ListAddAtMinusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
-              .doesNotSupportAddWithIndexSubTests());
-      subTests.addAll(
-          new ListAddAtSizePlusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
-              .doesNotSupportAddWithIndexSubTests());
-
-      if (features.contains(CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION)) {
-        subTests.addAll(
-            new ListAddAtStartSubTestMaker<>(this).failsFastOnConcurrentModificationSubTests());
-        if (features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
-          subTests.addAll(
-              new ListAddAtStartSubTestMaker<>(this)
-                  .failsFastOnConcurrentModificationInvolvingNullElementSubTests());
-        }
-      }
-
-      tests.add(dynamicContainer("Supports List.add(int, E)", subTests));
-
-      if (!features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
-        List<DynamicTest> innerSubTests = new ArrayList<>();
-        innerSubTests.addAll(
-            new ListAddAtStartSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-        innerSubTests.addAll(
-            new ListAddAtEndSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-        innerSubTests.addAll(
-            new ListAddAtMiddleSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-        tests.add(dynamicContainer("Doesn't support List.add(int, null)", innerSubTests));
-      }
+  private Stream<DynamicNode> supportsAddWithIndexTests() {
+    if (!features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
+      return Stream.empty();
+    }
+
+    DynamicNode supportsAddWithIndex =
+        dynamicContainer(
+            "Supports List.add(int, E)",
+            lazyConcat(
+                () -> new ListAddAtStartSubTestMaker<>(this).supportsAddWithIndexSubTests(),
+                () -> new ListAddAtEndSubTestMaker<>(this).supportsAddWithIndexSubTests(),
+                () -> new ListAddAtMiddleSubTestMaker<>(this).supportsAddWithIndexSubTests(),
+                () ->
+                    new ListAddAtMinusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
+                        .doesNotSupportAddWithIndexSubTests(),
+                () ->
+                    new ListAddAtSizePlusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
+                        .doesNotSupportAddWithIndexSubTests(),
+                this::failsFastOnConcurrentModificationTests));
+
+    if (features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
+      return Stream.of(supportsAddWithIndex);
+    }
+    return Stream.of(
+        supportsAddWithIndex,
+        dynamicContainer(
+            "Doesn't support List.add(int, null)",
+            lazyConcat(
+                () ->
+                    new ListAddAtStartSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtEndSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtMiddleSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests())));
+  }
+
+  private Stream<DynamicTest> failsFastOnConcurrentModificationTests() {
+    if (!features.contains(CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION)) {
+      return Stream.empty();
+    }
+
+    Stream<DynamicTest> subTests =
+        new ListAddAtStartSubTestMaker<>(this).failsFastOnConcurrentModificationSubTests();
+    if (!features.contains(CollectionFeature.ALLOWS_NULL_VALUES)) {
+      return subTests;
     }
+    return Stream.concat(
+        subTests,
+        new ListAddAtStartSubTestMaker<>(this)
+            .failsFastOnConcurrentModificationInvolvingNullElementSubTests());
   }
 
-  private void generateSupportsAddWithIndexWithNullElementsTests(List<DynamicNode> tests) {
-    if (features.containsAll(
-        Arrays.asList(ListFeature.SUPPORTS_ADD_WITH_INDEX, CollectionFeature.ALLOWS_NULL_VALUES))) {
-      List<DynamicTest> subTests = new ArrayList<>();
-      subTests.addAll(
-          new ListAddAtStartSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests());
-      subTests.addAll(new ListAddAtEndSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtMiddleSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtMinusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
-              .doesNotSupportAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtSizePlusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
-              .doesNotSupportAddWithIndexForNullsSubTests());
-      tests.add(dynamicContainer("Supports List.add(int, null)", subTests));
+  private Stream<DynamicNode> supportsAddWithIndexWithNullElementsTests() {
+    if (!features.containsAll(
+        ListFeature.SUPPORTS_ADD_WITH_INDEX, CollectionFeature.ALLOWS_NULL_VALUES)) {
+      return Stream.empty();
     }
+
+    return Stream.of(
+        dynamicContainer(
+            "Supports List.add(int, null)",
+            lazyConcat(
+                () -> new ListAddAtStartSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests(),
+                () -> new ListAddAtEndSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtMiddleSubTestMaker<>(this).supportsAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtMinusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtSizePlusOneSubTestMaker<>(this, IndexOutOfBoundsException.class)
+                        .doesNotSupportAddWithIndexForNullsSubTests())));
   }
 
-  private void generateDoesNotSupportAddWithIndexTests(List<DynamicNode> tests) {
-    if (!features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
-      List<DynamicTest> subTests = new ArrayList<>();
-      subTests.addAll(new ListAddAtStartSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests());
-      subTests.addAll(new ListAddAtEndSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests());
-      subTests.addAll(new ListAddAtMiddleSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests());
-      subTests.addAll(
-          new ListAddAtMinusOneSubTestMaker<>(this, UnsupportedOperationException.class)
-              .doesNotSupportAddWithIndexSubTests());
-      subTests.addAll(
-          new ListAddAtSizePlusOneSubTestMaker<>(this, UnsupportedOperationException.class)
-              .doesNotSupportAddWithIndexSubTests());
-      tests.add(dynamicContainer("Doesn't support List.add(int, E)", subTests));
+  private Stream<DynamicNode> doesNotSupportAddWithIndexTests() {
+    if (features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
+      return Stream.empty();
     }
+
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support List.add(int, E)",
+            lazyConcat(
+                () -> new ListAddAtStartSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests(),
+                () -> new ListAddAtEndSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests(),
+                () -> new ListAddAtMiddleSubTestMaker<>(this).doesNotSupportAddWithIndexSubTests(),
+                () ->
+                    new ListAddAtMinusOneSubTestMaker<>(this, UnsupportedOperationException.class)
+                        .doesNotSupportAddWithIndexSubTests(),
+                () ->
+                    new ListAddAtSizePlusOneSubTestMaker<>(
+                            this, UnsupportedOperationException.class)
+                        .doesNotSupportAddWithIndexSubTests())));
   }
 
-  private void generateDoesNotSupportAddWithIndexWithNullElementsTests(List<DynamicNode> tests) {
-    if (!features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
-      List<DynamicTest> subTests = new ArrayList<>();
-      subTests.addAll(
-          new ListAddAtStartSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtEndSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtMiddleSubTestMaker<>(this).doesNotSupportAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtMinusOneSubTestMaker<>(this, UnsupportedOperationException.class)
-              .doesNotSupportAddWithIndexForNullsSubTests());
-      subTests.addAll(
-          new ListAddAtSizePlusOneSubTestMaker<>(this, UnsupportedOperationException.class)
-              .doesNotSupportAddWithIndexForNullsSubTests());
-      tests.add(dynamicContainer("Doesn't support List.add(int, null)", subTests));
+  private Stream<DynamicNode> doesNotSupportAddWithIndexWithNullElementsTests() {
+    if (features.contains(ListFeature.SUPPORTS_ADD_WITH_INDEX)) {
+      return Stream.empty();
     }
+
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support List.add(int, null)",
+            lazyConcat(
+                () ->
+                    new ListAddAtStartSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtEndSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtMiddleSubTestMaker<>(this)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtMinusOneSubTestMaker<>(this, UnsupportedOperationException.class)
+                        .doesNotSupportAddWithIndexForNullsSubTests(),
+                () ->
+                    new ListAddAtSizePlusOneSubTestMaker<>(
+                            this, UnsupportedOperationException.class)
+                        .doesNotSupportAddWithIndexForNullsSubTests())));
   }
 
   static class ListAddAtStartSubTestMaker<E> extends AbstractListAddAtValidIndexSubTestMaker<E> {
 
     ListAddAtStartSubTestMaker(ListAddWithIndexTester<E> tester) {
       super(
-          tester.testListGenerator,
+          tester.fixtures,
+          tester.features,
           tester.samples,
           tester.newElement,
           tester.existingElement,
@@ -185,12 +245,12 @@ final class ListAddWithIndexTester<E> {
 
     @Override
     int index(CollectionSize listSize) {
-      return 0;
+      return ListOperation.ADD_AT_START.index(listSize.size());
     }
 
     @Override
     String indexName() {
-      return "0";
+      return ListOperation.ADD_AT_START.indexName();
     }
   }
 
@@ -199,7 +259,8 @@ final class ListAddWithIndexTester<E> {
 
     ListAddAtEndSubTestMaker(ListAddWithIndexTester<E> tester) {
       super(
-          tester.testListGenerator,
+          tester.fixtures,
+          tester.features,
           tester.samples,
           tester.newElement,
           tester.existingElement,
@@ -209,12 +270,12 @@ final class ListAddWithIndexTester<E> {
 
     @Override
     int index(CollectionSize listSize) {
-      return listSize.size();
+      return ListOperation.ADD_AT_END.index(listSize.size());
     }
 
     @Override
     String indexName() {
-      return "size()";
+      return ListOperation.ADD_AT_END.indexName();
     }
   }
 
@@ -223,7 +284,8 @@ final class ListAddWithIndexTester<E> {
 
     ListAddAtMiddleSubTestMaker(ListAddWithIndexTester<E> tester) {
       super(
-          tester.testListGenerator,
+          tester.fixtures,
+          tester.features,
           tester.samples,
           tester.newElement,
           tester.existingElement,
@@ -233,12 +295,12 @@ final class ListAddWithIndexTester<E> {
 
     @Override
     int index(CollectionSize listSize) {
-      return listSize.size() / 2;
+      return ListOperation.ADD_AT_MIDDLE.index(listSize.size());
     }
 
     @Override
     String indexName() {
-      return "middleIndex()";
+      return ListOperation.ADD_AT_MIDDLE.indexName();
     }
   }
 
@@ -248,7 +310,8 @@ final class ListAddWithIndexTester<E> {
     ListAddAtMinusOneSubTestMaker(
         ListAddWithIndexTester<E> tester, Class<? extends Throwable> expectedExceptionType) {
       super(
-          tester.testListGenerator,
+          tester.fixtures,
+          tester.features,
           tester.samples,
           tester.newElement,
           tester.existingElement,
@@ -274,7 +337,8 @@ final class ListAddWithIndexTester<E> {
     ListAddAtSizePlusOneSubTestMaker(
         ListAddWithIndexTester<E> tester, Class<? extends Throwable> expectedExceptionType) {
       super(
-          tester.testListGenerator,
+          tester.fixtures,
+          tester.features,
           tester.samples,
           tester.newElement,
           tester.existingElement,
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * {@code ListAllocationContract} is a test interface that checks how many bytes a list
+ * implementation's operations allocate on the heap in a steady state.
+ *
+ * <p>Each operation in {@link #allocationBudgets()} is run many times against a list of 1,000
+ * elements, after a warmup, and the average number of bytes that it allocated is compared with its
+ * budget. Each run of an operation is followed by {@code List.remove(int)} to keep the list at a
+ * steady size, so the budget covers the allocations of both.
+ *
+ * <p>Allocations are measured with {@code com.sun.management.ThreadMXBean}, so the tests are
+ * skipped on JVMs that don't support it. As with {@link ListComplexityContract}, operations are
+ * only measured if {@link #features()} says that they and {@link
+ * ListFeature#SUPPORTS_REMOVE_WITH_INDEX} are supported.
+ */
+public interface ListAllocationContract<E> extends CollectionContract<E> {
+  @Override
+  TestListGenerator<E> generator();
+
+  /**
+   * Returns the maximum number of bytes that each operation may allocate, on average. For example,
+   * for a list that should never allocate once it has reached its capacity:
+   *
+   * <pre>
+   * &#64;Override
+   * public Map&lt;ListOperation, Double&gt; allocationBudgets() {
+   *   Map&lt;ListOperation, Double&gt; result = new EnumMap&lt;&gt;(ListOperation.class);
+   *   result.put(ListOperation.ADD, 0.0);
+   *   result.put(ListOperation.ADD_AT_START, 0.0);
+   *   return result;
+   * }
+   * </pre>
+   *
+   * @return the allocation budget of each operation to test, in bytes per operation
+   */
+  Map<ListOperation, Double> allocationBudgets();
+
+  @TestFactory
+  default Stream<DynamicTest> allocations() {
+    return ContractMetrics.measure(
+        getClass(),
+        "allocations",
+        ListAllocationTester.<E>builder()
+            .testListGenerator(generator())
+            .features(features())
+            .budgets(allocationBudgets())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+final class ListAllocationTester<E> extends AbstractListOperationTester<E, Double> {
+  private static final int LIST_SIZE = 1_000;
+  // Enough operations for the JIT compiler to compile, and escape-analyse, the operation under test
+  // before it's measured.
+  private static final int WARMUP_OPERATIONS = 200_000;
+  private static final int MEASURED_OPERATIONS = 100_000;
+  // The smallest measurement of several is used, so that one-off allocations that aren't caused by
+  // the operation, like those from class loading, don't count against it.
+  private static final int MEASUREMENT_ROUNDS = 5;
+
+  private ListAllocationTester(Builder<E> builder) {
+    super(builder);
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> extends AbstractListOperationTester.Builder<E, Double, Builder<E>> {
+    private Builder() {}
+
+    @Override
+    Builder<E> self() {
+      return this;
+    }
+
+    /** Sets the maximum number of bytes that each operation may allocate, on average. */
+    Builder<E> budgets(Map<ListOperation, Double> budgets) {
+      return expectations("budgets", budgets);
+    }
+
+    ListAllocationTester<E> build() {
+      return new ListAllocationTester<>(this);
+    }
+  }
+
+  @Override
+  String testName(ListOperation operation, Double budget) {
+    return String.format("%s allocates at most %s bytes per operation", operation, budget);
+  }
+
+  @Override
+  void test(ListOperation operation, Double budget) {
+    assertWithinBudget(operation, budget);
+  }
+
+  private void assertWithinBudget(ListOperation operation, double budget) {
+    Optional<AllocationMeter> meter = AllocationMeter.create();
+    assumeTrue(meter.isPresent(), "This JVM can't measure the bytes allocated by a thread");
+
+    List<E> list = newList(LIST_SIZE);
+    applyAndUndo(list, operation, WARMUP_OPERATIONS);
+    long allocatedBytes = Long.MAX_VALUE;
+    for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+      allocatedBytes =
+          Math.min(
+              allocatedBytes,
+              meter
+                  .get()
+                  .bytesAllocatedBy(() -> applyAndUndo(list, operation, MEASURED_OPERATIONS)));
+    }
+    double bytesPerOperation = (double) allocatedBytes / MEASURED_OPERATIONS;
+    String measurement = operation + " bytes per operation";
+    ContractMetrics.bytesMeasured(measurement, bytesPerOperation);
+    PerformanceBaseline.check(measurement, PerformanceBaseline.Unit.BYTES, bytesPerOperation);
+
+    if (bytesPerOperation > budget) {
+      String message =
+          String.format(
+              "%s allocated %.3f bytes per operation, which is %.3f bytes over its budget of %s "
+                  + "bytes (measured over %,d operations on a list of %,d elements, each followed "
+                  + "by List.remove(int) to restore the list)",
+              operation,
+              bytesPerOperation,
+              bytesPerOperation - budget,
+              budget,
+              MEASURED_OPERATIONS,
+              LIST_SIZE);
+      ContractMetrics.budgetViolated(
+          String.format("%s allocates at most %s bytes per operation", operation, budget), message);
+      fail(message);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+/**
+ * {@code ListComplexityContract} is a test interface that checks how the running time of a list
+ * implementation's operations grows with the size of the list.
+ *
+ * <p>Each operation in {@link #expectedComplexities()} is timed at every size in {@link
+ * #complexitySizes()}, after a warmup, and the median timings are fitted to each {@link
+ * ComplexityClass}. The test fails if the best-fitting class grows faster than the declared one.
+ * When two classes fit about equally well, the slower-growing one is preferred, so noisy timings
+ * lean towards passing rather than failing.
+ *
+ * <p>Operations are only timed if {@link #features()} says they are supported; since each timed
+ * operation is undone with {@code List.remove(int)}, {@link ListFeature#SUPPORTS_REMOVE_WITH_INDEX}
+ * is always needed.
+ */
+public interface ListComplexityContract<E> extends CollectionContract<E> {
+  @Override
+  TestListGenerator<E> generator();
+
+  /**
+   * Returns the complexity class that each operation is expected to be within. For example, for
+   * {@code ArrayList}:
+   *
+   * <pre>
+   * &#64;Override
+   * public Map&lt;ListOperation, ComplexityClass&gt; expectedComplexities() {
+   *   Map&lt;ListOperation, ComplexityClass&gt; result = new EnumMap&lt;&gt;(ListOperation.class);
+   *   result.put(ListOperation.ADD, ComplexityClass.CONSTANT);
+   *   result.put(ListOperation.ADD_AT_START, ComplexityClass.LINEAR);
+   *   return result;
+   * }
+   * </pre>
+   *
+   * @return the expected complexity class of each operation to test
+   */
+  Map<ListOperation, ComplexityClass> expectedComplexities();
+
+  /**
+   * Returns the list sizes at which each operation is timed. By default, this is a geometric sweep
+   * from 64 to 8,192.
+   *
+   * <p>Timings include the effects of the memory hierarchy, so an operation that chases pointers
+   * through a list that outgrows a CPU cache partway through the sweep can fit a class one log
+   * factor worse than its textbook one. In that case, lower the sizes or declare the worse class.
+   *
+   * @return at least 3 distinct sizes, each at least 1
+   */
+  default List<Integer> complexitySizes() {
+    return Collections.unmodifiableList(
+        Arrays.asList(64, 128, 256, 512, 1_024, 2_048, 4_096, 8_192));
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> complexity() {
+    return ContractMetrics.measure(
+        getClass(),
+        "complexity",
+        ListComplexityTester.<E>builder()
+            .testListGenerator(generator())
+            .features(features())
+            .sizes(complexitySizes())
+            .expectedComplexities(expectedComplexities())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+final class ListComplexityTester<E> extends AbstractListOperationTester<E, ComplexityClass> {
+  // Each sample runs the operation enough times to take at least this long, so that the
+  // granularity and overhead of System.nanoTime() are negligible.
+  private static final long MIN_SAMPLE_NANOS = 50_000;
+  private static final int MAX_BATCH_SIZE = 1 << 20;
+  // Warmup runs for at least this many rounds and this long, so that the operation is JIT-compiled
+  // before it's measured.
+  private static final int MIN_WARMUP_ROUNDS = 10;
+  private static final long MIN_WARMUP_NANOS = 500_000_000;
+  private static final int MEASUREMENT_ROUNDS = 21;
+
+  private final int[] sizes;
+
+  private ListComplexityTester(Builder<E> builder) {
+    super(builder);
+    this.sizes =
+        requireNonNull(builder.sizes, "sizes").stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E>
+      extends AbstractListOperationTester.Builder<E, ComplexityClass, Builder<E>> {
+    private Builder() {}
+
+    private List<Integer> sizes;
+
+    @Override
+    Builder<E> self() {
+      return this;
+    }
+
+    /** Sets the list sizes at which each operation is timed. */
+    Builder<E> sizes(List<Integer> sizes) {
+      this.sizes = sizes;
+      return this;
+    }
+
+    Builder<E> expectedComplexities(Map<ListOperation, ComplexityClass> expectedComplexities) {
+      return expectations("expectedComplexities", expectedComplexities);
+    }
+
+    ListComplexityTester<E> build() {
+      return new ListComplexityTester<>(this);
+    }
+  }
+
+  @Override
+  String testName(ListOperation operation, ComplexityClass expected) {
+    return operation + " is at most " + expected;
+  }
+
+  @Override
+  void test(ListOperation operation, ComplexityClass expected) {
+    assertComplexityAtMost(operation, expected);
+  }
+
+  private void assertComplexityAtMost(ListOperation operation, ComplexityClass expected) {
+    double[] nanosPerOperation = measure(operation);
+    for (int i = 0; i < sizes.length; i++) {
+      ContractMetrics.operationTimed(
+          String.format("%s at size %s", operation, sizes[i]), nanosPerOperation[i]);
+    }
+    PerformanceBaseline.check(
+        String.format(
+            "%s nanoseconds per operation at size %s", operation, sizes[sizes.length - 1]),
+        PerformanceBaseline.Unit.NANOS,
+        nanosPerOperation[nanosPerOperation.length - 1]);
+    ComplexityFitter.Fit fit =
+        ComplexityFitter.fit(Arrays.stream(sizes).asDoubleStream().toArray(), nanosPerOperation);
+    if (fit.complexityClass().compareTo(expected) > 0) {
+      String message =
+          String.format(
+              "Expected %s to be at most %s, but its timings best fit %s%n"
+                  + "sizes: %s%n"
+                  + "median nanoseconds per operation: %s",
+              operation, expected, fit, Arrays.toString(sizes), Arrays.toString(nanosPerOperation));
+      ContractMetrics.budgetViolated(operation + " is at most " + expected, message);
+      fail(message);
+    }
+  }
+
+  /** Returns the median time that {@code operation} takes at each size, in nanoseconds. */
+  private double[] measure(ListOperation operation) {
+    List<List<E>> lists = new ArrayList<>();
+    int[] batchSizes = new int[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      List<E> list = newList(sizes[i]);
+      lists.add(list);
+      batchSizes[i] = calibrateBatchSize(list, operation);
+    }
+
+    // Sizes are interleaved within each round, so that any drift over time, such as from JIT
+    // compilation or CPU frequency scaling, affects all sizes alike.
+    long warmupStart = System.nanoTime();
+    for (int round = 0;
+        round < MIN_WARMUP_ROUNDS || System.nanoTime() - warmupStart < MIN_WARMUP_NANOS;
+        round++) {
+      for (int i = 0; i < sizes.length; i++) {
+        timeBatch(lists.get(i), operation, batchSizes[i]);
+      }
+    }
+    // The operation is faster once it's JIT-compiled, so the batch sizes are calibrated again.
+    for (int i = 0; i < sizes.length; i++) {
+      batchSizes[i] = calibrateBatchSize(lists.get(i), operation);
+    }
+    double[][] samplesBySize = new double[sizes.length][MEASUREMENT_ROUNDS];
+    for (int round = 0; round < MEASUREMENT_ROUNDS; round++) {
+      for (int i = 0; i < sizes.length; i++) {
+        samplesBySize[i][round] =
+            (double) timeBatch(lists.get(i), operation, batchSizes[i]) / batchSizes[i];
+      }
+    }
+    return Arrays.stream(samplesBySize).mapToDouble(ListComplexityTester::median).toArray();
+  }
+
+  private int calibrateBatchSize(List<E> list, ListOperation operation) {
+    int batchSize = 1;
+    while (batchSize < MAX_BATCH_SIZE && timeBatch(list, operation, batchSize) < MIN_SAMPLE_NANOS) {
+      batchSize *= 2;
+    }
+    return batchSize;
+  }
+
+  private long timeBatch(List<E> list, ListOperation operation, int batchSize) {
+    long start = System.nanoTime();
+    applyAndUndo(list, operation, batchSize);
+    return System.nanoTime() - start;
+  }
+
+  private static double median(double... values) {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int middle = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+  }
+}
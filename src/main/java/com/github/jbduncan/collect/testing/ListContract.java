@@ -15,7 +15,10 @@
  */
 package com.github.jbduncan.collect.testing;
 
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.DynamicNode;
 import org.junit.jupiter.api.TestFactory;
 
@@ -65,22 +68,69 @@ public interface ListContract<E> extends CollectionContract<E> {
         ListFeature.GENERAL_PURPOSE /*, ListFeature.KNOWN_ORDER*/);
   }
 
+  /**
+   * Returns the {@link FixtureCopier} used to copy cached lists, if any.
+   *
+   * <p>By default, every dynamic test constructs its own list through {@link #generator()}. If
+   * constructing your list implementation is expensive, override this method to return a {@code
+   * FixtureCopier}; each list that the tests need will then only be constructed once per {@code
+   * TestFactory}, and every dynamic test will run against a copy of it. For example:
+   *
+   * <pre>
+   * &#64;Override
+   * public Optional&lt;FixtureCopier&lt;List&lt;String&gt;&gt;&gt; fixtureCopier() {
+   *   return Optional.of(MyList::copyOf);
+   * }
+   * </pre>
+   *
+   * <p>If your list implementation has the feature {@link CollectionFeature#SERIALIZABLE}, {@link
+   * FixtureCopier#serializing()} can be used instead of writing a copy function.
+   *
+   * @return the {@code FixtureCopier}, or an empty {@code Optional} to not cache lists
+   */
+  default Optional<FixtureCopier<List<E>>> fixtureCopier() {
+    return Optional.empty();
+  }
+
+  /**
+   * Returns whether each list that the tests use is wrapped in an {@link InstrumentedList}.
+   *
+   * <p>By default, this is {@code false}. If it's {@code true}, when a test fails, the number of
+   * calls that it made to each method of the list, and the number of elements touched by bulk
+   * operations, are added to the failure message.
+   *
+   * @return {@code true} to instrument the lists under test
+   */
+  default boolean instrumentLists() {
+    return false;
+  }
+
   @TestFactory
-  default Iterable<DynamicNode> add() {
-    return ListAddTester.<E>builder()
-        .testListGenerator(generator())
-        .features(features())
-        .build()
-        .dynamicTestsGraph();
+  default Stream<DynamicNode> add() {
+    return ContractMetrics.measure(
+        getClass(),
+        "add",
+        ListAddTester.<E>builder()
+            .testListGenerator(generator())
+            .features(features())
+            .fixtureCopier(fixtureCopier().orElse(null))
+            .instrumentLists(instrumentLists())
+            .build()
+            .dynamicTestsGraph());
   }
 
   @TestFactory
-  default Iterable<DynamicNode> addWithIndex() {
-    return ListAddWithIndexTester.<E>builder()
-        .testListGenerator(generator())
-        .features(features())
-        .build()
-        .dynamicTestsGraph();
+  default Stream<DynamicNode> addWithIndex() {
+    return ContractMetrics.measure(
+        getClass(),
+        "addWithIndex",
+        ListAddWithIndexTester.<E>builder()
+            .testListGenerator(generator())
+            .features(features())
+            .fixtureCopier(fixtureCopier().orElse(null))
+            .instrumentLists(instrumentLists())
+            .build()
+            .dynamicTestsGraph());
   }
 
   // TODO: Add tests for all other methods of List interface
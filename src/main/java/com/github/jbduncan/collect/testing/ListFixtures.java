@@ -0,0 +1,311 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Hands out the lists that dynamic tests run against.
+ *
+ * <p>Without a {@link FixtureCopier}, every list is constructed afresh through the {@link
+ * TestListGenerator}. With one, each combination of {@code CollectionSize} and {@code nullInMiddle}
+ * is only constructed once, and every dynamic test gets a copy of it instead.
+ *
+ * <p>Lists handed to a test wrapped in {@link #disposingTestLists} are disposed through {@link
+ * TestContainerGenerator#dispose} once the test finishes, and the cached lists are disposed by
+ * {@link #disposeCachedLists()}.
+ *
+ * <p>If lists are instrumented, each list is handed out wrapped in an {@link InstrumentedList}, and
+ * the calls made to it are added to the message of any assertion that fails in a test wrapped in
+ * {@link #disposingTestLists}.
+ */
+final class ListFixtures<E> {
+  private final TestListGenerator<E> generator;
+  private final FixtureCopier<List<E>> copier;
+  private final boolean instrumentLists;
+  private final ConcurrentMap<CollectionSize, Snapshot<E>> snapshots = new ConcurrentHashMap<>();
+  private final ConcurrentMap<CollectionSize, Snapshot<E>> snapshotsWithNullInMiddle =
+      new ConcurrentHashMap<>();
+  // The lists handed out since the last test wrapped in disposingTestLists finished.
+  private final List<List<E>> testLists = new ArrayList<>();
+  // The instrumented wrappers of testLists, if lists are instrumented.
+  private final List<InstrumentedList<E>> instrumentedTestLists = new ArrayList<>();
+  // The generator's outstanding resources that are held by cached lists, which aren't leaks.
+  private long cachedResources;
+
+  private ListFixtures(
+      TestListGenerator<E> generator, FixtureCopier<List<E>> copier, boolean instrumentLists) {
+    this.generator = requireNonNull(generator, "generator");
+    this.copier = copier;
+    this.instrumentLists = instrumentLists;
+  }
+
+  /**
+   * Returns a {@code ListFixtures} that copies cached lists with the given copier, or that
+   * constructs every list afresh if {@code copier} is {@code null}.
+   */
+  static <E> ListFixtures<E> create(TestListGenerator<E> generator, FixtureCopier<List<E>> copier) {
+    return create(generator, copier, /* instrumentLists= */ false);
+  }
+
+  /**
+   * Like {@link #create(TestListGenerator, FixtureCopier)}, but hands out every list wrapped in an
+   * {@link InstrumentedList} if {@code instrumentLists} is {@code true}.
+   */
+  static <E> ListFixtures<E> create(
+      TestListGenerator<E> generator, FixtureCopier<List<E>> copier, boolean instrumentLists) {
+    return new ListFixtures<>(generator, copier, instrumentLists);
+  }
+
+  List<E> newTestList(CollectionSize collectionSize, boolean nullInMiddle) {
+    ContractEvents.fixtureCreation(collectionSize);
+    try {
+      return createTestList(collectionSize, nullInMiddle);
+    } finally {
+      ContractEvents.endPhase();
+    }
+  }
+
+  private List<E> createTestList(CollectionSize collectionSize, boolean nullInMiddle) {
+    List<E> result;
+    if (copier == null) {
+      result = ListContractHelpers.newTestList(generator, collectionSize, nullInMiddle);
+    } else {
+      ConcurrentMap<CollectionSize, Snapshot<E>> snapshotsForNullInMiddle =
+          nullInMiddle ? snapshotsWithNullInMiddle : snapshots;
+      result =
+          snapshotsForNullInMiddle
+              .computeIfAbsent(collectionSize, size -> newSnapshot(size, nullInMiddle))
+              .copy(copier, collectionSize, nullInMiddle);
+    }
+    synchronized (testLists) {
+      testLists.add(result);
+      if (instrumentLists) {
+        InstrumentedList<E> instrumented = InstrumentedList.of(result);
+        instrumentedTestLists.add(instrumented);
+        return instrumented;
+      }
+    }
+    return result;
+  }
+
+  private Snapshot<E> newSnapshot(CollectionSize collectionSize, boolean nullInMiddle) {
+    long resourcesBefore = generator.outstandingResources();
+    Snapshot<E> result =
+        new Snapshot<>(ListContractHelpers.newTestList(generator, collectionSize, nullInMiddle));
+    synchronized (testLists) {
+      cachedResources += generator.outstandingResources() - resourcesBefore;
+    }
+    return result;
+  }
+
+  /**
+   * Returns a test that runs {@code test}, and then disposes of every list that it was handed by
+   * {@link #newTestList}, even if it failed. The returned test fails if the generator's {@link
+   * TestContainerGenerator#outstandingResources() outstanding resources} are higher afterwards than
+   * they were beforehand, not counting those held by newly cached lists. If lists are instrumented,
+   * an assertion that fails in {@code test} is rethrown with the calls made to each list added to
+   * its message.
+   */
+  // The resource only exists to dispose of the test lists once the test has finished, while adding
+  // any failure to do so as a suppressed exception of a failure of the test itself.
+  @SuppressWarnings("try")
+  <T> ThrowingConsumer<T> disposingTestLists(ThrowingConsumer<T> test) {
+    requireNonNull(test, "test");
+    return input -> {
+      long resourcesBefore = resourcesHeldByTestLists();
+      try (AutoCloseable disposer = this::disposeTestLists) {
+        try {
+          test.accept(input);
+        } catch (AssertionError e) {
+          throw withCallsToTestLists(e);
+        }
+      }
+      long leaked = resourcesHeldByTestLists() - resourcesBefore;
+      if (leaked > 0) {
+        fail(
+            String.format(
+                "%,d resources, as counted by TestContainerGenerator.outstandingResources(), were "
+                    + "still held after the lists that this test used were disposed",
+                leaked));
+      }
+    };
+  }
+
+  private AssertionError withCallsToTestLists(AssertionError error) {
+    List<String> calls = new ArrayList<>();
+    synchronized (testLists) {
+      for (InstrumentedList<E> list : instrumentedTestLists) {
+        calls.add(list.describeCalls());
+      }
+    }
+    if (calls.isEmpty()) {
+      return error;
+    }
+    StringBuilder message = new StringBuilder(error.getMessage() == null ? "" : error.getMessage());
+    for (int i = 0; i < calls.size(); i++) {
+      String list = calls.size() == 1 ? "the list" : "list " + (i + 1);
+      message.append(String.format("%nCalls made to %s: %s", list, calls.get(i)));
+    }
+    AssertionFailedError result;
+    if (error instanceof AssertionFailedError
+        && ((AssertionFailedError) error).isExpectedDefined()
+        && ((AssertionFailedError) error).isActualDefined()) {
+      AssertionFailedError failure = (AssertionFailedError) error;
+      result =
+          new AssertionFailedError(
+              message.toString(),
+              failure.getExpected().getValue(),
+              failure.getActual().getValue(),
+              error);
+    } else {
+      result = new AssertionFailedError(message.toString(), error);
+    }
+    result.setStackTrace(error.getStackTrace());
+    return result;
+  }
+
+  private long resourcesHeldByTestLists() {
+    synchronized (testLists) {
+      return generator.outstandingResources() - cachedResources;
+    }
+  }
+
+  private void disposeTestLists() throws Exception {
+    List<List<E>> toDispose;
+    synchronized (testLists) {
+      toDispose = new ArrayList<>(testLists);
+      testLists.clear();
+      instrumentedTestLists.clear();
+    }
+    disposeAll(toDispose);
+  }
+
+  /**
+   * Disposes of the cached lists, if any, which must not be used afterwards.
+   *
+   * @throws IllegalStateException if disposing of a cached list failed, or if the generator's
+   *     outstanding resources didn't go down by as much as the cached lists held
+   */
+  void disposeCachedLists() {
+    List<List<E>> toDispose = new ArrayList<>();
+    snapshots.values().forEach(snapshot -> toDispose.add(snapshot.fixture));
+    snapshotsWithNullInMiddle.values().forEach(snapshot -> toDispose.add(snapshot.fixture));
+    snapshots.clear();
+    snapshotsWithNullInMiddle.clear();
+
+    long expectedResources;
+    synchronized (testLists) {
+      expectedResources = generator.outstandingResources() - cachedResources;
+      cachedResources = 0;
+    }
+    try {
+      disposeAll(toDispose);
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to dispose of the cached lists", e);
+    }
+    long leaked = generator.outstandingResources() - expectedResources;
+    if (leaked > 0) {
+      throw new IllegalStateException(
+          String.format(
+              "%,d resources, as counted by TestContainerGenerator.outstandingResources(), were "
+                  + "still held after the cached lists were disposed",
+              leaked));
+    }
+  }
+
+  // Disposes of every list, even if disposing of some of them fails.
+  private void disposeAll(List<List<E>> lists) throws Exception {
+    Exception failure = null;
+    for (List<E> list : lists) {
+      try {
+        generator.dispose(list);
+      } catch (Exception e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static final class Snapshot<E> {
+    private final List<E> fixture;
+    private final List<E> expectedContents;
+
+    Snapshot(List<E> fixture) {
+      this.fixture = fixture;
+      this.expectedContents = new ArrayList<>(fixture);
+    }
+
+    @SuppressWarnings("PMD.CompareObjectsWithEquals") // Copies must be distinct by identity.
+    List<E> copy(FixtureCopier<List<E>> copier, CollectionSize size, boolean nullInMiddle) {
+      if (!elementsEqual(fixture, expectedContents)) {
+        throw new IllegalStateException(
+            String.format(
+                "The cached fixture for %s (nullInMiddle=%s) was mutated by a previous test. "
+                    + "Expected it to still contain %s, but it contains %s. Does the "
+                    + "FixtureCopier return copies that share state with the fixture?",
+                size,
+                nullInMiddle,
+                Helpers.stringifyElements(expectedContents),
+                Helpers.stringifyElements(fixture)));
+      }
+
+      List<E> copy = copier.copy(fixture);
+      if (copy == fixture) {
+        throw new IllegalStateException(
+            "The FixtureCopier returned the cached fixture itself rather than a copy of it.");
+      }
+      if (!elementsEqual(copy, expectedContents)) {
+        throw new IllegalStateException(
+            String.format(
+                "The FixtureCopier returned %s, which does not have the same contents as the "
+                    + "cached fixture %s.",
+                Helpers.stringifyElements(copy), Helpers.stringifyElements(expectedContents)));
+      }
+      return copy;
+    }
+
+    // List.equals is deliberately avoided here, as it is one of the methods under test.
+    private static boolean elementsEqual(List<?> actual, List<?> expected) {
+      if (actual.size() != expected.size()) {
+        return false;
+      }
+      int i = 0;
+      for (Object element : actual) {
+        if (!Objects.equals(element, expected.get(i))) {
+          return false;
+        }
+        i++;
+      }
+      return true;
+    }
+  }
+}
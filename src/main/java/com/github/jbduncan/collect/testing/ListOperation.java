@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.List;
+
+/**
+ * The ways of adding an element to a {@link List} that the list contract tests exercise. Each
+ * operation inserts at the same position as its corresponding {@code List.add} contract test, so
+ * that benchmarks and other measurements built on these operations cover the same code paths as the
+ * tests.
+ */
+public enum ListOperation {
+  /** {@code List.add(E)}, which appends to the end of the list. */
+  ADD(/* indexName= */ null),
+  /** {@code List.add(0, E)}. */
+  ADD_AT_START("0"),
+  /** {@code List.add(middleIndex(), E)}, where {@code middleIndex()} is {@code size() / 2}. */
+  ADD_AT_MIDDLE("middleIndex()"),
+  /** {@code List.add(size(), E)}. */
+  ADD_AT_END("size()");
+
+  private final String indexName;
+
+  ListOperation(String indexName) {
+    this.indexName = indexName;
+  }
+
+  /** Returns the index at which this operation inserts into a list of the given size. */
+  public int index(int listSize) {
+    switch (this) {
+      case ADD_AT_START:
+        return 0;
+      case ADD_AT_MIDDLE:
+        return listSize / 2;
+      default:
+        return listSize;
+    }
+  }
+
+  /** Adds {@code element} to {@code list} at the position defined by this operation. */
+  public <E> void applyTo(List<E> list, E element) {
+    if (this == ADD) {
+      list.add(element);
+    } else {
+      list.add(index(list.size()), element);
+    }
+  }
+
+  String indexName() {
+    if (indexName == null) {
+      throw new IllegalStateException(this + " doesn't take an index.");
+    }
+    return indexName;
+  }
+
+  @Override
+  public String toString() {
+    return indexName == null ? "List.add(E)" : "List.add(" + indexName + ", E)";
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Set;
+
+/** Tests {@link TestLongList}s through {@link AbstractPrimitiveListTester}. */
+final class LongListTester extends AbstractPrimitiveListTester<TestLongList, Long> {
+  private final TestLongListGenerator generator;
+  private final LongSampleElements samples;
+
+  private LongListTester(
+      TestLongListGenerator generator, LongSampleElements samples, Set<Feature<?>> features) {
+    super(samples, features, "long");
+    this.generator = generator;
+    this.samples = samples;
+  }
+
+  static Builder builder() {
+    return new Builder();
+  }
+
+  static class Builder {
+    private Builder() {}
+
+    private TestLongListGenerator testLongListGenerator;
+    private Set<Feature<?>> features;
+
+    Builder testLongListGenerator(TestLongListGenerator testLongListGenerator) {
+      this.testLongListGenerator = testLongListGenerator;
+      return this;
+    }
+
+    Builder features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    LongListTester build() {
+      requireNonNull(testLongListGenerator, "testLongListGenerator");
+      return new LongListTester(
+          testLongListGenerator,
+          requireNonNull(testLongListGenerator.samples(), "samples"),
+          features);
+    }
+  }
+
+  @Override
+  TestLongList create(int size) {
+    return generator.create(samples.fixture(size));
+  }
+
+  @Override
+  int size(TestLongList list) {
+    return list.size();
+  }
+
+  @Override
+  long get(TestLongList list, int index) {
+    return list.getLong(index);
+  }
+
+  @Override
+  boolean contains(TestLongList list, long element) {
+    return list.contains(element);
+  }
+
+  @Override
+  int indexOf(TestLongList list, long element) {
+    return list.indexOf(element);
+  }
+
+  @Override
+  boolean add(TestLongList list, long element) {
+    return list.add(element);
+  }
+
+  @Override
+  void add(TestLongList list, int index, long element) {
+    list.add(index, element);
+  }
+
+  @Override
+  long set(TestLongList list, int index, long element) {
+    return list.set(index, element);
+  }
+
+  @Override
+  long remove(TestLongList list, int index) {
+    return list.removeLong(index);
+  }
+
+  @Override
+  List<Long> boxed(TestLongList list) {
+    return list.boxed();
+  }
+
+  @Override
+  Long box(long element) {
+    return Long.valueOf(element);
+  }
+}
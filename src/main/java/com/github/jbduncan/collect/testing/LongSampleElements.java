@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * The {@code long} equivalent of {@link SampleElements}, for testing primitive {@code long} lists
+ * without boxing their elements.
+ */
+public final class LongSampleElements {
+  private static final int FIXED_ELEMENTS = 5;
+  private static final int CYCLED_ELEMENTS = 3;
+
+  // Outside of the range of Long.valueOf's cache, so that boxing them allocates; see
+  // LongListContract.allocations().
+  private static final long FIRST_DEFAULT_ELEMENT = 1_000;
+
+  private static final LongSampleElements LONGS = indexed(i -> FIRST_DEFAULT_ELEMENT + i);
+
+  public static LongSampleElements of(long e0, long e1, long e2, long e3, long e4) {
+    long[] elements = {e0, e1, e2, e3, e4};
+    return new LongSampleElements(elements, /* factory= */ null);
+  }
+
+  /**
+   * Returns sample elements that can produce any number of distinct elements, where the element at
+   * index {@code i} is {@code factory.applyAsLong(i)}. The factory must be deterministic and return
+   * distinct elements for distinct indices.
+   */
+  public static LongSampleElements indexed(IntToLongFunction factory) {
+    requireNonNull(factory, "factory");
+    long[] elements = new long[FIXED_ELEMENTS];
+    for (int i = 0; i < FIXED_ELEMENTS; i++) {
+      elements[i] = factory.applyAsLong(i);
+    }
+    return new LongSampleElements(elements, factory);
+  }
+
+  /**
+   * Returns scalable sample elements {@code 1000L}, {@code 1001L}, {@code 1002L} and so on, which
+   * are all boxed to new {@code Long} instances rather than cached ones.
+   */
+  public static LongSampleElements longs() {
+    return LONGS;
+  }
+
+  private final long[] elements;
+  private final IntToLongFunction factory; // null if these sample elements aren't scalable
+
+  private LongSampleElements(long[] elements, IntToLongFunction factory) {
+    this.elements = elements.clone();
+    this.factory = factory;
+  }
+
+  public long e0() {
+    return elements[0];
+  }
+
+  public long e1() {
+    return elements[1];
+  }
+
+  public long e2() {
+    return elements[2];
+  }
+
+  public long e3() {
+    return elements[3];
+  }
+
+  /**
+   * This element is never put into a list for testing. It is used in tests that check that a given
+   * list <i>does not</i> contain a certain element.
+   */
+  public long e4() {
+    return elements[4];
+  }
+
+  /**
+   * Returns {@code true} if these sample elements can produce any number of distinct elements
+   * through {@link #element(int)}, or {@code false} if they only have {@code e0()} to {@code e4()}.
+   */
+  public boolean isScalable() {
+    return factory != null;
+  }
+
+  /**
+   * Returns the element at the given index, where indices 0 to 4 correspond to {@code e0()} to
+   * {@code e4()}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or if it's greater than 4 and
+   *     these sample elements aren't {@linkplain #isScalable() scalable}
+   */
+  public long element(int index) {
+    if (index < 0 || (factory == null && index >= FIXED_ELEMENTS)) {
+      throw new IndexOutOfBoundsException(
+          String.format(
+              "'index' is %s, but must be between 0 and %s",
+              index, factory == null ? FIXED_ELEMENTS - 1 : Integer.MAX_VALUE));
+    }
+    if (index < FIXED_ELEMENTS) {
+      return elements[index];
+    }
+    return factory.applyAsLong(index);
+  }
+
+  /** Returns a new array of {@code e0()} to {@code e4()}. */
+  public long[] toArray() {
+    return elements.clone();
+  }
+
+  /**
+   * Returns the first {@code size} elements to put into a list under test, following the same rules
+   * as {@link SampleElements#fixtureElement(int)}: {@code e3()} and {@code e4()} are never
+   * included.
+   */
+  long[] fixture(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException(String.format("'size' is %s, but must be >= 0", size));
+    }
+    long[] result = new long[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = fixtureElement(i);
+    }
+    return result;
+  }
+
+  private long fixtureElement(int index) {
+    if (index < CYCLED_ELEMENTS) {
+      return elements[index];
+    }
+    if (factory == null) {
+      return elements[index % CYCLED_ELEMENTS];
+    }
+    // Skip over e3() and e4().
+    return element(index + FIXED_ELEMENTS - CYCLED_ELEMENTS);
+  }
+}
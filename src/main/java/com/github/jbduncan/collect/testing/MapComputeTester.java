@@ -0,0 +1,272 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.assertMapHasExactly;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.testsOnEachSize;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+/**
+ * Tests {@code Map.computeIfAbsent}, {@code computeIfPresent}, {@code compute} and {@code merge},
+ * whose default implementations are often overridden by maps to avoid hashing a key twice.
+ */
+final class MapComputeTester<K, V> {
+  private final TestMapGenerator<K, V> generator;
+  private final K newKey;
+  private final V newValue;
+  private final K existingKey;
+  private final V existingValue;
+  private final K absentKey;
+  private final FeatureSet features;
+
+  private MapComputeTester(TestMapGenerator<K, V> testMapGenerator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(testMapGenerator, "testMapGenerator");
+    SampleElements<Entry<K, V>> samples = requireNonNull(testMapGenerator.samples(), "samples");
+    this.newKey = samples.e3().getKey();
+    this.newValue = samples.e3().getValue();
+    this.existingKey = samples.e0().getKey();
+    this.existingValue = samples.e0().getValue();
+    this.absentKey = samples.e4().getKey();
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<K, V> {
+    private Builder() {}
+
+    private TestMapGenerator<K, V> testMapGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<K, V> testMapGenerator(TestMapGenerator<K, V> testMapGenerator) {
+      this.testMapGenerator = testMapGenerator;
+      return this;
+    }
+
+    Builder<K, V> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    MapComputeTester<K, V> build() {
+      return new MapComputeTester<>(testMapGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(
+        this::supportsComputeTests,
+        this::supportsComputeToRemoveTests,
+        this::doesNotSupportComputeTests);
+  }
+
+  private Stream<DynamicNode> supportsComputeTests() {
+    if (!features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    String newKeyName = stringify(newKey);
+    String existingKeyName = stringify(existingKey);
+    return Stream.of(
+        dynamicContainer(
+            "Supports Map.compute(K, BiFunction) and Map.merge(K, V, BiFunction)",
+            lazyConcat(
+                () ->
+                    supportsTests(
+                        "map.computeIfAbsent(" + newKeyName + ", k -> ...)",
+                        extractConcreteSizes(features),
+                        map -> map.computeIfAbsent(newKey, key -> newValue),
+                        newValue,
+                        expected -> expected.put(newKey, newValue)),
+                () ->
+                    supportsTests(
+                        "map.computeIfAbsent(" + existingKeyName + ", k -> ...)",
+                        extractConcreteSizesExceptZero(features),
+                        map -> map.computeIfAbsent(existingKey, key -> mustNotBeCalled()),
+                        existingValue,
+                        expected -> {}),
+                () ->
+                    supportsTests(
+                        "map.computeIfPresent(" + existingKeyName + ", (k, v) -> ...)",
+                        extractConcreteSizesExceptZero(features),
+                        map ->
+                            map.computeIfPresent(
+                                existingKey, (key, value) -> replacing(existingValue, value)),
+                        newValue,
+                        expected -> expected.put(existingKey, newValue)),
+                () ->
+                    supportsTests(
+                        "map.computeIfPresent(" + stringify(absentKey) + ", (k, v) -> ...)",
+                        extractConcreteSizes(features),
+                        map -> map.computeIfPresent(absentKey, (key, value) -> mustNotBeCalled()),
+                        null,
+                        expected -> {}),
+                () ->
+                    supportsTests(
+                        "map.compute(" + newKeyName + ", (k, v) -> ...)",
+                        extractConcreteSizes(features),
+                        map -> map.compute(newKey, (key, value) -> replacing(null, value)),
+                        newValue,
+                        expected -> expected.put(newKey, newValue)),
+                () ->
+                    supportsTests(
+                        "map.compute(" + existingKeyName + ", (k, v) -> ...)",
+                        extractConcreteSizesExceptZero(features),
+                        map ->
+                            map.compute(
+                                existingKey, (key, value) -> replacing(existingValue, value)),
+                        newValue,
+                        expected -> expected.put(existingKey, newValue)),
+                () ->
+                    supportsTests(
+                        "map.merge(" + newKeyName + ", v, (a, b) -> ...)",
+                        extractConcreteSizes(features),
+                        map -> map.merge(newKey, newValue, (a, b) -> mustNotBeCalled()),
+                        newValue,
+                        expected -> expected.put(newKey, newValue)),
+                () ->
+                    supportsTests(
+                        "map.merge(" + existingKeyName + ", v, (a, b) -> ...)",
+                        extractConcreteSizesExceptZero(features),
+                        map ->
+                            map.merge(existingKey, newValue, (a, b) -> replacing(existingValue, a)),
+                        newValue,
+                        expected -> expected.put(existingKey, newValue)))));
+  }
+
+  private Stream<DynamicNode> supportsComputeToRemoveTests() {
+    if (!features.containsAll(MapFeature.SUPPORTS_PUT, MapFeature.SUPPORTS_REMOVE)) {
+      return Stream.empty();
+    }
+
+    String existingKeyName = stringify(existingKey);
+    return Stream.of(
+        dynamicContainer(
+            "Supports removing entries with Map.compute(K, BiFunction) and Map.merge(K, V, "
+                + "BiFunction)",
+            lazyConcat(
+                () ->
+                    supportsTests(
+                        "map.computeIfPresent(" + existingKeyName + ", (k, v) -> null)",
+                        extractConcreteSizesExceptZero(features),
+                        map -> map.computeIfPresent(existingKey, (key, value) -> null),
+                        null,
+                        expected -> expected.remove(existingKey)),
+                () ->
+                    supportsTests(
+                        "map.compute(" + existingKeyName + ", (k, v) -> null)",
+                        extractConcreteSizesExceptZero(features),
+                        map -> map.compute(existingKey, (key, value) -> null),
+                        null,
+                        expected -> expected.remove(existingKey)),
+                () ->
+                    supportsTests(
+                        "map.merge(" + existingKeyName + ", v, (a, b) -> null)",
+                        extractConcreteSizesExceptZero(features),
+                        map -> map.merge(existingKey, newValue, (a, b) -> null),
+                        null,
+                        expected -> expected.remove(existingKey)))));
+  }
+
+  private Stream<DynamicTest> supportsTests(
+      String call,
+      Set<CollectionSize> sizes,
+      Function<Map<K, V>, V> action,
+      V expectedResult,
+      Consumer<Map<K, V>> expectedChange) {
+    return testsOnEachSize(
+        generator,
+        "Supports " + call,
+        sizes,
+        (map, expected) -> {
+          V result = action.apply(map);
+          if (expectedResult == null) {
+            assertNull(result, () -> "Not true that " + call + " returned null");
+          } else {
+            assertEquals(expectedResult, result, () -> call + " returned");
+          }
+          expectedChange.accept(expected);
+          assertMapHasExactly(expected, map, call);
+        });
+  }
+
+  private V replacing(V expectedOldValue, V oldValue) {
+    assertEquals(expectedOldValue, oldValue, "The function was given an old value of");
+    return newValue;
+  }
+
+  private V mustNotBeCalled() {
+    return fail("The function was called, but shouldn't have been");
+  }
+
+  private Stream<DynamicNode> doesNotSupportComputeTests() {
+    if (features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    String newKeyName = stringify(newKey);
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support Map.compute(K, BiFunction) and Map.merge(K, V, BiFunction)",
+            lazyConcat(
+                () ->
+                    doesNotSupportTests(
+                        "map.computeIfAbsent(" + newKeyName + ", k -> ...)",
+                        map -> map.computeIfAbsent(newKey, key -> newValue)),
+                () ->
+                    doesNotSupportTests(
+                        "map.compute(" + newKeyName + ", (k, v) -> ...)",
+                        map -> map.compute(newKey, (key, value) -> newValue)),
+                () ->
+                    doesNotSupportTests(
+                        "map.merge(" + newKeyName + ", v, (a, b) -> ...)",
+                        map -> map.merge(newKey, newValue, (a, b) -> newValue)))));
+  }
+
+  private Stream<DynamicTest> doesNotSupportTests(String call, Consumer<Map<K, V>> action) {
+    return testsOnEachSize(
+        generator,
+        "Doesn't support " + call,
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          assertThrows(
+              UnsupportedOperationException.class,
+              () -> action.accept(map),
+              () -> "Not true that " + call + " threw UnsupportedOperationException");
+          assertMapHasExactly(expected, map, call + " threw");
+        });
+  }
+}
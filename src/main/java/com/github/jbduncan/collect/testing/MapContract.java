@@ -17,14 +17,110 @@ package com.github.jbduncan.collect.testing;
 
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+/**
+ * {@code MapContract} is a test interface that your JUnit Jupiter test class implements to test an
+ * implementation of the {@code Map} interface of your choosing, in the same way that {@link
+ * ListContract} tests lists.
+ *
+ * <p>Each test runs at every {@link CollectionSize} in {@link #features()}. Requesting {@link
+ * CollectionSize#SUPPORTS_LARGE} tests maps large enough to have crossed the resize thresholds of
+ * typical hash maps; some tests additionally grow or shrink maps of every size past such thresholds
+ * with {@code put(K, V)} and {@code remove(Object)}, if the generator's samples are {@linkplain
+ * SampleElements#isScalable() scalable}.
+ */
+@ExtendWith(ContractMetricsExtension.class)
 public interface MapContract<K, V> extends ContainerContract<Map<K, V>, Entry<K, V>> {
+  /**
+   * Returns a factory of type {@link TestMapGenerator} that will construct an instance of your map
+   * implementation from a given collection of entries.
+   *
+   * <p>The way to implement this method to test {@code HashMap} is as follows:
+   *
+   * <pre>
+   * &#64;Override
+   * public TestMapGenerator&lt;String, String&gt; generator() {
+   *   return (TestStringMapGenerator)
+   *       entries -&gt; {
+   *         Map&lt;String, String&gt; map = new HashMap&lt;&gt;();
+   *         entries.forEach(entry -&gt; map.put(entry.getKey(), entry.getValue()));
+   *         return map;
+   *       };
+   * }
+   * </pre>
+   *
+   * @return the {@link TestMapGenerator}
+   */
   @Override
   TestMapGenerator<K, V> generator();
 
-  // TODO: Uncomment the following when MapFeature is written
-  // @Override
-  // default Set<Feature<?>> features() {
-  //   return Feature.allFeaturesRecursively(MapFeature.GENERAL_PURPOSE);
-  // }
+  @Override
+  default Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(MapFeature.GENERAL_PURPOSE);
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> put() {
+    return ContractMetrics.measure(
+        getClass(),
+        "put",
+        MapPutTester.<K, V>builder()
+            .testMapGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> get() {
+    return ContractMetrics.measure(
+        getClass(),
+        "get",
+        MapGetTester.<K, V>builder()
+            .testMapGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> remove() {
+    return ContractMetrics.measure(
+        getClass(),
+        "remove",
+        MapRemoveTester.<K, V>builder()
+            .testMapGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> computeAndMerge() {
+    return ContractMetrics.measure(
+        getClass(),
+        "computeAndMerge",
+        MapComputeTester.<K, V>builder()
+            .testMapGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> views() {
+    return ContractMetrics.measure(
+        getClass(),
+        "views",
+        MapViewsTester.<K, V>builder()
+            .testMapGenerator(generator())
+            .features(features())
+            .build()
+            .dynamicTestsGraph());
+  }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.newIterable;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+
+final class MapContractHelpers {
+  private MapContractHelpers() {}
+
+  static <K, V> Map<K, V> newTestMap(TestMapGenerator<K, V> generator, CollectionSize size) {
+    return generator.create(newIterable(generator.samples(), size, /* nullInMiddle= */ false));
+  }
+
+  /**
+   * Returns the entries that a map made by {@link #newTestMap} of the given size should have, as a
+   * {@code LinkedHashMap} that the caller may modify.
+   */
+  static <K, V> Map<K, V> expectedMap(SampleElements<Entry<K, V>> samples, CollectionSize size) {
+    Map<K, V> result = new LinkedHashMap<>();
+    for (Entry<K, V> entry : newIterable(samples, size, /* nullInMiddle= */ false)) {
+      result.put(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Asserts that {@code actual} has exactly the entries of {@code expected}. Only {@code size()},
+   * {@code containsKey(Object)} and {@code get(Object)} are called on {@code actual}, so that
+   * {@code Map.equals} isn't relied upon.
+   */
+  static void assertMapHasExactly(Map<?, ?> expected, Map<?, ?> actual, String event) {
+    assertEquals(expected.size(), actual.size(), () -> "After " + event + ", map.size() returned");
+    for (Entry<?, ?> entry : expected.entrySet()) {
+      Object key = entry.getKey();
+      assertTrue(
+          actual.containsKey(key),
+          () -> "After " + event + ", not true that map contained key " + stringify(key));
+      assertEquals(
+          entry.getValue(),
+          actual.get(key),
+          () -> "After " + event + ", map.get(" + stringify(key) + ") returned");
+    }
+  }
+
+  /**
+   * Returns one dynamic test for each of the given sizes, which runs {@code test} against a new map
+   * of that size and a modifiable copy of the entries that the map should have.
+   */
+  static <K, V> Stream<DynamicTest> testsOnEachSize(
+      TestMapGenerator<K, V> generator,
+      String description,
+      Set<CollectionSize> sizes,
+      MapTest<K, V> test) {
+    return DynamicTest.stream(
+        sizes.iterator(),
+        size ->
+            description
+                + " on "
+                + stringifyElements(
+                    newIterable(generator.samples(), size, /* nullInMiddle= */ false)),
+        size -> {
+          ContractEvents.fixtureCreation(size);
+          Map<K, V> map = newTestMap(generator, size);
+          ContractEvents.endPhase();
+          test.run(map, expectedMap(generator.samples(), size));
+        });
+  }
+
+  @FunctionalInterface
+  interface MapTest<K, V> {
+    void run(Map<K, V> map, Map<K, V> expected) throws Throwable;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Map;
+import java.util.Set;
+
+@SuppressWarnings("unchecked")
+public enum MapFeature implements Feature<Map<?, ?>> {
+  /**
+   * Indicates that the map must not throw {@code NullPointerException} on calls such as {@code
+   * get(null)}, {@code containsKey(null)} or {@code remove(null)}, but instead must return a simple
+   * {@code null} or {@code false}.
+   */
+  ALLOWS_NULL_KEY_QUERIES,
+  /** Indicates that the map allows {@code null} keys. */
+  ALLOWS_NULL_KEYS(ALLOWS_NULL_KEY_QUERIES),
+  /**
+   * Indicates that the map must not throw {@code NullPointerException} on calls such as {@code
+   * containsValue(null)}, but instead must return a simple {@code false}.
+   */
+  ALLOWS_NULL_VALUE_QUERIES,
+  /** Indicates that the map allows {@code null} values. */
+  ALLOWS_NULL_VALUES(ALLOWS_NULL_VALUE_QUERIES),
+
+  /**
+   * Indicates that the map supports {@link Map#put put()}, and so also {@link Map#putAll putAll()},
+   * {@link Map#compute compute()}, {@link Map#merge merge()} and the other methods that add or
+   * replace entries, including {@link Map.Entry#setValue} on the entries of its {@link
+   * Map#entrySet() entry set}.
+   */
+  SUPPORTS_PUT,
+  /**
+   * Indicates that the map supports {@link Map#remove(Object) remove()} and {@link Map#clear
+   * clear()}, and removal through its key, value and entry views.
+   */
+  SUPPORTS_REMOVE,
+  /**
+   * Indicates that the map's views fail fast on concurrent modification, as described in {@link
+   * java.util.ConcurrentModificationException ConcurrentModificationException}.
+   */
+  FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+
+  /**
+   * Features supported by general-purpose maps - everything but the {@code null}-related features
+   * and {@link #FAILS_FAST_ON_CONCURRENT_MODIFICATION}.
+   *
+   * @see java.util.Map the definition of general-purpose maps.
+   */
+  GENERAL_PURPOSE(SUPPORTS_PUT, SUPPORTS_REMOVE);
+
+  // We don't have access to Guava's immutable collections, so we're forced to use
+  // Collections.unmodifiable* instead. Furthermore, we ensure that features are themselves
+  // effectively immutable.
+  @SuppressWarnings("ImmutableEnumChecker")
+  private final Set<Feature<? super Map<?, ?>>> implied;
+
+  MapFeature(Feature<? super Map<?, ?>>... implied) {
+    this.implied = Helpers.copyToUnmodifiableInsertionOrderSet(implied);
+  }
+
+  @Override
+  public Set<Feature<? super Map<?, ?>>> impliedFeatures() {
+    return implied;
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.assertMapHasExactly;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.testsOnEachSize;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+final class MapGetTester<K, V> {
+  private final TestMapGenerator<K, V> generator;
+  private final K absentKey;
+  private final V absentValue;
+  private final V defaultValue;
+  private final FeatureSet features;
+
+  private MapGetTester(TestMapGenerator<K, V> testMapGenerator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(testMapGenerator, "testMapGenerator");
+    SampleElements<Entry<K, V>> samples = requireNonNull(testMapGenerator.samples(), "samples");
+    this.absentKey = samples.e4().getKey();
+    this.absentValue = samples.e4().getValue();
+    this.defaultValue = samples.e3().getValue();
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<K, V> {
+    private Builder() {}
+
+    private TestMapGenerator<K, V> testMapGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<K, V> testMapGenerator(TestMapGenerator<K, V> testMapGenerator) {
+      this.testMapGenerator = testMapGenerator;
+      return this;
+    }
+
+    Builder<K, V> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    MapGetTester<K, V> build() {
+      return new MapGetTester<>(testMapGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(this::getTests, this::nullQueryTests);
+  }
+
+  private Stream<DynamicNode> getTests() {
+    return Stream.of(
+        dynamicContainer(
+            "Supports Map.get(Object)",
+            lazyConcat(
+                this::getOfEveryKeyTests,
+                this::getOfAbsentKeyTests,
+                this::getOrDefaultTests,
+                this::containsValueTests)));
+  }
+
+  private Stream<DynamicTest> getOfEveryKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.get(Object) and Map.containsKey(Object) of every key",
+        extractConcreteSizesExceptZero(features),
+        (map, expected) -> assertMapHasExactly(expected, map, "the map was created"));
+  }
+
+  private Stream<DynamicTest> getOfAbsentKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.get(" + stringify(absentKey) + ")",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          assertNull(
+              map.get(absentKey),
+              () -> "Not true that map.get(" + stringify(absentKey) + ") returned null");
+          assertFalse(
+              map.containsKey(absentKey),
+              () -> "Not true that map.containsKey(" + stringify(absentKey) + ") returned false");
+        });
+  }
+
+  private Stream<DynamicTest> getOrDefaultTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.getOrDefault(Object, V)",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          for (Entry<K, V> entry : expected.entrySet()) {
+            assertEquals(
+                entry.getValue(),
+                map.getOrDefault(entry.getKey(), defaultValue),
+                () -> "map.getOrDefault(" + stringify(entry.getKey()) + ", ...) returned");
+          }
+          assertEquals(
+              defaultValue,
+              map.getOrDefault(absentKey, defaultValue),
+              () -> "map.getOrDefault(" + stringify(absentKey) + ", ...) returned");
+        });
+  }
+
+  private Stream<DynamicTest> containsValueTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.containsValue(Object)",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          for (V value : expected.values()) {
+            assertTrue(
+                map.containsValue(value),
+                () -> "Not true that map.containsValue(" + stringify(value) + ") returned true");
+          }
+          assertFalse(
+              map.containsValue(absentValue),
+              () -> "Not true that map.containsValue(" + stringify(absentValue) + ") was false");
+        });
+  }
+
+  private Stream<DynamicNode> nullQueryTests() {
+    if (!features.contains(MapFeature.ALLOWS_NULL_KEY_QUERIES)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Supports Map.get(null)",
+            testsOnEachSize(
+                generator,
+                "Supports Map.get(null)",
+                extractConcreteSizes(features),
+                (map, expected) -> {
+                  assertNull(map.get(null), "Not true that map.get(null) returned null");
+                  assertFalse(
+                      map.containsKey(null), "Not true that map.containsKey(null) returned false");
+                })));
+  }
+}
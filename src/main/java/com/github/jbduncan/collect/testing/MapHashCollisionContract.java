@@ -0,0 +1,113 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * {@code MapHashCollisionContract} is a test interface that checks that a hash-based map stays fast
+ * when its keys' hash codes collide, as they can when the keys come from untrusted input.
+ *
+ * <p>Maps are filled with keys from {@link SampleElements#colliding(int)} and {@link
+ * SampleElements#comparableColliding(int)} that either all share one hash code or are clustered
+ * into a few, and the comparisons made by every {@code put(K, V)}, and by {@code get(Object)} for
+ * keys that are and aren't present, are counted with {@link ElementOperationCounts}.
+ *
+ * <p>The default bounds are those of {@link HashMap}, which turns each crowded bucket into a tree:
+ * lookups among comparable keys take a logarithmic number of comparisons, and among other keys a
+ * linear number.
+ *
+ * <p>Since the keys are of several types, maps are made by {@link #newMap()} rather than by a
+ * {@link TestMapGenerator}.
+ */
+@ExtendWith(ContractMetricsExtension.class)
+public interface MapHashCollisionContract {
+  /**
+   * Returns a new, empty, mutable map of the implementation under test. For example, {@code return
+   * new HashMap<>();}.
+   *
+   * @param <K> the type of the map's keys
+   * @param <V> the type of the map's values
+   * @return the new map
+   */
+  <K, V> Map<K, V> newMap();
+
+  /**
+   * Returns the maximum number of comparisons that {@code put(K, V)} and {@code get(Object)} may
+   * make on a map of size {@code n} whose keys are comparable and collide.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check comparable keys
+   */
+  default GrowthBound comparableCollisionComparisonsBound() {
+    return HashCollisionTester.DEFAULT_COMPARABLE_BOUND;
+  }
+
+  /**
+   * Returns the maximum number of comparisons that {@code put(K, V)} and {@code get(Object)} may
+   * make on a map of size {@code n} whose keys aren't comparable and collide.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check non-comparable keys
+   */
+  default GrowthBound nonComparableCollisionComparisonsBound() {
+    return HashCollisionTester.DEFAULT_NON_COMPARABLE_BOUND;
+  }
+
+  /**
+   * Returns the map sizes at which the comparisons are counted. By default, these are 16, 256 and
+   * 4,096.
+   *
+   * @return the sizes to check
+   */
+  default List<Integer> hashCollisionSizes() {
+    return HashCollisionTester.DEFAULT_SIZES;
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> hashCollisions() {
+    return ContractMetrics.measure(
+        getClass(),
+        "hashCollisions",
+        HashCollisionTester.builder()
+            .containerFactory(
+                () -> {
+                  Map<Object, Object> map = newMap();
+                  return new HashCollisionTester.HashedContainer() {
+                    @Override
+                    public void insert(Object key) {
+                      map.put(key, key);
+                    }
+
+                    @Override
+                    public boolean lookup(Object key) {
+                      return map.get(key) != null;
+                    }
+                  };
+                })
+            .insertName("put(K, V)")
+            .lookupName("get(Object)")
+            .sizes(hashCollisionSizes())
+            .comparableBound(comparableCollisionComparisonsBound())
+            .nonComparableBound(nonComparableCollisionComparisonsBound())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.assertMapHasExactly;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.testsOnEachSize;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+final class MapPutTester<K, V> {
+  // Enough new keys to make a map of any small size resize several times, as a hash map with the
+  // usual initial capacity of 16 and load factor of 0.75 does at 13, 25, 49 and 97 entries.
+  private static final int MIN_KEYS_TO_GROW_BY = 100;
+  // The index of the first sample element past e3() and e4(), which are never in a fixture.
+  private static final int FIRST_INDEX_AFTER_E4 = 5;
+
+  private final TestMapGenerator<K, V> generator;
+  private final SampleElements<Entry<K, V>> samples;
+  private final K newKey;
+  private final V newValue;
+  private final K existingKey;
+  private final V existingValue;
+  private final FeatureSet features;
+
+  private MapPutTester(TestMapGenerator<K, V> testMapGenerator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(testMapGenerator, "testMapGenerator");
+    this.samples = requireNonNull(testMapGenerator.samples(), "samples");
+    this.newKey = samples.e3().getKey();
+    this.newValue = samples.e3().getValue();
+    this.existingKey = samples.e0().getKey();
+    this.existingValue = samples.e0().getValue();
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<K, V> {
+    private Builder() {}
+
+    private TestMapGenerator<K, V> testMapGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<K, V> testMapGenerator(TestMapGenerator<K, V> testMapGenerator) {
+      this.testMapGenerator = testMapGenerator;
+      return this;
+    }
+
+    Builder<K, V> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    MapPutTester<K, V> build() {
+      return new MapPutTester<>(testMapGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(
+        this::supportsPutTests,
+        this::supportsPutWithNullsTests,
+        this::doesNotSupportPutWithNullsTests,
+        this::doesNotSupportPutTests);
+  }
+
+  private Stream<DynamicNode> supportsPutTests() {
+    if (!features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Supports Map.put(K, V)",
+            lazyConcat(
+                this::supportsPutWithNewKeyTests,
+                this::supportsPutWithExistingKeyTests,
+                this::supportsPutOfManyNewKeysTests)));
+  }
+
+  private Stream<DynamicTest> supportsPutWithNewKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.put(" + stringify(newKey) + ", " + stringify(newValue) + ")",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          assertNull(
+              map.put(newKey, newValue),
+              () -> "Not true that map.put(" + stringify(newKey) + ", ...) returned null");
+          expected.put(newKey, newValue);
+          assertMapHasExactly(expected, map, "map.put(" + stringify(newKey) + ", ...)");
+        });
+  }
+
+  private Stream<DynamicTest> supportsPutWithExistingKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.put(" + stringify(existingKey) + ", " + stringify(newValue) + ")",
+        extractConcreteSizesExceptZero(features),
+        (map, expected) -> {
+          assertEquals(
+              existingValue,
+              map.put(existingKey, newValue),
+              () -> "map.put(" + stringify(existingKey) + ", ...) returned");
+          expected.put(existingKey, newValue);
+          assertMapHasExactly(expected, map, "map.put(" + stringify(existingKey) + ", ...)");
+        });
+  }
+
+  private Stream<DynamicTest> supportsPutOfManyNewKeysTests() {
+    if (!samples.isScalable()) {
+      return Stream.empty();
+    }
+    return testsOnEachSize(
+        generator,
+        "Supports Map.put(K, V) of at least " + MIN_KEYS_TO_GROW_BY + " new keys",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          int keysToAdd = Math.max(MIN_KEYS_TO_GROW_BY, expected.size());
+          for (Entry<K, V> entry : newEntries(expected.size(), keysToAdd)) {
+            assertNull(
+                map.put(entry.getKey(), entry.getValue()),
+                () ->
+                    "Not true that map.put(" + stringify(entry.getKey()) + ", ...) returned null");
+            expected.put(entry.getKey(), entry.getValue());
+          }
+          assertMapHasExactly(
+              expected, map, "map.put(K, V) was called with " + keysToAdd + " new keys");
+        });
+  }
+
+  /** Returns entries whose keys aren't in a fixture of the given size, nor are e3() or e4(). */
+  private List<Entry<K, V>> newEntries(int fixtureSize, int count) {
+    List<Entry<K, V>> result = new ArrayList<>(count);
+    // A fixture of size n uses the sample elements at indices 0 to 2 and 5 to n + 1.
+    int firstIndex = Math.max(FIRST_INDEX_AFTER_E4, fixtureSize + 2);
+    for (int i = 0; i < count; i++) {
+      result.add(samples.element(firstIndex + i));
+    }
+    return result;
+  }
+
+  private Stream<DynamicNode> supportsPutWithNullsTests() {
+    if (!features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    List<DynamicNode> result = new ArrayList<>();
+    if (features.contains(MapFeature.ALLOWS_NULL_KEYS)) {
+      result.add(
+          dynamicContainer(
+              "Supports Map.put(null, V)",
+              testsOnEachSize(
+                  generator,
+                  "Supports Map.put(null, " + stringify(newValue) + ")",
+                  extractConcreteSizes(features),
+                  (map, expected) -> {
+                    assertNull(
+                        map.put(null, newValue), "Not true that map.put(null, ...) returned null");
+                    expected.put(null, newValue);
+                    assertMapHasExactly(expected, map, "map.put(null, ...)");
+                  })));
+    }
+    if (features.contains(MapFeature.ALLOWS_NULL_VALUES)) {
+      result.add(
+          dynamicContainer(
+              "Supports Map.put(K, null)",
+              testsOnEachSize(
+                  generator,
+                  "Supports Map.put(" + stringify(newKey) + ", null)",
+                  extractConcreteSizes(features),
+                  (map, expected) -> {
+                    assertNull(
+                        map.put(newKey, null),
+                        () ->
+                            "Not true that map.put(" + stringify(newKey) + ", null) returned null");
+                    expected.put(newKey, null);
+                    assertMapHasExactly(expected, map, "map.put(" + stringify(newKey) + ", null)");
+                  })));
+    }
+    return result.stream();
+  }
+
+  private Stream<DynamicNode> doesNotSupportPutWithNullsTests() {
+    if (!features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    List<DynamicNode> result = new ArrayList<>();
+    if (!features.contains(MapFeature.ALLOWS_NULL_KEYS)) {
+      result.add(
+          dynamicContainer(
+              "Doesn't support Map.put(null, V)",
+              testsOnEachSize(
+                  generator,
+                  "Doesn't support Map.put(null, " + stringify(newValue) + ")",
+                  extractConcreteSizes(features),
+                  (map, expected) -> {
+                    assertThrows(
+                        NullPointerException.class,
+                        () -> map.put(null, newValue),
+                        "Not true that map.put(null, ...) threw NullPointerException");
+                    assertMapHasExactly(expected, map, "map.put(null, ...) threw");
+                  })));
+    }
+    if (!features.contains(MapFeature.ALLOWS_NULL_VALUES)) {
+      result.add(
+          dynamicContainer(
+              "Doesn't support Map.put(K, null)",
+              testsOnEachSize(
+                  generator,
+                  "Doesn't support Map.put(" + stringify(newKey) + ", null)",
+                  extractConcreteSizes(features),
+                  (map, expected) -> {
+                    assertThrows(
+                        NullPointerException.class,
+                        () -> map.put(newKey, null),
+                        () ->
+                            "Not true that map.put("
+                                + stringify(newKey)
+                                + ", null) threw NullPointerException");
+                    assertMapHasExactly(
+                        expected, map, "map.put(" + stringify(newKey) + ", null) threw");
+                  })));
+    }
+    return result.stream();
+  }
+
+  private Stream<DynamicNode> doesNotSupportPutTests() {
+    if (features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support Map.put(K, V)",
+            lazyConcat(
+                () -> doesNotSupportPutTests(newKey, extractConcreteSizes(features)),
+                () ->
+                    doesNotSupportPutTests(
+                        existingKey, extractConcreteSizesExceptZero(features)))));
+  }
+
+  private Stream<DynamicTest> doesNotSupportPutTests(K key, Set<CollectionSize> sizes) {
+    return testsOnEachSize(
+        generator,
+        "Doesn't support Map.put(" + stringify(key) + ", " + stringify(newValue) + ")",
+        sizes,
+        (map, expected) -> {
+          assertThrows(
+              UnsupportedOperationException.class,
+              () -> map.put(key, newValue),
+              () ->
+                  "Not true that map.put("
+                      + stringify(key)
+                      + ", ...) threw UnsupportedOperationException");
+          assertMapHasExactly(expected, map, "map.put(" + stringify(key) + ", ...) threw");
+        });
+  }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.assertMapHasExactly;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.testsOnEachSize;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+final class MapRemoveTester<K, V> {
+  private final TestMapGenerator<K, V> generator;
+  private final K existingKey;
+  private final V existingValue;
+  private final K absentKey;
+  private final V absentValue;
+  private final FeatureSet features;
+
+  private MapRemoveTester(TestMapGenerator<K, V> testMapGenerator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(testMapGenerator, "testMapGenerator");
+    SampleElements<Entry<K, V>> samples = requireNonNull(testMapGenerator.samples(), "samples");
+    this.existingKey = samples.e0().getKey();
+    this.existingValue = samples.e0().getValue();
+    this.absentKey = samples.e4().getKey();
+    this.absentValue = samples.e4().getValue();
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<K, V> {
+    private Builder() {}
+
+    private TestMapGenerator<K, V> testMapGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<K, V> testMapGenerator(TestMapGenerator<K, V> testMapGenerator) {
+      this.testMapGenerator = testMapGenerator;
+      return this;
+    }
+
+    Builder<K, V> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    MapRemoveTester<K, V> build() {
+      return new MapRemoveTester<>(testMapGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(this::supportsRemoveTests, this::doesNotSupportRemoveTests);
+  }
+
+  private Stream<DynamicNode> supportsRemoveTests() {
+    if (!features.contains(MapFeature.SUPPORTS_REMOVE)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Supports Map.remove(Object)",
+            lazyConcat(
+                this::supportsRemoveOfExistingKeyTests,
+                this::supportsRemoveOfAbsentKeyTests,
+                this::supportsRemoveOfEveryKeyTests,
+                this::supportsRemoveOfNullKeyTests,
+                this::supportsRemoveWithValueTests)));
+  }
+
+  private Stream<DynamicTest> supportsRemoveOfExistingKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.remove(" + stringify(existingKey) + ")",
+        extractConcreteSizesExceptZero(features),
+        (map, expected) -> {
+          assertEquals(
+              existingValue,
+              map.remove(existingKey),
+              () -> "map.remove(" + stringify(existingKey) + ") returned");
+          expected.remove(existingKey);
+          assertMapHasExactly(expected, map, "map.remove(" + stringify(existingKey) + ")");
+        });
+  }
+
+  private Stream<DynamicTest> supportsRemoveOfAbsentKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.remove(" + stringify(absentKey) + ")",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          assertNull(
+              map.remove(absentKey),
+              () -> "Not true that map.remove(" + stringify(absentKey) + ") returned null");
+          assertMapHasExactly(expected, map, "map.remove(" + stringify(absentKey) + ")");
+        });
+  }
+
+  private Stream<DynamicTest> supportsRemoveOfEveryKeyTests() {
+    return testsOnEachSize(
+        generator,
+        "Supports Map.remove(Object) of every key",
+        extractConcreteSizesExceptZero(features),
+        (map, expected) -> {
+          // Removing the keys one at a time shrinks the map through any thresholds at which it
+          // reorganises itself.
+          List<Entry<K, V>> entries = new ArrayList<>(expected.entrySet());
+          for (Entry<K, V> entry : entries) {
+            assertEquals(
+                entry.getValue(),
+                map.remove(entry.getKey()),
+                () -> "map.remove(" + stringify(entry.getKey()) + ") returned");
+          }
+          assertTrue(map.isEmpty(), "Not true that map was empty after removing every key");
+        });
+  }
+
+  private Stream<DynamicTest> supportsRemoveOfNullKeyTests() {
+    if (!features.contains(MapFeature.ALLOWS_NULL_KEY_QUERIES)) {
+      return Stream.empty();
+    }
+    return testsOnEachSize(
+        generator,
+        "Supports Map.remove(null)",
+        extractConcreteSizes(features),
+        (map, expected) -> {
+          assertNull(map.remove(null), "Not true that map.remove(null) returned null");
+          assertMapHasExactly(expected, map, "map.remove(null)");
+        });
+  }
+
+  private Stream<DynamicTest> supportsRemoveWithValueTests() {
+    return lazyConcat(
+        () ->
+            testsOnEachSize(
+                generator,
+                "Supports Map.remove("
+                    + stringify(existingKey)
+                    + ", "
+                    + stringify(existingValue)
+                    + ")",
+                extractConcreteSizesExceptZero(features),
+                (map, expected) -> {
+                  assertTrue(
+                      map.remove(existingKey, existingValue),
+                      () ->
+                          "Not true that map.remove("
+                              + stringify(existingKey)
+                              + ", ...) returned true");
+                  expected.remove(existingKey);
+                  assertMapHasExactly(
+                      expected, map, "map.remove(" + stringify(existingKey) + ", ...)");
+                }),
+        () ->
+            testsOnEachSize(
+                generator,
+                "Supports Map.remove("
+                    + stringify(existingKey)
+                    + ", "
+                    + stringify(absentValue)
+                    + ")",
+                extractConcreteSizesExceptZero(features),
+                (map, expected) -> {
+                  assertFalse(
+                      map.remove(existingKey, absentValue),
+                      () ->
+                          "Not true that map.remove("
+                              + stringify(existingKey)
+                              + ", "
+                              + stringify(absentValue)
+                              + ") returned false");
+                  assertMapHasExactly(
+                      expected, map, "map.remove(" + stringify(existingKey) + ", ...)");
+                }));
+  }
+
+  private Stream<DynamicNode> doesNotSupportRemoveTests() {
+    if (features.contains(MapFeature.SUPPORTS_REMOVE)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support Map.remove(Object)",
+            testsOnEachSize(
+                generator,
+                "Doesn't support Map.remove(" + stringify(existingKey) + ")",
+                extractConcreteSizesExceptZero(features),
+                (map, expected) -> {
+                  assertThrows(
+                      UnsupportedOperationException.class,
+                      () -> map.remove(existingKey),
+                      () ->
+                          "Not true that map.remove("
+                              + stringify(existingKey)
+                              + ") threw UnsupportedOperationException");
+                  assertMapHasExactly(
+                      expected, map, "map.remove(" + stringify(existingKey) + ") threw");
+                })));
+  }
+}
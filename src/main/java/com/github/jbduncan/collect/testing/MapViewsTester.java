@@ -0,0 +1,317 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizesExceptZero;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.stringify;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.assertMapHasExactly;
+import static com.github.jbduncan.collect.testing.MapContractHelpers.testsOnEachSize;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+/** Tests the {@code entrySet()}, {@code keySet()} and {@code values()} views of a map. */
+final class MapViewsTester<K, V> {
+  private final TestMapGenerator<K, V> generator;
+  private final K newKey;
+  private final V newValue;
+  private final K existingKey;
+  private final V existingValue;
+  private final FeatureSet features;
+
+  private MapViewsTester(TestMapGenerator<K, V> testMapGenerator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(testMapGenerator, "testMapGenerator");
+    SampleElements<Entry<K, V>> samples = requireNonNull(testMapGenerator.samples(), "samples");
+    this.newKey = samples.e3().getKey();
+    this.newValue = samples.e3().getValue();
+    this.existingKey = samples.e0().getKey();
+    this.existingValue = samples.e0().getValue();
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <K, V> Builder<K, V> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<K, V> {
+    private Builder() {}
+
+    private TestMapGenerator<K, V> testMapGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<K, V> testMapGenerator(TestMapGenerator<K, V> testMapGenerator) {
+      this.testMapGenerator = testMapGenerator;
+      return this;
+    }
+
+    Builder<K, V> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    MapViewsTester<K, V> build() {
+      return new MapViewsTester<>(testMapGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(
+        this::contentsTests,
+        this::writeThroughTests,
+        this::removeThroughViewsTests,
+        this::doesNotSupportRemoveThroughViewsTests,
+        this::failsFastTests);
+  }
+
+  private Stream<DynamicNode> contentsTests() {
+    return Stream.of(
+        dynamicContainer(
+            "Views have the map's contents",
+            lazyConcat(
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Map.entrySet() has every entry",
+                        extractConcreteSizes(features),
+                        (map, expected) -> assertEntrySetHasExactly(expected, map.entrySet())),
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Map.keySet() has every key",
+                        extractConcreteSizes(features),
+                        (map, expected) -> assertKeySetHasExactly(expected, map.keySet())),
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Map.values() has every value",
+                        extractConcreteSizes(features),
+                        (map, expected) -> assertValuesHasExactly(expected, map.values())))));
+  }
+
+  private Stream<DynamicNode> writeThroughTests() {
+    if (!features.contains(MapFeature.SUPPORTS_PUT)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Views reflect writes to the map",
+            lazyConcat(
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Views reflect Map.put(" + stringify(newKey) + ", ...)",
+                        extractConcreteSizes(features),
+                        (map, expected) -> {
+                          // The views are taken first, to check that they read through to the map.
+                          Set<Entry<K, V>> entrySet = map.entrySet();
+                          Set<K> keySet = map.keySet();
+                          Collection<V> values = map.values();
+                          map.put(newKey, newValue);
+                          expected.put(newKey, newValue);
+                          assertEntrySetHasExactly(expected, entrySet);
+                          assertKeySetHasExactly(expected, keySet);
+                          assertValuesHasExactly(expected, values);
+                        }),
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Supports Map.Entry.setValue(V) on the entries of Map.entrySet()",
+                        extractConcreteSizesExceptZero(features),
+                        (map, expected) -> {
+                          Entry<K, V> entry = map.entrySet().iterator().next();
+                          K key = entry.getKey();
+                          assertEquals(
+                              expected.get(key),
+                              entry.setValue(newValue),
+                              "Map.Entry.setValue(V) returned");
+                          expected.put(key, newValue);
+                          assertMapHasExactly(expected, map, "Map.Entry.setValue(V)");
+                        }))));
+  }
+
+  private Stream<DynamicNode> removeThroughViewsTests() {
+    if (!features.contains(MapFeature.SUPPORTS_REMOVE)) {
+      return Stream.empty();
+    }
+
+    String existingKeyName = stringify(existingKey);
+    return Stream.of(
+        dynamicContainer(
+            "Supports removing entries through views",
+            lazyConcat(
+                () ->
+                    removesExistingEntry(
+                        "Map.keySet().remove(" + existingKeyName + ")",
+                        map -> map.keySet().remove(existingKey)),
+                () ->
+                    removesExistingEntry(
+                        "Map.values().remove(" + stringify(existingValue) + ")",
+                        map -> map.values().remove(existingValue)),
+                () ->
+                    removesExistingEntry(
+                        "Map.entrySet().remove(" + existingKeyName + "=...)",
+                        map ->
+                            map.entrySet()
+                                .remove(new SimpleImmutableEntry<>(existingKey, existingValue))),
+                () ->
+                    testsOnEachSize(
+                        generator,
+                        "Supports Iterator.remove() on Map.keySet().iterator()",
+                        extractConcreteSizesExceptZero(features),
+                        (map, expected) -> {
+                          Iterator<K> iterator = map.keySet().iterator();
+                          K removed = iterator.next();
+                          iterator.remove();
+                          expected.remove(removed);
+                          assertMapHasExactly(expected, map, "Iterator.remove()");
+                        }))));
+  }
+
+  private Stream<DynamicTest> removesExistingEntry(String call, RemoveAction<K, V> action) {
+    return testsOnEachSize(
+        generator,
+        "Supports " + call,
+        extractConcreteSizesExceptZero(features),
+        (map, expected) -> {
+          assertTrue(action.remove(map), () -> "Not true that " + call + " returned true");
+          expected.remove(existingKey);
+          assertMapHasExactly(expected, map, call);
+        });
+  }
+
+  private Stream<DynamicNode> doesNotSupportRemoveThroughViewsTests() {
+    if (features.contains(MapFeature.SUPPORTS_REMOVE)) {
+      return Stream.empty();
+    }
+
+    String call = "Map.keySet().remove(" + stringify(existingKey) + ")";
+    return Stream.of(
+        dynamicContainer(
+            "Doesn't support removing entries through views",
+            testsOnEachSize(
+                generator,
+                "Doesn't support " + call,
+                extractConcreteSizesExceptZero(features),
+                (map, expected) -> {
+                  assertThrows(
+                      UnsupportedOperationException.class,
+                      () -> map.keySet().remove(existingKey),
+                      () -> "Not true that " + call + " threw UnsupportedOperationException");
+                  assertMapHasExactly(expected, map, call + " threw");
+                })));
+  }
+
+  private Stream<DynamicNode> failsFastTests() {
+    if (!features.containsAll(
+        MapFeature.SUPPORTS_PUT, MapFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION)) {
+      return Stream.empty();
+    }
+
+    return Stream.of(
+        dynamicContainer(
+            "Views fail fast on concurrent modification",
+            testsOnEachSize(
+                generator,
+                "Map.keySet().iterator() fails fast after Map.put(" + stringify(newKey) + ", ...)",
+                extractConcreteSizesExceptZero(features),
+                (map, expected) -> {
+                  Iterator<K> iterator = map.keySet().iterator();
+                  map.put(newKey, newValue);
+                  assertThrows(
+                      ConcurrentModificationException.class,
+                      iterator::next,
+                      "Not true that Iterator.next() threw ConcurrentModificationException");
+                })));
+  }
+
+  private static <K, V> void assertEntrySetHasExactly(
+      Map<K, V> expected, Set<Entry<K, V>> entrySet) {
+    assertEquals(expected.size(), entrySet.size(), "Map.entrySet().size() returned");
+    Map<K, V> iterated = new LinkedHashMap<>();
+    for (Entry<K, V> entry : entrySet) {
+      K key = entry.getKey();
+      assertFalse(
+          iterated.containsKey(key),
+          () -> "Map.entrySet() had more than one entry for key " + stringify(key));
+      iterated.put(key, entry.getValue());
+    }
+    assertMapHasExactly(expected, iterated, "iterating over Map.entrySet()");
+    for (Entry<K, V> entry : expected.entrySet()) {
+      assertTrue(
+          entrySet.contains(copyOf(entry)),
+          () -> "Not true that Map.entrySet() contained " + stringify(entry));
+    }
+  }
+
+  // Copies the entry, so that Map.entrySet().contains(Object) is tested with an entry that the map
+  // didn't make itself.
+  private static <K, V> Entry<K, V> copyOf(Entry<K, V> entry) {
+    return new SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+  }
+
+  private static <K, V> void assertKeySetHasExactly(Map<K, V> expected, Set<K> keySet) {
+    assertEquals(expected.size(), keySet.size(), "Map.keySet().size() returned");
+    int iterated = 0;
+    for (K key : keySet) {
+      assertTrue(
+          expected.containsKey(key),
+          () -> "Map.keySet() had " + stringify(key) + ", which isn't a key of the map");
+      iterated++;
+    }
+    assertEquals(expected.size(), iterated, "Number of keys iterated over by Map.keySet()");
+    for (K key : expected.keySet()) {
+      assertTrue(
+          keySet.contains(key), () -> "Not true that Map.keySet() contained " + stringify(key));
+    }
+  }
+
+  private static <K, V> void assertValuesHasExactly(Map<K, V> expected, Collection<V> values) {
+    assertEquals(expected.size(), values.size(), "Map.values().size() returned");
+    Map<V, Integer> expectedCounts = new HashMap<>();
+    for (V value : expected.values()) {
+      expectedCounts.merge(value, 1, Integer::sum);
+    }
+    Map<V, Integer> actualCounts = new HashMap<>();
+    for (V value : values) {
+      actualCounts.merge(value, 1, Integer::sum);
+    }
+    assertEquals(expectedCounts, actualCounts, "Number of times Map.values() had each value");
+  }
+
+  @FunctionalInterface
+  private interface RemoveAction<K, V> {
+    boolean remove(Map<K, V> map);
+  }
+}
@@ -0,0 +1,445 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.github.jbduncan.collect.testing.ContractMetrics.CurrentTest;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Compares the performance measurements of the contracts' testers, such as timings, allocations and
+ * footprints, against a baseline recorded by an earlier run, and fails the test that made a
+ * measurement if it has regressed.
+ *
+ * <p>The baseline is a JSON file, set with the system property {@value #FILE_PROPERTY}, that holds
+ * the measurements of each test class. If the property isn't set, nothing is compared. A
+ * measurement that has no baseline yet, such as one from a new test, is reported but not compared.
+ * The build only sets it for its {@code performanceTest} task.
+ *
+ * <p>If the system property {@value #ACCEPT_PROPERTY} is {@code true}, nothing is compared either.
+ * Instead, every measurement replaces its old value, and the baselines of tests that didn't run are
+ * kept. The file is written once, when the JVM shuts down, by writing a temporary file and then
+ * moving it into place, so that a run that is killed midway never leaves a half-written baseline.
+ * The build's {@code acceptPerformanceBaseline} task runs the performance tests this way.
+ *
+ * <p>A measurement regresses when it is worse than its baseline by more than a relative tolerance,
+ * plus a little absolute slack, so that a tiny baseline, like the 0 bytes of an operation that
+ * doesn't allocate, doesn't fail at the slightest noise. The tolerances are 50% for timings and
+ * throughputs and 10% for bytes by default, and can be changed with the system properties {@code
+ * jupiter.collection.testers.baseline.tolerance.nanos}, {@code
+ * jupiter.collection.testers.baseline.tolerance.bytes} and {@code
+ * jupiter.collection.testers.baseline.tolerance.ops_per_second}, as fractions, such as {@code 0.25}
+ * for 25%.
+ *
+ * <p>The file records the version of its format, currently {@value #FORMAT_VERSION}, which a
+ * baseline must match to be compared against, and the JVM and machine that it was recorded on,
+ * which are shown when a measurement regresses, since timings from one machine say little about
+ * another.
+ */
+public final class PerformanceBaseline {
+  /** The system property that sets the baseline file. */
+  public static final String FILE_PROPERTY = "jupiter.collection.testers.baseline.file";
+
+  /** The system property that, if {@code true}, writes measurements to the baseline file. */
+  public static final String ACCEPT_PROPERTY = "jupiter.collection.testers.baseline.accept";
+
+  /** The version of the baseline file's format, which is increased whenever it changes. */
+  public static final int FORMAT_VERSION = 1;
+
+  private static final String TOLERANCE_PROPERTY_PREFIX =
+      "jupiter.collection.testers.baseline.tolerance.";
+  private static final String PATH_SEPARATOR = " > ";
+  // The file is versioned, so it has the same line endings on every platform.
+  private static final String NEW_LINE = "\n";
+  private static final double PERCENT = 100;
+
+  private static final Object CONFIGURED_LOCK = new Object();
+
+  // The baseline configured by the system properties, once it's first needed.
+  private static Optional<PerformanceBaseline> configured;
+
+  private final Path file;
+  private final boolean accept;
+  private final Map<Unit, Double> tolerances;
+  private final Object lock = new Object();
+
+  // Loaded from the file when first needed, and guarded by lock.
+  private Map<String, Map<String, Measurement>> measurementsByClass;
+  private Map<String, String> recordedEnvironment;
+  private boolean changed;
+
+  /** The unit of a measurement, and how much worse than its baseline it may be by default. */
+  enum Unit {
+    NANOS("ns", 0.5, 20, /* higherIsBetter= */ false),
+    BYTES("bytes", 0.1, 1, /* higherIsBetter= */ false),
+    OPS_PER_SECOND("ops/s", 0.5, 0, /* higherIsBetter= */ true);
+
+    private final String symbol;
+    private final double defaultTolerance;
+    private final double slack;
+    private final boolean higherIsBetter;
+
+    Unit(String symbol, double defaultTolerance, double slack, boolean higherIsBetter) {
+      this.symbol = symbol;
+      this.defaultTolerance = defaultTolerance;
+      this.slack = slack;
+      this.higherIsBetter = higherIsBetter;
+    }
+
+    String toleranceProperty() {
+      return TOLERANCE_PROPERTY_PREFIX + name().toLowerCase(Locale.ROOT);
+    }
+
+    String format(double value) {
+      return String.format("%,.2f %s", value, symbol);
+    }
+
+    boolean regressed(double value, double baseline, double tolerance) {
+      return higherIsBetter
+          ? value < baseline * (1 - tolerance) - slack
+          : value > baseline * (1 + tolerance) + slack;
+    }
+  }
+
+  PerformanceBaseline(Path file, boolean accept, Map<Unit, Double> tolerances) {
+    this.file = requireNonNull(file, "file");
+    this.accept = accept;
+    this.tolerances = new EnumMap<>(Unit.class);
+    this.tolerances.putAll(requireNonNull(tolerances, "tolerances"));
+    for (Unit unit : Unit.values()) {
+      this.tolerances.putIfAbsent(unit, unit.defaultTolerance);
+    }
+  }
+
+  /**
+   * Compares {@code value}, a measurement named {@code metric} that the current test made, against
+   * its baseline, or records it as the new baseline, as configured by the system properties. Does
+   * nothing if no baseline file is configured, or if the current thread isn't running a test from a
+   * contract's test factory.
+   *
+   * @throws org.opentest4j.AssertionFailedError if {@code value} has regressed
+   */
+  static void check(String metric, Unit unit, double value) {
+    Optional<CurrentTest> test = ContractMetrics.currentTest();
+    Optional<PerformanceBaseline> baseline = configured();
+    if (test.isPresent() && baseline.isPresent()) {
+      baseline.get().check(test.get(), metric, unit, value);
+    }
+  }
+
+  private static Optional<PerformanceBaseline> configured() {
+    synchronized (CONFIGURED_LOCK) {
+      if (configured == null) {
+        String file = System.getProperty(FILE_PROPERTY);
+        Map<Unit, Double> tolerances = new EnumMap<>(Unit.class);
+        for (Unit unit : Unit.values()) {
+          tolerances.put(unit, configuredTolerance(unit));
+        }
+        boolean accept = Boolean.getBoolean(ACCEPT_PROPERTY);
+        configured =
+            file == null
+                ? Optional.empty()
+                : Optional.of(new PerformanceBaseline(Paths.get(file), accept, tolerances));
+        if (accept) {
+          configured.ifPresent(PerformanceBaseline::writeAtShutdown);
+        }
+      }
+      return configured;
+    }
+  }
+
+  // Shutdown hooks are threads, and the last test class to run isn't known until the JVM exits.
+  @SuppressWarnings("PMD.DoNotUseThreads")
+  private static void writeAtShutdown(PerformanceBaseline baseline) {
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(baseline::writeAccepted, "performance-baseline-writer"));
+  }
+
+  private static double configuredTolerance(Unit unit) {
+    String property = unit.toleranceProperty();
+    String value = System.getProperty(property);
+    if (value == null) {
+      return unit.defaultTolerance;
+    }
+    double tolerance;
+    try {
+      tolerance = Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format("System property '%s' is '%s', but it must be a number.", property, value),
+          e);
+    }
+    if (!(tolerance >= 0) || Double.isInfinite(tolerance)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "System property '%s' is '%s', but it must be a finite number that is at least 0.",
+              property, value));
+    }
+    return tolerance;
+  }
+
+  private void check(CurrentTest test, String metric, Unit unit, double value) {
+    List<String> path = test.path();
+    // The test's own display name is left out, since it often names a budget that may change.
+    String key = String.join(PATH_SEPARATOR, path.subList(0, path.size() - 1)) + PATH_SEPARATOR;
+    test.reporter()
+        .publishEntry(
+            "baseline of " + metric, check(test.testClass().getName(), key + metric, unit, value));
+  }
+
+  /**
+   * Compares {@code value} against the baseline of {@code metric} for {@code testClass}, or records
+   * it as the new baseline, and returns a description of the outcome.
+   *
+   * @throws org.opentest4j.AssertionFailedError if {@code value} has regressed
+   */
+  String check(String testClass, String metric, Unit unit, double value) {
+    requireNonNull(testClass, "testClass");
+    requireNonNull(metric, "metric");
+    requireNonNull(unit, "unit");
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException(
+          String.format("'value' is %s, but it must be finite.", value));
+    }
+    synchronized (lock) {
+      return compareOrRecord(testClass, metric, unit, value);
+    }
+  }
+
+  private String compareOrRecord(String testClass, String metric, Unit unit, double value) {
+    load();
+    Map<String, Measurement> measurements =
+        measurementsByClass.computeIfAbsent(testClass, unused -> new TreeMap<>());
+    if (accept) {
+      measurements.put(metric, new Measurement(unit, value));
+      recordedEnvironment = currentEnvironment();
+      changed = true;
+      return String.format("recorded %s as the new baseline", unit.format(value));
+    }
+
+    Measurement baseline = measurements.get(metric);
+    if (baseline == null || baseline.unit != unit) {
+      return String.format("%s, with no baseline to compare against", unit.format(value));
+    }
+    double tolerance = tolerances.get(unit);
+    String comparison =
+        String.format(
+            "%s, against a baseline of %s%s, with a tolerance of %.0f%%",
+            unit.format(value),
+            unit.format(baseline.value),
+            change(value, baseline.value),
+            tolerance * PERCENT);
+    if (unit.regressed(value, baseline.value, tolerance)) {
+      Map<String, String> environment = currentEnvironment();
+      String message =
+          String.format(
+              "%s regressed: %s%n"
+                  + "If this is expected, accept a new baseline with "
+                  + "'./gradlew acceptPerformanceBaseline'.%s",
+              metric,
+              comparison,
+              environment.equals(recordedEnvironment)
+                  ? ""
+                  : String.format(
+                      "%nThe baseline was recorded on %s, but this run is on %s.",
+                      recordedEnvironment, environment));
+      ContractMetrics.budgetViolated("baseline of " + metric, message);
+      fail(message);
+    }
+    return comparison;
+  }
+
+  private static String change(double value, double baseline) {
+    return baseline == 0
+        ? ""
+        : String.format(" (%+.1f%%)", (value - baseline) / baseline * PERCENT);
+  }
+
+  private static Map<String, String> currentEnvironment() {
+    Map<String, String> result = new TreeMap<>();
+    for (String property : new String[] {"java.version", "java.vm.name", "os.arch", "os.name"}) {
+      result.put(property, System.getProperty(property, "unknown"));
+    }
+    result.put("availableProcessors", String.valueOf(Runtime.getRuntime().availableProcessors()));
+    return result;
+  }
+
+  private void load() {
+    if (measurementsByClass != null) {
+      return;
+    }
+    measurementsByClass = new TreeMap<>();
+    recordedEnvironment = Collections.emptyMap();
+    if (!Files.exists(file)) {
+      return;
+    }
+    Map<?, ?> document;
+    try {
+      document =
+          asMap(Json.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)), "file");
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Object version = document.get("formatVersion");
+    if (!Double.valueOf(FORMAT_VERSION).equals(version)) {
+      if (accept) {
+        // The baseline is being replaced anyway, so its old measurements are just dropped.
+        return;
+      }
+      throw new IllegalStateException(
+          String.format(
+              "The performance baseline %s has format version %s, but only version %s can be "
+                  + "read. Accept a new baseline with './gradlew acceptPerformanceBaseline'.",
+              file, version, FORMAT_VERSION));
+    }
+    Map<String, String> environment = new TreeMap<>();
+    asMap(document.get("environment"), "environment")
+        .forEach((key, value) -> environment.put(String.valueOf(key), String.valueOf(value)));
+    recordedEnvironment = environment;
+    asMap(document.get("measurements"), "measurements")
+        .forEach(
+            (testClass, measurements) -> {
+              Map<String, Measurement> parsed = new TreeMap<>();
+              asMap(measurements, String.valueOf(testClass))
+                  .forEach(
+                      (metric, measurement) ->
+                          parsed.put(
+                              String.valueOf(metric),
+                              Measurement.fromJson(asMap(measurement, String.valueOf(metric)))));
+              measurementsByClass.put(String.valueOf(testClass), parsed);
+            });
+  }
+
+  private Map<?, ?> asMap(Object value, String name) {
+    if (!(value instanceof Map)) {
+      throw new IllegalStateException(
+          String.format(
+              "The performance baseline %s is malformed: expected %s to be a JSON object",
+              file, name));
+    }
+    return (Map<?, ?>) value;
+  }
+
+  /**
+   * Writes the measurements that were accepted since this baseline was loaded or last written to
+   * its file, if there are any.
+   */
+  void writeAccepted() {
+    synchronized (lock) {
+      if (changed) {
+        write();
+        changed = false;
+      }
+    }
+  }
+
+  private void write() {
+    String json =
+        String.format(
+            "{\n  \"formatVersion\": %s,\n  \"environment\": %s,\n  \"measurements\": %s\n}\n",
+            FORMAT_VERSION,
+            recordedEnvironment.entrySet().stream()
+                .map(entry -> Json.quote(entry.getKey()) + ": " + Json.quote(entry.getValue()))
+                .collect(
+                    joining("," + NEW_LINE + "    ", "{" + NEW_LINE + "    ", NEW_LINE + "  }")),
+            measurementsByClass.entrySet().stream()
+                .map(
+                    entry ->
+                        Json.quote(entry.getKey())
+                            + ": "
+                            + entry.getValue().entrySet().stream()
+                                .map(
+                                    measurement ->
+                                        Json.quote(measurement.getKey())
+                                            + ": "
+                                            + measurement.getValue().toJson())
+                                .collect(
+                                    joining(
+                                        "," + NEW_LINE + "      ",
+                                        "{" + NEW_LINE + "      ",
+                                        NEW_LINE + "    }")))
+                .collect(
+                    joining("," + NEW_LINE + "    ", "{" + NEW_LINE + "    ", NEW_LINE + "  }")));
+    try {
+      Path parent = file.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      Path temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(temporary, json.getBytes(StandardCharsets.UTF_8));
+        moveIntoPlace(temporary);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void moveIntoPlace(Path temporary) throws IOException {
+    try {
+      Files.move(temporary, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      // The temporary file is in the same directory, so this is only for unusual file systems.
+      Files.move(temporary, file, REPLACE_EXISTING);
+    }
+  }
+
+  private static final class Measurement {
+    private final Unit unit;
+    private final double value;
+
+    Measurement(Unit unit, double value) {
+      this.unit = unit;
+      this.value = value;
+    }
+
+    static Measurement fromJson(Map<?, ?> json) {
+      Object unit = json.get("unit");
+      Object value = json.get("value");
+      if (!(value instanceof Double)) {
+        throw new IllegalStateException("A baseline measurement has no number as its value");
+      }
+      try {
+        return new Measurement(Unit.valueOf(String.valueOf(unit)), (Double) value);
+      } catch (IllegalArgumentException e) {
+        throw new IllegalStateException("A baseline measurement has an unknown unit: " + unit, e);
+      }
+    }
+
+    String toJson() {
+      return String.format(
+          "{\"unit\": %s, \"value\": %s}", Json.quote(unit.name()), String.valueOf(value));
+    }
+  }
+}
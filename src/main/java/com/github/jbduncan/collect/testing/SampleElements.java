@@ -15,18 +15,126 @@
  */
 package com.github.jbduncan.collect.testing;
 
+import static java.util.Objects.requireNonNull;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
 
 public final class SampleElements<E> implements Iterable<E> {
+  private static final int FIXED_ELEMENTS = 5;
+  private static final int CYCLED_ELEMENTS = 3;
+
+  private static final SampleElements<String> STRINGS = indexed(SampleElements::letters);
+  private static final SampleElements<Entry<String, String>> STRING_ENTRIES =
+      indexed(
+          i -> {
+            String key = STRINGS.element(i);
+            return new SimpleImmutableEntry<>(key, key.toUpperCase(Locale.ROOT));
+          });
+  private static final SampleElements<Integer> INTEGERS = indexed(Integer::valueOf);
+  private static final SampleElements<Long> LONGS = indexed(Long::valueOf);
+  private static final SampleElements<CountingElement> COUNTING = indexed(CountingElement::of);
+  private static final ConcurrentMap<Integer, SampleElements<CollidingElement>> COLLIDING =
+      new ConcurrentHashMap<>();
+  private static final ConcurrentMap<Integer, SampleElements<ComparableCollidingElement>>
+      COMPARABLE_COLLIDING = new ConcurrentHashMap<>();
+
   public static <E> SampleElements<E> of(E e0, E e1, E e2, E e3, E e4) {
-    return new SampleElements<>(e0, e1, e2, e3, e4);
+    return new SampleElements<>(e0, e1, e2, e3, e4, /* pool= */ null);
+  }
+
+  /**
+   * Returns sample elements that can produce any number of distinct elements, where the element at
+   * index {@code i} is {@code factory.apply(i)}. The factory must be deterministic and return
+   * distinct elements for distinct indices.
+   *
+   * <p>Each of the first few thousand elements is created on first use and is then shared by every
+   * test that uses the returned {@code SampleElements}, so the elements must be immutable. The
+   * factory may be called more than once for such an index by threads that race for it, but only
+   * one of the elements it returns is ever handed out. Elements at larger indices are created anew
+   * on every call, so that the largest fixtures don't stay in memory once their tests are done, so
+   * the factory must also return equal elements for equal indices.
+   */
+  public static <E> SampleElements<E> indexed(IntFunction<? extends E> factory) {
+    ElementPool<E> pool = new ElementPool<>(factory);
+    return new SampleElements<>(
+        pool.get(0), pool.get(1), pool.get(2), pool.get(3), pool.get(4), pool);
   }
 
+  /**
+   * Returns scalable sample elements {@code "a"}, {@code "b"}, ..., {@code "z"}, {@code "aa"},
+   * {@code "ab"} and so on.
+   */
   public static SampleElements<String> strings() {
-    return SampleElements.of("a", "b", "c", "d", "e");
+    return STRINGS;
+  }
+
+  /**
+   * Returns scalable sample map entries {@code "a"="A"}, {@code "b"="B"} and so on, whose keys are
+   * those of {@link #strings()} and whose values are the keys in upper case.
+   */
+  public static SampleElements<Entry<String, String>> stringEntries() {
+    return STRING_ENTRIES;
+  }
+
+  /** Returns scalable sample elements {@code 0}, {@code 1}, {@code 2} and so on. */
+  public static SampleElements<Integer> integers() {
+    return INTEGERS;
+  }
+
+  /** Returns scalable sample elements {@code 0L}, {@code 1L}, {@code 2L} and so on. */
+  public static SampleElements<Long> longs() {
+    return LONGS;
+  }
+
+  /**
+   * Returns scalable sample elements {@code CountingElement.of(0)}, {@code CountingElement.of(1)}
+   * and so on, which count the calls made to their {@code equals}, {@code hashCode} and {@code
+   * compareTo} methods.
+   *
+   * @see ElementOperationCounts
+   */
+  public static SampleElements<CountingElement> counting() {
+    return COUNTING;
+  }
+
+  /**
+   * Returns scalable sample elements whose hash codes collide: the element with value {@code i} has
+   * hash code {@code i % distinctHashCodes}. With {@code distinctHashCodes} of 1, every element has
+   * the same hash code; with a few more, they're clustered into that many buckets.
+   *
+   * <p>The elements aren't {@code Comparable}; see {@link #comparableColliding(int)} for ones that
+   * are.
+   */
+  public static SampleElements<CollidingElement> colliding(int distinctHashCodes) {
+    checkDistinctHashCodes(distinctHashCodes);
+    return COLLIDING.computeIfAbsent(
+        distinctHashCodes, unused -> indexed(i -> CollidingElement.of(i, i % distinctHashCodes)));
+  }
+
+  /** Like {@link #colliding(int)}, but the elements are {@code Comparable}. */
+  public static SampleElements<ComparableCollidingElement> comparableColliding(
+      int distinctHashCodes) {
+    checkDistinctHashCodes(distinctHashCodes);
+    return COMPARABLE_COLLIDING.computeIfAbsent(
+        distinctHashCodes,
+        unused -> indexed(i -> ComparableCollidingElement.of(i, i % distinctHashCodes)));
+  }
+
+  private static void checkDistinctHashCodes(int distinctHashCodes) {
+    if (distinctHashCodes <= 0) {
+      throw new IllegalArgumentException(
+          String.format("'distinctHashCodes' is %s, but must be >= 1", distinctHashCodes));
+    }
   }
 
   public static SampleElements<String> unsortedStrings() {
@@ -39,13 +147,15 @@ public final class SampleElements<E> implements Iterable<E> {
   private final E e2;
   private final E e3;
   private final E e4;
+  private final ElementPool<E> pool; // null if these sample elements aren't scalable
 
-  private SampleElements(E e0, E e1, E e2, E e3, E e4) {
+  private SampleElements(E e0, E e1, E e2, E e3, E e4, ElementPool<E> pool) {
     this.e0 = e0;
     this.e1 = e1;
     this.e2 = e2;
     this.e3 = e3;
     this.e4 = e4;
+    this.pool = pool;
   }
 
   public E e0() {
@@ -72,6 +182,50 @@ public final class SampleElements<E> implements Iterable<E> {
     return e4;
   }
 
+  /**
+   * Returns {@code true} if these sample elements can produce any number of distinct elements
+   * through {@link #element(int)}, or {@code false} if they only have {@code e0()} to {@code e4()}.
+   */
+  public boolean isScalable() {
+    return pool != null;
+  }
+
+  /**
+   * Returns the element at the given index, where indices 0 to 4 correspond to {@code e0()} to
+   * {@code e4()}.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or if it's greater than 4 and
+   *     these sample elements aren't {@linkplain #isScalable() scalable}
+   */
+  public E element(int index) {
+    if (index < 0 || (pool == null && index >= FIXED_ELEMENTS)) {
+      throw new IndexOutOfBoundsException(
+          String.format(
+              "'index' is %s, but must be between 0 and %s",
+              index, pool == null ? FIXED_ELEMENTS - 1 : Integer.MAX_VALUE));
+    }
+    if (pool == null) {
+      return fixedElement(index);
+    }
+    return pool.get(index);
+  }
+
+  /**
+   * Returns the element to put at the given index of a collection under test. {@code e3()} and
+   * {@code e4()} are never returned. If these sample elements are scalable, every index maps to a
+   * distinct element; otherwise {@code e0()}, {@code e1()} and {@code e2()} are cycled through.
+   */
+  public E fixtureElement(int index) {
+    if (index < CYCLED_ELEMENTS) {
+      return element(index);
+    }
+    if (pool == null) {
+      return fixedElement(index % CYCLED_ELEMENTS);
+    }
+    // Skip over e3() and e4().
+    return pool.get(index + FIXED_ELEMENTS - CYCLED_ELEMENTS);
+  }
+
   public List<E> asList() {
     return Collections.unmodifiableList(Arrays.asList(e0, e1, e2, e3, e4));
   }
@@ -80,4 +234,68 @@ public final class SampleElements<E> implements Iterable<E> {
   public Iterator<E> iterator() {
     return asList().iterator();
   }
+
+  private E fixedElement(int index) {
+    switch (index) {
+      case 0:
+        return e0;
+      case 1:
+        return e1;
+      case 2:
+        return e2;
+      case 3:
+        return e3;
+      default:
+        return e4;
+    }
+  }
+
+  private static String letters(int index) {
+    // Bijective base-26: 0 -> "a", 25 -> "z", 26 -> "aa", 27 -> "ab", ...
+    StringBuilder result = new StringBuilder();
+    for (int remaining = index + 1; remaining > 0; remaining = (remaining - 1) / 26) {
+      result.append((char) ('a' + (remaining - 1) % 26));
+    }
+    return result.reverse().toString();
+  }
+
+  /**
+   * A flyweight pool that creates each element at a small index on first use and hands out the same
+   * instance from then on, so that many fixtures can share their elements instead of each
+   * allocating their own.
+   *
+   * <p>Lookups never lock. The elements at small indices, which every fixture uses, are kept in an
+   * array. If two threads create the same element at once, both get the one that was published
+   * first. The rest, which only the largest fixtures reach, are created on every call rather than
+   * kept, since the pools are static and would otherwise hold on to every element of the largest
+   * fixture ever created until the JVM exits.
+   */
+  private static final class ElementPool<E> {
+    // Enough for the elements of a SUPPORTS_LARGE collection at its default size.
+    private static final int ARRAY_SIZE = 4_096;
+
+    private final IntFunction<? extends E> factory;
+    private final AtomicReferenceArray<E> smallIndices = new AtomicReferenceArray<>(ARRAY_SIZE);
+
+    ElementPool(IntFunction<? extends E> factory) {
+      this.factory = requireNonNull(factory, "factory");
+    }
+
+    E get(int index) {
+      if (index >= ARRAY_SIZE) {
+        return create(index);
+      }
+      E element = smallIndices.get(index);
+      if (element == null) {
+        E created = create(index);
+        element =
+            smallIndices.compareAndSet(index, null, created) ? created : smallIndices.get(index);
+      }
+      return element;
+    }
+
+    private E create(int index) {
+      return requireNonNull(factory.apply(index), "factory returned null");
+    }
+  }
 }
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestReporter;
+
+// Running operations from many threads at once is the point of this tester.
+@SuppressWarnings("PMD.DoNotUseThreads")
+final class ScalabilityTester<E> {
+  private static final int COLLECTION_SIZE = 1_000;
+  // The deadline is only checked this often, so that reading the clock doesn't dominate.
+  private static final int OPERATIONS_PER_DEADLINE_CHECK = 256;
+  private static final int PERCENT = 100;
+
+  private final TestCollectionGenerator<E> generator;
+  private final SampleElements<E> samples;
+  private final FeatureSet features;
+  private final List<Integer> threadCounts;
+  private final int readPercentage;
+  private final double minimumSpeedup;
+  private final Duration duration;
+  private final TestReporter reporter;
+
+  private ScalabilityTester(
+      TestCollectionGenerator<E> generator,
+      Set<Feature<?>> features,
+      List<Integer> threadCounts,
+      int readPercentage,
+      double minimumSpeedup,
+      Duration duration,
+      TestReporter reporter) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+    this.threadCounts = requireNonNull(threadCounts, "threadCounts");
+    if (threadCounts.isEmpty() || threadCounts.get(0) != 1) {
+      throw new IllegalArgumentException(
+          String.format("'threadCounts' is %s, but must start with 1", threadCounts));
+    }
+    if (readPercentage < 0 || readPercentage > PERCENT) {
+      throw new IllegalArgumentException(
+          String.format("'readPercentage' is %s, but must be between 0 and 100", readPercentage));
+    }
+    this.readPercentage = readPercentage;
+    this.minimumSpeedup = minimumSpeedup;
+    this.duration = requireNonNull(duration, "duration");
+    this.reporter = requireNonNull(reporter, "reporter");
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> {
+    private Builder() {}
+
+    private TestCollectionGenerator<E> testCollectionGenerator;
+    private Set<Feature<?>> features;
+    private List<Integer> threadCounts;
+    private int readPercentage;
+    private double minimumSpeedup;
+    private Duration duration;
+    private TestReporter reporter;
+
+    Builder<E> testCollectionGenerator(TestCollectionGenerator<E> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder<E> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    Builder<E> threadCounts(List<Integer> threadCounts) {
+      this.threadCounts = threadCounts;
+      return this;
+    }
+
+    Builder<E> readPercentage(int readPercentage) {
+      this.readPercentage = readPercentage;
+      return this;
+    }
+
+    /** Sets the speedup needed at the largest thread count, or 0 to only report throughput. */
+    Builder<E> minimumSpeedup(double minimumSpeedup) {
+      this.minimumSpeedup = minimumSpeedup;
+      return this;
+    }
+
+    /** Sets how long the workload runs for at each thread count, both to warm up and to measure. */
+    Builder<E> duration(Duration duration) {
+      this.duration = duration;
+      return this;
+    }
+
+    Builder<E> reporter(TestReporter reporter) {
+      this.reporter = reporter;
+      return this;
+    }
+
+    ScalabilityTester<E> build() {
+      return new ScalabilityTester<>(
+          testCollectionGenerator,
+          features,
+          threadCounts,
+          readPercentage,
+          minimumSpeedup,
+          duration,
+          reporter);
+    }
+  }
+
+  Stream<DynamicTest> dynamicTests() {
+    // Without scalable samples, the workload would only ever touch the first few elements.
+    if (!features.contains(CollectionFeature.THREAD_SAFE) || !samples.isScalable()) {
+      return Stream.empty();
+    }
+    int maxThreads = threadCounts.get(threadCounts.size() - 1);
+    String name =
+        minimumSpeedup > 0
+            ? String.format(
+                "throughput of %s%% reads is at least %s times faster with %s threads than with 1",
+                readPercentage, minimumSpeedup, maxThreads)
+            : String.format(
+                "throughput of %s%% reads with 1 to %s threads", readPercentage, maxThreads);
+    return Stream.of(dynamicTest(name, this::measureScalability));
+  }
+
+  private void measureScalability() throws InterruptedException {
+    int maxThreads = threadCounts.get(threadCounts.size() - 1);
+    ExecutorService executor = Executors.newFixedThreadPool(maxThreads);
+    try {
+      Collection<E> collection =
+          generator.create(
+              Helpers.newIterable(samples, COLLECTION_SIZE, /* nullInMiddle= */ false));
+      // Warm up at every thread count, so that the JIT compiler has seen the workload under each
+      // amount of contention before any of them are measured.
+      for (int threads : threadCounts) {
+        measureThroughput(executor, collection, threads);
+      }
+
+      double[] throughputs = new double[threadCounts.size()];
+      StringBuilder table = new StringBuilder();
+      for (int i = 0; i < threadCounts.size(); i++) {
+        int threads = threadCounts.get(i);
+        throughputs[i] = measureThroughput(executor, collection, threads);
+        double speedup = throughputs[i] / throughputs[0];
+        String result =
+            String.format(
+                "%,.0f ops/s, speedup %.2f, efficiency %.0f%%",
+                throughputs[i], speedup, PERCENT * speedup / threads);
+        reporter.publishEntry(String.format("%s threads", threads), result);
+        String measurement = String.format("throughput with %s threads", threads);
+        ContractMetrics.throughputMeasured(measurement, throughputs[i]);
+        PerformanceBaseline.check(
+            measurement, PerformanceBaseline.Unit.OPS_PER_SECOND, throughputs[i]);
+        table.append(String.format("%n  %s threads: %s", threads, result));
+      }
+
+      if (minimumSpeedup > 0) {
+        assumeTrue(
+            Runtime.getRuntime().availableProcessors() >= maxThreads,
+            () ->
+                String.format(
+                    "Only %s processors are available, so %s threads can't run in parallel",
+                    Runtime.getRuntime().availableProcessors(), maxThreads));
+        double speedup = throughputs[throughputs.length - 1] / throughputs[0];
+        if (speedup < minimumSpeedup) {
+          String message =
+              String.format(
+                  "Expected a speedup of at least %s with %s threads, but was %.2f:%s",
+                  minimumSpeedup, maxThreads, speedup, table);
+          ContractMetrics.budgetViolated(
+              String.format("speedup of at least %s with %s threads", minimumSpeedup, maxThreads),
+              message);
+          fail(message);
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Runs the workload on {@code threads} threads at once, and returns operations per second. */
+  private double measureThroughput(ExecutorService executor, Collection<E> collection, int threads)
+      throws InterruptedException {
+    CyclicBarrier start = new CyclicBarrier(threads);
+    List<Future<Double>> futures = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> runWorkload(collection, start)));
+    }
+    double throughput = 0;
+    for (Future<Double> future : futures) {
+      try {
+        throughput += future.get();
+      } catch (ExecutionException e) {
+        throw new AssertionError("A thread failed unexpectedly", e);
+      }
+    }
+    return throughput;
+  }
+
+  /** Returns the operations per second that this thread ran. */
+  private double runWorkload(Collection<E> collection, CyclicBarrier start)
+      throws InterruptedException, BrokenBarrierException {
+    boolean canAdd = features.contains(CollectionFeature.SUPPORTS_ADD);
+    boolean canRemove = features.contains(CollectionFeature.SUPPORTS_REMOVE);
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    start.await();
+    long startNanos = System.nanoTime();
+    long deadline = startNanos + duration.toNanos();
+    long operations = 0;
+    long now;
+    do {
+      for (int i = 0; i < OPERATIONS_PER_DEADLINE_CHECK; i++) {
+        // Half of the elements are initially present. A write removes its element if it's
+        // present and adds it otherwise, which keeps about half of them present, even in a
+        // collection that allows duplicates. If it can only add or only remove, it grows or
+        // empties instead.
+        E element = samples.fixtureElement(random.nextInt(2 * COLLECTION_SIZE));
+        boolean write = (canAdd || canRemove) && random.nextInt(PERCENT) >= readPercentage;
+        if (!write) {
+          collection.contains(element);
+        } else if (!canAdd) {
+          collection.remove(element);
+        } else if (!canRemove || !collection.remove(element)) {
+          collection.add(element);
+        }
+      }
+      operations += OPERATIONS_PER_DEADLINE_CHECK;
+      now = System.nanoTime();
+    } while (now < deadline);
+    return operations * 1e9 / (now - startNanos);
+  }
+}
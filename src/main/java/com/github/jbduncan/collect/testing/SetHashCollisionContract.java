@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * {@code SetHashCollisionContract} is a test interface that checks that a hash-based set stays fast
+ * when its elements' hash codes collide, as they can when the elements come from untrusted input.
+ *
+ * <p>Sets are filled with elements from {@link SampleElements#colliding(int)} and {@link
+ * SampleElements#comparableColliding(int)} that either all share one hash code or are clustered
+ * into a few, and the comparisons made by every {@code add(E)}, and by {@code contains(Object)} for
+ * elements that are and aren't present, are counted with {@link ElementOperationCounts}.
+ *
+ * <p>The default bounds are those of {@link HashSet}, whose backing {@code HashMap} turns each
+ * crowded bucket into a tree: lookups among comparable elements take a logarithmic number of
+ * comparisons, and among other elements a linear number.
+ *
+ * <p>Since the elements are of several types, sets are made by {@link #newSet()} rather than by a
+ * {@link TestSetGenerator}.
+ */
+@ExtendWith(ContractMetricsExtension.class)
+public interface SetHashCollisionContract {
+  /**
+   * Returns a new, empty, mutable set of the implementation under test. For example, {@code return
+   * new HashSet<>();}.
+   *
+   * @param <E> the type of the set's elements
+   * @return the new set
+   */
+  <E> Set<E> newSet();
+
+  /**
+   * Returns the maximum number of comparisons that {@code add(E)} and {@code contains(Object)} may
+   * make on a set of size {@code n} whose elements are comparable and collide.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check comparable elements
+   */
+  default GrowthBound comparableCollisionComparisonsBound() {
+    return HashCollisionTester.DEFAULT_COMPARABLE_BOUND;
+  }
+
+  /**
+   * Returns the maximum number of comparisons that {@code add(E)} and {@code contains(Object)} may
+   * make on a set of size {@code n} whose elements aren't comparable and collide.
+   *
+   * @return the bound, or {@link GrowthBound#none()} to not check non-comparable elements
+   */
+  default GrowthBound nonComparableCollisionComparisonsBound() {
+    return HashCollisionTester.DEFAULT_NON_COMPARABLE_BOUND;
+  }
+
+  /**
+   * Returns the set sizes at which the comparisons are counted. By default, these are 16, 256 and
+   * 4,096.
+   *
+   * @return the sizes to check
+   */
+  default List<Integer> hashCollisionSizes() {
+    return HashCollisionTester.DEFAULT_SIZES;
+  }
+
+  @TestFactory
+  default Stream<DynamicNode> hashCollisions() {
+    return ContractMetrics.measure(
+        getClass(),
+        "hashCollisions",
+        HashCollisionTester.builder()
+            .containerFactory(
+                () -> {
+                  Set<Object> set = newSet();
+                  return new HashCollisionTester.HashedContainer() {
+                    @Override
+                    public void insert(Object element) {
+                      set.add(element);
+                    }
+
+                    @Override
+                    public boolean lookup(Object element) {
+                      return set.contains(element);
+                    }
+                  };
+                })
+            .insertName("add(E)")
+            .lookupName("contains(Object)")
+            .sizes(hashCollisionSizes())
+            .comparableBound(comparableCollisionComparisonsBound())
+            .nonComparableBound(nonComparableCollisionComparisonsBound())
+            .build()
+            .dynamicTests());
+  }
+}
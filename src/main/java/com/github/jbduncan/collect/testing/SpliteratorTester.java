@@ -0,0 +1,390 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.extractConcreteSizes;
+import static com.github.jbduncan.collect.testing.Helpers.lazyConcat;
+import static com.github.jbduncan.collect.testing.Helpers.newIterable;
+import static com.github.jbduncan.collect.testing.Helpers.stringifyElements;
+import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+
+final class SpliteratorTester<E> {
+  // Parallel streams split until each part is about 1 / (4 * parallelism) of the whole; this is
+  // that number of parts for a parallelism of 8.
+  private static final int TARGET_PARTS = 32;
+  // A balanced spliterator reaches TARGET_PARTS parts in log2(TARGET_PARTS) = 5 levels of splits.
+  // Three times that leaves room for uneven splits, but not for splitting off a few elements at a
+  // time.
+  private static final int MAX_SPLIT_DEPTH = 15;
+  // With TARGET_PARTS parts, no part should have to do more than this share of the work.
+  private static final double MAX_PART_SHARE = 0.25;
+
+  private static final FeatureSet INTERFERENCE_FEATURES =
+      FeatureSet.of(
+          CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+          CollectionFeature.SUPPORTS_ADD,
+          CollectionSize.SUPPORTS_MULTIPLE);
+
+  private final TestCollectionGenerator<E> generator;
+  private final SampleElements<E> samples;
+  private final FeatureSet features;
+
+  private SpliteratorTester(TestCollectionGenerator<E> generator, Set<Feature<?>> features) {
+    this.generator = requireNonNull(generator, "testCollectionGenerator");
+    this.samples = requireNonNull(generator.samples(), "samples");
+    this.features = FeatureSet.copyOf(requireNonNull(features, "features"));
+  }
+
+  static <E> Builder<E> builder() {
+    return new Builder<>();
+  }
+
+  static class Builder<E> {
+    private Builder() {}
+
+    private TestCollectionGenerator<E> testCollectionGenerator;
+    private Set<Feature<?>> features;
+
+    Builder<E> testCollectionGenerator(TestCollectionGenerator<E> testCollectionGenerator) {
+      this.testCollectionGenerator = testCollectionGenerator;
+      return this;
+    }
+
+    Builder<E> features(Set<Feature<?>> features) {
+      this.features = features;
+      return this;
+    }
+
+    SpliteratorTester<E> build() {
+      return new SpliteratorTester<>(testCollectionGenerator, features);
+    }
+  }
+
+  Stream<DynamicNode> dynamicTestsGraph() {
+    return lazyConcat(this::traversalTests, this::interferenceTests);
+  }
+
+  private Stream<DynamicNode> traversalTests() {
+    return extractConcreteSizes(features).stream()
+        .map(
+            collectionSize ->
+                dynamicContainer(
+                    "Spliterator on "
+                        + stringifyElements(newIterable(samples, collectionSize, false)),
+                    traversalTests(collectionSize)));
+  }
+
+  private Stream<DynamicTest> traversalTests(CollectionSize collectionSize) {
+    Stream.Builder<DynamicTest> tests = Stream.builder();
+    tests.add(
+        dynamicTest(
+            "forEachRemaining traverses every element",
+            () -> assertForEachRemainingTraversesEveryElement(collectionSize)));
+    tests.add(
+        dynamicTest(
+            "tryAdvance traverses every element",
+            () -> assertTryAdvanceTraversesEveryElement(collectionSize)));
+    tests.add(
+        dynamicTest(
+            "reports characteristics that hold", () -> assertCharacteristicsHold(collectionSize)));
+    tests.add(
+        dynamicTest(
+            "trySplit covers every element exactly once",
+            () -> assertSplitsCoverEveryElement(collectionSize)));
+    // Splitting only matters for parallelism when there's enough work to share, and needs distinct
+    // elements to make a collection of the given size.
+    if (collectionSize.compareTo(CollectionSize.SUPPORTS_LARGE) >= 0 && samples.isScalable()) {
+      tests.add(
+          dynamicTest(
+              "trySplit is balanced enough for parallel streams",
+              () -> assertSplitsAreBalanced(collectionSize)));
+    }
+    return tests.build();
+  }
+
+  private Stream<DynamicNode> interferenceTests() {
+    // Like the spliterators of java.util's collections, fail-fast spliterators are expected to
+    // bind to their collection late, at their first traversal, split or size query.
+    if (!features.containsAll(INTERFERENCE_FEATURES)) {
+      return Stream.empty();
+    }
+    return Stream.of(
+        dynamicTest(
+            "Spliterator sees elements added before it's first used", this::assertBindsLate),
+        dynamicTest(
+            "Spliterator fails fast on elements added after it's first used",
+            this::assertFailsFast));
+  }
+
+  private Collection<E> newCollection(CollectionSize collectionSize) {
+    return generator.create(newIterable(samples, collectionSize, /* nullInMiddle= */ false));
+  }
+
+  private void assertForEachRemainingTraversesEveryElement(CollectionSize collectionSize) {
+    Collection<E> collection = newCollection(collectionSize);
+    Spliterator<E> spliterator = collection.spliterator();
+    List<E> traversed = new ArrayList<>();
+
+    spliterator.forEachRemaining(traversed::add);
+
+    assertSameElements(collection, traversed, spliterator);
+    assertFalse(
+        spliterator.tryAdvance(element -> {}), "tryAdvance returned true after forEachRemaining");
+  }
+
+  private void assertTryAdvanceTraversesEveryElement(CollectionSize collectionSize) {
+    Collection<E> collection = newCollection(collectionSize);
+    Spliterator<E> spliterator = collection.spliterator();
+    List<E> traversed = new ArrayList<>();
+
+    boolean advanced = true;
+    while (advanced) {
+      advanced = spliterator.tryAdvance(traversed::add);
+    }
+
+    assertSameElements(collection, traversed, spliterator);
+  }
+
+  private void assertCharacteristicsHold(CollectionSize collectionSize) {
+    Collection<E> collection = newCollection(collectionSize);
+    Spliterator<E> spliterator = collection.spliterator();
+
+    if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+      assertEquals(collection.size(), spliterator.estimateSize(), "estimateSize when SIZED");
+      assertEquals(
+          collection.size(), spliterator.getExactSizeIfKnown(), "getExactSizeIfKnown when SIZED");
+    } else {
+      assertEquals(-1, spliterator.getExactSizeIfKnown(), "getExactSizeIfKnown when not SIZED");
+      assertFalse(
+          spliterator.hasCharacteristics(Spliterator.SUBSIZED), "Reported SUBSIZED without SIZED");
+    }
+    assertFalse(
+        spliterator.hasCharacteristics(Spliterator.CONCURRENT | Spliterator.IMMUTABLE),
+        "Reported both CONCURRENT and IMMUTABLE");
+    if (spliterator.hasCharacteristics(Spliterator.SORTED)) {
+      assertTrue(
+          spliterator.hasCharacteristics(Spliterator.ORDERED), "Reported SORTED without ORDERED");
+      spliterator.getComparator();
+    } else {
+      assertThrows(
+          IllegalStateException.class,
+          spliterator::getComparator,
+          "getComparator didn't throw IllegalStateException when not SORTED");
+    }
+    // The JDK's empty spliterators report neither ORDERED nor DISTINCT, which is harmless since
+    // there are no elements to order or to duplicate.
+    if (!collection.isEmpty()
+        && (collection instanceof List || features.contains(CollectionFeature.KNOWN_ORDER))) {
+      assertTrue(
+          spliterator.hasCharacteristics(Spliterator.ORDERED),
+          "Didn't report ORDERED for a collection with a known order");
+    }
+    if (!collection.isEmpty() && collection instanceof Set) {
+      assertTrue(
+          spliterator.hasCharacteristics(Spliterator.DISTINCT), "Didn't report DISTINCT for a set");
+    }
+
+    List<E> traversed = new ArrayList<>();
+    spliterator.forEachRemaining(traversed::add);
+    if (spliterator.hasCharacteristics(Spliterator.DISTINCT)) {
+      assertEquals(
+          traversed.size(),
+          new HashSet<>(traversed).size(),
+          () -> "Reported DISTINCT, but traversed duplicates: " + stringifyElements(traversed));
+    }
+    if (spliterator.hasCharacteristics(Spliterator.NONNULL)) {
+      assertFalse(traversed.contains(null), "Reported NONNULL, but traversed null");
+    }
+  }
+
+  private void assertSplitsCoverEveryElement(CollectionSize collectionSize) {
+    Collection<E> collection = newCollection(collectionSize);
+    Spliterator<E> spliterator = collection.spliterator();
+
+    // Splits as far as the spliterator allows, down to single elements. Even a spliterator that
+    // splits off one element at a time is done within size() levels, so going deeper only lets a
+    // spliterator whose splits don't shrink it split forever.
+    List<E> traversed = new ArrayList<>();
+    for (Part<E> part : split(spliterator, 1, collection.size() + 1)) {
+      part.spliterator.forEachRemaining(traversed::add);
+    }
+
+    assertSameElements(collection, traversed, spliterator);
+  }
+
+  private void assertSplitsAreBalanced(CollectionSize collectionSize) {
+    Collection<E> collection = newCollection(collectionSize);
+    int size = collection.size();
+
+    List<Part<E>> parts =
+        split(collection.spliterator(), Math.max(1, size / TARGET_PARTS), MAX_SPLIT_DEPTH + 1);
+
+    int maxDepth = 0;
+    long largestPart = 0;
+    for (Part<E> part : parts) {
+      maxDepth = Math.max(maxDepth, part.depth);
+      largestPart = Math.max(largestPart, count(part.spliterator));
+    }
+    double largestShare = (double) largestPart / size;
+    if (maxDepth > MAX_SPLIT_DEPTH || largestShare > MAX_PART_SHARE) {
+      fail(
+          String.format(
+              "Expected splitting %,d elements into about %s parts to take at most %s levels of"
+                  + " splits, leaving no part with more than %.0f%% of the elements, but it took"
+                  + " %s%s levels, and the largest part had %,d elements (%.1f%%). A parallel"
+                  + " stream over this collection can't share its work evenly.",
+              size,
+              TARGET_PARTS,
+              MAX_SPLIT_DEPTH,
+              MAX_PART_SHARE * 100,
+              maxDepth > MAX_SPLIT_DEPTH ? "more than " : "",
+              Math.min(maxDepth, MAX_SPLIT_DEPTH),
+              largestPart,
+              largestShare * 100));
+    }
+  }
+
+  private void assertBindsLate() {
+    Collection<E> collection = newCollection(CollectionSize.SUPPORTS_MULTIPLE);
+    Spliterator<E> spliterator = collection.spliterator();
+
+    collection.add(samples.e3());
+    List<E> traversed = new ArrayList<>();
+    spliterator.forEachRemaining(traversed::add);
+
+    assertSameElements(collection, traversed, spliterator);
+  }
+
+  private void assertFailsFast() {
+    Collection<E> collection = newCollection(CollectionSize.SUPPORTS_MULTIPLE);
+    Spliterator<E> spliterator = collection.spliterator();
+    assertTrue(spliterator.tryAdvance(element -> {}), "tryAdvance returned false");
+
+    collection.add(samples.e3());
+
+    assertThrows(
+        ConcurrentModificationException.class,
+        () -> spliterator.forEachRemaining(element -> {}),
+        "forEachRemaining didn't throw ConcurrentModificationException");
+  }
+
+  /**
+   * Splits {@code spliterator} until each part has an estimated size of at most {@code targetSize},
+   * can't be split further, or is {@code maxDepth} splits deep, and returns the parts in encounter
+   * order. If a spliterator is SUBSIZED, checks that the sizes of its parts add up.
+   */
+  private static <E> List<Part<E>> split(
+      Spliterator<E> spliterator, long targetSize, int maxDepth) {
+    List<Part<E>> parts = new ArrayList<>();
+    Deque<Part<E>> toSplit = new ArrayDeque<>();
+    toSplit.push(new Part<>(spliterator, 0));
+    while (!toSplit.isEmpty()) {
+      Part<E> part = toSplit.pop();
+      long sizeBeforeSplit = part.spliterator.estimateSize();
+      Spliterator<E> prefix =
+          sizeBeforeSplit > targetSize && part.depth < maxDepth
+              ? part.spliterator.trySplit()
+              : null;
+      if (prefix == null) {
+        parts.add(part);
+        continue;
+      }
+      if (part.spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+        assertTrue(
+            prefix.hasCharacteristics(Spliterator.SIZED)
+                && part.spliterator.hasCharacteristics(Spliterator.SIZED),
+            "Split a SUBSIZED spliterator into parts that aren't SIZED");
+        assertEquals(
+            sizeBeforeSplit,
+            prefix.estimateSize() + part.spliterator.estimateSize(),
+            "Sum of the sizes of the parts of a SUBSIZED spliterator");
+      }
+      pushChildren(toSplit, part, prefix);
+    }
+    return parts;
+  }
+
+  private static <E> void pushChildren(
+      Deque<Part<E>> toSplit, Part<E> parent, Spliterator<E> prefix) {
+    // The prefix covers the elements before the rest, so it's split and traversed first.
+    toSplit.push(new Part<>(parent.spliterator, parent.depth + 1));
+    toSplit.push(new Part<>(prefix, parent.depth + 1));
+  }
+
+  private static long count(Spliterator<?> spliterator) {
+    long[] count = new long[1];
+    spliterator.forEachRemaining(element -> count[0]++);
+    return count[0];
+  }
+
+  private static <E> void assertSameElements(
+      Collection<E> expected, List<E> traversed, Spliterator<E> spliterator) {
+    if (spliterator.hasCharacteristics(Spliterator.ORDERED)) {
+      assertIterableEquals(
+          expected, traversed, "Traversed elements in a different order than iteration");
+    } else {
+      assertEquals(
+          frequencies(expected),
+          frequencies(traversed),
+          () ->
+              "Traversed "
+                  + stringifyElements(traversed)
+                  + ", but the collection has "
+                  + stringifyElements(expected));
+    }
+  }
+
+  private static Map<Object, Integer> frequencies(Iterable<?> elements) {
+    Map<Object, Integer> frequencies = new HashMap<>();
+    for (Object element : elements) {
+      frequencies.merge(element, 1, Integer::sum);
+    }
+    return frequencies;
+  }
+
+  private static final class Part<E> {
+    final Spliterator<E> spliterator;
+    final int depth;
+
+    Part(Spliterator<E> spliterator, int depth) {
+      this.spliterator = spliterator;
+      this.depth = depth;
+    }
+  }
+}
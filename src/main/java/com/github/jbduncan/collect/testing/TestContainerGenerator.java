@@ -24,4 +24,33 @@ public interface TestContainerGenerator<T, E> {
 
   // TODO: Decide if we need this method
   Iterable<E> order(List<E> insertionOrder);
+
+  /**
+   * Releases any resources, such as native or off-heap memory, held by a container that {@link
+   * #create} returned. It's called once for each container after the dynamic test that used it has
+   * finished, even if the test failed.
+   *
+   * <p>By default, the container is closed if it's {@link AutoCloseable}, and left to the garbage
+   * collector otherwise.
+   *
+   * <p>So far, only the tests of {@link ListContract#add()} and {@link ListContract#addWithIndex()}
+   * dispose of their containers.
+   */
+  default void dispose(T container) throws Exception {
+    if (container instanceof AutoCloseable) {
+      ((AutoCloseable) container).close();
+    }
+  }
+
+  /**
+   * Returns how many native or off-heap resources, such as bytes of memory or file handles, are
+   * held by the containers that this generator has created and not yet disposed. A dynamic test
+   * fails if this is higher once the containers it used have been disposed than it was before the
+   * test started.
+   *
+   * <p>By default, this returns 0, so leaks aren't checked for.
+   */
+  default long outstandingResources() {
+    return 0;
+  }
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.List;
+
+/**
+ * The primitive API of an {@code long} list under test, as used by {@link LongListContract}. This
+ * is usually a thin adapter that forwards each method to the same-named method of your own list
+ * type, so that the contract can call it without boxing.
+ *
+ * <p>The optional operations throw {@code UnsupportedOperationException} by default; they're only
+ * called if {@link LongListContract#features()} says that they're supported.
+ */
+public interface TestLongList {
+  int size();
+
+  long getLong(int index);
+
+  boolean contains(long element);
+
+  int indexOf(long element);
+
+  /** Returns a {@code List<Long>} view of this list, which reads and writes through to it. */
+  List<Long> boxed();
+
+  /** Optional; see {@link CollectionFeature#SUPPORTS_ADD}. */
+  default boolean add(long element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Optional; see {@link ListFeature#SUPPORTS_ADD_WITH_INDEX}. */
+  default void add(int index, long element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Optional; see {@link ListFeature#SUPPORTS_SET}. */
+  default long set(int index, long element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /** Optional; see {@link ListFeature#SUPPORTS_REMOVE_WITH_INDEX}. */
+  default long removeLong(int index) {
+    throw new UnsupportedOperationException();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestReporter;
+
+/**
+ * {@code ThroughputScalabilityContract} is a test interface that measures how the throughput of a
+ * thread-safe collection grows as more threads use it at once.
+ *
+ * <p>A collection of 1,000 elements from {@link #generator()} is shared by 1, 2, 4 and more threads
+ * in turn, as given by {@link #scalabilityThreadCounts()}, each running a mix of {@code
+ * contains(Object)}, {@code add(E)} and {@code remove(Object)} for {@link
+ * #scalabilityMeasurementDuration()}, after a warmup at every thread count. The operations per
+ * second, speedup and scaling efficiency at each thread count are published through JUnit's {@link
+ * TestReporter}.
+ *
+ * <p>By default, nothing is asserted. Override {@link #minimumSpeedup()} to fail when the largest
+ * thread count isn't that many times faster than a single thread, such as when a change adds a
+ * global lock.
+ *
+ * <p>The test only runs if {@link #features()} contains {@link CollectionFeature#THREAD_SAFE} and
+ * the generator's samples are {@linkplain SampleElements#isScalable() scalable}. Writes only use
+ * {@code add(E)} and {@code remove(Object)} if {@link CollectionFeature#SUPPORTS_ADD} and {@link
+ * CollectionFeature#SUPPORTS_REMOVE} are present.
+ */
+public interface ThroughputScalabilityContract<E> extends CollectionContract<E> {
+  /**
+   * Returns the numbers of threads to measure throughput with, starting with 1. By default, these
+   * are the powers of two up to the number of available processors, and at least 1 and 2.
+   *
+   * @return the thread counts, in increasing order
+   */
+  default List<Integer> scalabilityThreadCounts() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    List<Integer> threadCounts = new ArrayList<>();
+    for (int threads = 1; threads <= Math.max(2, processors); threads *= 2) {
+      threadCounts.add(threads);
+    }
+    return Collections.unmodifiableList(threadCounts);
+  }
+
+  /**
+   * Returns the percentage of operations that are reads. By default, this is 90.
+   *
+   * @return a percentage between 0 and 100
+   */
+  default int scalabilityReadPercentage() {
+    return 90;
+  }
+
+  /**
+   * Returns how many times more throughput the largest thread count must have than a single thread.
+   * By default, this is 0, meaning that throughput is only reported. It's only checked if there are
+   * at least as many available processors as threads.
+   *
+   * @return the minimum speedup, or 0 to not check it
+   */
+  default double minimumSpeedup() {
+    return 0;
+  }
+
+  /**
+   * Returns how long the workload runs for at each thread count. By default, this is 200
+   * milliseconds.
+   *
+   * @return the duration
+   */
+  default Duration scalabilityMeasurementDuration() {
+    return Duration.ofMillis(200);
+  }
+
+  @TestFactory
+  default Stream<DynamicTest> throughputScalability() {
+    return ContractMetrics.measure(
+        getClass(),
+        "throughputScalability",
+        ScalabilityTester.<E>builder()
+            .testCollectionGenerator(generator())
+            .features(features())
+            .threadCounts(scalabilityThreadCounts())
+            .readPercentage(scalabilityReadPercentage())
+            .minimumSpeedup(minimumSpeedup())
+            .duration(scalabilityMeasurementDuration())
+            .reporter(ContractMetrics.reporter())
+            .build()
+            .dynamicTests());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The kind of threads that concurrent contracts, such as {@link ConcurrentCollectionContract}, run
+ * their workers on.
+ */
+// Creating threads to run workers on is the point of this enum.
+@SuppressWarnings("PMD.DoNotUseThreads")
+public enum WorkerThreadMode {
+  /** Workers run on a fixed pool of ordinary platform threads. */
+  PLATFORM,
+  /**
+   * Workers each run on a new virtual thread, on Java 21 and later, so that thousands of them can
+   * run at once. Collections that block while holding a monitor can pin virtual threads to their
+   * carrier threads and starve the others.
+   *
+   * <p>On earlier JDKs, this mode behaves exactly like {@link #PLATFORM}.
+   */
+  VIRTUAL;
+
+  /**
+   * Returns {@code true} if workers really run on threads of this kind on the running JDK, rather
+   * than falling back to platform threads.
+   */
+  public boolean isAvailable() {
+    return this == PLATFORM || VirtualThreads.EXECUTOR_FACTORY.isPresent();
+  }
+
+  /**
+   * Returns a new executor that runs tasks on threads of this kind. {@code platformThreads} is the
+   * number of threads in the pool when platform threads are used, including as a fallback; with
+   * virtual threads, each task gets its own.
+   */
+  ExecutorService newExecutor(int platformThreads) {
+    if (this == VIRTUAL && VirtualThreads.EXECUTOR_FACTORY.isPresent()) {
+      return VirtualThreads.newExecutor();
+    }
+    return Executors.newFixedThreadPool(platformThreads);
+  }
+
+  @Override
+  public String toString() {
+    if (this == PLATFORM) {
+      return "platform threads";
+    }
+    return isAvailable() ? "virtual threads" : "platform threads (virtual threads are unavailable)";
+  }
+
+  // The library is compiled for Java 8, so the virtual thread API is looked up reflectively.
+  private static final class VirtualThreads {
+    static final Optional<Method> EXECUTOR_FACTORY = findExecutorFactory();
+
+    private static Optional<Method> findExecutorFactory() {
+      try {
+        Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        // On Java 19 and 20, virtual threads are a preview feature, and this throws unless preview
+        // features are enabled.
+        ((ExecutorService) factory.invoke(null)).shutdown();
+        return Optional.of(factory);
+      } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+        return Optional.empty();
+      }
+    }
+
+    static ExecutorService newExecutor() {
+      try {
+        return (ExecutorService) EXECUTOR_FACTORY.get().invoke(null);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new IllegalStateException("Virtual threads were available, but now aren't", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+class AddLatencyTesterTests {
+  private static final int FILL_SIZE = 10_000;
+  private static final int PAUSE_AT_SIZE = 5_000;
+
+  @Test
+  void reportsWhereInTheFillTheCollectionPaused() {
+    List<String> reported = new ArrayList<>();
+    DynamicTest test =
+        AddLatencyTester.<String>builder()
+            .testCollectionGenerator((TestStringListGenerator) PausingList::new)
+            .features(Feature.allFeaturesRecursively(CollectionFeature.SUPPORTS_ADD))
+            .budget(
+                LatencyBudget.of(Duration.ofMillis(1), Duration.ofMillis(1), Duration.ofMillis(1)))
+            .fillSize(FILL_SIZE)
+            .reporter(entries -> reported.add(entries.toString()))
+            .build()
+            .dynamicTests()
+            .findFirst()
+            .get();
+
+    AssertionFailedError error =
+        assertThrows(AssertionFailedError.class, () -> test.getExecutable().execute());
+
+    assertThat(error).hasMessageThat().contains("max was ");
+    assertThat(error).hasMessageThat().doesNotContain("p99 was ");
+    assertThat(error).hasMessageThat().contains("at size 5,000");
+    assertThat(reported).isNotEmpty();
+  }
+
+  @Test
+  void skipsCollectionsThatDoNotSupportAdd() {
+    assertThat(
+            AddLatencyTester.<String>builder()
+                .testCollectionGenerator((TestStringListGenerator) PausingList::new)
+                .features(Feature.allFeaturesRecursively(CollectionFeature.SUPPORTS_REMOVE))
+                .budget(LatencyBudget.of(Duration.ZERO, Duration.ZERO, Duration.ZERO))
+                .fillSize(FILL_SIZE)
+                .reporter(entries -> {})
+                .build()
+                .dynamicTests()
+                .count())
+        .isEqualTo(0);
+  }
+
+  @Test
+  void budgetRejectsPercentilesOutOfOrder() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> LatencyBudget.of(Duration.ofMillis(2), Duration.ofMillis(1), Duration.ofMillis(3)));
+  }
+
+  /** A list that pauses for 5 milliseconds whenever it reaches {@link #PAUSE_AT_SIZE} elements. */
+  private static final class PausingList extends ArrayList<String> {
+    private static final long serialVersionUID = 0;
+
+    PausingList(Iterable<String> elements) {
+      elements.forEach(super::add);
+    }
+
+    @Override
+    public boolean add(String element) {
+      if (size() == PAUSE_AT_SIZE) {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+      }
+      return super.add(element);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AllocationMeterTests {
+  private AllocationMeter meter;
+
+  @BeforeEach
+  void setUp() {
+    Optional<AllocationMeter> maybeMeter = AllocationMeter.create();
+    assumeTrue(maybeMeter.isPresent(), "This JVM can't measure the bytes allocated by a thread");
+    meter = maybeMeter.get();
+  }
+
+  @Test
+  void measuresAllocations() {
+    Object[] sink = new Object[1];
+
+    long allocatedBytes = meter.bytesAllocatedBy(() -> sink[0] = new byte[1_024]);
+
+    assertThat(allocatedBytes).isAtLeast(1_024L);
+  }
+
+  @Test
+  void doesNotCountItsOwnOverhead() {
+    assertThat(meter.bytesAllocatedBy(() -> {})).isEqualTo(0L);
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static java.util.stream.Collectors.toCollection;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Tag;
+
+// Measures the heap after GCs, which depends on the JVM, so it's only run by the performanceTest
+// task, along with its baseline.
+@Tag("performance")
+class ArrayListFootprintTests implements CollectionFootprintContract<String> {
+  @Override
+  public TestListGenerator<String> generator() {
+    return (TestStringListGenerator)
+        elements -> stream(elements).collect(toCollection(ArrayList::new));
+  }
+
+  @Override
+  public double bytesPerElementBudget() {
+    // Enough for 8-byte references with 50% spare capacity.
+    return 12;
+  }
+}
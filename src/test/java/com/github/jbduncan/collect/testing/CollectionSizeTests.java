@@ -36,6 +36,72 @@ class CollectionSizeTests {
     assertThat(CollectionSize.SUPPORTS_MULTIPLE.size()).isAtLeast(3);
   }
 
+  @Test
+  void sizeForSupportsLarge() {
+    assertThat(CollectionSize.SUPPORTS_LARGE.size())
+        .isGreaterThan(CollectionSize.SUPPORTS_MULTIPLE.size());
+  }
+
+  @Test
+  void sizeForSupportsHuge() {
+    assertThat(CollectionSize.SUPPORTS_HUGE.size())
+        .isGreaterThan(CollectionSize.SUPPORTS_LARGE.size());
+  }
+
+  @Test
+  void sizeForSupportsLargeCanBeOverridden() {
+    String previous = System.setProperty(CollectionSize.LARGE_SIZE_PROPERTY, " 12 ");
+    try {
+      assertThat(CollectionSize.SUPPORTS_LARGE.size()).isEqualTo(12);
+    } finally {
+      restore(CollectionSize.LARGE_SIZE_PROPERTY, previous);
+    }
+  }
+
+  @Test
+  void sizeForSupportsHugeCanBeOverridden() {
+    String previous = System.setProperty(CollectionSize.HUGE_SIZE_PROPERTY, "2000");
+    try {
+      assertThat(CollectionSize.SUPPORTS_HUGE.size()).isEqualTo(2_000);
+    } finally {
+      restore(CollectionSize.HUGE_SIZE_PROPERTY, previous);
+    }
+  }
+
+  @Test
+  void sizeForMalformedPropertyNamesTheProperty() {
+    String previous = System.setProperty(CollectionSize.HUGE_SIZE_PROPERTY, "a million");
+    try {
+      IllegalArgumentException exception =
+          assertThrows(IllegalArgumentException.class, CollectionSize.SUPPORTS_HUGE::size);
+      assertThat(exception)
+          .hasMessageThat()
+          .isEqualTo(
+              "System property 'jupiter.collection.testers.size.huge' is 'a million', but it must"
+                  + " be an integer.");
+      // The enum itself is still usable.
+      assertThat(CollectionSize.SUPPORTS_LARGE.size()).isGreaterThan(0);
+    } finally {
+      restore(CollectionSize.HUGE_SIZE_PROPERTY, previous);
+    }
+  }
+
+  @Test
+  void sizeForNegativePropertyNamesTheProperty() {
+    String previous = System.setProperty(CollectionSize.LARGE_SIZE_PROPERTY, "-1");
+    try {
+      IllegalArgumentException exception =
+          assertThrows(IllegalArgumentException.class, CollectionSize.SUPPORTS_LARGE::size);
+      assertThat(exception)
+          .hasMessageThat()
+          .isEqualTo(
+              "System property 'jupiter.collection.testers.size.large' is '-1', but it cannot be"
+                  + " less than 0.");
+    } finally {
+      restore(CollectionSize.LARGE_SIZE_PROPERTY, previous);
+    }
+  }
+
   @Test
   void sizeForSupportsAnySize() {
     IllegalStateException exception =
@@ -60,6 +126,16 @@ class CollectionSizeTests {
     assertThat(CollectionSize.SUPPORTS_MULTIPLE.impliedFeatures()).isEmpty();
   }
 
+  @Test
+  void impliedFeaturesForSupportsLarge() {
+    assertThat(CollectionSize.SUPPORTS_LARGE.impliedFeatures()).isEmpty();
+  }
+
+  @Test
+  void impliedFeaturesForSupportsHuge() {
+    assertThat(CollectionSize.SUPPORTS_HUGE.impliedFeatures()).isEmpty();
+  }
+
   @Test
   void impliedFeaturesForSupportsAnySize() {
     assertThat(CollectionSize.SUPPORTS_ANY_SIZE.impliedFeatures())
@@ -68,4 +144,12 @@ class CollectionSizeTests {
             CollectionSize.SUPPORTS_ONE,
             CollectionSize.SUPPORTS_MULTIPLE);
   }
+
+  static void restore(String property, String previous) {
+    if (previous == null) {
+      System.clearProperty(property);
+    } else {
+      System.setProperty(property, previous);
+    }
+  }
 }
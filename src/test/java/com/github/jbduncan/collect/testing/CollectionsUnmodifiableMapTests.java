@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+class CollectionsUnmodifiableMapTests implements MapContract<String, String> {
+  @Override
+  public TestMapGenerator<String, String> generator() {
+    return (TestStringMapGenerator)
+        entries -> {
+          Map<String, String> map = new HashMap<>();
+          entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+          return Collections.unmodifiableMap(map);
+        };
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        MapFeature.ALLOWS_NULL_KEY_QUERIES,
+        MapFeature.ALLOWS_NULL_VALUE_QUERIES,
+        CollectionSize.SUPPORTS_ANY_SIZE);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+class CollidingElementTests {
+  @Test
+  void collidingSampleElementsShareTheGivenNumberOfHashCodes() {
+    SampleElements<CollidingElement> samples = SampleElements.colliding(3);
+
+    assertThat(samples.isScalable()).isTrue();
+    assertThat(samples.element(0).hashCode()).isEqualTo(0);
+    assertThat(samples.element(4).hashCode()).isEqualTo(1);
+    assertThat(samples.element(300).hashCode()).isEqualTo(0);
+    assertThat(samples.element(300)).isNotEqualTo(samples.element(0));
+  }
+
+  @Test
+  void comparableCollidingElementsAreOrderedByValue() {
+    SampleElements<ComparableCollidingElement> samples = SampleElements.comparableColliding(1);
+
+    ElementOperationCounts counts =
+        ElementOperationCounts.countDuring(
+            () -> assertThat(samples.element(7)).isGreaterThan(samples.element(2)));
+
+    assertThat(samples.element(7).hashCode()).isEqualTo(samples.element(2).hashCode());
+    assertThat(counts.compareToCalls()).isAtLeast(1L);
+  }
+
+  @Test
+  void collidingElementsWithEqualValuesAreEqual() {
+    assertThat(CollidingElement.of(5, 0)).isEqualTo(CollidingElement.of(5, 0));
+    assertThat(ComparableCollidingElement.of(5, 0)).isEqualTo(ComparableCollidingElement.of(5, 0));
+  }
+
+  @Test
+  void collidingRejectsFewerThanOneHashCode() {
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> SampleElements.colliding(0));
+    assertThat(exception).hasMessageThat().isEqualTo("'distinctHashCodes' is 0, but must be >= 1");
+  }
+
+  @Test
+  void hashCollisionTesterCatchesLinearLookups() {
+    List<Object> list = new ArrayList<>();
+    HashCollisionTester tester =
+        HashCollisionTester.builder()
+            .containerFactory(
+                () -> {
+                  list.clear();
+                  return new HashCollisionTester.HashedContainer() {
+                    @Override
+                    public void insert(Object element) {
+                      list.add(element);
+                    }
+
+                    @Override
+                    public boolean lookup(Object element) {
+                      return list.contains(element);
+                    }
+                  };
+                })
+            .insertName("add(E)")
+            .lookupName("contains(Object)")
+            .sizes(HashCollisionTester.DEFAULT_SIZES)
+            .comparableBound(HashCollisionTester.DEFAULT_COMPARABLE_BOUND)
+            .build();
+
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () ->
+                tester
+                    .dynamicTests()
+                    .map(DynamicContainer.class::cast)
+                    .flatMap(DynamicContainer::getChildren)
+                    .filter(test -> test.getDisplayName().startsWith("contains"))
+                    .map(DynamicTest.class::cast)
+                    .findFirst()
+                    .get()
+                    .getExecutable()
+                    .execute());
+    assertThat(error)
+        .hasMessageThat()
+        .contains("contains(Object) of #256 on 256 elements made 256 comparisons");
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class ComplexityFitterTests {
+  private static final double[] SIZES = {64, 128, 256, 512, 1_024, 2_048, 4_096, 8_192};
+
+  @ParameterizedTest
+  @EnumSource(ComplexityClass.class)
+  void fitsExactMeasurementsToTheirOwnClass(ComplexityClass complexityClass) {
+    double[] measurements = measurements(n -> 100 + 3 * complexityClass.growth(n));
+
+    assertThat(ComplexityFitter.fit(SIZES, measurements).complexityClass())
+        .isEqualTo(complexityClass);
+  }
+
+  @Test
+  void prefersSlowerGrowingClassWhenNoiseMakesFitsNearlyTie() {
+    // Constant, give or take a few percent.
+    double[] measurements = {100, 103, 98, 101, 97, 104, 99, 102};
+
+    assertThat(ComplexityFitter.fit(SIZES, measurements).complexityClass())
+        .isEqualTo(ComplexityClass.CONSTANT);
+  }
+
+  @Test
+  void detectsQuadraticGrowthHiddenBehindLinearTerm() {
+    double[] measurements = measurements(n -> 50 + 10 * n + n * n / 64);
+
+    assertThat(ComplexityFitter.fit(SIZES, measurements).complexityClass())
+        .isEqualTo(ComplexityClass.QUADRATIC);
+  }
+
+  @Test
+  void rejectsMismatchedLengths() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ComplexityFitter.fit(new double[] {1, 2, 3}, new double[] {1, 2}));
+    assertThat(exception)
+        .hasMessageThat()
+        .isEqualTo("'sizes' has 3 values, but 'measurements' has 2");
+  }
+
+  @Test
+  void rejectsTooFewDistinctSizes() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> ComplexityFitter.fit(new double[] {8, 8, 16}, new double[] {1, 1, 2}));
+    assertThat(exception)
+        .hasMessageThat()
+        .isEqualTo("'sizes' must have at least 3 distinct values, but was [8.0, 8.0, 16.0]");
+  }
+
+  private static double[] measurements(DoubleUnaryOperator cost) {
+    return Arrays.stream(SIZES).map(cost).toArray();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyTesterTests {
+  @Test
+  void failsWithSeedInsteadOfHangingWhenCollectionDeadlocks() {
+    DynamicTest test =
+        ConcurrencyTester.<String>builder()
+            .testCollectionGenerator((TestStringListGenerator) elements -> new DeadlockingList())
+            .features(
+                Feature.allFeaturesRecursively(
+                    CollectionFeature.SUPPORTS_ADD,
+                    CollectionFeature.THREAD_SAFE,
+                    CollectionSize.SUPPORTS_ANY_SIZE))
+            .threads(2)
+            .operationsPerThread(2)
+            .duration(Duration.ofSeconds(10))
+            .timeout(Duration.ofMillis(100))
+            .build()
+            .dynamicTests()
+            .findFirst()
+            .get();
+
+    AssertionError error = assertThrows(AssertionError.class, () -> test.getExecutable().execute());
+
+    assertThat(error).hasMessageThat().contains("may have deadlocked (random seed ");
+  }
+
+  /** A list whose {@code add} blocks until the thread calling it is interrupted. */
+  private static final class DeadlockingList extends AbstractList<String> {
+    private final CountDownLatch never = new CountDownLatch(1);
+    private final List<String> elements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void add(int index, String element) {
+      try {
+        never.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while deadlocked", e);
+      }
+      elements.add(index, element);
+    }
+
+    @Override
+    public String get(int index) {
+      return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static java.util.stream.Collectors.toCollection;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ConcurrentHashMapKeySetTests implements ConcurrentCollectionContract<String> {
+  @Override
+  public TestSetGenerator<String> generator() {
+    return new TestSetGenerator<String>() {
+      @Override
+      public SampleElements<String> samples() {
+        return SampleElements.strings();
+      }
+
+      @Override
+      public Set<String> create(Iterable<String> elements) {
+        return stream(elements).collect(toCollection(ConcurrentHashMap::newKeySet));
+      }
+
+      @Override
+      public Iterable<String> order(List<String> insertionOrder) {
+        return insertionOrder;
+      }
+    };
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        CollectionFeature.GENERAL_PURPOSE, CollectionFeature.THREAD_SAFE);
+  }
+
+  @Override
+  public WorkerThreadMode workerThreadMode() {
+    return WorkerThreadMode.VIRTUAL;
+  }
+
+  @Override
+  public int concurrentActors() {
+    return 10_000;
+  }
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.github.jbduncan.collect.testing.ContractEvents.Phase;
+import com.github.jbduncan.collect.testing.ContractEvents.Recorder;
+import com.github.jbduncan.collect.testing.ContractEvents.Span;
+import com.github.jbduncan.collect.testing.ContractEvents.Tracker;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ContractEventsTests {
+  private static final String TEST_EVENT = "com.github.jbduncan.collect.testing.ContractTest";
+  private static final String PHASE_EVENT = "com.github.jbduncan.collect.testing.ContractTestPhase";
+  private static final FeatureSet FEATURES = FeatureSet.of(CollectionFeature.SUPPORTS_ADD);
+
+  @Test
+  void recordsEachPhaseUntilTheNextOneBeginsOrTheTestFinishes() {
+    LoggingRecorder recorder = new LoggingRecorder();
+    Tracker tracker = new Tracker(recorder, /* hasListeners= */ false);
+
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "test"));
+    tracker.fixtureCreation(CollectionSize.SUPPORTS_ONE);
+    tracker.operation("List.add(E)", FEATURES);
+    tracker.assertion();
+    tracker.testFinished();
+
+    assertThat(recorder.log)
+        .containsExactly(
+            "begin test",
+            "begin fixture creation",
+            "end fixture creation of factory > test",
+            "begin operation",
+            "end operation of factory > test",
+            "begin assertion",
+            "end assertion of factory > test",
+            "end test factory > test")
+        .inOrder();
+    assertThat(tracker.runningTest().isPresent()).isFalse();
+  }
+
+  @Test
+  void endsPhaseOnlyOnce() {
+    LoggingRecorder recorder = new LoggingRecorder();
+    Tracker tracker = new Tracker(recorder, /* hasListeners= */ false);
+
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "test"));
+    tracker.fixtureCreation(CollectionSize.SUPPORTS_ONE);
+    tracker.endPhase();
+    tracker.testFinished();
+
+    assertThat(recorder.log)
+        .containsExactly(
+            "begin test",
+            "begin fixture creation",
+            "end fixture creation of factory > test",
+            "end test factory > test")
+        .inOrder();
+  }
+
+  @Test
+  void restoresOuterTestWhenNestedTestFinishes() {
+    LoggingRecorder recorder = new LoggingRecorder();
+    Tracker tracker = new Tracker(recorder, /* hasListeners= */ false);
+
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "outer"));
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "inner"));
+    tracker.testFinished();
+    tracker.assertion();
+
+    assertThat(tracker.runningTest().get().test()).isEqualTo("factory > outer");
+    tracker.testFinished();
+    assertThat(recorder.log)
+        .containsExactly(
+            "begin test",
+            "begin test",
+            "end test factory > inner",
+            "begin assertion",
+            "end assertion of factory > outer",
+            "end test factory > outer")
+        .inOrder();
+    assertThat(tracker.runningTest().isPresent()).isFalse();
+  }
+
+  @Test
+  void doesNothingWithoutRecorderOrListeners() {
+    Tracker tracker = new Tracker(ContractEvents.NO_RECORDER, /* hasListeners= */ false);
+
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "test"));
+    tracker.fixtureCreation(CollectionSize.SUPPORTS_ONE);
+    tracker.operation("List.add(E)", FEATURES);
+
+    assertThat(tracker.runningTest().isPresent()).isFalse();
+    tracker.testFinished();
+  }
+
+  @Test
+  void tracksTestsWithoutRecorderForListeners() {
+    Tracker tracker = new Tracker(ContractEvents.NO_RECORDER, /* hasListeners= */ true);
+
+    tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "test"));
+    tracker.operation("List.add(E)", FEATURES);
+
+    assertThat(tracker.runningTest().get().operation()).isEqualTo("List.add(E)");
+    tracker.testFinished();
+  }
+
+  @Test
+  void recordsJavaFlightRecorderEvents(@TempDir Path directory) throws Exception {
+    Recorder recorder = ContractEvents.loadRecorder();
+    assumeTrue(
+        recorder != ContractEvents.NO_RECORDER,
+        "The JFR events weren't built, or this JVM doesn't have Java Flight Recorder");
+    Tracker tracker = new Tracker(recorder, /* hasListeners= */ false);
+    Path file = directory.resolve("events.jfr");
+
+    try (JfrRecording recording = JfrRecording.start(TEST_EVENT, PHASE_EVENT)) {
+      tracker.testStarted(ContractEventsTests.class, Arrays.asList("factory", "test"));
+      tracker.fixtureCreation(CollectionSize.SUPPORTS_ONE);
+      tracker.operation("List.add(E)", FEATURES);
+      tracker.testFinished();
+      recording.dump(file);
+    }
+
+    List<Map<String, Object>> events = JfrRecording.readEvents(file, "test", "phase", "operation");
+    assertThat(events)
+        .containsExactly(
+            // The operation has begun by the time that the fixture creation ends and is recorded.
+            event(PHASE_EVENT, "factory > test", "fixture creation", "List.add(E)"),
+            event(PHASE_EVENT, "factory > test", "operation", "List.add(E)"),
+            event(TEST_EVENT, "factory > test", null, "List.add(E)"));
+  }
+
+  private static Map<String, Object> event(
+      String name, String test, String phase, String operation) {
+    Map<String, Object> result = new TreeMap<>();
+    result.put("name", name);
+    result.put("test", test);
+    if (phase != null) {
+      result.put("phase", phase);
+    }
+    if (operation != null) {
+      result.put("operation", operation);
+    }
+    return result;
+  }
+
+  /** Logs the spans that it begins and ends. */
+  private static final class LoggingRecorder implements Recorder {
+    final List<String> log = new ArrayList<>();
+
+    @Override
+    public Span beginTest() {
+      log.add("begin test");
+      return test -> log.add("end test " + test.test());
+    }
+
+    @Override
+    public Span beginPhase(Phase phase) {
+      log.add("begin " + phase);
+      return test -> log.add("end " + phase + " of " + test.test());
+    }
+  }
+
+  /**
+   * A Java Flight Recorder recording, used reflectively, since the tests target Java 8, which has
+   * no {@code jdk.jfr} API.
+   */
+  private static final class JfrRecording implements AutoCloseable {
+    private final Class<?> recordingClass;
+    private final Object recording;
+
+    private JfrRecording(Class<?> recordingClass, Object recording) {
+      this.recordingClass = recordingClass;
+      this.recording = recording;
+    }
+
+    static JfrRecording start(String... eventNames) throws ReflectiveOperationException {
+      Class<?> recordingClass = Class.forName("jdk.jfr.Recording");
+      Object recording = recordingClass.getConstructor().newInstance();
+      Method enable = recordingClass.getMethod("enable", String.class);
+      for (String eventName : eventNames) {
+        enable.invoke(recording, eventName);
+      }
+      recordingClass.getMethod("start").invoke(recording);
+      return new JfrRecording(recordingClass, recording);
+    }
+
+    void dump(Path file) throws ReflectiveOperationException {
+      recordingClass.getMethod("stop").invoke(recording);
+      recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+    }
+
+    @Override
+    public void close() throws ReflectiveOperationException {
+      recordingClass.getMethod("close").invoke(recording);
+    }
+
+    /**
+     * Returns the name and the given fields of each event in {@code file}, omitting the fields that
+     * an event doesn't have or that are {@code null}.
+     */
+    static List<Map<String, Object>> readEvents(Path file, String... fields)
+        throws ReflectiveOperationException {
+      Method getEventType =
+          Class.forName("jdk.jfr.consumer.RecordedEvent").getMethod("getEventType");
+      Method getName = Class.forName("jdk.jfr.EventType").getMethod("getName");
+      List<?> events =
+          (List<?>)
+              Class.forName("jdk.jfr.consumer.RecordingFile")
+                  .getMethod("readAllEvents", Path.class)
+                  .invoke(null, file);
+      List<Map<String, Object>> result = new ArrayList<>();
+      for (Object event : events) {
+        result.add(readEvent(event, getName.invoke(getEventType.invoke(event)), fields));
+      }
+      return result;
+    }
+
+    private static Map<String, Object> readEvent(Object event, Object name, String... fields)
+        throws ReflectiveOperationException {
+      Class<?> recordedObject = Class.forName("jdk.jfr.consumer.RecordedObject");
+      Method hasField = recordedObject.getMethod("hasField", String.class);
+      Method getValue = recordedObject.getMethod("getValue", String.class);
+      Map<String, Object> result = new TreeMap<>();
+      result.put("name", name);
+      for (String field : fields) {
+        Object value =
+            (Boolean) hasField.invoke(event, field) ? getValue.invoke(event, field) : null;
+        if (value != null) {
+          result.put(field, value);
+        }
+      }
+      return result;
+    }
+  }
+}
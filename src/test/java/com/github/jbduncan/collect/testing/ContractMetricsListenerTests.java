@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.function.Executable;
+
+// RecordingContractMetricsListener is registered as a service in src/test/resources.
+class ContractMetricsListenerTests {
+  private static final TestReporter REPORTER = entries -> {};
+
+  @Test
+  void reportsGenerationOfEachTestFactoryOnceItsTestsHaveRun() throws Throwable {
+    Stream<DynamicNode> nodes =
+        Stream.of(
+            dynamicContainer(
+                "container",
+                Stream.of(dynamicTest("first", () -> {}), dynamicTest("second", () -> {}))),
+            dynamicTest("third", () -> {}));
+
+    try (Stream<DynamicNode> measured =
+        ContractMetrics.measure(GenerationClass.class, "factory", REPORTER, nodes)) {
+      for (DynamicTest test : tests(collect(measured))) {
+        test.getExecutable().execute();
+      }
+    }
+
+    assertThat(RecordingContractMetricsListener.takeEvents(GenerationClass.class))
+        .containsExactly("started factory", "finished factory with 1 containers and 3 tests")
+        .inOrder();
+  }
+
+  @Test
+  void reportsMeasurementsAndBudgetViolationsOfTheCurrentTest() throws Throwable {
+    run(
+        MeasurementsClass.class,
+        () -> {
+          ContractMetrics.operationTimed("add(E) p99", 5);
+          ContractMetrics.bytesMeasured("bytes per element", 4);
+          ContractMetrics.throughputMeasured("throughput with 2 threads", 1000);
+          ContractMetrics.budgetViolated("speedup of at least 1.5", "Expected a speedup");
+        });
+
+    assertThat(RecordingContractMetricsListener.takeEvents(MeasurementsClass.class))
+        .containsExactly(
+            "started factory",
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$MeasurementsClass"
+                + " > factory > test timed add(E) p99 at 5.0 ns",
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$MeasurementsClass"
+                + " > factory > test measured bytes per element at 4.0 bytes",
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$MeasurementsClass"
+                + " > factory > test measured throughput with 2 threads at 1000.0 ops/s",
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$MeasurementsClass"
+                + " > factory > test violated speedup of at least 1.5: Expected a speedup",
+            "finished factory with 0 containers and 1 tests")
+        .inOrder();
+  }
+
+  @Test
+  void reportsComparisonBoundViolations() {
+    assertThrows(
+        AssertionError.class,
+        () ->
+            run(
+                ComparisonsClass.class,
+                () -> {
+                  ComparisonBoundChecker checker =
+                      new ComparisonBoundChecker(GrowthBound.atMost(0));
+                  checker.check(
+                      1,
+                      () -> "lookup",
+                      ElementOperationCounts.countDuring(ElementOperationCounts::recordCompareTo));
+                  checker.assertNoViolations();
+                }));
+
+    assertThat(RecordingContractMetricsListener.takeEvents(ComparisonsClass.class))
+        .contains(
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$ComparisonsClass"
+                + " > factory > test violated at most 0 comparisons: lookup made 1 comparisons"
+                + " (0 equals, 0 hashCode and 1 compareTo calls), but at most 0 are allowed");
+  }
+
+  @Test
+  void reportsFixturesCreatedByTheCurrentTest() throws Throwable {
+    run(
+        FixtureClass.class,
+        () -> {
+          ContractEvents.fixtureCreation(CollectionSize.SUPPORTS_ONE);
+          ContractEvents.endPhase();
+        });
+
+    assertThat(RecordingContractMetricsListener.takeEvents(FixtureClass.class))
+        .contains(
+            "com.github.jbduncan.collect.testing.ContractMetricsListenerTests$FixtureClass"
+                + " > factory > test created SUPPORTS_ONE fixture, negative false");
+  }
+
+  @Test
+  void doesNotReportMeasurementsOutsideOfATest() {
+    ContractMetrics.operationTimed("add(E) p99", 5);
+    ContractMetrics.budgetViolated("add(E) latency", "Exceeded its budget");
+
+    assertThat(RecordingContractMetricsListener.takeEvents(MeasurementsClass.class)).isEmpty();
+  }
+
+  private static void run(Class<?> testClass, Executable executable) throws Throwable {
+    try (Stream<DynamicTest> measured =
+        ContractMetrics.measure(
+            testClass, "factory", REPORTER, Stream.of(dynamicTest("test", executable)))) {
+      for (DynamicTest test : tests(collect(measured))) {
+        test.getExecutable().execute();
+      }
+    }
+  }
+
+  private static <T extends DynamicNode> List<DynamicNode> collect(Stream<T> nodes) {
+    List<DynamicNode> result = new ArrayList<>();
+    nodes.forEach(result::add);
+    return result;
+  }
+
+  private static List<DynamicTest> tests(List<DynamicNode> nodes) {
+    List<DynamicTest> result = new ArrayList<>();
+    for (DynamicNode node : nodes) {
+      if (node instanceof DynamicContainer) {
+        result.addAll(tests(collect(((DynamicContainer) node).getChildren())));
+      } else {
+        result.add((DynamicTest) node);
+      }
+    }
+    return result;
+  }
+
+  // Each test reports against a different class, so that they don't see each other's events.
+  private static final class GenerationClass {}
+
+  private static final class MeasurementsClass {}
+
+  private static final class FixtureClass {}
+
+  private static final class ComparisonsClass {}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.DynamicContainer.dynamicContainer;
+import static org.junit.jupiter.api.DynamicTest.dynamicTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentest4j.AssertionFailedError;
+
+class ContractMetricsTests {
+  @Test
+  void publishesMetricsOfEveryNestedTest() throws Throwable {
+    Map<String, String> reported = new LinkedHashMap<>();
+    List<DynamicNode> nodes =
+        collect(
+            ContractMetrics.measure(
+                NestedTestsClass.class,
+                "factory",
+                reported::putAll,
+                Stream.of(
+                    dynamicContainer(
+                        "container",
+                        Stream.of(dynamicTest("first", () -> {}), dynamicTest("second", () -> {}))),
+                    dynamicTest("third", () -> {}))));
+
+    for (DynamicTest test : tests(nodes)) {
+      test.getExecutable().execute();
+    }
+
+    assertThat(reported.keySet())
+        .containsExactly(
+            "factory > container > first", "factory > container > second", "factory > third")
+        .inOrder();
+    assertThat(reported.get("factory > third")).startsWith("SUCCESSFUL, wall ");
+    assertThat(reported.get("factory > third")).endsWith(" GCs");
+  }
+
+  @Test
+  void recordsFailedTestsAndRethrowsTheirFailures() {
+    Map<String, String> reported = new LinkedHashMap<>();
+    DynamicTest test =
+        ContractMetrics.measure(
+                FailedTestClass.class,
+                "factory",
+                reported::putAll,
+                Stream.of(
+                    dynamicTest(
+                        "fails",
+                        () -> {
+                          throw new AssertionFailedError("expected failure");
+                        })))
+            .findFirst()
+            .get();
+
+    AssertionFailedError error =
+        assertThrows(AssertionFailedError.class, () -> test.getExecutable().execute());
+
+    assertThat(error).hasMessageThat().isEqualTo("expected failure");
+    assertThat(reported.get("factory > fails")).startsWith("FAILED, wall ");
+  }
+
+  @Test
+  void writesJsonFileNamedAfterTestClassOnceItHasFinished(@TempDir Path directory)
+      throws Throwable {
+    Path file = directory.resolve(JsonFileClass.class.getName() + ".json");
+    String previous = System.getProperty(ContractMetrics.DIRECTORY_PROPERTY);
+    System.setProperty(ContractMetrics.DIRECTORY_PROPERTY, directory.toString());
+    try {
+      try (Stream<DynamicTest> tests =
+          ContractMetrics.measure(
+              JsonFileClass.class,
+              "factory",
+              entries -> {},
+              Stream.of(dynamicTest("add(\"a\")", () -> new ArrayList<>().add("a"))))) {
+        for (DynamicTest test : tests(collect(tests))) {
+          test.getExecutable().execute();
+        }
+      }
+      assertThat(Files.exists(file)).isFalse();
+
+      ContractMetrics.testClassFinished(JsonFileClass.class);
+    } finally {
+      restoreDirectoryProperty(previous);
+    }
+
+    String json = new String(Files.readAllBytes(file), UTF_8);
+    assertThat(json).contains("\"testClass\": \"" + JsonFileClass.class.getName() + "\"");
+    assertThat(json).contains("\"path\": [\"factory\", \"add(\\\"a\\\")\"]");
+    assertThat(json).contains("\"status\": \"SUCCESSFUL\"");
+    assertThat(json).containsMatch("\"wallNanos\": \\d+");
+  }
+
+  @Test
+  void forgetsMetricsOfTestClassOnceItHasFinished(@TempDir Path directory) throws Throwable {
+    Path file = directory.resolve(FinishedClass.class.getName() + ".json");
+    String previous = System.getProperty(ContractMetrics.DIRECTORY_PROPERTY);
+    System.setProperty(ContractMetrics.DIRECTORY_PROPERTY, directory.toString());
+    try {
+      for (DynamicTest test :
+          tests(
+              collect(
+                  ContractMetrics.measure(
+                      FinishedClass.class,
+                      "factory",
+                      entries -> {},
+                      Stream.of(dynamicTest("test", () -> {})))))) {
+        test.getExecutable().execute();
+      }
+      ContractMetrics.testClassFinished(FinishedClass.class);
+      Files.delete(file);
+
+      ContractMetrics.testClassFinished(FinishedClass.class);
+    } finally {
+      restoreDirectoryProperty(previous);
+    }
+
+    assertThat(Files.exists(file)).isFalse();
+  }
+
+  @Test
+  void reportsToCurrentTestFactoryReporter() throws Throwable {
+    Map<String, String> reported = new LinkedHashMap<>();
+    ContractMetrics.testFactoryStarted(reported::putAll);
+    try {
+      for (DynamicTest test :
+          tests(
+              collect(
+                  ContractMetrics.measure(
+                      ReporterClass.class, "factory", Stream.of(dynamicTest("test", () -> {})))))) {
+        test.getExecutable().execute();
+      }
+    } finally {
+      ContractMetrics.testFactoryFinished();
+    }
+
+    assertThat(reported.keySet()).containsExactly("factory > test");
+  }
+
+  @Test
+  void currentTestIsTheRunningTestOnlyWhileItRuns() throws Throwable {
+    TestReporter reporter = entries -> {};
+    List<ContractMetrics.CurrentTest> seen = new ArrayList<>();
+    Stream<DynamicNode> nodes =
+        Stream.of(
+            dynamicContainer(
+                "container",
+                Stream.of(
+                    dynamicTest("test", () -> seen.add(ContractMetrics.currentTest().get())))));
+    DynamicTest test =
+        tests(collect(ContractMetrics.measure(CurrentTestClass.class, "factory", reporter, nodes)))
+            .get(0);
+
+    test.getExecutable().execute();
+
+    assertThat(seen.get(0).testClass()).isEqualTo(CurrentTestClass.class);
+    assertThat(seen.get(0).path()).containsExactly("factory", "container", "test").inOrder();
+    assertThat(seen.get(0).reporter()).isSameInstanceAs(reporter);
+    assertThat(ContractMetrics.currentTest().isPresent()).isFalse();
+  }
+
+  @Test
+  void jsonQuoteEscapesQuotesBackslashesAndControlCharacters() {
+    assertThat(Json.quote("a\"b\\c\nd\u0001")).isEqualTo("\"a\\\"b\\\\c\\nd\\u0001\"");
+  }
+
+  private static void restoreDirectoryProperty(String previous) {
+    if (previous == null) {
+      System.clearProperty(ContractMetrics.DIRECTORY_PROPERTY);
+    } else {
+      System.setProperty(ContractMetrics.DIRECTORY_PROPERTY, previous);
+    }
+  }
+
+  private static <T extends DynamicNode> List<DynamicNode> collect(Stream<T> nodes) {
+    List<DynamicNode> result = new ArrayList<>();
+    nodes.forEach(result::add);
+    return result;
+  }
+
+  private static List<DynamicTest> tests(List<DynamicNode> nodes) {
+    List<DynamicTest> result = new ArrayList<>();
+    for (DynamicNode node : nodes) {
+      if (node instanceof DynamicContainer) {
+        result.addAll(tests(collect(((DynamicContainer) node).getChildren())));
+      } else {
+        result.add((DynamicTest) node);
+      }
+    }
+    return result;
+  }
+
+  // Each test records its metrics against a different class, so that they don't see each other's.
+  private static final class NestedTestsClass {}
+
+  private static final class FailedTestClass {}
+
+  private static final class JsonFileClass {}
+
+  private static final class FinishedClass {}
+
+  private static final class ReporterClass {}
+
+  private static final class CurrentTestClass {}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static java.util.stream.Collectors.toCollection;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Implements ListContract too, to check that it can be implemented alongside the concurrent one.
+class CopyOnWriteArrayListConcurrencyTests
+    implements ListContract<String>, ConcurrentCollectionContract<String> {
+  @Override
+  public TestListGenerator<String> generator() {
+    return (TestStringListGenerator)
+        elements -> stream(elements).collect(toCollection(CopyOnWriteArrayList::new));
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        ListFeature.GENERAL_PURPOSE,
+        CollectionFeature.ALLOWS_NULL_VALUES,
+        CollectionFeature.THREAD_SAFE,
+        CollectionSize.SUPPORTS_ANY_SIZE);
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CountingElementTests {
+  @Test
+  void countsEqualsHashCodeAndCompareToCalls() {
+    CountingElement one = CountingElement.of(1);
+    CountingElement two = CountingElement.of(2);
+
+    ElementOperationCounts counts =
+        ElementOperationCounts.countDuring(
+            () -> {
+              one.equals(two);
+              one.hashCode();
+              one.compareTo(two);
+              two.compareTo(one);
+            });
+
+    assertThat(counts.equalsCalls()).isEqualTo(1);
+    assertThat(counts.hashCodeCalls()).isEqualTo(1);
+    assertThat(counts.compareToCalls()).isEqualTo(2);
+    assertThat(counts.comparisons()).isEqualTo(3);
+  }
+
+  @Test
+  void countsComparisonsOfListIndexOf() {
+    List<CountingElement> list = SampleElements.counting().asList();
+
+    ElementOperationCounts counts =
+        ElementOperationCounts.countDuring(() -> list.indexOf(CountingElement.of(4)));
+
+    assertThat(counts.equalsCalls()).isEqualTo(list.size());
+  }
+
+  @Test
+  void countingSampleElementsAreDistinctAndScalable() {
+    SampleElements<CountingElement> samples = SampleElements.counting();
+
+    assertThat(samples.isScalable()).isTrue();
+    assertThat(Collections.frequency(samples.asList(), samples.e0())).isEqualTo(1);
+    assertThat(samples.element(1_000).value()).isEqualTo(1_000);
+  }
+
+  @Test
+  void growthBoundMaxOperations() {
+    GrowthBound bound = GrowthBound.of(ComplexityClass.LOGARITHMIC, 2, 1);
+
+    assertThat(bound.maxOperations(1_024)).isEqualTo(21);
+    assertThat(GrowthBound.atMost(3).maxOperations(1_000_000)).isEqualTo(3);
+    assertThat(GrowthBound.none().maxOperations(0)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void growthBoundRejectsNegativeCoefficient() {
+    IllegalArgumentException exception =
+        assertThrows(
+            IllegalArgumentException.class, () -> GrowthBound.of(ComplexityClass.LINEAR, -1, 0));
+    assertThat(exception)
+        .hasMessageThat()
+        .isEqualTo("'coefficient' is -1.0 and 'constant' is 0.0, but both must be >= 0");
+  }
+}
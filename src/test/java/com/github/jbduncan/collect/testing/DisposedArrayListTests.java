@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class DisposedArrayListTests implements ListContract<String> {
+  private final ResourceTrackingListGenerator generator =
+      new ResourceTrackingListGenerator(/* freesResources= */ true);
+
+  @Override
+  public TestListGenerator<String> generator() {
+    return generator;
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        ListFeature.GENERAL_PURPOSE,
+        CollectionFeature.ALLOWS_NULL_VALUES,
+        CollectionSize.SUPPORTS_ANY_SIZE);
+  }
+
+  @Override
+  public Optional<FixtureCopier<List<String>>> fixtureCopier() {
+    return Optional.of(generator::create);
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.opentest4j.AssertionFailedError;
+
+class ElementOperationsTesterTests {
+  private static final GrowthBound LINEAR = GrowthBound.of(ComplexityClass.LINEAR, 1, 1);
+
+  @Test
+  void flagsEqualsThatIsQuadraticBehindAnIdentityCheck() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class, equalsOnDifferentSizeTest(IdentityFirstCollection::new));
+
+    assertThat(error).hasMessageThat().contains("equals(Object) from");
+  }
+
+  @Test
+  void passesEqualsThatIsLinear() {
+    assertDoesNotThrow(equalsOnDifferentSizeTest(ArrayList::new));
+  }
+
+  private static Executable equalsOnDifferentSizeTest(CountingCollectionGenerator generator) {
+    DynamicTest test =
+        ElementOperationsTester.builder()
+            .testCollectionGenerator(generator)
+            .sizes(Arrays.asList(10, 100, 1_000))
+            .equalsOnDifferentSizeBound(LINEAR)
+            .build()
+            .dynamicTests()
+            .findFirst()
+            .get();
+    return test.getExecutable();
+  }
+
+  @FunctionalInterface
+  private interface CountingCollectionGenerator extends TestCollectionGenerator<CountingElement> {
+    Collection<CountingElement> create(List<CountingElement> elements);
+
+    @Override
+    default Collection<CountingElement> create(Iterable<CountingElement> elements) {
+      List<CountingElement> list = new ArrayList<>();
+      elements.forEach(list::add);
+      return create(list);
+    }
+
+    @Override
+    default SampleElements<CountingElement> samples() {
+      return SampleElements.counting();
+    }
+
+    @Override
+    default Iterable<CountingElement> order(List<CountingElement> insertionOrder) {
+      return insertionOrder;
+    }
+  }
+
+  /**
+   * A collection whose equals looks for each of its elements in the other collection, first by
+   * identity and only then with equals, so it's quadratic, but only makes comparisons for elements
+   * that are equal without being identical.
+   */
+  private static final class IdentityFirstCollection extends AbstractCollection<CountingElement> {
+    private final List<CountingElement> elements;
+
+    IdentityFirstCollection(List<CountingElement> elements) {
+      this.elements = elements;
+    }
+
+    @Override
+    public Iterator<CountingElement> iterator() {
+      return elements.iterator();
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof Collection)) {
+        return false;
+      }
+      Collection<?> other = (Collection<?>) object;
+      for (CountingElement element : elements) {
+        if (!containsIdentical(other, element) && !other.contains(element)) {
+          return false;
+        }
+      }
+      return elements.size() == other.size();
+    }
+
+    @Override
+    public int hashCode() {
+      return elements.hashCode();
+    }
+
+    @SuppressWarnings("PMD.CompareObjectsWithEquals") // Looks for the same instance.
+    private static boolean containsIdentical(Collection<?> collection, Object element) {
+      for (Object candidate : collection) {
+        if (candidate == element) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FeatureSetTests {
+  @Test
+  void ofHasExactlyGivenFeatures() {
+    assertThat(FeatureSet.of(ListFeature.GENERAL_PURPOSE, CollectionSize.SUPPORTS_ONE))
+        .containsExactly(ListFeature.GENERAL_PURPOSE, CollectionSize.SUPPORTS_ONE);
+  }
+
+  @Test
+  void ofWithNoFeaturesIsEmpty() {
+    assertThat(FeatureSet.of()).isEmpty();
+  }
+
+  @Test
+  void containsIsFalseForAbsentFeaturesAndNonFeatures() {
+    FeatureSet features = FeatureSet.of(CollectionFeature.SUPPORTS_ADD);
+
+    assertThat(features.contains(CollectionFeature.SUPPORTS_REMOVE)).isFalse();
+    assertThat(features.contains(ListFeature.SUPPORTS_SET)).isFalse();
+    assertThat(features.contains("SUPPORTS_ADD")).isFalse();
+  }
+
+  @Test
+  void containsAllChecksEveryGivenFeature() {
+    FeatureSet features = Feature.allFeaturesRecursively(ListFeature.GENERAL_PURPOSE);
+
+    assertThat(features.containsAll(CollectionFeature.SUPPORTS_ADD, ListFeature.SUPPORTS_SET))
+        .isTrue();
+    assertThat(
+            features.containsAll(
+                CollectionFeature.SUPPORTS_ADD, CollectionFeature.ALLOWS_NULL_VALUES))
+        .isFalse();
+  }
+
+  @Test
+  void containsAllOfTwoFeaturesChecksBoth() {
+    FeatureSet features = FeatureSet.of(CollectionFeature.SUPPORTS_ADD, ListFeature.SUPPORTS_SET);
+
+    assertThat(features.containsAll(CollectionFeature.SUPPORTS_ADD, ListFeature.SUPPORTS_SET))
+        .isTrue();
+    assertThat(features.containsAll(ListFeature.SUPPORTS_SET, CollectionFeature.SUPPORTS_REMOVE))
+        .isFalse();
+  }
+
+  @Test
+  void containsAllOfFeatureSetChecksEveryFeatureInIt() {
+    Feature<Collection<?>> custom = new CustomFeature(CollectionFeature.SUPPORTS_ADD);
+    FeatureSet features =
+        FeatureSet.of(custom, MapFeature.SUPPORTS_PUT, CollectionSize.SUPPORTS_ONE);
+
+    assertThat(features.containsAll(FeatureSet.of(custom, CollectionSize.SUPPORTS_ONE))).isTrue();
+    assertThat(features.containsAll(FeatureSet.of())).isTrue();
+    assertThat(features.containsAll(FeatureSet.of(MapFeature.SUPPORTS_PUT, custom))).isTrue();
+    assertThat(features.containsAll(FeatureSet.of(custom, CollectionSize.SUPPORTS_ZERO))).isFalse();
+  }
+
+  @Test
+  void allFeaturesRecursivelyHasExpectedExpandedFeatures() {
+    assertThat(
+            FeatureSet.allFeaturesRecursively(
+                ListFeature.REMOVE_OPERATIONS, CollectionSize.SUPPORTS_ANY_SIZE))
+        .containsExactly(
+            ListFeature.REMOVE_OPERATIONS,
+            ListFeature.SUPPORTS_REMOVE_WITH_INDEX,
+            CollectionFeature.REMOVE_OPERATIONS,
+            CollectionFeature.SUPPORTS_REMOVE,
+            CollectionFeature.SUPPORTS_ITERATOR_REMOVE,
+            CollectionSize.SUPPORTS_ANY_SIZE,
+            CollectionSize.SUPPORTS_ZERO,
+            CollectionSize.SUPPORTS_ONE,
+            CollectionSize.SUPPORTS_MULTIPLE);
+  }
+
+  @Test
+  void allFeaturesRecursivelyExpandsMapFeatures() {
+    FeatureSet features =
+        FeatureSet.allFeaturesRecursively(
+            MapFeature.GENERAL_PURPOSE, MapFeature.ALLOWS_NULL_KEYS, CollectionSize.SUPPORTS_ONE);
+
+    assertThat(features)
+        .containsExactly(
+            MapFeature.ALLOWS_NULL_KEY_QUERIES,
+            MapFeature.ALLOWS_NULL_KEYS,
+            MapFeature.SUPPORTS_PUT,
+            MapFeature.SUPPORTS_REMOVE,
+            MapFeature.GENERAL_PURPOSE,
+            CollectionSize.SUPPORTS_ONE)
+        .inOrder();
+    assertThat(features.contains(CollectionFeature.SUPPORTS_REMOVE)).isFalse();
+  }
+
+  @Test
+  void allFeaturesRecursivelyIsMemoized() {
+    assertThat(Feature.allFeaturesRecursively(ListFeature.GENERAL_PURPOSE))
+        .isSameInstanceAs(FeatureSet.allFeaturesRecursively(ListFeature.GENERAL_PURPOSE));
+  }
+
+  @Test
+  void allFeaturesRecursivelyStillExpandsOnceTheCacheIsFull() {
+    // Far more combinations of features than are cached, as each custom feature is distinct.
+    IntStream.range(0, 1_000)
+        .forEach(
+            unused ->
+                FeatureSet.allFeaturesRecursively(
+                    new CustomFeature(CollectionFeature.SERIALIZABLE_INCLUDING_VIEWS)));
+
+    assertThat(
+            FeatureSet.allFeaturesRecursively(
+                new CustomFeature(CollectionFeature.REMOVE_OPERATIONS)))
+        .containsAtLeast(
+            CollectionFeature.REMOVE_OPERATIONS,
+            CollectionFeature.SUPPORTS_REMOVE,
+            CollectionFeature.SUPPORTS_ITERATOR_REMOVE);
+  }
+
+  @Test
+  void allFeaturesRecursivelyExpandsCustomFeatures() {
+    Feature<Collection<?>> custom = new CustomFeature(CollectionFeature.GENERAL_PURPOSE);
+
+    assertThat(FeatureSet.allFeaturesRecursively(custom))
+        .containsExactly(
+            custom,
+            CollectionFeature.GENERAL_PURPOSE,
+            CollectionFeature.SUPPORTS_ADD,
+            CollectionFeature.SUPPORTS_REMOVE,
+            CollectionFeature.SUPPORTS_ITERATOR_REMOVE);
+  }
+
+  @Test
+  void equalsAndHashCodeFollowTheSetContract() {
+    Set<Feature<?>> expected =
+        ImmutableSet.of(CollectionFeature.SERIALIZABLE, CollectionSize.SUPPORTS_ZERO);
+    FeatureSet actual = FeatureSet.copyOf(expected);
+
+    assertThat(actual).isEqualTo(expected);
+    assertThat(expected).isEqualTo(actual);
+    assertThat(actual.hashCode()).isEqualTo(expected.hashCode());
+  }
+
+  @Test
+  void copyOfFeatureSetReturnsSameInstance() {
+    FeatureSet features = FeatureSet.of(CollectionFeature.SERIALIZABLE);
+
+    assertThat(FeatureSet.copyOf(features)).isSameInstanceAs(features);
+  }
+
+  private static final class CustomFeature implements Feature<Collection<?>> {
+    private final Set<Feature<? super Collection<?>>> impliedFeatures;
+
+    CustomFeature(Feature<? super Collection<?>> impliedFeature) {
+      this.impliedFeatures = Collections.singleton(impliedFeature);
+    }
+
+    @Override
+    public Set<Feature<? super Collection<?>>> impliedFeatures() {
+      return impliedFeatures;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+class HashMapTests implements MapContract<String, String> {
+  @Override
+  public TestMapGenerator<String, String> generator() {
+    return (TestStringMapGenerator)
+        entries -> {
+          Map<String, String> map = new HashMap<>();
+          entries.forEach(entry -> map.put(entry.getKey(), entry.getValue()));
+          return map;
+        };
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        MapFeature.GENERAL_PURPOSE,
+        MapFeature.ALLOWS_NULL_KEYS,
+        MapFeature.ALLOWS_NULL_VALUES,
+        MapFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+        CollectionSize.SUPPORTS_ANY_SIZE,
+        CollectionSize.SUPPORTS_LARGE);
+  }
+}
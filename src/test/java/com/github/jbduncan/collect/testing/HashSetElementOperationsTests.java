@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static java.util.stream.Collectors.toCollection;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+class HashSetElementOperationsTests implements ElementOperationsContract {
+  private static final SampleElements<CountingElement> SAMPLES = SampleElements.counting();
+
+  @Override
+  public TestSetGenerator<CountingElement> generator() {
+    return new TestSetGenerator<CountingElement>() {
+      @Override
+      public SampleElements<CountingElement> samples() {
+        return SAMPLES;
+      }
+
+      @Override
+      public Set<CountingElement> create(Iterable<CountingElement> elements) {
+        return stream(elements).collect(toCollection(HashSet::new));
+      }
+
+      @Override
+      public Iterable<CountingElement> order(List<CountingElement> insertionOrder) {
+        return insertionOrder;
+      }
+    };
+  }
+
+  @Override
+  public GrowthBound containsComparisonsBound() {
+    return GrowthBound.atMost(1);
+  }
+
+  @Override
+  public GrowthBound equalsOnDifferentSizeComparisonsBound() {
+    return GrowthBound.atMost(0);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static java.util.stream.Collectors.toCollection;
+
+import java.util.ArrayList;
+import java.util.Set;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+
+// Runs the contract at SUPPORTS_HUGE, shrunk to a size that the default test run can afford.
+class HugeArrayListTests implements ListContract<String> {
+  private static String previousHugeSize;
+
+  @BeforeAll
+  static void shrinkHugeSize() {
+    previousHugeSize = System.setProperty(CollectionSize.HUGE_SIZE_PROPERTY, "5000");
+  }
+
+  @AfterAll
+  static void restoreHugeSize() {
+    CollectionSizeTests.restore(CollectionSize.HUGE_SIZE_PROPERTY, previousHugeSize);
+  }
+
+  @Override
+  public TestListGenerator<String> generator() {
+    return (TestStringListGenerator)
+        elements -> stream(elements).collect(toCollection(ArrayList::new));
+  }
+
+  @Override
+  public Set<Feature<?>> features() {
+    return Feature.allFeaturesRecursively(
+        ListFeature.GENERAL_PURPOSE,
+        CollectionFeature.SERIALIZABLE,
+        CollectionFeature.ALLOWS_NULL_VALUES,
+        CollectionFeature.FAILS_FAST_ON_CONCURRENT_MODIFICATION,
+        CollectionSize.SUPPORTS_HUGE);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.RandomAccess;
+import org.junit.jupiter.api.Test;
+
+class InstrumentedListTests {
+  @Test
+  void countsCallsAndForwardsThem() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+
+    list.add("a");
+    list.add(0, "b");
+    list.add("c");
+
+    assertThat(list.delegate()).containsExactly("b", "a", "c").inOrder();
+    assertThat(list.calls("add(E)")).isEqualTo(2);
+    assertThat(list.calls("add(int, E)")).isEqualTo(1);
+    assertThat(list.calls("remove(int)")).isEqualTo(0);
+  }
+
+  @Test
+  void countsElementsTouchedByBulkOperationsAndIterators() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+
+    list.addAll(Arrays.asList("a", "b", "c"));
+    list.toArray();
+    Iterator<String> iterator = list.iterator();
+    iterator.next();
+    iterator.next();
+
+    assertThat(list.elementsTouched("addAll(Collection)")).isEqualTo(3);
+    assertThat(list.elementsTouched("toArray()")).isEqualTo(3);
+    assertThat(list.calls("iterator()")).isEqualTo(1);
+    assertThat(list.elementsTouched("Iterator.next()")).isEqualTo(2);
+  }
+
+  @Test
+  void countsCallsToSubListsAgainstTheList() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>(Arrays.asList("a", "b")));
+
+    List<String> subList = list.subList(0, 1);
+    subList.get(0);
+    subList.listIterator().next();
+
+    assertThat(list.calls("subList(int, int)")).isEqualTo(1);
+    assertThat(list.calls("get(int)")).isEqualTo(1);
+    assertThat(list.calls("listIterator()")).isEqualTo(1);
+    assertThat(list.calls("Iterator.next()")).isEqualTo(1);
+  }
+
+  @Test
+  void showsHowArrayListAddAllUsesItsArgument() {
+    InstrumentedList<String> argument = InstrumentedList.of(Arrays.asList("a", "b", "c"));
+
+    new ArrayList<String>().addAll(argument);
+
+    assertThat(argument.calls("toArray()")).isEqualTo(1);
+    assertThat(argument.calls("iterator()")).isEqualTo(0);
+  }
+
+  @Test
+  void sizeOfInstrumentedArgumentIsNotCountedAsCall() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+    InstrumentedList<String> argument = InstrumentedList.of(Arrays.asList("a", "b"));
+
+    list.containsAll(argument);
+
+    assertThat(list.elementsTouched("containsAll(Collection)")).isEqualTo(2);
+    assertThat(argument.calls("size()")).isEqualTo(0);
+  }
+
+  @Test
+  void describeCallsListsEveryMethodCalledInOrderOfName() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+    assertThat(list.describeCalls()).isEqualTo("no calls");
+
+    list.size();
+    list.addAll(0, Arrays.asList("a", "b", "c"));
+    list.add("d");
+    list.size();
+
+    assertThat(list.describeCalls())
+        .isEqualTo("add(E) x1, addAll(int, Collection) x1 (3 elements), size() x2");
+  }
+
+  @Test
+  void resetCountsSetsEveryCountToZero() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+    list.addAll(Arrays.asList("a", "b"));
+
+    list.resetCounts();
+
+    assertThat(list.callCounts()).isEmpty();
+    assertThat(list.elementsTouched("addAll(Collection)")).isEqualTo(0);
+  }
+
+  @Test
+  void isRandomAccessOnlyIfTheDelegateIs() {
+    assertThat(InstrumentedList.of(new ArrayList<>())).isInstanceOf(RandomAccess.class);
+    assertThat(InstrumentedList.of(new LinkedList<>())).isNotInstanceOf(RandomAccess.class);
+  }
+
+  @Test
+  void equalsAndHashCodeFollowTheListContract() {
+    List<String> elements = Arrays.asList("a", "b");
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>(elements));
+
+    assertThat(list).isEqualTo(elements);
+    assertThat(elements).isEqualTo(list);
+    assertThat(list.hashCode()).isEqualTo(elements.hashCode());
+  }
+
+  @Test
+  void rejectsUnknownMethods() {
+    InstrumentedList<String> list = InstrumentedList.of(new ArrayList<>());
+
+    IllegalArgumentException thrown =
+        assertThrows(IllegalArgumentException.class, () -> list.calls("add(Object)"));
+    assertThat(thrown).hasMessageThat().contains("'add(Object)'");
+  }
+}
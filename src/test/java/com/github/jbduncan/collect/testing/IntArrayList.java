@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/** A minimal growable {@code int} list, which stores its elements unboxed. */
+final class IntArrayList implements TestIntList {
+  private static final int MIN_CAPACITY = 10;
+
+  private int[] elements;
+  private int size;
+
+  IntArrayList(int... elements) {
+    this.elements = Arrays.copyOf(elements, Math.max(MIN_CAPACITY, elements.length));
+    this.size = elements.length;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int getInt(int index) {
+    checkIndex(index, size);
+    return elements[index];
+  }
+
+  @Override
+  public boolean contains(int element) {
+    return indexOf(element) >= 0;
+  }
+
+  @Override
+  public int indexOf(int element) {
+    for (int i = 0; i < size; i++) {
+      if (elements[i] == element) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public boolean add(int element) {
+    add(size, element);
+    return true;
+  }
+
+  @Override
+  public void add(int index, int element) {
+    checkIndex(index, size + 1);
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+    System.arraycopy(elements, index, elements, index + 1, size - index);
+    elements[index] = element;
+    size++;
+  }
+
+  @Override
+  public int set(int index, int element) {
+    checkIndex(index, size);
+    int old = elements[index];
+    elements[index] = element;
+    return old;
+  }
+
+  @Override
+  public int removeInt(int index) {
+    checkIndex(index, size);
+    int old = elements[index];
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    size--;
+    return old;
+  }
+
+  @Override
+  public List<Integer> boxed() {
+    return new Boxed();
+  }
+
+  private static void checkIndex(int index, int bound) {
+    if (index < 0 || index >= bound) {
+      throw new IndexOutOfBoundsException(
+          String.format("'index' is %s, but must be between 0 and %s", index, bound - 1));
+    }
+  }
+
+  private final class Boxed extends AbstractList<Integer> implements RandomAccess {
+    @Override
+    public Integer get(int index) {
+      return getInt(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public void add(int index, Integer element) {
+      IntArrayList.this.add(index, element);
+    }
+
+    @Override
+    public Integer set(int index, Integer element) {
+      return IntArrayList.this.set(index, element);
+    }
+
+    @Override
+    public Integer remove(int index) {
+      return removeInt(index);
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicNode;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.opentest4j.TestAbortedException;
+
+class IntListTesterTests {
+  @Test
+  void flagsListThatBoxesItsElements() {
+    DynamicTest test =
+        tester(elements -> new BoxingIntList(/* liveBoxedView= */ true, elements))
+            .allocationTests()
+            .filter(t -> t.getDisplayName().startsWith("add(int) followed by"))
+            .findFirst()
+            .get();
+
+    AssertionFailedError error =
+        assertThrows(AssertionFailedError.class, () -> test.getExecutable().execute());
+
+    assertThat(error).hasMessageThat().contains("is it boxing its elements?");
+  }
+
+  @Test
+  void flagsBoxedViewThatDoesNotWriteThrough() {
+    DynamicTest test =
+        firstTest(
+            tester(elements -> new BoxingIntList(/* liveBoxedView= */ false, elements))
+                .dynamicTestsGraph()
+                .filter(
+                    node -> node.getDisplayName().startsWith("Writes through the primitive API")));
+
+    AssertionFailedError error =
+        assertThrows(AssertionFailedError.class, () -> test.getExecutable().execute());
+
+    assertThat(error)
+        .hasMessageThat()
+        .contains("After add(1003) was called, boxed().size() returned");
+  }
+
+  @Test
+  void skipsAllocationTestsOfSamplesThatAreBoxedToCachedInstances() {
+    DynamicTest test =
+        tester(
+                new TestIntListGenerator() {
+                  @Override
+                  public IntSampleElements samples() {
+                    return IntSampleElements.indexed(i -> i);
+                  }
+
+                  @Override
+                  public TestIntList create(int... elements) {
+                    return new BoxingIntList(/* liveBoxedView= */ true, elements);
+                  }
+                })
+            .allocationTests()
+            .findFirst()
+            .get();
+
+    TestAbortedException exception =
+        assertThrows(TestAbortedException.class, () -> test.getExecutable().execute());
+
+    assertThat(exception).hasMessageThat().contains("boxed to cached instances");
+  }
+
+  private static IntListTester tester(TestIntListGenerator generator) {
+    return IntListTester.builder()
+        .testIntListGenerator(generator)
+        .features(
+            Feature.allFeaturesRecursively(
+                ListFeature.GENERAL_PURPOSE, CollectionSize.SUPPORTS_ANY_SIZE))
+        .build();
+  }
+
+  private static DynamicTest firstTest(Stream<? extends DynamicNode> nodes) {
+    DynamicNode first = nodes.findFirst().get();
+    if (first instanceof DynamicTest) {
+      return (DynamicTest) first;
+    }
+    return firstTest(((DynamicContainer) first).getChildren());
+  }
+
+  /** An {@code int} list that stores its elements boxed, in an {@code ArrayList<Integer>}. */
+  private static final class BoxingIntList implements TestIntList {
+    private final List<Integer> elements = new ArrayList<>();
+    private final boolean liveBoxedView;
+
+    BoxingIntList(boolean liveBoxedView, int... elements) {
+      this.liveBoxedView = liveBoxedView;
+      for (int element : elements) {
+        this.elements.add(element);
+      }
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+
+    @Override
+    public int getInt(int index) {
+      return elements.get(index);
+    }
+
+    @Override
+    public boolean contains(int element) {
+      return elements.contains(element);
+    }
+
+    @Override
+    public int indexOf(int element) {
+      return elements.indexOf(element);
+    }
+
+    @Override
+    public List<Integer> boxed() {
+      return liveBoxedView ? elements : new ArrayList<>(elements);
+    }
+
+    @Override
+    public boolean add(int element) {
+      return elements.add(element);
+    }
+
+    @Override
+    public void add(int index, int element) {
+      elements.add(index, element);
+    }
+
+    @Override
+    public int set(int index, int element) {
+      return elements.set(index, element);
+    }
+
+    @Override
+    public int removeInt(int index) {
+      return elements.remove(index);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class IntSampleElementsTests {
+  @Test
+  void intsAreOutsideOfIntegerCache() {
+    assertThat(IntSampleElements.ints().toArray())
+        .asList()
+        .containsExactly(1_000, 1_001, 1_002, 1_003, 1_004)
+        .inOrder();
+  }
+
+  @Test
+  void fixtureOfScalableSamplesSkipsE3AndE4() {
+    assertThat(IntSampleElements.ints().fixture(5))
+        .asList()
+        .containsExactly(1_000, 1_001, 1_002, 1_005, 1_006)
+        .inOrder();
+  }
+
+  @Test
+  void fixtureOfFixedSamplesCyclesThroughE0ToE2() {
+    IntSampleElements samples = IntSampleElements.of(10, 11, 12, 13, 14);
+
+    assertThat(samples.fixture(5)).asList().containsExactly(10, 11, 12, 10, 11).inOrder();
+  }
+
+  @Test
+  void elementBeyondE4OfFixedSamplesThrows() {
+    IntSampleElements samples = IntSampleElements.of(10, 11, 12, 13, 14);
+
+    assertThrows(IndexOutOfBoundsException.class, () -> samples.element(5));
+  }
+
+  @Test
+  void longsMatchInts() {
+    assertThat(LongSampleElements.longs().fixture(5))
+        .asList()
+        .containsExactly(1_000L, 1_001L, 1_002L, 1_005L, 1_006L)
+        .inOrder();
+  }
+}
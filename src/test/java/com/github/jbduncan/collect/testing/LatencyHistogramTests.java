@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTests {
+  @Test
+  void emptyHistogramHasNoLatencies() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.count()).isEqualTo(0);
+    assertThat(histogram.min()).isEqualTo(0);
+    assertThat(histogram.max()).isEqualTo(0);
+    assertThat(histogram.valueAtPercentile(99)).isEqualTo(0);
+  }
+
+  @Test
+  void smallLatenciesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long nanos = 1; nanos <= 100; nanos++) {
+      histogram.record(nanos);
+    }
+
+    assertThat(histogram.count()).isEqualTo(100);
+    assertThat(histogram.min()).isEqualTo(1);
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentile(99)).isEqualTo(99);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(100);
+  }
+
+  @Test
+  void largeLatenciesAreWithinTwoPercentAndNeverUnderestimated() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long nanos = 1_000; nanos <= 1_000_000; nanos += 1_000) {
+      histogram.record(nanos);
+    }
+
+    long p99 = histogram.valueAtPercentile(99);
+    assertThat(p99).isAtLeast(990_000L);
+    assertThat(p99).isAtMost(990_000L * 102 / 100);
+    long p50 = histogram.valueAtPercentile(50);
+    assertThat(p50).isAtLeast(500_000L);
+    assertThat(p50).isAtMost(500_000L * 102 / 100);
+  }
+
+  @Test
+  void percentilesNeverExceedMax() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1_000_001);
+
+    assertThat(histogram.valueAtPercentile(50)).isEqualTo(1_000_001);
+    assertThat(histogram.max()).isEqualTo(1_000_001);
+  }
+
+  @Test
+  void singleSpikeOnlyShowsAtTheHighestPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 9_999; i++) {
+      histogram.record(50);
+    }
+    histogram.record(50_000_000);
+
+    assertThat(histogram.valueAtPercentile(99.9)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentile(99.99)).isEqualTo(50);
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(50_000_000);
+  }
+
+  @Test
+  void recordsTheLargestLong() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(Long.MAX_VALUE);
+
+    assertThat(histogram.valueAtPercentile(100)).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void rejectsNegativeLatenciesAndInvalidPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(0));
+    assertThrows(IllegalArgumentException.class, () -> histogram.valueAtPercentile(100.1));
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.github.jbduncan.collect.testing.LinearizabilityChecker.Kind;
+import com.github.jbduncan.collect.testing.LinearizabilityChecker.Operation;
+import java.util.Arrays;
+import java.util.HashSet;
+import org.junit.jupiter.api.Test;
+
+class LinearizabilityCheckerTests {
+  private final LinearizabilityChecker<String> checker = new LinearizabilityChecker<>(HashSet::new);
+
+  @Test
+  void sequentialHistoryThatMatchesTheModelIsLinearizable() {
+    assertThat(
+            checker.isLinearizable(
+                Arrays.asList(
+                    new Operation<>(0, Kind.ADD, "a", true, 1, 2),
+                    new Operation<>(1, Kind.CONTAINS, "a", true, 3, 4),
+                    new Operation<>(0, Kind.REMOVE, "a", true, 5, 6))))
+        .isTrue();
+  }
+
+  @Test
+  void overlappingOperationsMayTakeEffectInEitherOrder() {
+    // The contains(a) overlaps the add(a), so it may take effect before it.
+    assertThat(
+            checker.isLinearizable(
+                Arrays.asList(
+                    new Operation<>(0, Kind.ADD, "a", true, 1, 4),
+                    new Operation<>(1, Kind.CONTAINS, "a", false, 2, 3))))
+        .isTrue();
+  }
+
+  @Test
+  void staleReadAfterAddReturnedIsNotLinearizable() {
+    // The contains(a) starts after the add(a) returns, so it must see it.
+    assertThat(
+            checker.isLinearizable(
+                Arrays.asList(
+                    new Operation<>(0, Kind.ADD, "a", true, 1, 2),
+                    new Operation<>(1, Kind.CONTAINS, "a", false, 3, 4))))
+        .isFalse();
+  }
+
+  @Test
+  void twoSuccessfulAddsOfTheSameElementAreNotLinearizable() {
+    assertThat(
+            checker.isLinearizable(
+                Arrays.asList(
+                    new Operation<>(0, Kind.ADD, "a", true, 1, 3),
+                    new Operation<>(1, Kind.ADD, "a", true, 2, 4))))
+        .isFalse();
+  }
+}
@@ -17,6 +17,8 @@ package com.github.jbduncan.collect.testing;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+import static java.util.stream.Collectors.toCollection;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
@@ -32,6 +34,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeAll;
@@ -42,9 +45,6 @@ import org.junit.jupiter.api.DynamicTest;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
-// TODO: Assert that each call to contract::* causes the relevant List methods to be called. For
-// example, if contract::addWithIndex is run on ArrayList, assert that ArrayList.add(int, E) is
-// called. Use a library like Mockito for this.
 // TODO: Consider testing with JUnit 5's `junit-platform-testkit`
 // (https://github.com/junit-team/junit5/pull/1392)
 class ListContractTests {
@@ -313,6 +313,68 @@ class ListContractTests {
     }
   }
 
+  @Nested
+  class ForInstrumentedArrayLists {
+    private final List<InstrumentedList<String>> createdLists = new ArrayList<>();
+    private ListContract<String> contract;
+
+    @BeforeEach
+    void beforeEach() {
+      contract =
+          new ListContract<String>() {
+            @Override
+            public TestListGenerator<String> generator() {
+              return (TestStringListGenerator)
+                  elements -> {
+                    InstrumentedList<String> list =
+                        InstrumentedList.of(
+                            Streams.stream(elements).collect(toCollection(ArrayList::new)));
+                    createdLists.add(list);
+                    return list;
+                  };
+            }
+
+            @Override
+            public Set<Feature<?>> features() {
+              return new ArrayListTests().features();
+            }
+          };
+    }
+
+    @Test
+    void eachAddTestCallsListAddOnceAndNothingElseThatAdds() throws Throwable {
+      for (DynamicTest test : extractDynamicTests(contract.add().collect(toImmutableList()))) {
+        createdLists.clear();
+
+        test.getExecutable().execute();
+
+        assertThat(createdLists).hasSize(1);
+        InstrumentedList<String> list = createdLists.get(0);
+        assertWithMessage(test.getDisplayName()).that(list.calls("add(E)")).isEqualTo(1);
+        assertWithMessage(test.getDisplayName()).that(list.calls("add(int, E)")).isEqualTo(0);
+        assertWithMessage(test.getDisplayName())
+            .that(list.calls("addAll(Collection)"))
+            .isEqualTo(0);
+      }
+    }
+
+    @Test
+    void eachAddWithIndexTestCallsListAddWithIndexButNotListAdd() throws Throwable {
+      for (DynamicTest test :
+          extractDynamicTests(contract.addWithIndex().collect(toImmutableList()))) {
+        createdLists.clear();
+
+        test.getExecutable().execute();
+
+        assertThat(createdLists).isNotEmpty();
+        for (InstrumentedList<String> list : createdLists) {
+          assertWithMessage(test.getDisplayName()).that(list.calls("add(int, E)")).isAtLeast(1L);
+          assertWithMessage(test.getDisplayName()).that(list.calls("add(E)")).isEqualTo(0);
+        }
+      }
+    }
+  }
+
   // TODO: Consider testing the following list implementations:
   // - Guava's ImmutableList
   // - ArraysAsList
@@ -325,15 +387,15 @@ class ListContractTests {
   // - AbstractSequentialList
 
   private void assertExpectedDisplayNames(
-      Supplier<Iterable<DynamicNode>> dynamicNodesSupplier,
+      Supplier<Stream<DynamicNode>> dynamicNodesSupplier,
       Iterable<String> expectedDynamicContainerDisplayNames,
       Iterable<String> expectedDynamicTestDisplayNames) {
 
-    assertThat(dynamicNodesSupplier.get())
+    assertThat(dynamicNodesSupplier.get().collect(toImmutableList()))
         .comparingElementsUsing(DYNAMIC_NODE_TO_DISPLAY_NAME_CORRESPONDENCE)
         .containsExactlyElementsIn(expectedDynamicContainerDisplayNames);
 
-    assertThat(extractDynamicTests(dynamicNodesSupplier.get()))
+    assertThat(extractDynamicTests(dynamicNodesSupplier.get().collect(toImmutableList())))
         .comparingElementsUsing(DYNAMIC_NODE_TO_DISPLAY_NAME_CORRESPONDENCE)
         .containsExactlyElementsIn(expectedDynamicTestDisplayNames);
   }
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.github.jbduncan.collect.testing.Helpers.stream;
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.stream.Collectors.toCollection;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.ThrowingConsumer;
+import org.opentest4j.AssertionFailedError;
+
+class ListFixturesTests {
+  private AtomicInteger listsCreated;
+  private TestListGenerator<String> generator;
+
+  @BeforeEach
+  void beforeEach() {
+    listsCreated = new AtomicInteger();
+    generator =
+        (TestStringListGenerator)
+            elements -> {
+              listsCreated.incrementAndGet();
+              return stream(elements).collect(toCollection(ArrayList::new));
+            };
+  }
+
+  @Test
+  void withoutCopierEveryListIsCreatedByTheGenerator() {
+    ListFixtures<String> fixtures = ListFixtures.create(generator, null);
+
+    fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ false);
+    fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ false);
+
+    assertThat(listsCreated.get()).isEqualTo(2);
+  }
+
+  @Test
+  void withCopierEachFixtureIsOnlyCreatedOnce() {
+    ListFixtures<String> fixtures = ListFixtures.create(generator, ArrayList::new);
+
+    List<String> first =
+        fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ false);
+    List<String> second =
+        fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ false);
+    fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ true);
+
+    assertThat(listsCreated.get()).isEqualTo(2);
+    assertThat(first).containsExactly("a", "b", "c").inOrder();
+    assertThat(second).isNotSameInstanceAs(first);
+  }
+
+  @Test
+  void mutatingAnUnsafeCopyIsDetected() {
+    ListFixtures<String> fixtures =
+        ListFixtures.create(generator, fixture -> fixture.subList(0, fixture.size()));
+
+    fixtures.newTestList(CollectionSize.SUPPORTS_ONE, /* nullInMiddle= */ false).add("d");
+
+    IllegalStateException thrown =
+        assertThrows(
+            IllegalStateException.class,
+            () -> fixtures.newTestList(CollectionSize.SUPPORTS_ONE, /* nullInMiddle= */ false));
+    assertThat(thrown).hasMessageThat().contains("was mutated by a previous test");
+  }
+
+  @Test
+  void copierReturningTheFixtureItselfIsRejected() {
+    ListFixtures<String> fixtures = ListFixtures.create(generator, fixture -> fixture);
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> fixtures.newTestList(CollectionSize.SUPPORTS_ONE, /* nullInMiddle= */ false));
+  }
+
+  @Test
+  void serializingCopierCopiesSerializableLists() {
+    ListFixtures<String> fixtures =
+        ListFixtures.create(generator, FixtureCopier.<List<String>>serializing());
+
+    List<String> first =
+        fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ true);
+    List<String> second =
+        fixtures.newTestList(CollectionSize.SUPPORTS_MULTIPLE, /* nullInMiddle= */ true);
+
+    assertThat(listsCreated.get()).isEqualTo(1);
+    assertThat(second).containsExactly("a", null, "c").inOrder();
+    assertThat(second).isNotSameInstanceAs(first);
+  }
+
+  @Test
+  void testListsAreDisposedEvenIfTheTestFails() {
+    ResourceTrackingListGenerator tracking =
+        new ResourceTrackingListGenerator(/* freesResources= */ true);
+    ListFixtures<String> fixtures = ListFixtures.create(tracking, null);
+    ThrowingConsumer<CollectionSize> test =
+        fixtures.disposingTestLists(
+            size -> {
+              fixtures.newTestList(size, /* nullInMiddle= */ false);
+              throw new AssertionError("Expected failure");
+            });
+
+    assertThrows(AssertionError.class, () -> test.accept(CollectionSize.SUPPORTS_ONE));
+
+    assertThat(tracking.listsCreated()).isEqualTo(1);
+    assertThat(tracking.outstandingResources()).isEqualTo(0);
+  }
+
+  @Test
+  void resourcesThatAreNotFreedAreReportedAsLeaks() {
+    ListFixtures<String> fixtures =
+        ListFixtures.create(new ResourceTrackingListGenerator(/* freesResources= */ false), null);
+    ThrowingConsumer<CollectionSize> test =
+        fixtures.disposingTestLists(size -> fixtures.newTestList(size, /* nullInMiddle= */ false));
+
+    AssertionFailedError thrown =
+        assertThrows(AssertionFailedError.class, () -> test.accept(CollectionSize.SUPPORTS_ONE));
+    assertThat(thrown).hasMessageThat().contains("1 resources");
+  }
+
+  @Test
+  void cachedListsAreNotLeaksUntilTheyAreDisposed() throws Throwable {
+    ResourceTrackingListGenerator tracking =
+        new ResourceTrackingListGenerator(/* freesResources= */ true);
+    ListFixtures<String> fixtures = ListFixtures.create(tracking, tracking::create);
+
+    fixtures
+        .<CollectionSize>disposingTestLists(
+            size -> fixtures.newTestList(size, /* nullInMiddle= */ false))
+        .accept(CollectionSize.SUPPORTS_ONE);
+    assertThat(tracking.outstandingResources()).isEqualTo(1);
+
+    fixtures.disposeCachedLists();
+    assertThat(tracking.outstandingResources()).isEqualTo(0);
+  }
+
+  @Test
+  void instrumentedListsAreDisposedUnwrapped() throws Throwable {
+    ResourceTrackingListGenerator tracking =
+        new ResourceTrackingListGenerator(/* freesResources= */ true);
+    ListFixtures<String> fixtures =
+        ListFixtures.create(tracking, null, /* instrumentLists= */ true);
+
+    fixtures
+        .<CollectionSize>disposingTestLists(
+            size ->
+                assertThat(fixtures.newTestList(size, /* nullInMiddle= */ false))
+                    .isInstanceOf(InstrumentedList.class))
+        .accept(CollectionSize.SUPPORTS_ONE);
+
+    assertThat(tracking.outstandingResources()).isEqualTo(0);
+  }
+
+  @Test
+  void failedAssertionsShowTheCallsMadeToInstrumentedLists() {
+    ListFixtures<String> fixtures =
+        ListFixtures.create(generator, null, /* instrumentLists= */ true);
+    ThrowingConsumer<CollectionSize> test =
+        fixtures.disposingTestLists(
+            size -> {
+              List<String> list = fixtures.newTestList(size, /* nullInMiddle= */ false);
+              list.addAll(ImmutableList.of("x", "y"));
+              assertEquals(4, list.size(), "Unexpected size");
+            });
+
+    AssertionFailedError thrown =
+        assertThrows(AssertionFailedError.class, () -> test.accept(CollectionSize.SUPPORTS_ONE));
+
+    assertThat(thrown)
+        .hasMessageThat()
+        .matches(
+            "(?s)Unexpected size.*\\RCalls made to the list: addAll\\(Collection\\) x1 "
+                + "\\(2 elements\\), size\\(\\) x1");
+    assertThat(thrown.getExpected().getValue()).isEqualTo(4);
+    assertThat(thrown.getActual().getValue()).isEqualTo(3);
+  }
+}
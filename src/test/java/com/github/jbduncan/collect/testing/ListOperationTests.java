@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ListOperationTests {
+  @Test
+  void indexMatchesListAddContractTestPositions() {
+    assertThat(ListOperation.ADD.index(5)).isEqualTo(5);
+    assertThat(ListOperation.ADD_AT_START.index(5)).isEqualTo(0);
+    assertThat(ListOperation.ADD_AT_MIDDLE.index(5)).isEqualTo(2);
+    assertThat(ListOperation.ADD_AT_END.index(5)).isEqualTo(5);
+  }
+
+  @Test
+  void applyToAddsAtIndex() {
+    List<String> list = new ArrayList<>(Arrays.asList("a", "b", "c", "d"));
+
+    ListOperation.ADD_AT_MIDDLE.applyTo(list, "x");
+
+    assertThat(list).containsExactly("a", "b", "x", "c", "d").inOrder();
+  }
+
+  @Test
+  void toStringForAdd() {
+    assertThat(ListOperation.ADD.toString()).isEqualTo("List.add(E)");
+  }
+
+  @Test
+  void toStringForAddAtMiddle() {
+    assertThat(ListOperation.ADD_AT_MIDDLE.toString()).isEqualTo("List.add(middleIndex(), E)");
+  }
+}
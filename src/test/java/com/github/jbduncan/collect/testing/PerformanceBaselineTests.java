@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.jbduncan.collect.testing.PerformanceBaseline.Unit;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.opentest4j.AssertionFailedError;
+
+class PerformanceBaselineTests {
+  private static final String TEST_CLASS = "com.example.ArrayListTests";
+  private static final String METRIC = "allocations > ADD bytes per operation";
+
+  @TempDir Path directory;
+
+  @Test
+  void acceptedMeasurementIsComparedAgainstByLaterRuns() {
+    Path file = directory.resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 100);
+
+    String description = comparing(file).check(TEST_CLASS, METRIC, Unit.BYTES, 105);
+
+    assertThat(description)
+        .isEqualTo(
+            "105.00 bytes, against a baseline of 100.00 bytes (+5.0%), with a tolerance of 10%");
+  }
+
+  @Test
+  void measurementWorseThanToleranceAllowsFails() {
+    Path file = directory.resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 100);
+
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () -> comparing(file).check(TEST_CLASS, METRIC, Unit.BYTES, 112));
+
+    assertThat(error)
+        .hasMessageThat()
+        .startsWith(
+            METRIC
+                + " regressed: 112.00 bytes, against a baseline of 100.00 bytes (+12.0%), with a "
+                + "tolerance of 10%");
+    assertThat(error).hasMessageThat().contains("./gradlew acceptPerformanceBaseline");
+  }
+
+  @Test
+  void toleranceIsConfigurablePerUnit() {
+    Path file = directory.resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 100);
+    Map<Unit, Double> tolerances = new EnumMap<>(Unit.class);
+    tolerances.put(Unit.BYTES, 0.25);
+
+    String description =
+        new PerformanceBaseline(file, /* accept= */ false, tolerances)
+            .check(TEST_CLASS, METRIC, Unit.BYTES, 112);
+
+    assertThat(description).endsWith("with a tolerance of 25%");
+  }
+
+  @Test
+  void zeroBaselineOnlyAllowsSlack() {
+    Path file = directory.resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 0);
+    PerformanceBaseline baseline = comparing(file);
+
+    baseline.check(TEST_CLASS, METRIC, Unit.BYTES, 1);
+
+    assertThrows(
+        AssertionFailedError.class, () -> baseline.check(TEST_CLASS, METRIC, Unit.BYTES, 16));
+  }
+
+  @Test
+  void throughputRegressesWhenItDrops() {
+    Path file = directory.resolve("baseline.json");
+    String metric = "scalability > throughput with 4 threads";
+    accept(file, TEST_CLASS, metric, Unit.OPS_PER_SECOND, 1_000_000);
+    PerformanceBaseline baseline = comparing(file);
+
+    baseline.check(TEST_CLASS, metric, Unit.OPS_PER_SECOND, 2_000_000);
+
+    assertThrows(
+        AssertionFailedError.class,
+        () -> baseline.check(TEST_CLASS, metric, Unit.OPS_PER_SECOND, 400_000));
+  }
+
+  @Test
+  void measurementWithNoBaselineIsNotCompared() {
+    String description =
+        comparing(directory.resolve("missing.json")).check(TEST_CLASS, METRIC, Unit.NANOS, 1e9);
+
+    assertThat(description).isEqualTo("1,000,000,000.00 ns, with no baseline to compare against");
+  }
+
+  @Test
+  void acceptingKeepsBaselinesOfTestsThatDidNotRun() {
+    Path file = directory.resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 100);
+    accept(file, "com.example.LinkedListTests", METRIC, Unit.BYTES, 200);
+    accept(file, TEST_CLASS, "footprint > bytes per element", Unit.BYTES, 4);
+    PerformanceBaseline baseline = comparing(file);
+
+    assertThat(baseline.check(TEST_CLASS, METRIC, Unit.BYTES, 100)).contains("100.00 bytes (");
+    assertThat(baseline.check("com.example.LinkedListTests", METRIC, Unit.BYTES, 200))
+        .contains("200.00 bytes (");
+    assertThat(baseline.check(TEST_CLASS, "footprint > bytes per element", Unit.BYTES, 4))
+        .contains("4.00 bytes (");
+  }
+
+  @Test
+  void baselineFileRecordsFormatVersionAndEnvironment() throws Exception {
+    Path file = directory.resolve("nested").resolve("baseline.json");
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 0.5);
+
+    Map<?, ?> json = (Map<?, ?>) Json.parse(new String(Files.readAllBytes(file), UTF_8));
+
+    assertThat(json.get("formatVersion")).isEqualTo((double) PerformanceBaseline.FORMAT_VERSION);
+    assertThat((Map<?, ?>) json.get("environment"))
+        .containsEntry("java.version", System.getProperty("java.version"));
+    assertThat((Map<?, ?>) json.get("measurements"))
+        .containsExactly(
+            TEST_CLASS, Collections.singletonMap(METRIC, json(Unit.BYTES.name(), 0.5)));
+  }
+
+  @Test
+  void acceptedMeasurementsAreOnlyWrittenWhenAskedTo() throws Exception {
+    Path file = directory.resolve("baseline.json");
+    PerformanceBaseline baseline = accepting(file);
+    baseline.check(TEST_CLASS, METRIC, Unit.BYTES, 1);
+    baseline.check(TEST_CLASS, METRIC, Unit.BYTES, 2);
+
+    assertThat(Files.exists(file)).isFalse();
+    baseline.writeAccepted();
+
+    assertThat(comparing(file).check(TEST_CLASS, METRIC, Unit.BYTES, 2)).contains("2.00 bytes (");
+    assertThat(new String(Files.readAllBytes(file), UTF_8)).doesNotContain("\r");
+    try (Stream<Path> files = Files.list(directory)) {
+      assertThat(files.collect(toList())).containsExactly(file);
+    }
+  }
+
+  @Test
+  void baselineWithOtherFormatVersionIsRejectedUnlessAccepting() throws Exception {
+    Path file = directory.resolve("baseline.json");
+    Files.write(file, "{\"formatVersion\": 0, \"measurements\": {}}".getBytes(UTF_8));
+
+    IllegalStateException error =
+        assertThrows(
+            IllegalStateException.class,
+            () -> comparing(file).check(TEST_CLASS, METRIC, Unit.BYTES, 1));
+    accept(file, TEST_CLASS, METRIC, Unit.BYTES, 1);
+
+    assertThat(error).hasMessageThat().contains("has format version 0.0");
+    assertThat(comparing(file).check(TEST_CLASS, METRIC, Unit.BYTES, 1)).contains("baseline of");
+  }
+
+  @Test
+  void jsonParseReadsEveryKindOfValue() {
+    Object json =
+        Json.parse(
+            " {\"a\": [1, -2.5e3, true, false, null], \"b\\u0041\\n\": {}, \"c\": \"\\\"x\\\"\"} ");
+
+    Map<String, Object> expected = new LinkedHashMap<>();
+    expected.put("a", Arrays.asList(1.0, -2500.0, true, false, null));
+    expected.put("bA\n", Collections.emptyMap());
+    expected.put("c", "\"x\"");
+    assertThat(json).isEqualTo(expected);
+  }
+
+  @Test
+  void jsonParseRejectsMalformedDocuments() {
+    for (String malformed :
+        Arrays.asList("", "{", "[1,]", "{\"a\" 1}", "{\"a\": 1, \"a\": 2}", "\"\\q\"", "1 2")) {
+      assertThrows(IllegalArgumentException.class, () -> Json.parse(malformed), () -> malformed);
+    }
+  }
+
+  private static void accept(Path file, String testClass, String metric, Unit unit, double value) {
+    PerformanceBaseline baseline = accepting(file);
+    baseline.check(testClass, metric, unit, value);
+    baseline.writeAccepted();
+  }
+
+  private static PerformanceBaseline accepting(Path file) {
+    return new PerformanceBaseline(file, /* accept= */ true, Collections.emptyMap());
+  }
+
+  private static PerformanceBaseline comparing(Path file) {
+    return new PerformanceBaseline(file, /* accept= */ false, Collections.emptyMap());
+  }
+
+  private static Map<String, Object> json(String unit, double value) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("unit", unit);
+    result.put("value", value);
+    return result;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link ContractMetricsListener} that remembers what it's told about the test classes nested in
+ * {@link ContractMetricsListenerTests}, and ignores every other test class.
+ */
+public final class RecordingContractMetricsListener implements ContractMetricsListener {
+  private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+  /** Returns and forgets the events recorded so far for {@code testClass}. */
+  static List<String> takeEvents(Class<?> testClass) {
+    String prefix = testClass.getSimpleName() + ": ";
+    List<String> result = new ArrayList<>();
+    synchronized (EVENTS) {
+      EVENTS.removeIf(
+          event -> {
+            boolean matches = event.startsWith(prefix);
+            if (matches) {
+              result.add(event.substring(prefix.length()));
+            }
+            return matches;
+          });
+    }
+    return result;
+  }
+
+  @Override
+  public void testGraphGenerationStarted(Class<?> testClass, String testFactory) {
+    record(testClass, "started " + testFactory);
+  }
+
+  @Override
+  public void testGraphGenerationFinished(
+      Class<?> testClass, String testFactory, long containers, long tests) {
+    record(
+        testClass,
+        String.format(
+            "finished %s with %s containers and %s tests", testFactory, containers, tests));
+  }
+
+  @Override
+  public void fixtureCreated(ContractTestId test, CollectionSize size, Duration duration) {
+    record(
+        test.owner(),
+        String.format("%s created %s fixture, negative %s", test, size, duration.isNegative()));
+  }
+
+  @Override
+  public void operationTimed(ContractTestId test, String measurement, double nanos) {
+    record(test.owner(), String.format("%s timed %s at %s ns", test, measurement, nanos));
+  }
+
+  @Override
+  public void bytesMeasured(ContractTestId test, String measurement, double bytes) {
+    record(test.owner(), String.format("%s measured %s at %s bytes", test, measurement, bytes));
+  }
+
+  @Override
+  public void throughputMeasured(
+      ContractTestId test, String measurement, double operationsPerSecond) {
+    record(
+        test.owner(),
+        String.format("%s measured %s at %s ops/s", test, measurement, operationsPerSecond));
+  }
+
+  @Override
+  public void budgetViolated(ContractTestId test, String budget, String message) {
+    record(test.owner(), String.format("%s violated %s: %s", test, budget, message));
+  }
+
+  private static void record(Class<?> testClass, String event) {
+    if (testClass.getEnclosingClass() == ContractMetricsListenerTests.class) {
+      EVENTS.add(testClass.getSimpleName() + ": " + event);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates {@code ArrayList}s that each pretend to hold a native resource until they're closed, like
+ * an off-heap collection would.
+ */
+final class ResourceTrackingListGenerator implements TestStringListGenerator {
+  private final AtomicLong outstanding = new AtomicLong();
+  private final AtomicLong created = new AtomicLong();
+  private final boolean freesResources;
+
+  /**
+   * Returns a generator whose lists free their resources when closed, or that leak them if {@code
+   * freesResources} is {@code false}.
+   */
+  ResourceTrackingListGenerator(boolean freesResources) {
+    this.freesResources = freesResources;
+  }
+
+  @Override
+  public TrackedList create(Iterable<String> elements) {
+    created.incrementAndGet();
+    outstanding.incrementAndGet();
+    TrackedList result = new TrackedList();
+    elements.forEach(result::add);
+    return result;
+  }
+
+  @Override
+  public long outstandingResources() {
+    return outstanding.get();
+  }
+
+  long listsCreated() {
+    return created.get();
+  }
+
+  final class TrackedList extends ArrayList<String> implements AutoCloseable {
+    private static final long serialVersionUID = 0;
+
+    private boolean closed;
+
+    @Override
+    public void close() {
+      if (closed) {
+        throw new IllegalStateException("Already closed");
+      }
+      closed = true;
+      if (freesResources) {
+        outstanding.decrementAndGet();
+      }
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class SampleElementsTests {
+  @Test
+  void stringsStartWithFirstFiveLetters() {
+    assertThat(SampleElements.strings()).containsExactly("a", "b", "c", "d", "e").inOrder();
+  }
+
+  @Test
+  void stringsScaleBeyondTheAlphabet() {
+    SampleElements<String> strings = SampleElements.strings();
+
+    assertThat(strings.element(25)).isEqualTo("z");
+    assertThat(strings.element(26)).isEqualTo("aa");
+    assertThat(strings.element(27)).isEqualTo("ab");
+    assertThat(strings.element(26 + 26 * 26)).isEqualTo("aaa");
+  }
+
+  @Test
+  void scalableElementsAreSharedFlyweights() {
+    SampleElements<Long> longs = SampleElements.longs();
+
+    assertThat(longs.element(1_000)).isSameInstanceAs(longs.element(1_000));
+  }
+
+  @Test
+  void scalableElementsAreSharedAcrossCallers() {
+    assertThat(SampleElements.longs().element(1_000))
+        .isSameInstanceAs(SampleElements.longs().element(1_000));
+    assertThat(SampleElements.counting().element(4_000))
+        .isSameInstanceAs(SampleElements.counting().element(4_000));
+    assertThat(SampleElements.colliding(3).element(7))
+        .isSameInstanceAs(SampleElements.colliding(3).element(7));
+  }
+
+  @Test
+  void scalableElementsAtLargeIndicesAreEqualButNotKept() {
+    SampleElements<CountingElement> counting = SampleElements.counting();
+
+    assertThat(counting.element(20_000)).isEqualTo(counting.element(20_000));
+    assertThat(counting.element(20_000)).isNotSameInstanceAs(counting.element(20_000));
+  }
+
+  @Test
+  void scalableElementsAreCreatedOnceWhenRacedFor() throws Exception {
+    SampleElements<CountingElement> samples = SampleElements.indexed(CountingElement::of);
+    int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CyclicBarrier barrier = new CyclicBarrier(threads);
+      Callable<List<CountingElement>> task =
+          () -> {
+            barrier.await();
+            List<CountingElement> elements = new ArrayList<>();
+            for (int index = 0; index < 4_000; index += 7) {
+              elements.add(samples.element(index));
+            }
+            return elements;
+          };
+      List<Future<List<CountingElement>>> results = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(task));
+      }
+
+      List<CountingElement> first = results.get(0).get();
+      for (Future<List<CountingElement>> result : results) {
+        List<CountingElement> elements = result.get();
+        for (int i = 0; i < first.size(); i++) {
+          assertThat(elements.get(i)).isSameInstanceAs(first.get(i));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void fixtureElementsOfScalableSamplesAreDistinctAndSkipE3AndE4() {
+    SampleElements<Integer> integers = SampleElements.integers();
+    List<Integer> fixture =
+        Helpers.newIterable(integers, CollectionSize.SUPPORTS_LARGE, /* nullInMiddle= */ false);
+
+    Set<Integer> distinct = new HashSet<>(fixture);
+    assertThat(distinct).hasSize(fixture.size());
+    assertThat(distinct).containsNoneOf(integers.e3(), integers.e4());
+  }
+
+  @Test
+  void fixtureElementsOfFixedSamplesCycleThroughFirstThree() {
+    SampleElements<String> samples = SampleElements.of("v", "w", "x", "y", "z");
+
+    assertThat(new HashSet<>(Helpers.newIterable(samples, CollectionSize.SUPPORTS_LARGE, false)))
+        .containsExactly("v", "w", "x");
+    assertThat(samples.isScalable()).isFalse();
+  }
+
+  @Test
+  void elementOutOfRangeForFixedSamples() {
+    SampleElements<String> samples = SampleElements.of("v", "w", "x", "y", "z");
+
+    IndexOutOfBoundsException exception =
+        assertThrows(IndexOutOfBoundsException.class, () -> samples.element(5));
+    assertThat(exception).hasMessageThat().isEqualTo("'index' is 5, but must be between 0 and 4");
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.DynamicContainer;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+class SpliteratorTesterTests {
+  @Test
+  void flagsSpliteratorThatSplitsOffOneElementAtATime() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () -> splitBalanceTest(OneAtATimeCollection::new).getExecutable().execute());
+
+    assertThat(error).hasMessageThat().contains("took more than 15 levels");
+  }
+
+  @Test
+  void flagsSpliteratorThatNeverSplits() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () -> splitBalanceTest(UnsplittableCollection::new).getExecutable().execute());
+
+    assertThat(error).hasMessageThat().contains("the largest part had 1,000 elements (100.0%)");
+  }
+
+  @Test
+  void flagsSpliteratorWhoseSplitsDropElements() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () ->
+                splitCoverageTest(elements -> new RangeCollection(elements, /* overlap= */ -1))
+                    .getExecutable()
+                    .execute());
+
+    assertThat(error).hasMessageThat().contains("Traversed elements in a different order");
+  }
+
+  @Test
+  void flagsSpliteratorWhoseSplitsDuplicateElements() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () ->
+                splitCoverageTest(elements -> new RangeCollection(elements, /* overlap= */ 1))
+                    .getExecutable()
+                    .execute());
+
+    assertThat(error).hasMessageThat().contains("Traversed elements in a different order");
+  }
+
+  @Test
+  void flagsSubsizedSpliteratorWhoseSplitSizesDontAddUp() {
+    AssertionFailedError error =
+        assertThrows(
+            AssertionFailedError.class,
+            () ->
+                splitCoverageTest(
+                        elements ->
+                            new RangeCollection(
+                                elements,
+                                /* overlap= */ -1,
+                                Spliterator.SIZED | Spliterator.SUBSIZED))
+                    .getExecutable()
+                    .execute());
+
+    assertThat(error)
+        .hasMessageThat()
+        .contains("Sum of the sizes of the parts of a SUBSIZED spliterator");
+  }
+
+  @Test
+  void passesSpliteratorWhoseSplitsCoverEveryElement() {
+    assertDoesNotThrow(
+        splitCoverageTest(elements -> new RangeCollection(elements, /* overlap= */ 0))
+            .getExecutable());
+  }
+
+  private static DynamicTest splitBalanceTest(StringCollectionGenerator generator) {
+    return findTest(generator, CollectionSize.SUPPORTS_LARGE, "balanced");
+  }
+
+  private static DynamicTest splitCoverageTest(StringCollectionGenerator generator) {
+    return findTest(generator, CollectionSize.SUPPORTS_MULTIPLE, "trySplit covers every element");
+  }
+
+  private static DynamicTest findTest(
+      StringCollectionGenerator generator, CollectionSize collectionSize, String name) {
+    return SpliteratorTester.<String>builder()
+        .testCollectionGenerator(generator)
+        .features(Feature.allFeaturesRecursively(collectionSize))
+        .build()
+        .dynamicTestsGraph()
+        .map(DynamicContainer.class::cast)
+        .flatMap(DynamicContainer::getChildren)
+        .filter(test -> test.getDisplayName().contains(name))
+        .map(DynamicTest.class::cast)
+        .findFirst()
+        .get();
+  }
+
+  @FunctionalInterface
+  private interface StringCollectionGenerator extends TestCollectionGenerator<String> {
+    @Override
+    default SampleElements<String> samples() {
+      return SampleElements.strings();
+    }
+
+    @Override
+    default Iterable<String> order(List<String> insertionOrder) {
+      return insertionOrder;
+    }
+  }
+
+  private abstract static class ListBackedCollection extends AbstractCollection<String> {
+    final List<String> elements = new ArrayList<>();
+
+    ListBackedCollection(Iterable<String> elements) {
+      elements.forEach(this.elements::add);
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return elements.iterator();
+    }
+
+    @Override
+    public int size() {
+      return elements.size();
+    }
+  }
+
+  private static final class UnsplittableCollection extends ListBackedCollection {
+    UnsplittableCollection(Iterable<String> elements) {
+      super(elements);
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+      Spliterator<String> delegate = elements.spliterator();
+      return new Spliterators.AbstractSpliterator<String>(
+          delegate.estimateSize(), delegate.characteristics()) {
+        @Override
+        public boolean tryAdvance(Consumer<? super String> action) {
+          return delegate.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+          return null;
+        }
+      };
+    }
+  }
+
+  private static final class RangeCollection extends ListBackedCollection {
+    private final int overlap;
+    private final int sizeCharacteristics;
+
+    RangeCollection(Iterable<String> elements, int overlap) {
+      this(elements, overlap, 0);
+    }
+
+    RangeCollection(Iterable<String> elements, int overlap, int sizeCharacteristics) {
+      super(elements);
+      this.overlap = overlap;
+      this.sizeCharacteristics = sizeCharacteristics;
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+      return new RangeSpliterator(elements, 0, elements.size(), overlap, sizeCharacteristics);
+    }
+  }
+
+  /**
+   * Splits in half, but the second half starts {@code overlap} elements before where the first
+   * ends, so a negative overlap drops elements and a positive one duplicates them.
+   */
+  private static final class RangeSpliterator implements Spliterator<String> {
+    // With fewer elements, the second half couldn't start after the first one does.
+    private static final int MIN_SIZE_TO_SPLIT = 3;
+
+    private final List<String> elements;
+    private int index;
+    private final int end;
+    private final int overlap;
+    private final int sizeCharacteristics;
+
+    RangeSpliterator(
+        List<String> elements, int index, int end, int overlap, int sizeCharacteristics) {
+      this.elements = elements;
+      this.index = index;
+      this.end = end;
+      this.overlap = overlap;
+      this.sizeCharacteristics = sizeCharacteristics;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+      if (index >= end) {
+        return false;
+      }
+      action.accept(elements.get(index++));
+      return true;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+      if (end - index < MIN_SIZE_TO_SPLIT) {
+        return null;
+      }
+      int middle = index + (end - index + 1) / 2;
+      Spliterator<String> prefix =
+          new RangeSpliterator(elements, index, middle, overlap, sizeCharacteristics);
+      index = middle - overlap;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | sizeCharacteristics;
+    }
+  }
+
+  private static final class OneAtATimeCollection extends ListBackedCollection {
+    OneAtATimeCollection(Iterable<String> elements) {
+      super(elements);
+    }
+
+    @Override
+    public Spliterator<String> spliterator() {
+      return new OneAtATimeSpliterator(elements, 0, elements.size());
+    }
+  }
+
+  private static final class OneAtATimeSpliterator implements Spliterator<String> {
+    private static final long MIN_SIZE_TO_SPLIT = 1;
+
+    private final List<String> elements;
+    private int index;
+    private final int end;
+
+    OneAtATimeSpliterator(List<String> elements, int index, int end) {
+      this.elements = elements;
+      this.index = index;
+      this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+      if (index >= end) {
+        return false;
+      }
+      action.accept(elements.get(index++));
+      return true;
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+      // Splitting off the only element would leave nothing behind.
+      if (estimateSize() <= MIN_SIZE_TO_SPLIT) {
+        return null;
+      }
+      return new OneAtATimeSpliterator(elements, index, ++index);
+    }
+
+    @Override
+    public long estimateSize() {
+      return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED;
+    }
+  }
+}
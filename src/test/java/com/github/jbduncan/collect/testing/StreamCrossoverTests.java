@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSortedMap;
+import java.util.SortedMap;
+import org.junit.jupiter.api.Test;
+
+class StreamCrossoverTests {
+  private static final SortedMap<Integer, Double> SEQUENTIAL =
+      ImmutableSortedMap.of(100, 10.0, 1_000, 100.0, 10_000, 1_000.0, 100_000, 10_000.0);
+
+  @Test
+  void findsNoCrossoverWhenParallelStreamIsNeverFaster() {
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 50.0, 1_000, 200.0, 10_000, 1_000.0, 100_000, 20_000.0);
+
+    assertThat(StreamCrossover.find(SEQUENTIAL, parallel).isPresent()).isFalse();
+  }
+
+  @Test
+  void findsNoCrossoverWhenParallelStreamIsSlowerAgainAtLargestSize() {
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 50.0, 1_000, 50.0, 10_000, 500.0, 100_000, 20_000.0);
+
+    assertThat(StreamCrossover.find(SEQUENTIAL, parallel).isPresent()).isFalse();
+  }
+
+  @Test
+  void estimatesCrossoverAtSizeWhereTimesAreEqual() {
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 50.0, 1_000, 100.0, 10_000, 500.0, 100_000, 2_000.0);
+
+    StreamCrossover crossover = StreamCrossover.find(SEQUENTIAL, parallel).get();
+
+    assertThat(crossover.measuredSize()).isEqualTo(10_000);
+    assertThat(crossover.isFasterAtEverySize()).isFalse();
+    assertThat(crossover.estimatedSize()).isEqualTo(1_000);
+  }
+
+  @Test
+  void interpolatesCrossoverBetweenMeasuredSizes() {
+    // Twice as slow at 100 elements and twice as fast at 10,000, so equally fast at about 1,000.
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 20.0, 10_000, 500.0, 100_000, 2_000.0);
+
+    StreamCrossover crossover = StreamCrossover.find(SEQUENTIAL, parallel).get();
+
+    assertThat(crossover.measuredSize()).isEqualTo(10_000);
+    assertThat(crossover.estimatedSize()).isEqualTo(1_000);
+  }
+
+  @Test
+  void findsCrossoverAtSmallestSizeWhenParallelStreamIsAlwaysFaster() {
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 5.0, 1_000, 50.0, 10_000, 500.0, 100_000, 5_000.0);
+
+    StreamCrossover crossover = StreamCrossover.find(SEQUENTIAL, parallel).get();
+
+    assertThat(crossover.isFasterAtEverySize()).isTrue();
+    assertThat(crossover.measuredSize()).isEqualTo(100);
+    assertThat(crossover.estimatedSize()).isEqualTo(100);
+  }
+
+  @Test
+  void ignoresSizesThatOnlyParallelStreamWasMeasuredAt() {
+    SortedMap<Integer, Double> parallel =
+        ImmutableSortedMap.of(100, 20.0, 300, 1.0, 10_000, 500.0, 100_000, 2_000.0);
+
+    assertThat(StreamCrossover.find(SEQUENTIAL, parallel).get().measuredSize()).isEqualTo(10_000);
+  }
+}
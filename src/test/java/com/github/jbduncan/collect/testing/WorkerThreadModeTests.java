@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2019 the Jupiter Collection Testers authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jbduncan.collect.testing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+// Checking which threads the workers run on is the point of these tests.
+@SuppressWarnings("PMD.DoNotUseThreads")
+class WorkerThreadModeTests {
+  @ParameterizedTest
+  @EnumSource(WorkerThreadMode.class)
+  void executorRunsTasks(WorkerThreadMode mode) throws Exception {
+    ExecutorService executor = mode.newExecutor(2);
+    try {
+      Future<String> result = executor.submit(() -> "done");
+
+      assertThat(result.get()).isEqualTo("done");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void virtualThreadsAreAvailableExactlyWhenTheJdkCanMakeThem() {
+    assertThat(WorkerThreadMode.VIRTUAL.isAvailable()).isEqualTo(canMakeVirtualThreads());
+    assertThat(WorkerThreadMode.PLATFORM.isAvailable()).isTrue();
+  }
+
+  @Test
+  void virtualExecutorRunsTasksOnVirtualThreadsWhenAvailable() throws Exception {
+    ExecutorService executor = WorkerThreadMode.VIRTUAL.newExecutor(2);
+    try {
+      Future<Boolean> onVirtualThread = executor.submit(() -> isVirtual(Thread.currentThread()));
+
+      assertThat(onVirtualThread.get()).isEqualTo(WorkerThreadMode.VIRTUAL.isAvailable());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void toStringSaysWhenVirtualThreadsFallBack() {
+    assertThat(WorkerThreadMode.VIRTUAL.toString())
+        .isEqualTo(
+            WorkerThreadMode.VIRTUAL.isAvailable()
+                ? "virtual threads"
+                : "platform threads (virtual threads are unavailable)");
+  }
+
+  // Like the virtual thread API itself, on Java 19 and 20 with preview features enabled, or on Java
+  // 21 and later, but not otherwise. Probes a different entry point than WorkerThreadMode does.
+  private static boolean canMakeVirtualThreads() {
+    try {
+      Thread.class.getMethod("ofVirtual").invoke(null);
+      return true;
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+      return false;
+    }
+  }
+
+  private static boolean isVirtual(Thread thread)
+      throws IllegalAccessException, InvocationTargetException {
+    try {
+      return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}